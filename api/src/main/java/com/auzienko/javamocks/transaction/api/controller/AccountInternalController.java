@@ -0,0 +1,61 @@
+package com.auzienko.javamocks.transaction.api.controller;
+
+import com.auzienko.javamocks.transaction.api.mapper.AccountSummaryApiMapper;
+import com.auzienko.javamocks.transaction.domain.service.AccountSummaryService;
+import com.auzienko.javamocks.transaction.publicapi.dto.AccountSummaryResponse;
+import io.swagger.v3.oas.annotations.Hidden;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/internal/api/v1/accounts")
+@Tag(name = "Internal Account API", description = "Account level views for internal system processes")
+@SecurityRequirement(name = "internalAuth")
+@RequiredArgsConstructor
+@Hidden
+@Slf4j
+public class AccountInternalController {
+
+    private final AccountSummaryService accountSummaryService;
+    private final AccountSummaryApiMapper apiMapper;
+
+    @Operation(summary = "Get the transaction totals of an account",
+            description = "Returns, per currency, the number and summed amount of the account's outgoing and incoming "
+                    + "transactions by current status. Maintained incrementally, so it is cheap regardless of history size.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Totals of the account, empty if it has no transactions",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = AccountSummaryResponse.class)))),
+            @ApiResponse(responseCode = "403", description = "Access denied - insufficient permissions",
+                    content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content)
+    })
+    @GetMapping("/{accountId}/summary")
+    @PreAuthorize("hasRole('INTERNAL_SERVICE')")
+    public ResponseEntity<List<AccountSummaryResponse>> getAccountSummary(
+            @Parameter(description = "The UUID of the account", required = true)
+            @PathVariable UUID accountId) {
+
+        log.debug("Reading summary of account {}", accountId);
+        return ResponseEntity.ok(apiMapper.toResponses(accountSummaryService.getAccountSummaries(accountId)));
+    }
+}
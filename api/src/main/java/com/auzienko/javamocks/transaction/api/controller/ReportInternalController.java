@@ -0,0 +1,82 @@
+package com.auzienko.javamocks.transaction.api.controller;
+
+import com.auzienko.javamocks.transaction.api.mapper.TransactionRollupApiMapper;
+import com.auzienko.javamocks.transaction.domain.model.RollupGranularity;
+import com.auzienko.javamocks.transaction.domain.service.TransactionReportService;
+import com.auzienko.javamocks.transaction.publicapi.dto.TransactionRollupResponse;
+import io.swagger.v3.oas.annotations.Hidden;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/internal/api/v1/reports")
+@Tag(name = "Internal Reporting API", description = "Aggregated transaction figures for dashboards")
+@SecurityRequirement(name = "internalAuth")
+@RequiredArgsConstructor
+@Hidden
+@Slf4j
+public class ReportInternalController {
+
+    /**
+     * Caps the size of one response; a day of minutes or a year of hours stays well below it.
+     */
+    static final int MAX_BUCKETS = 10_000;
+
+    private final TransactionReportService reportService;
+    private final TransactionRollupApiMapper apiMapper;
+
+    @Operation(summary = "Get transaction counts and sums per time bucket",
+            description = "Returns, for each minute or hour bucket in [from, to), how many transactions entered each "
+                    + "status per currency and their summed amount. Served from pre-aggregated rollups.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rollups of the range; empty buckets are omitted",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = TransactionRollupResponse.class)))),
+            @ApiResponse(responseCode = "400", description = "Invalid range, or more than 10000 buckets",
+                    content = @Content),
+            @ApiResponse(responseCode = "403", description = "Access denied - insufficient permissions",
+                    content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content)
+    })
+    @GetMapping("/transactions")
+    @PreAuthorize("hasRole('INTERNAL_SERVICE')")
+    public ResponseEntity<List<TransactionRollupResponse>> getTransactionRollups(
+            @Parameter(description = "Bucket width, MINUTE or HOUR")
+            @RequestParam(defaultValue = "HOUR") RollupGranularity granularity,
+            @Parameter(description = "Inclusive start (ISO-8601); defaults to 24 buckets before 'to'")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @Parameter(description = "Exclusive end (ISO-8601); defaults to the end of the current bucket")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+
+        Duration width = granularity.bucketWidth();
+        Instant end = to != null ? to : granularity.bucketStart(Instant.now()).plus(width);
+        Instant start = from != null ? from : end.minus(width.multipliedBy(24));
+        if (!start.isBefore(end) || Duration.between(start, end).dividedBy(width) > MAX_BUCKETS) {
+            log.debug("Rejected rollup range [{}, {}) at {} granularity", start, end, granularity);
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(apiMapper.toResponses(reportService.getRollups(granularity, start, end)));
+    }
+}
@@ -2,7 +2,9 @@ package com.auzienko.javamocks.transaction.api.controller;
 
 import com.auzienko.javamocks.transaction.api.mapper.TransactionApiMapper;
 import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.domain.model.TransactionTransition;
 import com.auzienko.javamocks.transaction.domain.service.TransactionService;
+import com.auzienko.javamocks.transaction.publicapi.dto.ChangeTransactionStatusRequest;
 import com.auzienko.javamocks.transaction.publicapi.dto.FailTransactionRequest;
 import com.auzienko.javamocks.transaction.publicapi.dto.TransactionResponse;
 import io.swagger.v3.oas.annotations.Hidden;
@@ -42,14 +44,14 @@ public class TransactionInternalController {
     private final TransactionApiMapper apiMapper;
 
     @Operation(summary = "Mark a transaction as COMPLETED",
-            description = "Transitions a PENDING transaction to the COMPLETED state. Used by payment processing services.")
+            description = "Transitions a PENDING or AUTHORIZED transaction to the COMPLETED state. Used by payment processing services.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Transaction completed successfully",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = TransactionResponse.class))),
             @ApiResponse(responseCode = "404", description = "Transaction not found",
                     content = @Content),
-            @ApiResponse(responseCode = "409", description = "Conflict - Transaction is not in a PENDING state",
+            @ApiResponse(responseCode = "409", description = "Conflict - Transaction is not PENDING or AUTHORIZED",
                     content = @Content),
             @ApiResponse(responseCode = "403", description = "Access denied - insufficient permissions",
                     content = @Content),
@@ -74,14 +76,14 @@ public class TransactionInternalController {
     }
 
     @Operation(summary = "Mark a transaction as FAILED",
-            description = "Transitions a PENDING transaction to the FAILED state. Used when payment processing fails.")
+            description = "Transitions a PENDING or AUTHORIZED transaction to the FAILED state. Used when payment processing fails.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Transaction failed successfully",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = TransactionResponse.class))),
             @ApiResponse(responseCode = "404", description = "Transaction not found",
                     content = @Content),
-            @ApiResponse(responseCode = "409", description = "Conflict - Transaction is not in a PENDING state",
+            @ApiResponse(responseCode = "409", description = "Conflict - Transaction is not PENDING or AUTHORIZED",
                     content = @Content),
             @ApiResponse(responseCode = "403", description = "Access denied - insufficient permissions",
                     content = @Content),
@@ -107,6 +109,112 @@ public class TransactionInternalController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "Mark a transaction as AUTHORIZED",
+            description = "Transitions a PENDING transaction to the AUTHORIZED state once the funds are reserved.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Transaction authorized successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = TransactionResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Transaction not found",
+                    content = @Content),
+            @ApiResponse(responseCode = "409", description = "Conflict - Transaction is not PENDING",
+                    content = @Content),
+            @ApiResponse(responseCode = "403", description = "Access denied - insufficient permissions",
+                    content = @Content)
+    })
+    @PostMapping("/{id}/authorize")
+    @PreAuthorize("hasRole('INTERNAL_SERVICE')")
+    public ResponseEntity<TransactionResponse> authorizeTransaction(
+            @Parameter(description = "The UUID of the transaction to authorize", required = true)
+            @PathVariable UUID id,
+            @Parameter(description = "Optional reason, recorded in the status history")
+            @Valid @RequestBody(required = false) ChangeTransactionStatusRequest request,
+            Principal principal) {
+        return transition(id, TransactionTransition.AUTHORIZE, request, principal);
+    }
+
+    @Operation(summary = "Mark a transaction as CANCELLED",
+            description = "Transitions a PENDING or AUTHORIZED transaction to the CANCELLED state before it is completed.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Transaction cancelled successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = TransactionResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Transaction not found",
+                    content = @Content),
+            @ApiResponse(responseCode = "409", description = "Conflict - Transaction is not PENDING or AUTHORIZED",
+                    content = @Content),
+            @ApiResponse(responseCode = "403", description = "Access denied - insufficient permissions",
+                    content = @Content)
+    })
+    @PostMapping("/{id}/cancel")
+    @PreAuthorize("hasRole('INTERNAL_SERVICE')")
+    public ResponseEntity<TransactionResponse> cancelTransaction(
+            @Parameter(description = "The UUID of the transaction to cancel", required = true)
+            @PathVariable UUID id,
+            @Parameter(description = "Optional reason, recorded in the status history")
+            @Valid @RequestBody(required = false) ChangeTransactionStatusRequest request,
+            Principal principal) {
+        return transition(id, TransactionTransition.CANCEL, request, principal);
+    }
+
+    @Operation(summary = "Mark a transaction as REVERSED",
+            description = "Transitions a COMPLETED transaction to the REVERSED state, e.g. after a refund or chargeback.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Transaction reversed successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = TransactionResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Transaction not found",
+                    content = @Content),
+            @ApiResponse(responseCode = "409", description = "Conflict - Transaction is not COMPLETED",
+                    content = @Content),
+            @ApiResponse(responseCode = "403", description = "Access denied - insufficient permissions",
+                    content = @Content)
+    })
+    @PostMapping("/{id}/reverse")
+    @PreAuthorize("hasRole('INTERNAL_SERVICE')")
+    public ResponseEntity<TransactionResponse> reverseTransaction(
+            @Parameter(description = "The UUID of the transaction to reverse", required = true)
+            @PathVariable UUID id,
+            @Parameter(description = "Optional reason, recorded in the status history")
+            @Valid @RequestBody(required = false) ChangeTransactionStatusRequest request,
+            Principal principal) {
+        return transition(id, TransactionTransition.REVERSE, request, principal);
+    }
+
+    @Operation(summary = "Mark a transaction as EXPIRED",
+            description = "Transitions a PENDING or AUTHORIZED transaction that was not completed in time to the EXPIRED state.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Transaction expired successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = TransactionResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Transaction not found",
+                    content = @Content),
+            @ApiResponse(responseCode = "409", description = "Conflict - Transaction is not PENDING or AUTHORIZED",
+                    content = @Content),
+            @ApiResponse(responseCode = "403", description = "Access denied - insufficient permissions",
+                    content = @Content)
+    })
+    @PostMapping("/{id}/expire")
+    @PreAuthorize("hasRole('INTERNAL_SERVICE')")
+    public ResponseEntity<TransactionResponse> expireTransaction(
+            @Parameter(description = "The UUID of the transaction to expire", required = true)
+            @PathVariable UUID id,
+            @Parameter(description = "Optional reason, recorded in the status history")
+            @Valid @RequestBody(required = false) ChangeTransactionStatusRequest request,
+            Principal principal) {
+        return transition(id, TransactionTransition.EXPIRE, request, principal);
+    }
+
+    private ResponseEntity<TransactionResponse> transition(UUID id, TransactionTransition transition,
+                                                           ChangeTransactionStatusRequest request, Principal principal) {
+        String serviceName = getCurrentServiceName(principal);
+        String reason = request != null ? request.getReason() : null;
+        log.info("Service '{}' marking transaction {} as {}", serviceName, id, transition.getTarget());
+
+        Transaction transaction = transactionService.transitionTransaction(id, transition, reason);
+        return ResponseEntity.ok(apiMapper.toResponse(transaction));
+    }
+
     String getCurrentServiceName(Principal principal) {
         if (principal != null) {
             return principal.getName();
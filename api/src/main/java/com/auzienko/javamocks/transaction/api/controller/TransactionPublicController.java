@@ -1,5 +1,7 @@
 package com.auzienko.javamocks.transaction.api.controller;
 
+import com.auzienko.javamocks.transaction.api.export.TransactionExportFormat;
+import com.auzienko.javamocks.transaction.api.export.TransactionExporter;
 import com.auzienko.javamocks.transaction.api.mapper.TransactionApiMapper;
 import com.auzienko.javamocks.transaction.domain.model.Transaction;
 import com.auzienko.javamocks.transaction.domain.service.TransactionService;
@@ -13,8 +15,12 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -24,9 +30,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
 import java.net.URI;
 import java.security.Principal;
 import java.util.UUID;
@@ -36,10 +44,46 @@ import java.util.UUID;
 @Tag(name = "Public Transaction API", description = "Endpoints for end-users to manage their transactions")
 @SecurityRequirement(name = "bearerAuth")
 @RequiredArgsConstructor
+@Slf4j
 public class TransactionPublicController {
 
     private final TransactionService transactionService;
     private final TransactionApiMapper apiMapper;
+    private final TransactionExporter exporter;
+
+    @Operation(summary = "Export all transactions of the current user",
+            description = "Streams every transaction owned by the current user, oldest first, as NDJSON (one JSON object "
+                    + "per line) or CSV. Rows are written as they are read, so exports of any size are supported.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The export, streamed",
+                    content = {@Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv")}),
+            @ApiResponse(responseCode = "403", description = "Access denied - insufficient permissions",
+                    content = @Content),
+            @ApiResponse(responseCode = "503", description = "Too many exports running, try again later",
+                    content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content)
+    })
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('USER')")
+    public void exportTransactions(
+            @Parameter(description = "Output format: ndjson or csv")
+            @RequestParam(defaultValue = "ndjson") TransactionExportFormat format,
+            Principal principal,
+            HttpServletResponse response) throws IOException {
+
+        String username = getCurrentUsername(principal);
+
+        response.setContentType(format.mediaType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("transactions." + format.fileExtension())
+                .build()
+                .toString());
+
+        long written = exporter.export(username, format, response.getOutputStream());
+        log.info("Exported {} transactions of ownerId {} as {}", written, username, format);
+    }
 
     @Operation(summary = "Get a transaction by its ID",
             description = "Retrieves the details of a specific transaction owned by the current user.")
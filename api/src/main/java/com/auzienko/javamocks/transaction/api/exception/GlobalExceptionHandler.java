@@ -2,14 +2,19 @@ package com.auzienko.javamocks.transaction.api.exception;
 
 import com.auzienko.javamocks.transaction.domain.exception.ConcurrencyException;
 import com.auzienko.javamocks.transaction.domain.exception.InvalidTransactionStateException;
+import com.auzienko.javamocks.transaction.domain.exception.SimulatedFailureException;
 import com.auzienko.javamocks.transaction.domain.exception.TransactionNotFoundException;
 import com.auzienko.javamocks.transaction.publicapi.exception.ApiErrorResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.TransientDataAccessResourceException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.time.Instant;
 import java.util.HashMap;
@@ -39,8 +44,8 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
     }
 
-    @ExceptionHandler(ConcurrencyException.class)
-    public ResponseEntity<ApiErrorResponse> handleOptimisticLocking(ConcurrencyException ex) {
+    @ExceptionHandler({ConcurrencyException.class, OptimisticLockingFailureException.class})
+    public ResponseEntity<ApiErrorResponse> handleOptimisticLocking(RuntimeException ex) {
         ApiErrorResponse errorResponse = new ApiErrorResponse(
                 HttpStatus.CONFLICT.value(),
                 "The resource was updated by another process. Please try again.",
@@ -49,6 +54,29 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler({SimulatedFailureException.class, TransientDataAccessResourceException.class})
+    public ResponseEntity<ApiErrorResponse> handleServiceUnavailable(RuntimeException ex) {
+        ApiErrorResponse errorResponse = new ApiErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                ex.getMessage(),
+                Instant.now()
+        );
+        // The export endpoint has set its own content type by the time its database work fails.
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ApiErrorResponse> handleArgumentTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        ApiErrorResponse errorResponse = new ApiErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                "Invalid value '" + ex.getValue() + "' for parameter '" + ex.getName() + "'",
+                Instant.now()
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidationErrors(MethodArgumentNotValidException ex) {
         log.error("Validation error occurred", ex);
@@ -78,6 +106,8 @@ public class GlobalExceptionHandler {
         errorResponse.put("error", "Internal Server Error");
         errorResponse.put("message", ex.getMessage());
 
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(errorResponse);
     }
 }
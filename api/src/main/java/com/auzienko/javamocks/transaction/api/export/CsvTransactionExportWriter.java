@@ -0,0 +1,65 @@
+package com.auzienko.javamocks.transaction.api.export;
+
+import com.auzienko.javamocks.transaction.publicapi.dto.TransactionExportRecord;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+class CsvTransactionExportWriter implements TransactionExportWriter {
+
+    private static final String HEADER =
+            "id,ownerId,sourceAccountId,destinationAccountId,amount,currency,status,createdAt";
+    private static final String LINE_END = "\r\n";
+
+    private final Writer out;
+    private boolean headerWritten;
+
+    CsvTransactionExportWriter(OutputStream out) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void write(TransactionExportRecord record) throws IOException {
+        writeHeaderOnce();
+        out.write(String.valueOf(record.getId()));
+        field(record.getOwnerId());
+        field(record.getSourceAccountId());
+        field(record.getDestinationAccountId());
+        field(record.getAmount() == null ? null : record.getAmount().toPlainString());
+        field(record.getCurrency());
+        field(record.getStatus());
+        field(record.getCreatedAt());
+        out.write(LINE_END);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writeHeaderOnce();
+        out.flush();
+    }
+
+    private void writeHeaderOnce() throws IOException {
+        if (!headerWritten) {
+            out.write(HEADER);
+            out.write(LINE_END);
+            headerWritten = true;
+        }
+    }
+
+    private void field(Object value) throws IOException {
+        out.write(',');
+        out.write(escape(Objects.toString(value, "")));
+    }
+
+    static String escape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
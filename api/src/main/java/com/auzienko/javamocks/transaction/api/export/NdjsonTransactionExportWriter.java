@@ -0,0 +1,30 @@
+package com.auzienko.javamocks.transaction.api.export;
+
+import com.auzienko.javamocks.transaction.publicapi.dto.TransactionExportRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+class NdjsonTransactionExportWriter implements TransactionExportWriter {
+
+    private final OutputStream out;
+    private final ObjectWriter writer;
+
+    NdjsonTransactionExportWriter(OutputStream out, ObjectMapper objectMapper) {
+        this.out = out;
+        this.writer = objectMapper.writerFor(TransactionExportRecord.class);
+    }
+
+    @Override
+    public void write(TransactionExportRecord record) throws IOException {
+        out.write(writer.writeValueAsBytes(record));
+        out.write('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        out.flush();
+    }
+}
@@ -0,0 +1,49 @@
+package com.auzienko.javamocks.transaction.api.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.OutputStream;
+
+/**
+ * The formats a transaction export can be written in.
+ */
+public enum TransactionExportFormat {
+
+    /**
+     * One JSON object per line.
+     */
+    NDJSON("application/x-ndjson", "ndjson") {
+        @Override
+        TransactionExportWriter open(OutputStream out, ObjectMapper objectMapper) {
+            return new NdjsonTransactionExportWriter(out, objectMapper);
+        }
+    },
+
+    /**
+     * RFC 4180 CSV with a header row.
+     */
+    CSV("text/csv", "csv") {
+        @Override
+        TransactionExportWriter open(OutputStream out, ObjectMapper objectMapper) {
+            return new CsvTransactionExportWriter(out);
+        }
+    };
+
+    private final String mediaType;
+    private final String fileExtension;
+
+    TransactionExportFormat(String mediaType, String fileExtension) {
+        this.mediaType = mediaType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    public String fileExtension() {
+        return fileExtension;
+    }
+
+    abstract TransactionExportWriter open(OutputStream out, ObjectMapper objectMapper);
+}
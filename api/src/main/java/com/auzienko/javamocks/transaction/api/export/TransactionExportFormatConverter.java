@@ -0,0 +1,18 @@
+package com.auzienko.javamocks.transaction.api.export;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Lets the {@code format} request parameter be given in any case ({@code csv}, {@code CSV}).
+ */
+@Component
+public class TransactionExportFormatConverter implements Converter<String, TransactionExportFormat> {
+
+    @Override
+    public TransactionExportFormat convert(String source) {
+        return TransactionExportFormat.valueOf(source.trim().toUpperCase(Locale.ROOT));
+    }
+}
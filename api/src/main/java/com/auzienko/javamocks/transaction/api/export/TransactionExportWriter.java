@@ -0,0 +1,18 @@
+package com.auzienko.javamocks.transaction.api.export;
+
+import com.auzienko.javamocks.transaction.publicapi.dto.TransactionExportRecord;
+
+import java.io.IOException;
+
+/**
+ * Writes export records to a stream one at a time, holding at most a small buffer.
+ */
+interface TransactionExportWriter {
+
+    void write(TransactionExportRecord record) throws IOException;
+
+    /**
+     * Flushes what is buffered; the underlying stream stays open.
+     */
+    void finish() throws IOException;
+}
@@ -0,0 +1,50 @@
+package com.auzienko.javamocks.transaction.api.export;
+
+import com.auzienko.javamocks.transaction.api.mapper.TransactionApiMapper;
+import com.auzienko.javamocks.transaction.domain.service.TransactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes an owner's transactions to a stream as they are read from the store, so memory use
+ * stays flat however many there are.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransactionExporter {
+
+    private final TransactionService transactionService;
+    private final TransactionApiMapper apiMapper;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @return The number of transactions written.
+     */
+    public long export(String ownerId, TransactionExportFormat format, OutputStream out) throws IOException {
+        TransactionExportWriter writer = format.open(out, objectMapper);
+        long[] written = {0};
+        try {
+            transactionService.exportTransactions(ownerId, transaction -> {
+                try {
+                    writer.write(apiMapper.toExportRecord(transaction));
+                    written[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; there is nobody left to report to.
+            log.warn("Export of transactions for ownerId {} aborted after {} rows: {}", ownerId, written[0], e.getMessage());
+            throw e.getCause();
+        }
+        writer.finish();
+        return written[0];
+    }
+}
@@ -0,0 +1,17 @@
+package com.auzienko.javamocks.transaction.api.mapper;
+
+import com.auzienko.javamocks.transaction.domain.model.AccountSummary;
+import com.auzienko.javamocks.transaction.publicapi.dto.AccountSummaryResponse;
+import org.mapstruct.Mapper;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface AccountSummaryApiMapper {
+
+    AccountSummaryResponse toResponse(AccountSummary summary);
+
+    List<AccountSummaryResponse> toResponses(List<AccountSummary> summaries);
+
+    AccountSummaryResponse.Totals toResponse(AccountSummary.Totals totals);
+}
@@ -2,6 +2,7 @@ package com.auzienko.javamocks.transaction.api.mapper;
 
 import com.auzienko.javamocks.transaction.domain.model.Transaction;
 import com.auzienko.javamocks.transaction.publicapi.dto.CreateTransactionRequest;
+import com.auzienko.javamocks.transaction.publicapi.dto.TransactionExportRecord;
 import com.auzienko.javamocks.transaction.publicapi.dto.TransactionResponse;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -12,6 +13,9 @@ public interface TransactionApiMapper {
     @Mapping(target = "status", expression = "java(transaction.getCurrentStatus())")
     TransactionResponse toResponse(Transaction transaction);
 
+    @Mapping(target = "status", expression = "java(transaction.getCurrentStatus())")
+    TransactionExportRecord toExportRecord(Transaction transaction);
+
     default Transaction toDomain(CreateTransactionRequest request, String ownerId) {
         if (request == null) {
             return null;
@@ -0,0 +1,15 @@
+package com.auzienko.javamocks.transaction.api.mapper;
+
+import com.auzienko.javamocks.transaction.domain.model.TransactionRollup;
+import com.auzienko.javamocks.transaction.publicapi.dto.TransactionRollupResponse;
+import org.mapstruct.Mapper;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface TransactionRollupApiMapper {
+
+    TransactionRollupResponse toResponse(TransactionRollup rollup);
+
+    List<TransactionRollupResponse> toResponses(List<TransactionRollup> rollups);
+}
@@ -0,0 +1,65 @@
+package com.auzienko.javamocks.transaction.api.controller;
+
+import com.auzienko.javamocks.transaction.api.exception.GlobalExceptionHandler;
+import com.auzienko.javamocks.transaction.api.mapper.AccountSummaryApiMapper;
+import com.auzienko.javamocks.transaction.api.mapper.AccountSummaryApiMapperImpl;
+import com.auzienko.javamocks.transaction.domain.model.AccountSummary;
+import com.auzienko.javamocks.transaction.domain.model.TransferDirection;
+import com.auzienko.javamocks.transaction.domain.service.AccountSummaryService;
+import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
+import com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class AccountInternalControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private AccountSummaryService accountSummaryService;
+
+    private final AccountSummaryApiMapper apiMapper = new AccountSummaryApiMapperImpl();
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new AccountInternalController(accountSummaryService, apiMapper))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    @DisplayName("GET /internal/api/v1/accounts/{id}/summary should return the totals per currency")
+    void getAccountSummary_shouldReturnTotals() throws Exception {
+        // ARRANGE
+        UUID accountId = UUID.randomUUID();
+        AccountSummary summary = new AccountSummary(accountId, Currency.EUR);
+        summary.add(TransferDirection.OUTGOING, TransactionStatus.COMPLETED, 2, new BigDecimal("150.00"));
+        summary.add(TransferDirection.INCOMING, TransactionStatus.PENDING, 1, new BigDecimal("20.00"));
+
+        given(accountSummaryService.getAccountSummaries(accountId)).willReturn(List.of(summary));
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/internal/api/v1/accounts/{accountId}/summary", accountId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].currency").value("EUR"))
+                .andExpect(jsonPath("$[0].outgoing.COMPLETED.count").value(2))
+                .andExpect(jsonPath("$[0].outgoing.COMPLETED.amount").value(150.00))
+                .andExpect(jsonPath("$[0].incoming.PENDING.count").value(1));
+    }
+}
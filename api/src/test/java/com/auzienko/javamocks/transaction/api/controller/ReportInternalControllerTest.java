@@ -0,0 +1,74 @@
+package com.auzienko.javamocks.transaction.api.controller;
+
+import com.auzienko.javamocks.transaction.api.exception.GlobalExceptionHandler;
+import com.auzienko.javamocks.transaction.api.mapper.TransactionRollupApiMapperImpl;
+import com.auzienko.javamocks.transaction.domain.model.RollupGranularity;
+import com.auzienko.javamocks.transaction.domain.model.TransactionRollup;
+import com.auzienko.javamocks.transaction.domain.service.TransactionReportService;
+import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
+import com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class ReportInternalControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private TransactionReportService reportService;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new ReportInternalController(reportService, new TransactionRollupApiMapperImpl()))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    @DisplayName("GET /internal/api/v1/reports/transactions should return the rollups of the range")
+    void getTransactionRollups_shouldReturnRollups() throws Exception {
+        // ARRANGE
+        Instant from = Instant.parse("2025-03-01T00:00:00Z");
+        Instant to = Instant.parse("2025-03-02T00:00:00Z");
+        TransactionRollup rollup = new TransactionRollup(RollupGranularity.HOUR, Instant.parse("2025-03-01T10:00:00Z"),
+                Currency.USD, TransactionStatus.COMPLETED, 3, new BigDecimal("75.00"));
+
+        given(reportService.getRollups(RollupGranularity.HOUR, from, to)).willReturn(List.of(rollup));
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/internal/api/v1/reports/transactions")
+                        .param("granularity", "HOUR")
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("COMPLETED"))
+                .andExpect(jsonPath("$[0].count").value(3))
+                .andExpect(jsonPath("$[0].amount").value(75.00));
+    }
+
+    @Test
+    @DisplayName("GET /internal/api/v1/reports/transactions should reject ranges with too many buckets")
+    void getTransactionRollups_shouldRejectTooManyBuckets() throws Exception {
+        mockMvc.perform(get("/internal/api/v1/reports/transactions")
+                        .param("granularity", "MINUTE")
+                        .param("from", "2025-01-01T00:00:00Z")
+                        .param("to", "2025-03-01T00:00:00Z"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -5,7 +5,9 @@ import com.auzienko.javamocks.transaction.api.mapper.TransactionApiMapper;
 import com.auzienko.javamocks.transaction.domain.exception.InvalidTransactionStateException;
 import com.auzienko.javamocks.transaction.domain.exception.TransactionNotFoundException;
 import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.domain.model.TransactionTransition;
 import com.auzienko.javamocks.transaction.domain.service.TransactionService;
+import com.auzienko.javamocks.transaction.publicapi.dto.ChangeTransactionStatusRequest;
 import com.auzienko.javamocks.transaction.publicapi.dto.FailTransactionRequest;
 import com.auzienko.javamocks.transaction.publicapi.dto.TransactionResponse;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -159,4 +161,46 @@ class TransactionInternalControllerTest {
         }
 
     }
+
+    @Nested
+    @DisplayName("POST /internal/api/v1/transactions/{id}/cancel and the other transition endpoints")
+    class ChangeTransactionStatus {
+
+        @Test
+        @DisplayName("should cancel with the default reason when no body is sent")
+        void cancelTransaction_shouldReturn200OkWithoutBody() throws Exception {
+            // ARRANGE
+            UUID transactionId = UUID.randomUUID();
+            Transaction cancelledTransaction = new Transaction();
+            cancelledTransaction.setId(transactionId);
+
+            given(transactionService.transitionTransaction(transactionId, TransactionTransition.CANCEL, null)).willReturn(cancelledTransaction);
+            given(transactionApiMapper.toResponse(cancelledTransaction)).willReturn(new TransactionResponse());
+
+            // ACT & ASSERT
+            mockMvc.perform(post("/internal/api/v1/transactions/{id}/cancel", transactionId)
+                            .principal(mockPrincipal("test_serviceName")))
+                    .andExpect(status().isOk());
+        }
+
+        @Test
+        @DisplayName("should return 409 Conflict when the transition is not allowed")
+        void reverseTransaction_shouldReturn409Conflict() throws Exception {
+            // ARRANGE
+            UUID transactionId = UUID.randomUUID();
+            ChangeTransactionStatusRequest request = new ChangeTransactionStatusRequest();
+            request.setReason("Chargeback");
+
+            given(transactionService.transitionTransaction(transactionId, TransactionTransition.REVERSE, "Chargeback"))
+                    .willThrow(new InvalidTransactionStateException("A transaction in status PENDING cannot become REVERSED..."));
+
+            // ACT & ASSERT
+            mockMvc.perform(post("/internal/api/v1/transactions/{id}/reverse", transactionId)
+                            .principal(mockPrincipal("test_serviceName"))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.statusCode").value(409));
+        }
+    }
 }
@@ -1,7 +1,11 @@
 package com.auzienko.javamocks.transaction.api.controller;
 
 import com.auzienko.javamocks.transaction.api.exception.GlobalExceptionHandler;
+import com.auzienko.javamocks.transaction.api.export.TransactionExportFormatConverter;
+import com.auzienko.javamocks.transaction.api.export.TransactionExporter;
 import com.auzienko.javamocks.transaction.api.mapper.TransactionApiMapper;
+import com.auzienko.javamocks.transaction.api.mapper.TransactionApiMapperImpl;
+import com.auzienko.javamocks.transaction.domain.exception.SimulatedFailureException;
 import com.auzienko.javamocks.transaction.domain.model.Transaction;
 import com.auzienko.javamocks.transaction.domain.service.TransactionService;
 import com.auzienko.javamocks.transaction.publicapi.dto.CreateTransactionRequest;
@@ -17,6 +21,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.format.support.FormattingConversionService;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -25,12 +30,14 @@ import java.math.BigDecimal;
 import java.security.Principal;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
@@ -197,6 +204,123 @@ class TransactionPublicControllerTest {
                             .content(objectMapper.writeValueAsString(invalidRequest)))
                     .andExpect(status().isBadRequest());
         }
+
+        @Test
+        @DisplayName("should return 503 Service Unavailable when the simulation rejects the call")
+        void createTransaction_shouldReturn503OnSimulatedFailure() throws Exception {
+            // ARRANGE
+            CreateTransactionRequest requestDto = new CreateTransactionRequest();
+            requestDto.setSourceAccountId(UUID.randomUUID());
+            requestDto.setDestinationAccountId(UUID.randomUUID());
+            requestDto.setAmount(new BigDecimal("500.00"));
+            requestDto.setCurrency(Currency.GBP);
+
+            given(transactionApiMapper.toDomain(any(CreateTransactionRequest.class), eq("test_user")))
+                    .willReturn(new Transaction());
+            given(transactionService.createTransaction(any(Transaction.class)))
+                    .willThrow(new SimulatedFailureException("Simulated failure of CREATE (rule default)"));
+
+            // ACT & ASSERT
+            mockMvc.perform(post("/api/v1/transactions")
+                            .principal(mockPrincipal("test_user"))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(requestDto)))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(jsonPath("$.message").value("Simulated failure of CREATE (rule default)"));
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/v1/transactions/export")
+    class ExportTransactions {
+
+        private MockMvc exportMockMvc;
+
+        @BeforeEach
+        void setUp() {
+            TransactionExporter exporter = new TransactionExporter(transactionService, new TransactionApiMapperImpl(), objectMapper);
+            FormattingConversionService conversionService = new FormattingConversionService();
+            conversionService.addConverter(new TransactionExportFormatConverter());
+            exportMockMvc = MockMvcBuilders
+                    .standaloneSetup(new TransactionPublicController(transactionService, transactionApiMapper, exporter))
+                    .setControllerAdvice(new GlobalExceptionHandler())
+                    .setConversionService(conversionService)
+                    .build();
+        }
+
+        private void givenTransactions(String username, Transaction... transactions) {
+            willAnswer(invocation -> {
+                Consumer<Transaction> action = invocation.getArgument(1);
+                for (Transaction transaction : transactions) {
+                    action.accept(transaction);
+                }
+                return null;
+            }).given(transactionService).exportTransactions(eq(username), any());
+        }
+
+        private Transaction transaction(String ownerId, String amount) {
+            Transaction transaction = new Transaction(ownerId, UUID.randomUUID(), UUID.randomUUID(), new BigDecimal(amount), Currency.EUR);
+            transaction.setId(UUID.randomUUID());
+            return transaction;
+        }
+
+        @Test
+        @DisplayName("should stream one JSON object per line by default")
+        void exportTransactions_shouldStreamNdjson() throws Exception {
+            // --- ARRANGE ---
+            String username = "test_user";
+            Transaction first = transaction(username, "10.00");
+            Transaction second = transaction(username, "20.50");
+            givenTransactions(username, first, second);
+
+            // --- ACT ---
+            String body = exportMockMvc.perform(get("/api/v1/transactions/export")
+                            .principal(mockPrincipal(username)))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Type", "application/x-ndjson;charset=UTF-8"))
+                    .andExpect(header().string("Content-Disposition", "attachment; filename=\"transactions.ndjson\""))
+                    .andReturn().getResponse().getContentAsString();
+
+            // --- ASSERT ---
+            String[] lines = body.split("\n");
+            assertEquals(2, lines.length);
+            assertEquals(first.getId().toString(), objectMapper.readTree(lines[0]).get("id").asText());
+            assertEquals("PENDING", objectMapper.readTree(lines[1]).get("status").asText());
+            assertEquals(20.5, objectMapper.readTree(lines[1]).get("amount").asDouble());
+        }
+
+        @Test
+        @DisplayName("should write CSV with a header row and quote fields that need it")
+        void exportTransactions_shouldStreamCsv() throws Exception {
+            // --- ARRANGE ---
+            String username = "smith, \"j\"";
+            Transaction transaction = transaction(username, "10.00");
+            givenTransactions(username, transaction);
+
+            // --- ACT ---
+            String body = exportMockMvc.perform(get("/api/v1/transactions/export")
+                            .param("format", "csv")
+                            .principal(mockPrincipal(username)))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                    .andReturn().getResponse().getContentAsString();
+
+            // --- ASSERT ---
+            String[] lines = body.split("\r\n");
+            assertEquals(2, lines.length);
+            assertEquals("id,ownerId,sourceAccountId,destinationAccountId,amount,currency,status,createdAt", lines[0]);
+            assertEquals(transaction.getId() + ",\"smith, \"\"j\"\"\"," + transaction.getSourceAccountId() + ","
+                    + transaction.getDestinationAccountId() + ",10.00,EUR,PENDING,", lines[1]);
+        }
+
+        @Test
+        @DisplayName("should return 400 Bad Request for an unknown format")
+        void exportTransactions_shouldRejectUnknownFormat() throws Exception {
+            exportMockMvc.perform(get("/api/v1/transactions/export")
+                            .param("format", "xml")
+                            .principal(mockPrincipal("test_user")))
+                    .andExpect(status().isBadRequest());
+        }
     }
 
     @Nested
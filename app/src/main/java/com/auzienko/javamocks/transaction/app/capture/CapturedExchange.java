@@ -0,0 +1,30 @@
+package com.auzienko.javamocks.transaction.app.capture;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/**
+ * One line of a capture file, as read back by the traffic-replay tool.
+ *
+ * @param offsetMicros   When the request arrived, relative to the start of the capture.
+ * @param uri            Path and query string.
+ * @param body                  Request body; {@code null} if empty or larger than the payload limit.
+ * @param bodyTruncated         The request body was left out for its size, so the exchange cannot
+ *                              be replayed as sent. Only written when set.
+ * @param responseBody          Response body, limited like {@code body}; lets the replay map ids it created.
+ * @param responseBodyTruncated The response body was left out for its size. Only written when set.
+ * @param durationMicros        Time spent below the request logging filter.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CapturedExchange(long offsetMicros,
+                               String method,
+                               String uri,
+                               Map<String, String> headers,
+                               String body,
+                               @JsonInclude(JsonInclude.Include.NON_DEFAULT) boolean bodyTruncated,
+                               int status,
+                               String responseBody,
+                               @JsonInclude(JsonInclude.Include.NON_DEFAULT) boolean responseBodyTruncated,
+                               long durationMicros) {
+}
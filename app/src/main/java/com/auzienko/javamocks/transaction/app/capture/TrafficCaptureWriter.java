@@ -0,0 +1,181 @@
+package com.auzienko.javamocks.transaction.app.capture;
+
+import com.auzienko.javamocks.transaction.app.config.props.RequestLoggingFilterProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the exchanges seen by the request logging filter to the capture file, one
+ * {@link CapturedExchange} per line. The file is replaced at startup.
+ * <p>
+ * Request threads only build the record and hand it over; a single writer thread serializes the
+ * records into a buffer that is written to the file channel when full or when no records arrive
+ * for a moment. When the writer falls behind, records are dropped instead of delaying requests.
+ * Exports {@code http.capture.written} and {@code http.capture.dropped}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "service.filter.request-logging-filter.capture", name = "enabled", havingValue = "true")
+public class TrafficCaptureWriter {
+
+    private static final long IDLE_POLL_MILLIS = 200;
+
+    private final RequestLoggingFilterProperties properties;
+    private final RequestLoggingFilterProperties.Capture capture;
+    private final ObjectWriter jsonWriter;
+    private final BlockingQueue<CapturedExchange> queue;
+    private final long startNanos = System.nanoTime();
+    private final Counter written;
+    private final Counter dropped;
+
+    private FileChannel channel;
+    private ByteBuffer buffer;
+    private Thread writer;
+    private volatile boolean running;
+
+    public TrafficCaptureWriter(RequestLoggingFilterProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.capture = properties.getCapture();
+        this.jsonWriter = objectMapper.writerFor(CapturedExchange.class);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capture.getQueueCapacity()));
+        this.written = Counter.builder("http.capture.written")
+                .description("Exchanges written to the capture file")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("http.capture.dropped")
+                .description("Exchanges not captured because the writer was behind")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        channel = FileChannel.open(capture.getFile(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        buffer = ByteBuffer.allocateDirect(Math.max(4096, capture.getBufferSize()));
+        running = true;
+        writer = Thread.ofPlatform().name("traffic-capture").daemon().start(this::writeRecords);
+        log.info("Capturing traffic to {}", capture.getFile().toAbsolutePath());
+    }
+
+    /**
+     * Queues an exchange for the capture file.
+     *
+     * @param requestStartNanos {@link System#nanoTime()} when the request reached the filter.
+     */
+    public void record(HttpServletRequest request, byte[] requestBody, int status, byte[] responseBody,
+                       long requestStartNanos, long durationNanos) {
+        String uri = request.getQueryString() == null
+                ? request.getRequestURI()
+                : request.getRequestURI() + "?" + request.getQueryString();
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String name : capture.getHeaders()) {
+            String value = request.getHeader(name);
+            if (value != null) {
+                headers.put(name, value);
+            }
+        }
+        CapturedExchange exchange = new CapturedExchange(
+                TimeUnit.NANOSECONDS.toMicros(requestStartNanos - startNanos),
+                request.getMethod(),
+                uri,
+                headers,
+                text(requestBody),
+                oversized(requestBody),
+                status,
+                text(responseBody),
+                oversized(responseBody),
+                TimeUnit.NANOSECONDS.toMicros(durationNanos));
+        if (!running || !queue.offer(exchange)) {
+            dropped.increment();
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException, IOException {
+        running = false;
+        writer.join();
+        channel.force(false);
+        channel.close();
+    }
+
+    private void writeRecords() {
+        while (running || !queue.isEmpty()) {
+            try {
+                CapturedExchange exchange = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (exchange == null) {
+                    flush();
+                    continue;
+                }
+                append(jsonWriter.writeValueAsBytes(exchange));
+                written.increment();
+            } catch (InterruptedException e) {
+                // Only stop() ends the loop, so queued records are still written.
+                Thread.interrupted();
+            } catch (IOException e) {
+                log.warn("Could not write to the capture file {}", capture.getFile(), e);
+            }
+        }
+        try {
+            flush();
+        } catch (IOException e) {
+            log.warn("Could not write to the capture file {}", capture.getFile(), e);
+        }
+    }
+
+    private void append(byte[] line) throws IOException {
+        if (line.length + 1 > buffer.remaining()) {
+            flush();
+        }
+        if (line.length + 1 > buffer.remaining()) {
+            writeFully(ByteBuffer.wrap(line));
+            writeFully(ByteBuffer.wrap(new byte[]{'\n'}));
+            return;
+        }
+        buffer.put(line).put((byte) '\n');
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        try {
+            writeFully(buffer);
+        } finally {
+            // Whatever a failed write left is dropped; kept, it would be written again in front of later records.
+            buffer.clear();
+        }
+    }
+
+    private void writeFully(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    private String text(byte[] content) {
+        if (content == null || content.length == 0 || oversized(content)) {
+            return null;
+        }
+        return new String(content, StandardCharsets.UTF_8);
+    }
+
+    private boolean oversized(byte[] content) {
+        return content != null && content.length > properties.getMaxPayloadSize();
+    }
+}
@@ -0,0 +1,22 @@
+package com.auzienko.javamocks.transaction.app.config;
+
+import com.auzienko.javamocks.transaction.app.config.props.FlightRecordingProperties;
+import com.auzienko.javamocks.transaction.app.jfr.FlightRecordingEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Starts and dumps Flight Recorder recordings on demand on /actuator/flightrecording.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "service.flight-recording", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(FlightRecordingProperties.class)
+public class FlightRecordingConfig {
+
+    @Bean
+    public FlightRecordingEndpoint flightRecordingEndpoint(FlightRecordingProperties properties) {
+        return new FlightRecordingEndpoint(properties);
+    }
+}
@@ -0,0 +1,40 @@
+package com.auzienko.javamocks.transaction.app.config;
+
+import com.auzienko.javamocks.transaction.app.config.props.LatencyHistogramProperties;
+import com.auzienko.javamocks.transaction.app.latency.EndpointLatencyHistograms;
+import com.auzienko.javamocks.transaction.app.latency.EndpointLatencyInterceptor;
+import com.auzienko.javamocks.transaction.app.latency.LatencyEndpoint;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Records the latency of every controller method in HdrHistograms and serves them on /actuator/latency.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "service.latency-histograms", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(LatencyHistogramProperties.class)
+@RequiredArgsConstructor
+public class LatencyHistogramConfig implements WebMvcConfigurer {
+
+    private final LatencyHistogramProperties properties;
+
+    @Bean
+    public EndpointLatencyHistograms endpointLatencyHistograms() {
+        return new EndpointLatencyHistograms(properties);
+    }
+
+    @Bean
+    public LatencyEndpoint latencyEndpoint(EndpointLatencyHistograms endpointLatencyHistograms) {
+        return new LatencyEndpoint(endpointLatencyHistograms);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new EndpointLatencyInterceptor(endpointLatencyHistograms()));
+    }
+}
@@ -0,0 +1,27 @@
+package com.auzienko.javamocks.transaction.app.config;
+
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Meter filters for the service's own metrics.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * More than the service has routes; anything beyond is a client posting to made-up paths.
+     */
+    private static final int MAX_IDEMPOTENCY_OPERATION_TAGS = 50;
+
+    /**
+     * The idempotency filter runs before authentication and tags its meters by request path, so
+     * unknown paths must not be able to create meters without bound.
+     */
+    @Bean
+    public MeterFilter idempotencyOperationTagLimit() {
+        return MeterFilter.maximumAllowableTags("http.idempotency", "operation",
+                MAX_IDEMPOTENCY_OPERATION_TAGS, MeterFilter.deny());
+    }
+}
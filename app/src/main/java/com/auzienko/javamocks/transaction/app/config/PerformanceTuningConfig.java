@@ -0,0 +1,108 @@
+package com.auzienko.javamocks.transaction.app.config;
+
+import com.auzienko.javamocks.transaction.app.config.props.PerformanceTuningProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Applies {@link PerformanceTuningProperties} to Hibernate and every Hikari pool, refuses to start
+ * when SQL logging is left on alongside them, and reports the effective values under /actuator/info.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(PerformanceTuningProperties.class)
+public class PerformanceTuningConfig {
+
+    private static final String[] SQL_BIND_LOGGERS = {"org.hibernate.orm.jdbc.bind", "org.hibernate.type.descriptor.sql"};
+
+    @Bean
+    public HibernatePropertiesCustomizer performanceHibernatePropertiesCustomizer(PerformanceTuningProperties properties,
+                                                                                 ObjectProvider<JpaProperties> jpaProperties) {
+        return hibernateProperties -> {
+            if (!properties.isEnabled()) {
+                return;
+            }
+            validateSqlLoggingDisabled(jpaProperties.getObject());
+            hibernateProperties.put(AvailableSettings.STATEMENT_BATCH_SIZE, properties.getJdbcBatchSize());
+            hibernateProperties.put(AvailableSettings.ORDER_INSERTS, true);
+            hibernateProperties.put(AvailableSettings.ORDER_UPDATES, true);
+            hibernateProperties.put(AvailableSettings.QUERY_PLAN_CACHE_MAX_SIZE, properties.getQueryPlanCacheSize());
+        };
+    }
+
+    @Bean
+    public static BeanPostProcessor performanceHikariPostProcessor(ObjectProvider<PerformanceTuningProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource && properties.getObject().isEnabled()) {
+                    applyPoolTuning(beanName, dataSource, properties.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public InfoContributor performanceInfoContributor(PerformanceTuningProperties properties,
+                                                      ObjectProvider<JpaProperties> jpaProperties,
+                                                      ServerProperties serverProperties) {
+        return builder -> {
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("enabled", properties.isEnabled());
+            JpaProperties jpa = jpaProperties.getIfAvailable();
+            details.put("sqlLogging", jpa != null && jpa.isShowSql());
+            if (properties.isEnabled()) {
+                details.put("jdbcBatchSize", properties.getJdbcBatchSize());
+                details.put("queryPlanCacheSize", properties.getQueryPlanCacheSize());
+                details.put("maximumPoolSize", properties.getMaximumPoolSize());
+                details.put("minimumIdle", properties.getMinimumIdle());
+                details.put("connectionTimeoutMs", properties.getConnectionTimeout().toMillis());
+                details.put("prepareThreshold", properties.getPrepareThreshold());
+                details.put("preparedStatementCacheQueries", properties.getPreparedStatementCacheQueries());
+            }
+            details.put("tomcatMaxThreads", serverProperties.getTomcat().getThreads().getMax());
+            builder.withDetail("performance", details);
+        };
+    }
+
+    private static void applyPoolTuning(String beanName, HikariDataSource dataSource, PerformanceTuningProperties properties) {
+        dataSource.setMaximumPoolSize(properties.getMaximumPoolSize());
+        dataSource.setMinimumIdle(properties.getMinimumIdle());
+        dataSource.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+        dataSource.addDataSourceProperty("prepareThreshold", properties.getPrepareThreshold());
+        dataSource.addDataSourceProperty("preparedStatementCacheQueries", properties.getPreparedStatementCacheQueries());
+        // Lets the driver rewrite Hibernate's insert batches into multi-row INSERT statements.
+        dataSource.addDataSourceProperty("reWriteBatchedInserts", true);
+        log.info("Applied performance tuning to data source {}: maximumPoolSize={}, minimumIdle={}",
+                beanName, properties.getMaximumPoolSize(), properties.getMinimumIdle());
+    }
+
+    private static void validateSqlLoggingDisabled(JpaProperties jpaProperties) {
+        if (jpaProperties.isShowSql()
+                || Boolean.parseBoolean(jpaProperties.getProperties().getOrDefault("hibernate.format_sql", "false"))) {
+            throw new IllegalStateException(
+                    "service.performance.enabled requires spring.jpa.show-sql and hibernate.format_sql to be false");
+        }
+        for (String logger : SQL_BIND_LOGGERS) {
+            if (LoggerFactory.getLogger(logger).isTraceEnabled()) {
+                throw new IllegalStateException(
+                        "service.performance.enabled requires TRACE logging to be disabled for " + logger);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.auzienko.javamocks.transaction.app.config;
+
+import com.auzienko.javamocks.transaction.app.config.props.TailSamplingProperties;
+import com.auzienko.javamocks.transaction.app.tracing.SpanExportMetrics;
+import com.auzienko.javamocks.transaction.app.tracing.TailSamplingSampler;
+import com.auzienko.javamocks.transaction.app.tracing.TailSamplingSpanProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.tracing.ConditionalOnEnabledTracing;
+import org.springframework.boot.actuate.autoconfigure.tracing.SpanExporters;
+import org.springframework.boot.actuate.autoconfigure.tracing.SpanProcessors;
+import org.springframework.boot.actuate.autoconfigure.tracing.TracingProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Replaces the sampler, span processors and span exporters of the OpenTelemetry auto-configuration
+ * so that failed and slow traces are exported on top of the sampled share. Spans still reach the
+ * exporters through Boot's batch span processor, configured with
+ * {@code management.tracing.opentelemetry.export.*}.
+ */
+@Configuration
+@ConditionalOnEnabledTracing
+@ConditionalOnProperty(prefix = "service.tracing.tail-sampling", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(TailSamplingProperties.class)
+public class TracingConfig {
+
+    @Bean
+    public SpanExportMetrics spanExportMetrics(TracingProperties tracingProperties, MeterRegistry meterRegistry) {
+        return new SpanExportMetrics(tracingProperties.getOpentelemetry().getExport().getMaxQueueSize(), meterRegistry);
+    }
+
+    @Bean
+    public Sampler otelSampler(TracingProperties tracingProperties) {
+        return new TailSamplingSampler(tracingProperties.getSampling().getProbability());
+    }
+
+    @Bean
+    public SpanExporters spanExporters(ObjectProvider<SpanExporter> spanExporters, SpanExportMetrics spanExportMetrics) {
+        return SpanExporters.of(spanExportMetrics.wrap(spanExporters.orderedStream().toList()));
+    }
+
+    @Bean
+    public SpanProcessors spanProcessors(BatchSpanProcessor batchSpanProcessor,
+                                         SpanExportMetrics spanExportMetrics,
+                                         TailSamplingProperties properties,
+                                         TracingProperties tracingProperties,
+                                         MeterRegistry meterRegistry) {
+        // Traces kept for failing or being slow were not sampled.
+        if (!tracingProperties.getOpentelemetry().getExport().isIncludeUnsampled()) {
+            throw new IllegalStateException(
+                    "service.tracing.tail-sampling.enabled requires management.tracing.opentelemetry.export.include-unsampled to be true");
+        }
+        return SpanProcessors.of(new TailSamplingSpanProcessor(batchSpanProcessor, spanExportMetrics, properties, meterRegistry));
+    }
+}
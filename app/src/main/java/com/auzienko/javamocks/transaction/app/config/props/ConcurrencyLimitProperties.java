@@ -0,0 +1,74 @@
+package com.auzienko.javamocks.transaction.app.config.props;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "service.concurrency-limit")
+@Getter
+@Setter
+public class ConcurrencyLimitProperties {
+
+    /**
+     * Reject requests beyond an adaptive concurrency limit per endpoint group with 503.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Requests in flight across both groups; keep it below server.tomcat.threads.max so that
+     * actuator and error handling still get threads.
+     */
+    private int maxInFlight = 40;
+
+    /**
+     * Places of {@code max-in-flight} only the internal endpoints can take.
+     */
+    private int reservedForInternal = 10;
+
+    /**
+     * Sent as Retry-After with every rejection, rounded up to whole seconds.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /**
+     * Paths left out of the limits, for responses streamed over seconds.
+     */
+    private List<String> unlimitedPaths = new ArrayList<>(List.of("/api/v1/transactions/export"));
+
+    /**
+     * Limit of the public endpoints, /api/**.
+     */
+    private Group publicApi = new Group();
+
+    /**
+     * Limit of the internal endpoints, /internal/**.
+     */
+    private Group internalApi = new Group();
+
+    @Getter
+    @Setter
+    public static class Group {
+
+        private int initialLimit = 20;
+
+        private int minLimit = 4;
+
+        private int maxLimit = 40;
+
+        /**
+         * A request slower than this, or one that failed with a 5xx response or an exception, shrinks
+         * the limit.
+         */
+        private Duration latencyThreshold = Duration.ofMillis(250);
+
+        /**
+         * Factor the limit is multiplied by when it shrinks; it grows back by one place per limit's
+         * worth of fast requests.
+         */
+        private double backoffRatio = 0.9;
+    }
+}
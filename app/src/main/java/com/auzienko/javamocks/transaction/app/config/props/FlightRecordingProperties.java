@@ -0,0 +1,40 @@
+package com.auzienko.javamocks.transaction.app.config.props;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "service.flight-recording")
+@Getter
+@Setter
+public class FlightRecordingProperties {
+
+    /**
+     * Expose /actuator/flightrecording to start and dump a Flight Recorder recording on demand.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Length of a recording started without a duration.
+     */
+    private Duration defaultDuration = Duration.ofSeconds(60);
+
+    /**
+     * Longest recording that can be requested; longer requests are cut to this.
+     */
+    private Duration maxDuration = Duration.ofMinutes(10);
+
+    /**
+     * Disk space the recording may take; older chunks are dropped beyond it.
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(100);
+
+    /**
+     * JDK event settings the recording starts from: "default" (about 1% overhead) or "profile"
+     * (about 2%, adds allocation and lock profiling). The service's own events are always enabled.
+     */
+    private String settings = "profile";
+}
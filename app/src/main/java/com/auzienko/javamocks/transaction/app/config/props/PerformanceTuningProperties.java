@@ -0,0 +1,66 @@
+package com.auzienko.javamocks.transaction.app.config.props;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "service.performance")
+@Validated
+@Getter
+@Setter
+public class PerformanceTuningProperties {
+
+    /**
+     * Apply the settings below to Hibernate and the connection pools. Enabled by the 'performance' profile.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Number of statements Hibernate groups into one JDBC batch.
+     */
+    @Min(1)
+    @Max(1000)
+    private int jdbcBatchSize = 50;
+
+    /**
+     * Size of Hibernate's query plan cache.
+     */
+    @Min(16)
+    @Max(16384)
+    private int queryPlanCacheSize = 2048;
+
+    @Min(1)
+    @Max(200)
+    private int maximumPoolSize = 20;
+
+    @Min(0)
+    private int minimumIdle = 20;
+
+    @NotNull
+    private Duration connectionTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Number of executions after which the PostgreSQL driver switches a statement to a server-side prepared statement.
+     */
+    @Min(0)
+    private int prepareThreshold = 1;
+
+    /**
+     * Number of prepared statements the PostgreSQL driver keeps per connection.
+     */
+    @Min(0)
+    @Max(10000)
+    private int preparedStatementCacheQueries = 256;
+
+    @AssertTrue(message = "minimum-idle must not exceed maximum-pool-size")
+    public boolean isPoolSizingConsistent() {
+        return minimumIdle <= maximumPoolSize;
+    }
+}
@@ -4,6 +4,10 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
 @ConfigurationProperties(prefix = "service.filter.request-logging-filter")
 @Getter
 @Setter
@@ -18,4 +22,37 @@ public class RequestLoggingFilterProperties {
      * Maximum payload size in bytes to log for request/response bodies.
      */
     private int maxPayloadSize = 10240; // 10 KB default
+
+    /**
+     * Recording of the filtered exchanges to a file, for replay with the traffic-replay tool.
+     */
+    private Capture capture = new Capture();
+
+    @Getter
+    @Setter
+    public static class Capture {
+
+        /**
+         * Append every exchange to {@code file}, one JSON object per line.
+         */
+        private boolean enabled = false;
+
+        private Path file = Path.of("traffic.ndjson");
+
+        /**
+         * Exchanges waiting for the writer; beyond this they are dropped rather than delaying requests.
+         */
+        private int queueCapacity = 10_000;
+
+        /**
+         * Bytes collected before they are written to the file.
+         */
+        private int bufferSize = 64 * 1024;
+
+        /**
+         * Request headers recorded with each exchange. Credentials such as the API key are not recorded.
+         */
+        private List<String> headers = new ArrayList<>(List.of(
+                "Content-Type", "Accept", "Idempotency-Key", "X-User-ID", "X-User-Roles"));
+    }
 }
@@ -0,0 +1,41 @@
+package com.auzienko.javamocks.transaction.app.config.props;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "service.tracing.tail-sampling")
+@Getter
+@Setter
+public class TailSamplingProperties {
+
+    /**
+     * Export every trace that failed or was slow, on top of the {@code management.tracing.sampling.probability}
+     * share of all traces. Otherwise only that share is recorded at all.
+     */
+    private boolean enabled = true;
+
+    /**
+     * A trace whose local root span took at least this long is exported.
+     */
+    private Duration slowThreshold = Duration.ofMillis(500);
+
+    /**
+     * Traces whose spans are held until their local root span ends; spans of further traces are
+     * dropped. The decisions on as many recent traces are kept for spans ending after their root.
+     */
+    private int maxPendingTraces = 1024;
+
+    /**
+     * Spans held per pending trace; further spans of the trace are dropped.
+     */
+    private int maxSpansPerTrace = 128;
+
+    /**
+     * A pending trace whose local root span has not ended after this long is discarded, checked
+     * at this interval and whenever the pending traces are full.
+     */
+    private Duration pendingTraceTimeout = Duration.ofSeconds(30);
+}
@@ -1,20 +1,23 @@
 package com.auzienko.javamocks.transaction.app.filter;
 
 import com.auzienko.javamocks.transaction.app.config.props.IdempotencyFilterProperties;
+import com.auzienko.javamocks.transaction.app.jfr.IdempotencyCheckEvent;
 import com.auzienko.javamocks.transaction.persistence.entity.IdempotencyKeyEntity;
-import com.auzienko.javamocks.transaction.persistence.repository.IdempotencyKeyJpaRepository;
+import com.auzienko.javamocks.transaction.persistence.idempotency.IdempotencyKeyStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.util.ContentCachingResponseWrapper;
@@ -27,7 +30,19 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
-
+import java.util.regex.Pattern;
+
+/**
+ * Makes every non-safe request carry an {@code Idempotency-Key} and answers repeats of a key with
+ * the response cached for its first request. A 5xx response is not cached: the key is released,
+ * so a retry with it is processed again and can succeed.
+ * <p>
+ * Exports {@code http.idempotency.requests} by outcome, the time to take the key's lock
+ * ({@code http.idempotency.lock}) and to wait for a concurrent request with the same key
+ * ({@code http.idempotency.wait}), and the sizes of request and cached response bodies. All are
+ * tagged by {@code operation}, the method and route with ids replaced by {@code {id}}. Each request
+ * is also recorded as an {@link IdempotencyCheckEvent} for Flight Recorder.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -36,12 +51,16 @@ public class IdempotencyFilter extends OncePerRequestFilter {
     private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
     private static final AntPathMatcher pathMatcher = new AntPathMatcher();
     private static final int PROCESSING_STATUS = -1;
+    private static final Pattern UUID_SEGMENT = Pattern.compile(
+            "/[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}(?=/|$)");
 
     private static final List<String> EXCLUDED_PATHS = List.of(
             "/actuator/**",
             "/health/**",
             "/metrics/**",
-            "/error"
+            "/error",
+            // Streamed response: caching it for replay would hold the whole export in memory.
+            "/api/v1/transactions/export"
     );
 
     private static final List<String> ALLOWED_METHODS = List.of(
@@ -51,9 +70,9 @@ public class IdempotencyFilter extends OncePerRequestFilter {
             HttpMethod.OPTIONS.name()
     );
 
-    private final IdempotencyKeyJpaRepository idempotencyKeyRepository;
-    private final TransactionTemplate transactionTemplate;
+    private final IdempotencyKeyStore idempotencyKeyStore;
     private final IdempotencyFilterProperties properties;
+    private final MeterRegistry meterRegistry;
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
@@ -84,13 +103,39 @@ public class IdempotencyFilter extends OncePerRequestFilter {
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
+        IdempotencyCheckEvent event = new IdempotencyCheckEvent();
+        event.begin();
+        String metricOperation = metricOperation(request);
+        String outcome = "failed";
+        try {
+            outcome = checkRequest(request, response, filterChain, metricOperation, event);
+        } finally {
+            countRequest(metricOperation, outcome);
+            event.finish(request.getHeader(IDEMPOTENCY_KEY_HEADER), metricOperation, outcome);
+        }
+    }
+
+    /**
+     * @return The outcome tag of the request.
+     */
+    private String checkRequest(HttpServletRequest request,
+                                HttpServletResponse response,
+                                FilterChain filterChain,
+                                String metricOperation,
+                                IdempotencyCheckEvent event) throws ServletException, IOException {
+
+        if (request.getContentLengthLong() >= 0) {
+            payloadSize("http.idempotency.request.size", "Body size of requests checked for idempotency", metricOperation)
+                    .record(request.getContentLengthLong());
+        }
+
         // payload guard
         if (request.getContentLengthLong() > properties.getMaxPayloadSize()) {
             log.warn("Request payload too large: {} bytes for {}",
                     request.getContentLengthLong(), request.getRequestURI());
             sendError(response, HttpStatus.REQUEST_ENTITY_TOO_LARGE,
                     "Request payload exceeds maximum allowed size");
-            return;
+            return "rejected";
         }
 
         // Idempotency-Key check
@@ -102,7 +147,7 @@ public class IdempotencyFilter extends OncePerRequestFilter {
                     String.format("Idempotency-Key header is required for %s operations. " +
                                     "This prevents accidental duplicate processing.",
                             request.getMethod()));
-            return;
+            return "rejected";
         }
 
         UUID idempotencyKey;
@@ -113,16 +158,18 @@ public class IdempotencyFilter extends OncePerRequestFilter {
                     idempotencyKeyStr, request.getMethod(), request.getRequestURI());
             sendError(response, HttpStatus.BAD_REQUEST,
                     "Idempotency-Key must be a valid UUID format");
-            return;
+            return "rejected";
         }
 
-        handleIdempotentRequest(request, response, filterChain, idempotencyKey);
+        return handleIdempotentRequest(request, response, filterChain, idempotencyKey, metricOperation, event);
     }
 
-    private void handleIdempotentRequest(HttpServletRequest request,
-                                         HttpServletResponse response,
-                                         FilterChain filterChain,
-                                         UUID idempotencyKey) throws IOException, ServletException {
+    private String handleIdempotentRequest(HttpServletRequest request,
+                                           HttpServletResponse response,
+                                           FilterChain filterChain,
+                                           UUID idempotencyKey,
+                                           String metricOperation,
+                                           IdempotencyCheckEvent event) throws IOException, ServletException {
 
         String operation = request.getMethod() + " " + request.getRequestURI();
 
@@ -133,25 +180,24 @@ public class IdempotencyFilter extends OncePerRequestFilter {
             if (isCompletedResponse(cached)) {
                 log.info("Returning cached response for idempotency key {} ({})", idempotencyKey, operation);
                 writeCachedResponse(response, cached);
-                return;
+                return "replayed";
             }
 
             if (isProcessingResponse(cached)) {
                 log.info("Request with key {} is being processed concurrently ({})", idempotencyKey, operation);
-                waitForCompletion(response, idempotencyKey, operation);
-                return;
+                return waitForCompletion(response, idempotencyKey, operation, metricOperation, event);
             }
         }
 
-        boolean lockAcquired = tryAcquireLock(idempotencyKey, operation);
+        boolean lockAcquired = tryAcquireLock(idempotencyKey, operation, metricOperation);
         if (!lockAcquired) {
             log.info("Lock acquisition failed for key {} ({}), waiting for completion", idempotencyKey, operation);
-            waitForCompletion(response, idempotencyKey, operation);
-            return;
+            return waitForCompletion(response, idempotencyKey, operation, metricOperation, event);
         }
 
         try {
-            processAndCacheResponse(request, response, filterChain, idempotencyKey, operation);
+            boolean cached = processAndCacheResponse(request, response, filterChain, idempotencyKey, operation, metricOperation);
+            return cached ? "processed" : "released";
         } catch (Exception e) {
             log.error("Error processing idempotent request {} with key {}", operation, idempotencyKey, e);
             releaseLock(idempotencyKey);
@@ -159,13 +205,16 @@ public class IdempotencyFilter extends OncePerRequestFilter {
         }
     }
 
-    private void waitForCompletion(HttpServletResponse response, UUID idempotencyKey, String operation) throws IOException {
+    private String waitForCompletion(HttpServletResponse response, UUID idempotencyKey, String operation,
+                                     String metricOperation, IdempotencyCheckEvent event) throws IOException {
         int maxRetries = properties.getConcurrencyMaxRetries();
         long retryDelayMs = properties.getRaceConditionRetryDelayMs();
+        Timer.Sample sample = Timer.start(meterRegistry);
 
         log.debug("Waiting for concurrent request completion: {} ({})", idempotencyKey, operation);
 
         for (int attempt = 1; attempt <= maxRetries; attempt++) {
+            event.setRetryCount(attempt);
             try {
                 TimeUnit.MILLISECONDS.sleep(retryDelayMs);
 
@@ -173,8 +222,9 @@ public class IdempotencyFilter extends OncePerRequestFilter {
                 if (updated.isPresent() && isCompletedResponse(updated.get())) {
                     log.info("Concurrent request completed for key {} ({}) after {} attempts",
                             idempotencyKey, operation, attempt);
+                    stopWait(sample, metricOperation, "replayed");
                     writeCachedResponse(response, updated.get());
-                    return;
+                    return "waited";
                 }
 
                 log.debug("Attempt {}/{}: Request still processing for key {} ({})",
@@ -188,34 +238,45 @@ public class IdempotencyFilter extends OncePerRequestFilter {
         }
 
         log.warn("Timeout after {} attempts waiting for completion: {} ({})", maxRetries, idempotencyKey, operation);
+        stopWait(sample, metricOperation, "timeout");
         sendError(response, HttpStatus.CONFLICT,
                 "Request is being processed by another instance. Please retry later.");
+        return "conflict";
     }
 
-    private boolean tryAcquireLock(UUID idempotencyKey, String operation) {
+    private boolean tryAcquireLock(UUID idempotencyKey, String operation, String metricOperation) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
         try {
-            return transactionTemplate.execute(status -> {
-                try {
-                    IdempotencyKeyEntity lockEntity = createProcessingLock(idempotencyKey, operation);
-                    idempotencyKeyRepository.saveAndFlush(lockEntity);
-                    log.debug("Acquired lock for key {} ({})", idempotencyKey, operation);
-                    return true;
-                } catch (DataIntegrityViolationException e) {
-                    log.debug("Lock already exists for key {} ({})", idempotencyKey, operation);
-                    return false;
-                }
-            });
+            boolean acquired = idempotencyKeyStore.insertIfAbsent(createProcessingLock(idempotencyKey, operation));
+            if (acquired) {
+                log.debug("Acquired lock for key {} ({})", idempotencyKey, operation);
+            } else {
+                log.debug("Lock already exists for key {} ({})", idempotencyKey, operation);
+            }
+            outcome = acquired ? "acquired" : "held";
+            return acquired;
         } catch (Exception e) {
             log.error("Error acquiring lock for key {} ({})", idempotencyKey, operation, e);
             return false;
+        } finally {
+            sample.stop(Timer.builder("http.idempotency.lock")
+                    .description("Time to take the lock on an idempotency key")
+                    .tag("operation", metricOperation)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
         }
     }
 
-    private void processAndCacheResponse(HttpServletRequest request,
+    /**
+     * @return Whether the response was cached for the key; a server error releases the key instead.
+     */
+    private boolean processAndCacheResponse(HttpServletRequest request,
                                          HttpServletResponse response,
                                          FilterChain filterChain,
                                          UUID idempotencyKey,
-                                         String operation) throws IOException, ServletException {
+                                         String operation,
+                                         String metricOperation) throws IOException, ServletException {
 
         ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
 
@@ -224,10 +285,20 @@ public class IdempotencyFilter extends OncePerRequestFilter {
             filterChain.doFilter(request, responseWrapper);
 
             int status = responseWrapper.getStatus();
+            if (status >= 500) {
+                releaseLock(idempotencyKey);
+                log.info("Released key {} after a server error (status: {}) so that it can be retried ({})",
+                        idempotencyKey, status, operation);
+                return false;
+            }
+
             byte[] responseBody = responseWrapper.getContentAsByteArray();
+            payloadSize("http.idempotency.response.size", "Body size of responses cached for replay", metricOperation)
+                    .record(responseBody.length);
 
             saveFinalResponse(idempotencyKey, status, responseBody, operation);
             log.info("Cached final response (status: {}) for key {} ({})", status, idempotencyKey, operation);
+            return true;
 
         } finally {
             responseWrapper.copyBodyToResponse();
@@ -247,17 +318,7 @@ public class IdempotencyFilter extends OncePerRequestFilter {
 
     private void saveFinalResponse(UUID key, int status, byte[] responseBody, String operation) {
         try {
-            transactionTemplate.executeWithoutResult(txStatus -> {
-                IdempotencyKeyEntity entity = idempotencyKeyRepository.findById(key)
-                        .orElse(new IdempotencyKeyEntity());
-
-                entity.setKey(key);
-                entity.setResponseStatus(status);
-                entity.setResponseBody(new String(responseBody, StandardCharsets.UTF_8));
-                entity.setCompletedAt(Instant.now());
-
-                idempotencyKeyRepository.save(entity);
-            });
+            idempotencyKeyStore.complete(key, status, new String(responseBody, StandardCharsets.UTF_8));
         } catch (Exception e) {
             log.error("Error saving final response for key {} ({})", key, operation, e);
         }
@@ -265,8 +326,7 @@ public class IdempotencyFilter extends OncePerRequestFilter {
 
     private void releaseLock(UUID key) {
         try {
-            transactionTemplate.executeWithoutResult(status ->
-                    idempotencyKeyRepository.deleteById(key));
+            idempotencyKeyStore.delete(key);
             log.debug("Released lock for key: {}", key);
         } catch (Exception e) {
             log.error("Error releasing lock for key: {}", key, e);
@@ -275,8 +335,7 @@ public class IdempotencyFilter extends OncePerRequestFilter {
 
     private Optional<IdempotencyKeyEntity> findExistingResponse(UUID key) {
         try {
-            return transactionTemplate.execute(status ->
-                    idempotencyKeyRepository.findById(key));
+            return idempotencyKeyStore.find(key);
         } catch (Exception e) {
             log.error("Error finding existing response for key: {}", key, e);
             return Optional.empty();
@@ -298,6 +357,38 @@ public class IdempotencyFilter extends OncePerRequestFilter {
         response.getWriter().write(cached.getResponseBody());
     }
 
+    /**
+     * The method and route of the request, with every UUID path segment replaced by {@code {id}}.
+     */
+    static String metricOperation(HttpServletRequest request) {
+        return request.getMethod() + " " + UUID_SEGMENT.matcher(request.getRequestURI()).replaceAll("/{id}");
+    }
+
+    private void countRequest(String metricOperation, String outcome) {
+        Counter.builder("http.idempotency.requests")
+                .description("Requests checked for idempotency, by how they were answered")
+                .tag("operation", metricOperation)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private void stopWait(Timer.Sample sample, String metricOperation, String outcome) {
+        sample.stop(Timer.builder("http.idempotency.wait")
+                .description("Time spent waiting for a concurrent request with the same idempotency key")
+                .tag("operation", metricOperation)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    private DistributionSummary payloadSize(String name, String description, String metricOperation) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit("bytes")
+                .tag("operation", metricOperation)
+                .register(meterRegistry);
+    }
+
     private void sendError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
         response.setStatus(status.value());
         response.setContentType(MediaType.APPLICATION_JSON_VALUE);
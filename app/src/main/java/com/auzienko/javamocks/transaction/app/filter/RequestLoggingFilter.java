@@ -1,12 +1,16 @@
 package com.auzienko.javamocks.transaction.app.filter;
 
+import com.auzienko.javamocks.transaction.app.capture.TrafficCaptureWriter;
 import com.auzienko.javamocks.transaction.app.config.props.RequestLoggingFilterProperties;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.util.StopWatch;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.util.ContentCachingRequestWrapper;
@@ -15,30 +19,51 @@ import org.springframework.web.util.ContentCachingResponseWrapper;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 @Slf4j
 @Component
 public class RequestLoggingFilter extends OncePerRequestFilter {
 
+    private static final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    // Responses streamed to the client; caching their bodies would buffer them entirely in memory.
+    private static final List<String> STREAMING_PATHS = List.of(
+            "/api/v1/transactions/export"
+    );
+
     private final RequestLoggingFilterProperties properties;
+    private final TrafficCaptureWriter captureWriter;
 
     public RequestLoggingFilter(RequestLoggingFilterProperties properties) {
+        this(properties, null);
+    }
+
+    @Autowired
+    public RequestLoggingFilter(RequestLoggingFilterProperties properties, @Nullable TrafficCaptureWriter captureWriter) {
         this.properties = properties;
+        this.captureWriter = captureWriter;
     }
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
-        return !properties.isEnabled();
+        return !properties.isEnabled() && captureWriter == null;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
+        if (isStreaming(request)) {
+            logWithoutBodies(request, response, filterChain);
+            return;
+        }
+
         // We need to wrap the request to be able to read the body multiple times.
         ContentCachingRequestWrapper requestWrapper = new ContentCachingRequestWrapper(request);
         ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
 
+        long startNanos = System.nanoTime();
         StopWatch stopWatch = new StopWatch();
         stopWatch.start();
 
@@ -49,6 +74,20 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
         stopWatch.stop();
         long timeTaken = stopWatch.getTotalTimeMillis();
 
+        if (captureWriter != null) {
+            captureWriter.record(request, requestWrapper.getContentAsByteArray(), responseWrapper.getStatus(),
+                    responseWrapper.getContentAsByteArray(), startNanos, stopWatch.getTotalTimeNanos());
+        }
+        if (properties.isEnabled()) {
+            logExchange(request, requestWrapper, responseWrapper, response, timeTaken);
+        }
+
+        // Finally, we must copy the cached response body to the actual response output stream.
+        responseWrapper.copyBodyToResponse();
+    }
+
+    private void logExchange(HttpServletRequest request, ContentCachingRequestWrapper requestWrapper,
+                             ContentCachingResponseWrapper responseWrapper, HttpServletResponse response, long timeTaken) {
         // After the request is handled, the body is cached. We can now log it.
         String requestBody = getBody(requestWrapper.getContentAsByteArray(), request.getCharacterEncoding());
         String responseBody = getBody(responseWrapper.getContentAsByteArray(), response.getCharacterEncoding());
@@ -60,9 +99,33 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
                 responseWrapper.getStatus(),
                 responseBody.replaceAll("[\r\n\s]+", ""),
                 timeTaken);
+    }
 
-        // Finally, we must copy the cached response body to the actual response output stream.
-        responseWrapper.copyBodyToResponse();
+    private boolean isStreaming(HttpServletRequest request) {
+        String requestPath = request.getRequestURI();
+        return STREAMING_PATHS.stream().anyMatch(pattern -> pathMatcher.match(pattern, requestPath));
+    }
+
+    private void logWithoutBodies(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long startNanos = System.nanoTime();
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            stopWatch.stop();
+            if (captureWriter != null) {
+                captureWriter.record(request, null, response.getStatus(), null, startNanos, stopWatch.getTotalTimeNanos());
+            }
+            if (properties.isEnabled()) {
+                log.info("Request: {} {} | Response: {} | Body: [STREAMED] | Time: {}ms",
+                        request.getMethod(),
+                        request.getRequestURI(),
+                        response.getStatus(),
+                        stopWatch.getTotalTimeMillis());
+            }
+        }
     }
 
     private String getBody(byte[] content, String encoding) {
@@ -0,0 +1,149 @@
+package com.auzienko.javamocks.transaction.app.jfr;
+
+import com.auzienko.javamocks.transaction.app.config.props.FlightRecordingProperties;
+import com.auzienko.javamocks.transaction.persistence.jfr.RepositoryCallEvent;
+import com.auzienko.javamocks.transaction.persistence.jfr.TransitionEvent;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * Starts and dumps a Flight Recorder recording on /actuator/flightrecording: POST starts one for
+ * the given {@code duration} (the configured default without one, never longer than the maximum),
+ * replacing any earlier one; GET downloads what it recorded so far as a .jfr file; DELETE stops and
+ * discards it. Only one recording is kept, bounded in both length and size.
+ * <p>
+ * Besides the JDK events of the configured settings, the recording holds the service's own
+ * {@link IdempotencyCheckEvent}, {@link TransitionEvent} and {@link RepositoryCallEvent}.
+ */
+@WebEndpoint(id = "flightrecording")
+@Slf4j
+public class FlightRecordingEndpoint {
+
+    private static final String JFR_CONTENT_TYPE = "application/octet-stream";
+
+    private final FlightRecordingProperties properties;
+
+    private Recording recording;
+
+    public FlightRecordingEndpoint(FlightRecordingProperties properties) {
+        this.properties = properties;
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<RecordingStatus> start(@Nullable Duration duration) throws IOException {
+        if (!FlightRecorder.isAvailable()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_SERVICE_UNAVAILABLE);
+        }
+        if (duration != null && (duration.isNegative() || duration.isZero())) {
+            throw new InvalidEndpointRequestException("Duration must be positive", "Duration must be positive");
+        }
+        Duration length = duration == null ? properties.getDefaultDuration() : duration;
+        if (length.compareTo(properties.getMaxDuration()) > 0) {
+            length = properties.getMaxDuration();
+        }
+
+        close();
+        Recording started = new Recording(configuration());
+        started.setName("transaction-service");
+        started.setToDisk(true);
+        started.setMaxSize(properties.getMaxSize().toBytes());
+        started.setDuration(length);
+        started.enable(IdempotencyCheckEvent.class);
+        started.enable(TransitionEvent.class);
+        started.enable(RepositoryCallEvent.class);
+        started.start();
+        recording = started;
+        log.info("Started flight recording {} for {}", started.getId(), length);
+        return new WebEndpointResponse<>(status(started));
+    }
+
+    @ReadOperation(produces = JFR_CONTENT_TYPE)
+    public synchronized WebEndpointResponse<Resource> dump() throws IOException {
+        if (recording == null || recording.getState() == RecordingState.NEW) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        Path file = Files.createTempFile("flightrecording-" + recording.getId() + "-", ".jfr");
+        try {
+            recording.dump(file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return new WebEndpointResponse<>(new TemporaryFileSystemResource(file), WebEndpointResponse.STATUS_OK);
+    }
+
+    @DeleteOperation
+    public synchronized void close() {
+        if (recording != null) {
+            log.info("Closing flight recording {}", recording.getId());
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private Configuration configuration() throws IOException {
+        try {
+            return Configuration.getConfiguration(properties.getSettings());
+        } catch (ParseException e) {
+            throw new IOException("Unreadable Flight Recorder settings " + properties.getSettings(), e);
+        }
+    }
+
+    private static RecordingStatus status(Recording recording) {
+        return new RecordingStatus(recording.getId(), recording.getState().name(), recording.getStartTime(),
+                recording.getDuration(), recording.getSize());
+    }
+
+    /**
+     * A dump that deletes itself once streamed. Not reported as a file, so it is copied through its
+     * input stream rather than transferred from the file directly.
+     */
+    private static final class TemporaryFileSystemResource extends FileSystemResource {
+
+        private final Path path;
+
+        TemporaryFileSystemResource(Path path) {
+            super(path);
+            this.path = path;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(path);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public boolean isFile() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.auzienko.javamocks.transaction.app.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One request through the idempotency filter, including the handler when the filter processed it.
+ */
+@Name("com.auzienko.transaction.IdempotencyCheck")
+@Label("Idempotency Check")
+@Description("A request handled by the idempotency filter")
+@Category({"Transaction Service", "Web"})
+@StackTrace(false)
+public class IdempotencyCheckEvent extends Event {
+
+    @Label("Idempotency Key")
+    String idempotencyKey;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Retry Count")
+    @Description("Lookups of the stored response while a concurrent request with the same key was processed")
+    int retryCount;
+
+    @Label("Outcome")
+    @Description("processed, replayed, waited, conflict, rejected or failed")
+    String outcome;
+
+    public void setRetryCount(int retryCount) {
+        this.retryCount = retryCount;
+    }
+
+    public void finish(String idempotencyKey, String operation, String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.idempotencyKey = idempotencyKey;
+            this.operation = operation;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
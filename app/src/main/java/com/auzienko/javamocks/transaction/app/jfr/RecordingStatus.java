@@ -0,0 +1,13 @@
+package com.auzienko.javamocks.transaction.app.jfr;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * The current or last recording started through /actuator/flightrecording.
+ *
+ * @param state NEW, DELAYED, RUNNING, STOPPED or CLOSED, as in {@link jdk.jfr.RecordingState}.
+ * @param size  Bytes written to disk so far.
+ */
+public record RecordingStatus(long id, String state, Instant startTime, Duration duration, long size) {
+}
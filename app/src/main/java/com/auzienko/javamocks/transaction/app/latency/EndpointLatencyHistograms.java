@@ -0,0 +1,149 @@
+package com.auzienko.javamocks.transaction.app.latency;
+
+import com.auzienko.javamocks.transaction.app.config.props.LatencyHistogramProperties;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency histograms per controller method and outcome, in microseconds, reported under
+ * {@code Controller#method}.
+ * <p>
+ * Request threads record into an HdrHistogram {@link Recorder}, which is wait-free: an atomic
+ * increment on each side of the count, no lock and no allocation. Reading the report swaps the
+ * recorder's histogram for an empty one and adds what it held to a running total, so only readers
+ * synchronize with each other.
+ */
+public class EndpointLatencyHistograms {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final long highestTrackableMicros;
+    private final int significantDigits;
+    private final long[] sloMicros;
+    private final Map<Method, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public EndpointLatencyHistograms(LatencyHistogramProperties properties) {
+        this.highestTrackableMicros = properties.getHighestTrackable().toNanos() / 1000;
+        this.significantDigits = properties.getSignificantDigits();
+        this.sloMicros = properties.getSlo().stream()
+                .mapToLong(slo -> slo.toNanos() / 1000)
+                .sorted()
+                .toArray();
+    }
+
+    /**
+     * Records a request handled by {@code method}.
+     *
+     * @param status The response status; 5xx and anything that ended in an exception count as server errors.
+     */
+    public void record(Method method, int status, boolean failed, long nanos) {
+        Endpoint endpoint = endpoints.get(method);
+        if (endpoint == null) {
+            endpoint = endpoints.computeIfAbsent(method, Endpoint::new);
+        }
+        Outcome outcome = failed || status >= 500 ? Outcome.SERVER_ERROR
+                : status >= 400 ? Outcome.CLIENT_ERROR
+                : Outcome.SUCCESS;
+        endpoint.recorders[outcome.ordinal()].recordValue(Math.min(highestTrackableMicros, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+    public synchronized LatencyReport report() {
+        Map<String, Map<String, LatencyReport.Latencies>> report = new TreeMap<>();
+        for (Endpoint endpoint : endpoints.values()) {
+            Map<String, LatencyReport.Latencies> outcomes = new TreeMap<>();
+            for (Outcome outcome : Outcome.values()) {
+                Histogram total = endpoint.collect(outcome);
+                if (total.getTotalCount() > 0) {
+                    outcomes.put(outcome.tagValue(), latencies(total));
+                }
+            }
+            if (!outcomes.isEmpty()) {
+                report.merge(endpoint.name, outcomes, (existing, added) -> {
+                    existing.putAll(added);
+                    return existing;
+                });
+            }
+        }
+        return new LatencyReport(report);
+    }
+
+    /**
+     * Drops everything recorded so far.
+     */
+    public synchronized void reset() {
+        for (Endpoint endpoint : endpoints.values()) {
+            for (Outcome outcome : Outcome.values()) {
+                endpoint.collect(outcome);
+                endpoint.totals[outcome.ordinal()].reset();
+            }
+        }
+    }
+
+    private LatencyReport.Latencies latencies(Histogram histogram) {
+        long count = histogram.getTotalCount();
+        List<LatencyReport.SloBucket> slo = new ArrayList<>(sloMicros.length);
+        for (long boundary : sloMicros) {
+            long within = histogram.getCountBetweenValues(0, boundary);
+            slo.add(new LatencyReport.SloBucket(boundary / MICROS_PER_MILLI, within, (double) within / count));
+        }
+        return new LatencyReport.Latencies(
+                count,
+                histogram.getMean() / MICROS_PER_MILLI,
+                millis(histogram, 50),
+                millis(histogram, 90),
+                millis(histogram, 99),
+                millis(histogram, 99.9),
+                histogram.getMaxValue() / MICROS_PER_MILLI,
+                slo);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    private enum Outcome {
+        SUCCESS, CLIENT_ERROR, SERVER_ERROR;
+
+        String tagValue() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+    }
+
+    private final class Endpoint {
+
+        private final String name;
+        private final Recorder[] recorders = new Recorder[Outcome.values().length];
+        private final Histogram[] totals = new Histogram[Outcome.values().length];
+        private final Histogram[] recycled = new Histogram[Outcome.values().length];
+
+        private Endpoint(Method method) {
+            // Controllers share method names (getTransactionById); overloads of one method share an entry.
+            this.name = method.getDeclaringClass().getSimpleName() + "#" + method.getName();
+            for (int i = 0; i < recorders.length; i++) {
+                recorders[i] = new Recorder(highestTrackableMicros, significantDigits);
+                totals[i] = new Histogram(highestTrackableMicros, significantDigits);
+            }
+        }
+
+        /**
+         * Moves what the recorder holds into the total and returns the total. Callers hold the
+         * lock of the enclosing instance.
+         */
+        private Histogram collect(Outcome outcome) {
+            int i = outcome.ordinal();
+            Histogram interval = recorders[i].getIntervalHistogram(recycled[i]);
+            totals[i].add(interval);
+            recycled[i] = interval;
+            return totals[i];
+        }
+    }
+}
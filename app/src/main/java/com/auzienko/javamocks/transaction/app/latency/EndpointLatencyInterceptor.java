@@ -0,0 +1,38 @@
+package com.auzienko.javamocks.transaction.app.latency;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Times each request from the moment its controller method is picked until the response is
+ * complete, exception handling included, and records it in {@link EndpointLatencyHistograms}.
+ * Servlet filters ahead of dispatch, such as the idempotency check, are outside this window, and
+ * requests they answer themselves are not recorded.
+ */
+public class EndpointLatencyInterceptor implements HandlerInterceptor {
+
+    private static final String START_NANOS = EndpointLatencyInterceptor.class.getName() + ".START_NANOS";
+
+    private final EndpointLatencyHistograms histograms;
+
+    public EndpointLatencyInterceptor(EndpointLatencyHistograms histograms) {
+        this.histograms = histograms;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            request.setAttribute(START_NANOS, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (handler instanceof HandlerMethod handlerMethod && request.getAttribute(START_NANOS) instanceof Long startNanos) {
+            histograms.record(handlerMethod.getMethod(), response.getStatus(), ex != null, System.nanoTime() - startNanos);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.auzienko.javamocks.transaction.app.latency;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * Serves {@link EndpointLatencyHistograms} on /actuator/latency: GET for the percentiles and SLO
+ * shares per controller method and outcome, DELETE to start over.
+ */
+@Endpoint(id = "latency")
+public class LatencyEndpoint {
+
+    private final EndpointLatencyHistograms histograms;
+
+    public LatencyEndpoint(EndpointLatencyHistograms histograms) {
+        this.histograms = histograms;
+    }
+
+    @ReadOperation
+    public LatencyReport latency() {
+        return histograms.report();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        histograms.reset();
+    }
+}
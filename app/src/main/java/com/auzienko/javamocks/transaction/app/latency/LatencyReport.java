@@ -0,0 +1,30 @@
+package com.auzienko.javamocks.transaction.app.latency;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Latencies recorded since startup or the last reset, per controller method and outcome.
+ *
+ * @param endpoints Controller method name to outcome (success, client-error, server-error) to its
+ *                  latencies; outcomes without requests are left out.
+ */
+public record LatencyReport(Map<String, Map<String, Latencies>> endpoints) {
+
+    public record Latencies(long count,
+                            double meanMillis,
+                            double p50Millis,
+                            double p90Millis,
+                            double p99Millis,
+                            double p999Millis,
+                            double maxMillis,
+                            List<SloBucket> slo) {
+    }
+
+    /**
+     * @param count Requests that took at most {@code leMillis}.
+     * @param ratio Their share of all requests of the outcome.
+     */
+    public record SloBucket(double leMillis, long count, double ratio) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.auzienko.javamocks.transaction.app.limit;
+
+import com.auzienko.javamocks.transaction.app.config.props.ConcurrencyLimitProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An AIMD concurrency limit: every request slower than the latency threshold, or failed with a 5xx
+ * response or an exception, multiplies the limit by the backoff ratio, and every limit's worth of fast requests
+ * adds one place while the limit is in use.
+ * <p>
+ * Like TCP, the limit backs off at most once per round trip: a slow request that started before the
+ * last decrease was already in flight under the old limit and does not shrink it again. Without
+ * this, the requests queued behind one database stall would drive the limit to its minimum at once.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    // Guarded by this.
+    private long lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimit(ConcurrencyLimitProperties.Group properties) {
+        if (properties.getMinLimit() < 1 || properties.getMinLimit() > properties.getMaxLimit()) {
+            throw new IllegalArgumentException("The concurrency limit needs 1 <= min-limit <= max-limit");
+        }
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.latencyThresholdNanos = properties.getLatencyThreshold().toNanos();
+        this.backoffRatio = properties.getBackoffRatio();
+        this.limit = Math.clamp(properties.getInitialLimit(), minLimit, maxLimit);
+        this.lastDecreaseNanos = System.nanoTime();
+    }
+
+    /**
+     * Takes a place if fewer requests than the limit are in flight.
+     */
+    boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Gives back a place without adjusting the limit, for a request that never ran.
+     */
+    void cancel() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Gives back the place of a request that ran and adjusts the limit by its outcome.
+     */
+    void release(long startNanos, long endNanos, boolean failed) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (failed || endNanos - startNanos > latencyThresholdNanos) {
+            decrease(startNanos, endNanos);
+        } else if (inFlightBefore * 2 >= limit) {
+            increase();
+        }
+    }
+
+    private synchronized void decrease(long startNanos, long endNanos) {
+        if (startNanos - lastDecreaseNanos < 0) {
+            return;
+        }
+        limit = Math.max(minLimit, limit * backoffRatio);
+        lastDecreaseNanos = endNanos;
+    }
+
+    private synchronized void increase() {
+        limit = Math.min(maxLimit, limit + 1 / limit);
+    }
+
+    public int limit() {
+        return (int) limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+}
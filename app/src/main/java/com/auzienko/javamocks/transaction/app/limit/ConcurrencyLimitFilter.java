@@ -0,0 +1,152 @@
+package com.auzienko.javamocks.transaction.app.limit;
+
+import com.auzienko.javamocks.transaction.app.config.props.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sheds load before it reaches the controllers: each {@link EndpointGroup} runs under its own
+ * {@link AdaptiveConcurrencyLimit}, and requests beyond it are answered right away with 503 and
+ * Retry-After instead of taking a thread that would wait on the database.
+ * <p>
+ * Both groups also share {@code max-in-flight}, of which the public endpoints may only take the
+ * part not reserved for the internal ones. Internal calls, which settle transactions already
+ * accepted, therefore still get through while public traffic saturates the service.
+ * <p>
+ * Streaming endpoints such as the export are left out: a request that legitimately runs for seconds
+ * would hold a place all along and then shrink its group's limit as a slow one.
+ * <p>
+ * Exports {@code http.concurrency.limit} and {@code http.concurrency.in.flight} by {@code group},
+ * and {@code http.concurrency.rejections} by {@code group} and {@code reason} (limit or saturated).
+ */
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Map<EndpointGroup, AdaptiveConcurrencyLimit> limits = new EnumMap<>(EndpointGroup.class);
+    private final Map<EndpointGroup, Counter> limitRejections = new EnumMap<>(EndpointGroup.class);
+    private final Map<EndpointGroup, Counter> saturationRejections = new EnumMap<>(EndpointGroup.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final int maxInFlight;
+    private final int maxPublicInFlight;
+    private final String retryAfterSeconds;
+    private final List<PathPattern> unlimitedPaths;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        if (properties.getReservedForInternal() < 0 || properties.getReservedForInternal() >= properties.getMaxInFlight()) {
+            throw new IllegalArgumentException("reserved-for-internal must be at least 0 and below max-in-flight");
+        }
+        this.maxInFlight = properties.getMaxInFlight();
+        this.maxPublicInFlight = properties.getMaxInFlight() - properties.getReservedForInternal();
+        this.retryAfterSeconds = String.valueOf(Math.max(1, (properties.getRetryAfter().toMillis() + 999) / 1000));
+        this.unlimitedPaths = properties.getUnlimitedPaths().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+
+        limits.put(EndpointGroup.PUBLIC, new AdaptiveConcurrencyLimit(properties.getPublicApi()));
+        limits.put(EndpointGroup.INTERNAL, new AdaptiveConcurrencyLimit(properties.getInternalApi()));
+        limits.forEach((group, limit) -> {
+            Gauge.builder("http.concurrency.limit", limit, AdaptiveConcurrencyLimit::limit)
+                    .description("Requests the endpoint group may have in flight")
+                    .tag("group", group.tagValue())
+                    .register(meterRegistry);
+            Gauge.builder("http.concurrency.in.flight", limit, AdaptiveConcurrencyLimit::inFlight)
+                    .description("Requests of the endpoint group in flight")
+                    .tag("group", group.tagValue())
+                    .register(meterRegistry);
+            limitRejections.put(group, rejections(meterRegistry, group, "limit"));
+            saturationRejections.put(group, rejections(meterRegistry, group, "saturated"));
+        });
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        EndpointGroup group = EndpointGroup.of(request);
+        AdaptiveConcurrencyLimit limit = limits.get(group);
+        if (!limit.tryAcquire()) {
+            reject(response, limitRejections.get(group), group, request);
+            return;
+        }
+        if (!tryAcquireShared(group == EndpointGroup.INTERNAL ? maxInFlight : maxPublicInFlight)) {
+            limit.cancel();
+            reject(response, saturationRejections.get(group), group, request);
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            // Errors handled by the controller advice arrive as responses rather than exceptions.
+            failed = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            inFlight.decrementAndGet();
+            limit.release(startNanos, System.nanoTime(), failed);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getServletPath());
+        return unlimitedPaths.stream().anyMatch(pattern -> pattern.matches(path));
+    }
+
+    private boolean tryAcquireShared(int ceiling) {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= ceiling) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private void reject(HttpServletResponse response, Counter rejections, EndpointGroup group,
+                        HttpServletRequest request) throws IOException {
+        rejections.increment();
+        log.debug("Rejected {} {}: {} endpoints at their concurrency limit",
+                request.getMethod(), request.getRequestURI(), group.tagValue());
+
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(String.format(
+                "{\"error\":\"%s\",\"message\":\"%s\",\"status\":%d,\"timestamp\":\"%s\"}",
+                status.getReasonPhrase(), "The service is at its concurrency limit. Please retry later.",
+                status.value(), LocalDateTime.now()));
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, EndpointGroup group, String reason) {
+        return Counter.builder("http.concurrency.rejections")
+                .description("Requests rejected with 503 at the concurrency limit")
+                .tag("group", group.tagValue())
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,28 @@
+package com.auzienko.javamocks.transaction.app.limit;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * The endpoints sharing a concurrency limit.
+ */
+public enum EndpointGroup {
+
+    PUBLIC("public"),
+    INTERNAL("internal");
+
+    private static final String INTERNAL_PREFIX = "/internal/";
+
+    private final String tagValue;
+
+    EndpointGroup(String tagValue) {
+        this.tagValue = tagValue;
+    }
+
+    public String tagValue() {
+        return tagValue;
+    }
+
+    public static EndpointGroup of(HttpServletRequest request) {
+        return request.getServletPath().startsWith(INTERNAL_PREFIX) ? INTERNAL : PUBLIC;
+    }
+}
@@ -0,0 +1,136 @@
+package com.auzienko.javamocks.transaction.app.tracing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps count of the spans handed to the batch span processor and not yet exported, and drops
+ * spans rather than hand over more than its queue holds. The batch processor drops spans silently
+ * when its queue is full; counting them here makes every drop visible.
+ * <p>
+ * Exports {@code tracing.export.queue.size}, {@code tracing.spans.exported} by {@code outcome},
+ * {@code tracing.spans.dropped} by {@code reason} and {@code tracing.export} (time per batch).
+ */
+public class SpanExportMetrics {
+
+    private final int capacity;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final MeterRegistry meterRegistry;
+    private final Counter exported;
+    private final Counter failed;
+    private final Counter droppedQueueFull;
+
+    /**
+     * @param capacity The batch span processor's {@code max-queue-size}.
+     */
+    public SpanExportMetrics(int capacity, MeterRegistry meterRegistry) {
+        this.capacity = capacity;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("tracing.export.queue.size", queued, AtomicInteger::get)
+                .description("Spans waiting to be exported")
+                .register(meterRegistry);
+        this.exported = exportedCounter("success");
+        this.failed = exportedCounter("failure");
+        this.droppedQueueFull = dropped("queue-full");
+    }
+
+    /**
+     * Reserves a place in the export queue for one span.
+     *
+     * @return false, with the span counted as dropped, if the queue is full.
+     */
+    boolean tryEnqueue() {
+        int current;
+        do {
+            current = queued.get();
+            if (current >= capacity) {
+                droppedQueueFull.increment();
+                return false;
+            }
+        } while (!queued.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    Counter dropped(String reason) {
+        return Counter.builder("tracing.spans.dropped")
+                .description("Spans dropped before export")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Wraps the exporters into one that releases the queue places of the spans it was given once
+     * their export completed. The batch span processor must get this as its only exporter.
+     */
+    public SpanExporter wrap(List<SpanExporter> exporters) {
+        return new MeteredSpanExporter(SpanExporter.composite(exporters));
+    }
+
+    private Counter exportedCounter(String outcome) {
+        return Counter.builder("tracing.spans.exported")
+                .description("Spans handed to the exporters")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private final class MeteredSpanExporter implements SpanExporter {
+
+        private final SpanExporter delegate;
+        private final Timer succeeded;
+        private final Timer failedExports;
+
+        private MeteredSpanExporter(SpanExporter delegate) {
+            this.delegate = delegate;
+            this.succeeded = exportTimer("success");
+            this.failedExports = exportTimer("failure");
+        }
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            int count = spans.size();
+            long startNanos = System.nanoTime();
+            CompletableResultCode result;
+            try {
+                result = delegate.export(spans);
+            } catch (RuntimeException e) {
+                completed(count, false, startNanos);
+                throw e;
+            }
+            result.whenComplete(() -> completed(count, result.isSuccess(), startNanos));
+            return result;
+        }
+
+        private void completed(int count, boolean success, long startNanos) {
+            queued.addAndGet(-count);
+            (success ? exported : failed).increment(count);
+            (success ? succeeded : failedExports).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return delegate.flush();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return delegate.shutdown();
+        }
+
+        private Timer exportTimer(String outcome) {
+            return Timer.builder("tracing.export")
+                    .description("Time to export a batch of spans")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+    }
+}
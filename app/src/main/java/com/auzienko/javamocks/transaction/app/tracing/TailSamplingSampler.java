@@ -0,0 +1,55 @@
+package com.auzienko.javamocks.transaction.app.tracing;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+
+import java.util.List;
+
+/**
+ * Samples {@code probability} of the traces started here, plus the ones a caller already sampled.
+ * The other traces are recorded but not sampled, so that {@link TailSamplingSpanProcessor} can still
+ * export them once their local root span turned out to fail or be slow.
+ * <p>
+ * Spans within this process follow their parent: sampled under a sampled parent, recorded under a
+ * recorded one.
+ */
+public class TailSamplingSampler implements Sampler {
+
+    private final Sampler ratio;
+    private final double probability;
+
+    public TailSamplingSampler(double probability) {
+        this.ratio = Sampler.traceIdRatioBased(probability);
+        this.probability = probability;
+    }
+
+    @Override
+    public SamplingResult shouldSample(Context parentContext, String traceId, String name, SpanKind spanKind,
+                                       Attributes attributes, List<LinkData> parentLinks) {
+        Span parent = Span.fromContext(parentContext);
+        SpanContext parentSpanContext = parent.getSpanContext();
+        if (parentSpanContext.isValid() && !parentSpanContext.isRemote()) {
+            if (parentSpanContext.isSampled()) {
+                return SamplingResult.recordAndSample();
+            }
+            return parent.isRecording() ? SamplingResult.recordOnly() : SamplingResult.drop();
+        }
+        if (parentSpanContext.isSampled()) {
+            return SamplingResult.recordAndSample();
+        }
+        SamplingResult head = ratio.shouldSample(parentContext, traceId, name, spanKind, attributes, parentLinks);
+        return head.getDecision() == SamplingDecision.RECORD_AND_SAMPLE ? head : SamplingResult.recordOnly();
+    }
+
+    @Override
+    public String getDescription() {
+        return "TailSamplingSampler{probability=" + probability + "}";
+    }
+}
@@ -0,0 +1,280 @@
+package com.auzienko.javamocks.transaction.app.tracing;
+
+import com.auzienko.javamocks.transaction.app.config.props.TailSamplingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Passes the spans of sampled traces straight on to {@code delegate}, and holds the spans of traces
+ * that were only recorded (see {@link TailSamplingSampler}) until their local root span ends. The
+ * whole trace is then passed on if any of its spans failed or the root took at least
+ * {@code slow-threshold}, and discarded otherwise.
+ * <p>
+ * A span failed if its status is ERROR or, for a server request, its outcome is SERVER_ERROR. The
+ * delegate must export unsampled spans; every span passed on takes a place in the export queue of
+ * {@link SpanExportMetrics} first.
+ * <p>
+ * The decisions on the last {@code max-pending-traces} traces are remembered, so that a span
+ * ending after its local root follows the rest of its trace. Pending traces whose local root has
+ * not ended within {@code pending-trace-timeout} are discarded by a background thread.
+ * <p>
+ * Exports {@code tracing.traces} by {@code decision} (sampled, error, slow or discarded), counted
+ * when the local root span ends.
+ */
+public class TailSamplingSpanProcessor implements SpanProcessor {
+
+    private static final AttributeKey<String> OUTCOME = AttributeKey.stringKey("outcome");
+    private static final String SERVER_ERROR = "SERVER_ERROR";
+
+    private final SpanProcessor delegate;
+    private final SpanExportMetrics exportMetrics;
+    private final long slowThresholdNanos;
+    private final int maxPendingTraces;
+    private final int maxSpansPerTrace;
+    private final long pendingTraceTimeoutNanos;
+    private final Map<String, PendingTrace> pendingTraces = new ConcurrentHashMap<>();
+    private final DecidedTraces decidedTraces;
+    private final ScheduledExecutorService evictor;
+
+    private final Counter sampledTraces;
+    private final Counter failedTraces;
+    private final Counter slowTraces;
+    private final Counter discardedTraces;
+    private final Counter droppedBufferFull;
+    private final Counter droppedAbandoned;
+
+    public TailSamplingSpanProcessor(SpanProcessor delegate, SpanExportMetrics exportMetrics,
+                                     TailSamplingProperties properties, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.exportMetrics = exportMetrics;
+        this.slowThresholdNanos = properties.getSlowThreshold().toNanos();
+        this.maxPendingTraces = properties.getMaxPendingTraces();
+        this.maxSpansPerTrace = properties.getMaxSpansPerTrace();
+        this.pendingTraceTimeoutNanos = properties.getPendingTraceTimeout().toNanos();
+        this.decidedTraces = new DecidedTraces(maxPendingTraces);
+        this.sampledTraces = traces("sampled", meterRegistry);
+        this.failedTraces = traces("error", meterRegistry);
+        this.slowTraces = traces("slow", meterRegistry);
+        this.discardedTraces = traces("discarded", meterRegistry);
+        this.droppedBufferFull = exportMetrics.dropped("buffer-full");
+        this.droppedAbandoned = exportMetrics.dropped("abandoned");
+        this.evictor = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("tail-sampling-evictor").daemon().factory());
+        evictor.scheduleWithFixedDelay(
+                this::evictAbandoned, pendingTraceTimeoutNanos, pendingTraceTimeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return false;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        boolean localRoot = isLocalRoot(span);
+        if (span.getSpanContext().isSampled()) {
+            if (localRoot) {
+                sampledTraces.increment();
+            }
+            export(span);
+            return;
+        }
+
+        boolean failed = isFailed(span);
+        if (!localRoot) {
+            hold(span, failed);
+            return;
+        }
+
+        String traceId = span.getSpanContext().getTraceId();
+        PendingTrace trace = pendingTraces.get(traceId);
+        List<ReadableSpan> children = trace == null ? List.of() : trace.close();
+        boolean exported = true;
+        if (failed || (trace != null && trace.failed)) {
+            failedTraces.increment();
+        } else if (span.getLatencyNanos() >= slowThresholdNanos) {
+            slowTraces.increment();
+        } else {
+            discardedTraces.increment();
+            exported = false;
+        }
+        // Remembered before the pending trace goes, so a span ending now finds one or the other.
+        decidedTraces.put(traceId, exported);
+        if (trace != null) {
+            pendingTraces.remove(traceId, trace);
+        }
+        if (exported) {
+            children.forEach(this::export);
+            export(span);
+        }
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        return delegate.forceFlush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        evictor.shutdownNow();
+        return delegate.shutdown();
+    }
+
+    private void hold(ReadableSpan span, boolean failed) {
+        String traceId = span.getSpanContext().getTraceId();
+        PendingTrace trace = pendingTraces.get(traceId);
+        if (trace == null) {
+            Boolean exported = decidedTraces.get(traceId);
+            if (exported != null) {
+                // The local root has already ended; without the decision this would start an
+                // orphan pending trace.
+                if (exported) {
+                    export(span);
+                }
+                return;
+            }
+            if (pendingTraces.size() >= maxPendingTraces && !evictAbandoned()) {
+                droppedBufferFull.increment();
+                return;
+            }
+            trace = pendingTraces.computeIfAbsent(traceId, id -> new PendingTrace(System.nanoTime()));
+        }
+        if (!trace.add(span, failed, maxSpansPerTrace)) {
+            droppedBufferFull.increment();
+        }
+    }
+
+    /**
+     * Discards the pending traces whose local root has not ended within the timeout.
+     *
+     * @return Whether any trace was discarded.
+     */
+    private boolean evictAbandoned() {
+        long now = System.nanoTime();
+        boolean evicted = false;
+        for (Iterator<PendingTrace> it = pendingTraces.values().iterator(); it.hasNext(); ) {
+            PendingTrace trace = it.next();
+            if (now - trace.startNanos >= pendingTraceTimeoutNanos) {
+                it.remove();
+                droppedAbandoned.increment(trace.close().size());
+                evicted = true;
+            }
+        }
+        return evicted;
+    }
+
+    private void export(ReadableSpan span) {
+        if (exportMetrics.tryEnqueue()) {
+            delegate.onEnd(span);
+        }
+    }
+
+    private static boolean isLocalRoot(ReadableSpan span) {
+        SpanContext parent = span.getParentSpanContext();
+        return !parent.isValid() || parent.isRemote();
+    }
+
+    private static boolean isFailed(ReadableSpan span) {
+        return SERVER_ERROR.equals(span.getAttribute(OUTCOME))
+                || span.toSpanData().getStatus().getStatusCode() == StatusCode.ERROR;
+    }
+
+    private static Counter traces(String decision, MeterRegistry meterRegistry) {
+        return Counter.builder("tracing.traces")
+                .description("Traces by whether and why they were exported")
+                .tag("decision", decision)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether the most recently decided traces were exported, by trace id.
+     */
+    private static final class DecidedTraces extends LinkedHashMap<String, Boolean> {
+
+        private final int capacity;
+
+        private DecidedTraces(int capacity) {
+            this.capacity = capacity;
+        }
+
+        @Override
+        public synchronized Boolean put(String traceId, Boolean exported) {
+            return super.put(traceId, exported);
+        }
+
+        @Override
+        public synchronized Boolean get(Object traceId) {
+            return super.get(traceId);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    /**
+     * The ended spans of a trace whose local root is still running.
+     */
+    private static final class PendingTrace {
+
+        private final long startNanos;
+        private final List<ReadableSpan> spans = new ArrayList<>();
+        private volatile boolean failed;
+        private boolean closed;
+
+        private PendingTrace(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * @return false if the trace already holds {@code maxSpans} spans. A span ending while its
+         * local root is being decided on is ignored.
+         */
+        private synchronized boolean add(ReadableSpan span, boolean spanFailed, int maxSpans) {
+            if (closed) {
+                return true;
+            }
+            if (spanFailed) {
+                failed = true;
+            }
+            if (spans.size() >= maxSpans) {
+                return false;
+            }
+            spans.add(span);
+            return true;
+        }
+
+        private synchronized List<ReadableSpan> close() {
+            closed = true;
+            return spans;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+-- V2__Compact_status_log.sql
+-- Replaces transaction_status_history (UUID key, VARCHAR status and reason per row)
+-- with an append-only log keyed by (transaction_id, seq), a SMALLINT status code
+-- and reason texts deduplicated into status_reasons.
+
+CREATE TABLE status_reasons
+(
+    id     INTEGER GENERATED BY DEFAULT AS IDENTITY,
+    reason VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_status_reasons PRIMARY KEY (id),
+    CONSTRAINT uq_status_reasons_reason UNIQUE (reason)
+);
+
+CREATE TABLE transaction_status_log
+(
+    transaction_id UUID     NOT NULL,
+    seq            SMALLINT NOT NULL,
+    status         SMALLINT NOT NULL, -- 0 = PENDING, 1 = COMPLETED, 2 = FAILED
+    reason_id      INTEGER,
+    recorded_at    TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_transaction_status_log PRIMARY KEY (transaction_id, seq)
+);
+
+ALTER TABLE transaction_status_log
+    ADD CONSTRAINT FK_TRANSACTION_STATUS_LOG_ON_TRANSACTION FOREIGN KEY (transaction_id) REFERENCES transactions (id);
+
+ALTER TABLE transaction_status_log
+    ADD CONSTRAINT FK_TRANSACTION_STATUS_LOG_ON_REASON FOREIGN KEY (reason_id) REFERENCES status_reasons (id);
+
+-- Backfill
+INSERT INTO status_reasons (reason)
+SELECT DISTINCT reason
+FROM transaction_status_history
+WHERE reason IS NOT NULL;
+
+INSERT INTO transaction_status_log (transaction_id, seq, status, reason_id, recorded_at)
+SELECT h.transaction_id,
+       (ROW_NUMBER() OVER (PARTITION BY h.transaction_id ORDER BY h.timestamp, h.id) - 1)::SMALLINT,
+       CASE h.status
+           WHEN 'PENDING' THEN 0
+           WHEN 'COMPLETED' THEN 1
+           WHEN 'FAILED' THEN 2
+           END,
+       r.id,
+       h.timestamp
+FROM transaction_status_history h
+         LEFT JOIN status_reasons r ON r.reason = h.reason;
+
+DROP TABLE transaction_status_history;
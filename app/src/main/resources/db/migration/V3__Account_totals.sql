@@ -0,0 +1,31 @@
+-- V3__Account_totals.sql
+-- Running per-account totals, maintained incrementally by the service so account summaries
+-- never scan transactions: one row per account, currency, direction and current status.
+
+CREATE TABLE account_totals
+(
+    account_id UUID           NOT NULL,
+    currency   VARCHAR(3)     NOT NULL,
+    direction  SMALLINT       NOT NULL, -- 0 = OUTGOING (source account), 1 = INCOMING (destination account)
+    status     SMALLINT       NOT NULL, -- same codes as transaction_status_log.status
+    tx_count   BIGINT         NOT NULL,
+    amount     DECIMAL(38, 4) NOT NULL,
+    CONSTRAINT pk_account_totals PRIMARY KEY (account_id, currency, direction, status)
+);
+
+-- Backfill from the current status of every existing transaction
+WITH current_status AS (SELECT DISTINCT ON (transaction_id) transaction_id, status
+                        FROM transaction_status_log
+                        ORDER BY transaction_id, seq DESC),
+     sides AS (SELECT t.source_account_id AS account_id, t.currency, 0 AS direction, s.status, t.amount
+               FROM transactions t
+                        JOIN current_status s ON s.transaction_id = t.id
+               UNION ALL
+               SELECT t.destination_account_id, t.currency, 1, s.status, t.amount
+               FROM transactions t
+                        JOIN current_status s ON s.transaction_id = t.id)
+INSERT
+INTO account_totals (account_id, currency, direction, status, tx_count, amount)
+SELECT account_id, currency, direction, status, count(*), sum(amount)
+FROM sides
+GROUP BY account_id, currency, direction, status;
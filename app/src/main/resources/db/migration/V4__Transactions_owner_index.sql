@@ -0,0 +1,5 @@
+-- V4__Transactions_owner_index.sql
+-- Lets an owner's transactions be read in creation order (the export endpoint) without
+-- scanning or sorting the whole table.
+
+CREATE INDEX idx_transactions_owner_created ON transactions (owner_id, created_at, id);
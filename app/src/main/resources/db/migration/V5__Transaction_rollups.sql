@@ -0,0 +1,29 @@
+-- V5__Transaction_rollups.sql
+-- Per-minute and per-hour counts and sums of status transitions, by currency and status,
+-- maintained incrementally by the service for the reporting endpoint.
+
+CREATE TABLE transaction_rollups
+(
+    granularity  SMALLINT       NOT NULL, -- 0 = MINUTE, 1 = HOUR
+    bucket_start TIMESTAMP WITHOUT TIME ZONE NOT NULL, -- UTC
+    currency     VARCHAR(3)     NOT NULL,
+    status       SMALLINT       NOT NULL, -- same codes as transaction_status_log.status
+    tx_count     BIGINT         NOT NULL,
+    amount       DECIMAL(38, 4) NOT NULL,
+    CONSTRAINT pk_transaction_rollups PRIMARY KEY (granularity, bucket_start, currency, status)
+);
+
+-- Progress of the backfill job, which builds the rollups of transitions recorded before this
+-- migration ran (later ones are counted by the service itself) in chunks of the status log.
+CREATE TABLE transaction_rollup_backfill
+(
+    id                  SMALLINT NOT NULL,
+    cutoff              TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    last_transaction_id UUID,
+    last_seq            SMALLINT,
+    completed_at        TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT pk_transaction_rollup_backfill PRIMARY KEY (id)
+);
+
+INSERT INTO transaction_rollup_backfill (id, cutoff)
+VALUES (1, now() AT TIME ZONE 'UTC');
@@ -0,0 +1,48 @@
+-- V6__Transaction_current_status.sql
+-- Current status of each transaction, written by the same UPDATE that bumps its version, so
+-- overdue PENDING transactions are found through a partial index instead of the status log.
+--
+-- Runs outside a transaction (see V6__Transaction_current_status.sql.conf) so that the backfill
+-- commits every 10000 transactions: each batch holds its row locks only briefly, and vacuum can
+-- reclaim the row versions it replaces while it goes on instead of the table doubling at once.
+-- If it fails part way, what ran before the failure stays applied; after a Flyway repair the
+-- script can be rerun, since it skips what exists and only touches rows still at status 0.
+
+-- Every transaction starts PENDING; a constant default is added without rewriting the table.
+ALTER TABLE transactions
+    ADD COLUMN IF NOT EXISTS status SMALLINT NOT NULL DEFAULT 0; -- same codes as transaction_status_log.status
+
+DO
+$$
+    DECLARE
+        after_id UUID := '00000000-0000-0000-0000-000000000000';
+        last_id  UUID;
+    BEGIN
+        LOOP
+            SELECT id
+            INTO last_id
+            FROM (SELECT id FROM transactions WHERE id > after_id ORDER BY id LIMIT 10000) batch
+            ORDER BY id DESC
+            LIMIT 1;
+            EXIT WHEN last_id IS NULL;
+
+            -- status = 0 skips rows a running instance has already given their current status.
+            UPDATE transactions t
+            SET status = l.status
+            FROM (SELECT DISTINCT ON (transaction_id) transaction_id, status
+                  FROM transaction_status_log
+                  WHERE transaction_id > after_id
+                    AND transaction_id <= last_id
+                  ORDER BY transaction_id, seq DESC) l
+            WHERE l.transaction_id = t.id
+              AND l.status <> 0
+              AND t.status = 0;
+
+            after_id := last_id;
+            COMMIT;
+        END LOOP;
+    END
+$$;
+
+-- Blocks writes to transactions while it is built, which is a single pass over the table.
+CREATE INDEX IF NOT EXISTS idx_transactions_pending_created ON transactions (created_at, id) WHERE status = 0;
@@ -0,0 +1,63 @@
+package com.auzienko.javamocks.transaction.app.capture;
+
+import com.auzienko.javamocks.transaction.app.config.props.RequestLoggingFilterProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrafficCaptureWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("should write one line per exchange with the listed headers and bodies within the payload limit")
+    void shouldWriteExchangesAsNdjson(@TempDir Path dir) throws Exception {
+        RequestLoggingFilterProperties properties = new RequestLoggingFilterProperties();
+        properties.setMaxPayloadSize(64);
+        properties.getCapture().setFile(dir.resolve("traffic.ndjson"));
+        properties.getCapture().setBufferSize(4096);
+        TrafficCaptureWriter underTest = new TrafficCaptureWriter(properties, objectMapper, meterRegistry);
+        underTest.start();
+
+        MockHttpServletRequest create = new MockHttpServletRequest("POST", "/api/v1/transactions");
+        create.addHeader("Idempotency-Key", "key-1");
+        create.addHeader("X-API-KEY", "secret");
+        underTest.record(create, bytes("{\"amount\":10}"), 201, bytes("{\"id\":\"abc\"}"), System.nanoTime(), 2_000_000);
+        MockHttpServletRequest export = new MockHttpServletRequest("GET", "/api/v1/transactions/export");
+        export.setQueryString("format=csv");
+        underTest.record(export, null, 200, bytes("x".repeat(100)), System.nanoTime(), 5_000_000);
+        underTest.stop();
+
+        List<String> lines = Files.readAllLines(dir.resolve("traffic.ndjson"));
+        assertThat(lines).hasSize(2);
+        CapturedExchange first = objectMapper.readValue(lines.get(0), CapturedExchange.class);
+        assertThat(first.method()).isEqualTo("POST");
+        assertThat(first.headers()).containsOnlyKeys("Idempotency-Key");
+        assertThat(first.body()).isEqualTo("{\"amount\":10}");
+        assertThat(first.responseBody()).isEqualTo("{\"id\":\"abc\"}");
+        assertThat(first.durationMicros()).isEqualTo(2_000);
+        CapturedExchange second = objectMapper.readValue(lines.get(1), CapturedExchange.class);
+        assertThat(second.uri()).isEqualTo("/api/v1/transactions/export?format=csv");
+        assertThat(second.responseBody()).isNull();
+        assertThat(second.responseBodyTruncated()).isTrue();
+        assertThat(second.bodyTruncated()).isFalse();
+        assertThat(lines.get(0)).doesNotContain("Truncated");
+        assertThat(second.offsetMicros()).isGreaterThanOrEqualTo(first.offsetMicros());
+        assertThat(meterRegistry.get("http.capture.written").counter().count()).isEqualTo(2);
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
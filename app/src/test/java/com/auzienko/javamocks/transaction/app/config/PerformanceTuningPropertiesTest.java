@@ -0,0 +1,57 @@
+package com.auzienko.javamocks.transaction.app.config;
+
+import com.auzienko.javamocks.transaction.app.config.props.PerformanceTuningProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.validation.BindValidationException;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PerformanceTuningPropertiesTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(PropertiesConfiguration.class);
+
+    @Test
+    @DisplayName("should start with the defaults and with the 'performance' profile's pool sizing")
+    void shouldAcceptConsistentSettings() {
+        contextRunner.run(context -> assertThat(context).hasNotFailed());
+        contextRunner
+                .withPropertyValues(
+                        "service.performance.enabled=true",
+                        "service.performance.maximum-pool-size=30",
+                        "service.performance.minimum-idle=30")
+                .run(context -> assertThat(context.getBean(PerformanceTuningProperties.class).getMinimumIdle())
+                        .isEqualTo(30));
+    }
+
+    @Test
+    @DisplayName("should refuse to start when minimum-idle exceeds maximum-pool-size")
+    void shouldRejectInconsistentPoolSizing() {
+        contextRunner
+                .withPropertyValues(
+                        "service.performance.maximum-pool-size=10",
+                        "service.performance.minimum-idle=20")
+                .run(context -> assertThat(context).getFailure()
+                        .hasRootCauseInstanceOf(BindValidationException.class)
+                        .rootCause().hasMessageContaining("minimum-idle must not exceed maximum-pool-size"));
+    }
+
+    @Test
+    @DisplayName("should refuse to start when a value is out of its range")
+    void shouldRejectOutOfRangeValue() {
+        contextRunner
+                .withPropertyValues("service.performance.jdbc-batch-size=0")
+                .run(context -> assertThat(context).getFailure()
+                        .hasRootCauseInstanceOf(BindValidationException.class)
+                        .rootCause().hasMessageContaining("jdbcBatchSize"));
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableConfigurationProperties(PerformanceTuningProperties.class)
+    static class PropertiesConfiguration {
+    }
+}
@@ -0,0 +1,104 @@
+package com.auzienko.javamocks.transaction.app.filter;
+
+import com.auzienko.javamocks.transaction.app.config.props.IdempotencyFilterProperties;
+import com.auzienko.javamocks.transaction.persistence.config.props.InMemoryStoreProperties;
+import com.auzienko.javamocks.transaction.persistence.idempotency.InMemoryIdempotencyKeyStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyFilterTest {
+
+    private static final String COMPLETE_OPERATION = "POST /internal/api/v1/transactions/{id}/complete";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final IdempotencyFilter underTest = new IdempotencyFilter(
+            new InMemoryIdempotencyKeyStore(new InMemoryStoreProperties()), new IdempotencyFilterProperties(), meterRegistry);
+
+    private final FilterChain controller = (request, response) -> {
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+        httpResponse.setStatus(200);
+        httpResponse.getOutputStream().write("{\"status\":\"COMPLETED\"}".getBytes(StandardCharsets.UTF_8));
+    };
+
+    @Test
+    @DisplayName("should count a processed request and its replay under the route with the id replaced")
+    void shouldRecordOutcomesByRoute() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String path = "/internal/api/v1/transactions/" + UUID.randomUUID() + "/complete";
+
+        MockHttpServletResponse first = send(path, key);
+        MockHttpServletResponse repeat = send(path, key);
+
+        assertThat(repeat.getContentAsString()).isEqualTo(first.getContentAsString());
+        assertThat(outcomeCount("processed")).isEqualTo(1);
+        assertThat(outcomeCount("replayed")).isEqualTo(1);
+        assertThat(meterRegistry.get("http.idempotency.lock")
+                .tags("operation", COMPLETE_OPERATION, "outcome", "acquired").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("http.idempotency.response.size")
+                .tag("operation", COMPLETE_OPERATION).summary().totalAmount())
+                .isEqualTo(22);
+    }
+
+    @Test
+    @DisplayName("should count a request without an Idempotency-Key as rejected")
+    void shouldRecordRejectedRequest() throws Exception {
+        MockHttpServletResponse response = send("/internal/api/v1/transactions/" + UUID.randomUUID() + "/complete", null);
+
+        assertThat(response.getStatus()).isEqualTo(400);
+        assertThat(outcomeCount("rejected")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should not cache a 503, so that a retry with the same key is processed and can succeed")
+    void shouldProcessRetryAfterServiceUnavailable() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String path = "/internal/api/v1/transactions/" + UUID.randomUUID() + "/complete";
+        FilterChain unavailable = (request, response) -> {
+            HttpServletResponse httpResponse = (HttpServletResponse) response;
+            httpResponse.setStatus(503);
+            httpResponse.getOutputStream().write("{\"status\":503}".getBytes(StandardCharsets.UTF_8));
+        };
+
+        MockHttpServletResponse failed = send(path, key, unavailable);
+        MockHttpServletResponse retried = send(path, key, controller);
+        MockHttpServletResponse repeat = send(path, key, unavailable);
+
+        assertThat(failed.getStatus()).isEqualTo(503);
+        assertThat(retried.getStatus()).isEqualTo(200);
+        assertThat(retried.getContentAsString()).isEqualTo("{\"status\":\"COMPLETED\"}");
+        assertThat(repeat.getStatus()).isEqualTo(200);
+        assertThat(outcomeCount("released")).isEqualTo(1);
+        assertThat(outcomeCount("processed")).isEqualTo(1);
+        assertThat(outcomeCount("replayed")).isEqualTo(1);
+    }
+
+    private MockHttpServletResponse send(String path, String key) throws Exception {
+        return send(path, key, controller);
+    }
+
+    private MockHttpServletResponse send(String path, String key, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        if (key != null) {
+            request.addHeader("Idempotency-Key", key);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        underTest.doFilter(request, response, chain);
+        return response;
+    }
+
+    private double outcomeCount(String outcome) {
+        return meterRegistry.get("http.idempotency.requests")
+                .tags("operation", COMPLETE_OPERATION, "outcome", outcome).counter().count();
+    }
+}
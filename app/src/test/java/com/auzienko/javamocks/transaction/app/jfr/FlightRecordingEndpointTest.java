@@ -0,0 +1,72 @@
+package com.auzienko.javamocks.transaction.app.jfr;
+
+import com.auzienko.javamocks.transaction.app.config.props.FlightRecordingProperties;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlightRecordingEndpointTest {
+
+    private final FlightRecordingEndpoint underTest = new FlightRecordingEndpoint(properties());
+
+    @AfterEach
+    void closeRecording() {
+        underTest.close();
+    }
+
+    @Test
+    @DisplayName("should cap the requested duration and dump the service's events")
+    void shouldRecordServiceEvents(@TempDir Path dir) throws Exception {
+        WebEndpointResponse<RecordingStatus> started = underTest.start(Duration.ofHours(1));
+        assertThat(started.getBody().state()).isEqualTo("RUNNING");
+        assertThat(started.getBody().duration()).isEqualTo(Duration.ofMinutes(1));
+
+        IdempotencyCheckEvent event = new IdempotencyCheckEvent();
+        event.begin();
+        event.setRetryCount(2);
+        event.finish("6f1c1c1e-8d3c-4f3a-9d59-4c1f0f5f3a10", "POST /api/v1/transactions", "waited");
+
+        WebEndpointResponse<Resource> dump = underTest.dump();
+        assertThat(dump.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        Path file = dir.resolve("dump.jfr");
+        try (InputStream in = dump.getBody().getInputStream()) {
+            Files.copy(in, file);
+        }
+
+        List<RecordedEvent> checks = RecordingFile.readAllEvents(file).stream()
+                .filter(recorded -> recorded.getEventType().getName().equals("com.auzienko.transaction.IdempotencyCheck"))
+                .toList();
+        assertThat(checks).singleElement().satisfies(recorded -> {
+            assertThat(recorded.getString("idempotencyKey")).isEqualTo("6f1c1c1e-8d3c-4f3a-9d59-4c1f0f5f3a10");
+            assertThat(recorded.getString("operation")).isEqualTo("POST /api/v1/transactions");
+            assertThat(recorded.getInt("retryCount")).isEqualTo(2);
+            assertThat(recorded.getString("outcome")).isEqualTo("waited");
+        });
+    }
+
+    @Test
+    @DisplayName("should answer 404 to a dump without a recording")
+    void shouldNotDumpWithoutRecording() throws Exception {
+        assertThat(underTest.dump().getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+    private static FlightRecordingProperties properties() {
+        FlightRecordingProperties properties = new FlightRecordingProperties();
+        properties.setMaxDuration(Duration.ofMinutes(1));
+        properties.setSettings("default");
+        return properties;
+    }
+}
@@ -0,0 +1,110 @@
+package com.auzienko.javamocks.transaction.app.latency;
+
+import com.auzienko.javamocks.transaction.app.config.props.LatencyHistogramProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class EndpointLatencyHistogramsTest {
+
+    private final EndpointLatencyHistograms underTest = new EndpointLatencyHistograms(properties());
+
+    @Test
+    @DisplayName("should report percentiles and SLO shares per method and outcome")
+    void shouldReportPerMethodAndOutcome() throws Exception {
+        Method create = Endpoints.class.getDeclaredMethod("createTransaction");
+        for (int millis = 1; millis <= 100; millis++) {
+            underTest.record(create, 201, false, TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+        underTest.record(create, 400, false, TimeUnit.MILLISECONDS.toNanos(2));
+        underTest.record(create, 200, true, TimeUnit.MILLISECONDS.toNanos(3));
+
+        LatencyReport report = underTest.report();
+
+        assertThat(report.endpoints()).containsOnlyKeys("Endpoints#createTransaction");
+        assertThat(report.endpoints().get("Endpoints#createTransaction")).containsOnlyKeys("success", "client-error", "server-error");
+        LatencyReport.Latencies success = report.endpoints().get("Endpoints#createTransaction").get("success");
+        assertThat(success.count()).isEqualTo(100);
+        assertThat(success.p50Millis()).isCloseTo(50, within(1.0));
+        assertThat(success.p99Millis()).isCloseTo(99, within(1.0));
+        assertThat(success.slo()).extracting(LatencyReport.SloBucket::count).containsExactly(10L, 50L);
+        assertThat(success.slo()).extracting(LatencyReport.SloBucket::ratio).containsExactly(0.1, 0.5);
+    }
+
+    @Test
+    @DisplayName("should keep totals across reports until reset")
+    void shouldAccumulateUntilReset() throws Exception {
+        Method get = Endpoints.class.getDeclaredMethod("getTransactionById");
+        underTest.record(get, 200, false, TimeUnit.MILLISECONDS.toNanos(5));
+        underTest.report();
+        underTest.record(get, 200, false, TimeUnit.MILLISECONDS.toNanos(7));
+
+        assertThat(underTest.report().endpoints().get("Endpoints#getTransactionById").get("success").count()).isEqualTo(2);
+
+        underTest.reset();
+
+        assertThat(underTest.report().endpoints()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should keep methods of the same name in different controllers apart")
+    void shouldKeyByDeclaringClass() throws Exception {
+        underTest.record(Endpoints.class.getDeclaredMethod("getTransactionById"), 200, false,
+                TimeUnit.MILLISECONDS.toNanos(5));
+        underTest.record(OtherEndpoints.class.getDeclaredMethod("getTransactionById"), 404, false,
+                TimeUnit.MILLISECONDS.toNanos(1));
+
+        LatencyReport report = underTest.report();
+
+        assertThat(report.endpoints()).containsOnlyKeys("Endpoints#getTransactionById", "OtherEndpoints#getTransactionById");
+        assertThat(report.endpoints().get("Endpoints#getTransactionById")).containsOnlyKeys("success");
+        assertThat(report.endpoints().get("OtherEndpoints#getTransactionById")).containsOnlyKeys("client-error");
+    }
+
+    @Test
+    @DisplayName("should name outcomes the same whatever the default locale")
+    void shouldTagOutcomesIndependentOfLocale() throws Exception {
+        Locale previous = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr"));
+        try {
+            underTest.record(Endpoints.class.getDeclaredMethod("createTransaction"), 400, false,
+                    TimeUnit.MILLISECONDS.toNanos(1));
+
+            assertThat(underTest.report().endpoints().get("Endpoints#createTransaction")).containsOnlyKeys("client-error");
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    private static LatencyHistogramProperties properties() {
+        LatencyHistogramProperties properties = new LatencyHistogramProperties();
+        properties.setSlo(List.of(Duration.ofMillis(50), Duration.ofMillis(10)));
+        properties.setSignificantDigits(3);
+        return properties;
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Endpoints {
+
+        void createTransaction() {
+        }
+
+        void getTransactionById() {
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static final class OtherEndpoints {
+
+        void getTransactionById() {
+        }
+    }
+}
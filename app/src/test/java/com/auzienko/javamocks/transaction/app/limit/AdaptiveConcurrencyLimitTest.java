@@ -0,0 +1,72 @@
+package com.auzienko.javamocks.transaction.app.limit;
+
+import com.auzienko.javamocks.transaction.app.config.props.ConcurrencyLimitProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final AdaptiveConcurrencyLimit underTest = new AdaptiveConcurrencyLimit(group());
+
+    @Test
+    @DisplayName("should reject beyond the limit and back off once per round of slow requests")
+    void shouldBackOffOncePerRound() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(underTest.tryAcquire()).isTrue();
+        }
+        assertThat(underTest.tryAcquire()).isFalse();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            underTest.release(start, start + SLOW, false);
+        }
+
+        assertThat(underTest.limit()).isEqualTo(5);
+        assertThat(underTest.inFlight()).isZero();
+
+        long later = System.nanoTime() + SLOW;
+        underTest.tryAcquire();
+        underTest.release(later, later + SLOW, false);
+
+        assertThat(underTest.limit()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should grow by one place per limit's worth of fast requests while in use, up to the maximum")
+    void shouldGrowWhileInUse() {
+        long start = System.nanoTime();
+        underTest.tryAcquire();
+        underTest.release(start, start + FAST, false);
+        assertThat(underTest.limit()).isEqualTo(10);
+
+        for (int round = 0; round < 50; round++) {
+            int limit = underTest.limit();
+            for (int i = 0; i < limit; i++) {
+                underTest.tryAcquire();
+            }
+            for (int i = 0; i < limit; i++) {
+                underTest.release(start, start + FAST, false);
+            }
+        }
+
+        assertThat(underTest.limit()).isEqualTo(20);
+    }
+
+    private static ConcurrencyLimitProperties.Group group() {
+        ConcurrencyLimitProperties.Group group = new ConcurrencyLimitProperties.Group();
+        group.setInitialLimit(10);
+        group.setMinLimit(2);
+        group.setMaxLimit(20);
+        group.setLatencyThreshold(Duration.ofMillis(100));
+        group.setBackoffRatio(0.5);
+        return group;
+    }
+}
@@ -0,0 +1,104 @@
+package com.auzienko.javamocks.transaction.app.limit;
+
+import com.auzienko.javamocks.transaction.app.config.props.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("should reject public requests beyond their share with 503 and Retry-After but admit internal ones")
+    void shouldReservePlacesForInternalEndpoints() throws Exception {
+        ConcurrencyLimitFilter underTest = new ConcurrencyLimitFilter(properties(), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain blocking = (request, response) -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        List<Thread> held = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            held.add(Thread.ofVirtual().start(() -> run(underTest, "/api/v1/transactions", blocking)));
+        }
+        awaitInFlight("public", 2);
+
+        MockHttpServletResponse rejected = run(underTest, "/api/v1/transactions", (request, response) -> {
+        });
+        MockHttpServletResponse admitted = run(underTest, "/internal/api/v1/transactions/1/complete",
+                (request, response) -> {
+                });
+
+        release.countDown();
+        for (Thread thread : held) {
+            thread.join();
+        }
+
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(admitted.getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("http.concurrency.rejections")
+                .tags("group", "public", "reason", "saturated").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("http.concurrency.in.flight").tag("group", "public").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("should shrink the limit on 5xx responses and leave streaming paths out")
+    void shouldBackOffOnServerErrorsOnly() throws Exception {
+        ConcurrencyLimitFilter underTest = new ConcurrencyLimitFilter(new ConcurrencyLimitProperties(), meterRegistry);
+
+        run(underTest, "/api/v1/transactions/export", (request, response) -> {
+            assertThat(meterRegistry.get("http.concurrency.in.flight").tag("group", "public").gauge().value()).isZero();
+            ((HttpServletResponse) response).setStatus(500);
+        });
+        assertThat(meterRegistry.get("http.concurrency.limit").tag("group", "public").gauge().value()).isEqualTo(20);
+
+        run(underTest, "/api/v1/transactions", (request, response) -> ((HttpServletResponse) response).setStatus(500));
+        assertThat(meterRegistry.get("http.concurrency.limit").tag("group", "public").gauge().value()).isEqualTo(18);
+    }
+
+    private void awaitInFlight(String group, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("http.concurrency.in.flight").tag("group", group).gauge().value() < expected
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static MockHttpServletResponse run(ConcurrencyLimitFilter filter, String path, FilterChain chain) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setServletPath(path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+
+    private static ConcurrencyLimitProperties properties() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setMaxInFlight(3);
+        properties.setReservedForInternal(1);
+        properties.setRetryAfter(Duration.ofMillis(1500));
+        return properties;
+    }
+}
@@ -0,0 +1,54 @@
+package com.auzienko.javamocks.transaction.app.tracing;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-process stand-in for an OpenTelemetry collector: accepts OTLP/HTTP trace exports on
+ * {@link #endpoint()} and keeps their bodies. Span names are plain strings in the protobuf
+ * encoding, so tests can look for them in {@link #received()}.
+ */
+final class OtlpCollectorStub implements AutoCloseable {
+
+    private final HttpServer server;
+    private final List<byte[]> requests = new CopyOnWriteArrayList<>();
+
+    OtlpCollectorStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/v1/traces", exchange -> {
+            try (InputStream body = exchange.getRequestBody()) {
+                requests.add(body.readAllBytes());
+            }
+            // An empty ExportTraceServiceResponse: all spans accepted.
+            exchange.getResponseHeaders().set("Content-Type", "application/x-protobuf");
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    String endpoint() {
+        return "http://localhost:" + server.getAddress().getPort() + "/v1/traces";
+    }
+
+    /**
+     * All export request bodies received so far, concatenated, one byte per char.
+     */
+    String received() {
+        StringBuilder received = new StringBuilder();
+        requests.forEach(body -> received.append(new String(body, StandardCharsets.ISO_8859_1)));
+        return received.toString();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,178 @@
+package com.auzienko.javamocks.transaction.app.tracing;
+
+import com.auzienko.javamocks.transaction.app.config.props.TailSamplingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.exporter.otlp.http.trace.OtlpHttpSpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TailSamplingSpanProcessorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OtlpCollectorStub collector = new OtlpCollectorStub();
+    private SdkTracerProvider tracerProvider;
+
+    TailSamplingSpanProcessorTest() throws IOException {
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (tracerProvider != null) {
+            tracerProvider.shutdown().join(10, TimeUnit.SECONDS);
+        }
+        collector.close();
+    }
+
+    @Test
+    @DisplayName("should export failed and slow traces with their child spans and discard the others")
+    void shouldExportFailedAndSlowTraces() {
+        Tracer tracer = tracer(0.0, 2048);
+
+        trace(tracer, "fast-request", "fast-query", 10, false);
+        trace(tracer, "failed-request", "failed-query", 10, true);
+        trace(tracer, "slow-request", "slow-query", 200, false);
+        flush();
+
+        assertThat(collector.received())
+                .contains("failed-request", "failed-query", "slow-request", "slow-query")
+                .doesNotContain("fast-request", "fast-query");
+        assertThat(traces("error")).isEqualTo(1);
+        assertThat(traces("slow")).isEqualTo(1);
+        assertThat(traces("discarded")).isEqualTo(1);
+        assertThat(meterRegistry.get("tracing.spans.exported").tag("outcome", "success").counter().count()).isEqualTo(4);
+        assertThat(meterRegistry.get("tracing.export.queue.size").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("should export sampled traces whatever their outcome")
+    void shouldExportSampledTraces() {
+        Tracer tracer = tracer(1.0, 2048);
+
+        trace(tracer, "fast-request", "fast-query", 10, false);
+        flush();
+
+        assertThat(collector.received()).contains("fast-request", "fast-query");
+        assertThat(traces("sampled")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should count spans dropped because the export queue is full")
+    void shouldCountSpansDroppedOnFullQueue() {
+        Tracer tracer = tracer(0.0, 1);
+
+        trace(tracer, "failed-request", "failed-query", 10, true);
+        flush();
+
+        assertThat(collector.received()).contains("failed-query").doesNotContain("failed-request");
+        assertThat(meterRegistry.get("tracing.spans.dropped").tag("reason", "queue-full").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should handle a span ending after its local root like the rest of its trace")
+    void shouldFollowDecisionForLateSpans() {
+        Tracer tracer = tracer(0.0, 2048);
+
+        late(tracer, "slow-request", "slow-late-query", 200);
+        late(tracer, "fast-request", "fast-late-query", 10);
+        flush();
+
+        assertThat(collector.received())
+                .contains("slow-request", "slow-late-query")
+                .doesNotContain("fast-request", "fast-late-query");
+        assertThat(abandoned()).isZero();
+    }
+
+    @Test
+    @DisplayName("should discard a pending trace whose local root does not end in time")
+    void shouldEvictAbandonedTracesOnTimer() throws InterruptedException {
+        Tracer tracer = tracer(0.0, 2048, Duration.ofMillis(100));
+        Span root = tracer.spanBuilder("stuck-request").startSpan();
+        tracer.spanBuilder("stuck-query").setParent(Context.current().with(root)).startSpan().end();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (abandoned() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertThat(abandoned()).isEqualTo(1);
+    }
+
+    private Tracer tracer(double probability, int queueSize) {
+        return tracer(probability, queueSize, new TailSamplingProperties().getPendingTraceTimeout());
+    }
+
+    private Tracer tracer(double probability, int queueSize, Duration pendingTraceTimeout) {
+        TailSamplingProperties properties = new TailSamplingProperties();
+        properties.setSlowThreshold(Duration.ofMillis(100));
+        properties.setPendingTraceTimeout(pendingTraceTimeout);
+        SpanExportMetrics exportMetrics = new SpanExportMetrics(queueSize, meterRegistry);
+        BatchSpanProcessor batchSpanProcessor = BatchSpanProcessor
+                .builder(exportMetrics.wrap(List.of(OtlpHttpSpanExporter.builder().setEndpoint(collector.endpoint()).build())))
+                .setExportUnsampledSpans(true)
+                .setMaxQueueSize(queueSize)
+                .setMaxExportBatchSize(Math.min(512, queueSize))
+                .build();
+        tracerProvider = SdkTracerProvider.builder()
+                .setSampler(new TailSamplingSampler(probability))
+                .addSpanProcessor(new TailSamplingSpanProcessor(batchSpanProcessor, exportMetrics, properties, meterRegistry))
+                .build();
+        return tracerProvider.get("test");
+    }
+
+    /**
+     * A root span lasting {@code millis} with one child, timed with explicit timestamps.
+     */
+    private static void trace(Tracer tracer, String rootName, String childName, long millis, boolean childFails) {
+        long start = System.currentTimeMillis();
+        Span root = tracer.spanBuilder(rootName).setStartTimestamp(start, TimeUnit.MILLISECONDS).startSpan();
+        Span child = tracer.spanBuilder(childName)
+                .setParent(Context.current().with(root))
+                .setStartTimestamp(start, TimeUnit.MILLISECONDS)
+                .startSpan();
+        if (childFails) {
+            child.setStatus(StatusCode.ERROR);
+        }
+        child.end(start + 1, TimeUnit.MILLISECONDS);
+        root.end(start + millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * A root span lasting {@code millis} whose child ends after it.
+     */
+    private static void late(Tracer tracer, String rootName, String childName, long millis) {
+        long start = System.currentTimeMillis();
+        Span root = tracer.spanBuilder(rootName).setStartTimestamp(start, TimeUnit.MILLISECONDS).startSpan();
+        Span child = tracer.spanBuilder(childName)
+                .setParent(Context.current().with(root))
+                .setStartTimestamp(start, TimeUnit.MILLISECONDS)
+                .startSpan();
+        root.end(start + millis, TimeUnit.MILLISECONDS);
+        child.end(start + millis + 1, TimeUnit.MILLISECONDS);
+    }
+
+    private void flush() {
+        assertThat(tracerProvider.forceFlush().join(10, TimeUnit.SECONDS).isSuccess()).isTrue();
+    }
+
+    private double abandoned() {
+        return meterRegistry.get("tracing.spans.dropped").tag("reason", "abandoned").counter().count();
+    }
+
+    private double traces(String decision) {
+        return meterRegistry.get("tracing.traces").tag("decision", decision).counter().count();
+    }
+}
@@ -0,0 +1,71 @@
+package com.auzienko.javamocks.transaction.benchmarks;
+
+import com.auzienko.javamocks.transaction.app.filter.ApiKeyAuthFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link ApiKeyAuthFilter} for a request passed on by the gateway, and for one without a
+ * valid key, which is logged and passed on unauthenticated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiKeyAuthFilterBenchmark {
+
+    private ApiKeyAuthFilter filter;
+    private MockHttpServletRequest authenticated;
+    private MockHttpServletRequest invalidKey;
+    private MockHttpServletResponse response;
+    private FilterChain chain;
+    private Authentication seen;
+
+    @Setup
+    public void setUp() {
+        filter = new ApiKeyAuthFilter(Fixtures.API_KEY);
+
+        authenticated = new MockHttpServletRequest("GET", Fixtures.TRANSACTIONS_PATH);
+        authenticated.addHeader("X-API-KEY", Fixtures.API_KEY);
+        authenticated.addHeader("X-User-ID", "user-42");
+        authenticated.addHeader("X-User-Roles", "ROLE_USER,ROLE_INTERNAL_SERVICE");
+
+        invalidKey = new MockHttpServletRequest("GET", Fixtures.TRANSACTIONS_PATH);
+        invalidKey.addHeader("X-API-KEY", "wrong-key");
+
+        response = new MockHttpServletResponse();
+        chain = (req, res) -> seen = SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Benchmark
+    public Authentication authenticated() throws ServletException, IOException {
+        filter.doFilter(authenticated, response, chain);
+        SecurityContextHolder.clearContext();
+        return seen;
+    }
+
+    @Benchmark
+    public Authentication invalidKey() throws ServletException, IOException {
+        filter.doFilter(invalidKey, response, chain);
+        return seen;
+    }
+}
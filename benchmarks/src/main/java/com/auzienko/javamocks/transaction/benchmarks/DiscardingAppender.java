@@ -0,0 +1,23 @@
+package com.auzienko.javamocks.transaction.benchmarks;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.encoder.Encoder;
+import lombok.Setter;
+
+/**
+ * Encodes log events like the service's console appender and throws the bytes away, so the
+ * benchmarks pay for formatting the filters' log lines without writing them into the results.
+ */
+@Setter
+public class DiscardingAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    private Encoder<ILoggingEvent> encoder;
+
+    private int encodedBytes;
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        encodedBytes = encoder.encode(event).length;
+    }
+}
@@ -0,0 +1,75 @@
+package com.auzienko.javamocks.transaction.benchmarks;
+
+import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.domain.model.TransactionStatusHistory;
+import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
+import com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Requests and transactions shaped like the ones the service sees, shared by the benchmarks.
+ */
+final class Fixtures {
+
+    static final String API_KEY = "benchmark-api-key";
+
+    static final String TRANSACTIONS_PATH = "/api/v1/transactions";
+
+    static final byte[] CREATE_REQUEST_BODY = """
+            {
+              "sourceAccountId": "0197a000-0000-7000-8000-00000000a001",
+              "destinationAccountId": "0197a000-0000-7000-8000-00000000a002",
+              "amount": 125.50,
+              "currency": "EUR"
+            }
+            """.getBytes(StandardCharsets.UTF_8);
+
+    static final byte[] CREATED_RESPONSE_BODY = ("{\"id\":\"0197a000-0000-7000-8000-000000000001\","
+            + "\"ownerId\":\"user-42\",\"amount\":125.50,\"currency\":\"EUR\",\"status\":\"PENDING\"}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    private Fixtures() {
+    }
+
+    /**
+     * A completed transaction as loaded from the store: two history entries and all fields set.
+     */
+    static Transaction completedTransaction() {
+        Instant created = Instant.parse("2025-03-01T10:15:30Z");
+        Transaction transaction = new Transaction();
+        transaction.setId(UUID.fromString("0197a000-0000-7000-8000-000000000001"));
+        transaction.setOwnerId("user-42");
+        transaction.setSourceAccountId(UUID.fromString("0197a000-0000-7000-8000-00000000a001"));
+        transaction.setDestinationAccountId(UUID.fromString("0197a000-0000-7000-8000-00000000a002"));
+        transaction.setAmount(new BigDecimal("125.50"));
+        transaction.setCurrency(Currency.EUR);
+        transaction.setCreatedAt(created);
+        transaction.setVersion(1L);
+        transaction.setStatusHistory(List.of(
+                new TransactionStatusHistory(TransactionStatus.PENDING, "Transaction initiated.", created),
+                new TransactionStatusHistory(TransactionStatus.COMPLETED, "Transaction processed successfully.",
+                        created.plusMillis(250))));
+        return transaction;
+    }
+
+    /**
+     * Deletes a temporary directory written by a benchmark, with everything in it.
+     */
+    static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
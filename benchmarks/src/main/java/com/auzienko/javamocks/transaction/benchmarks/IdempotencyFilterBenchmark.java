@@ -0,0 +1,103 @@
+package com.auzienko.javamocks.transaction.benchmarks;
+
+import com.auzienko.javamocks.transaction.app.config.props.IdempotencyFilterProperties;
+import com.auzienko.javamocks.transaction.app.filter.IdempotencyFilter;
+import com.auzienko.javamocks.transaction.persistence.config.props.InMemoryStoreProperties;
+import com.auzienko.javamocks.transaction.persistence.idempotency.InMemoryIdempotencyKeyStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link IdempotencyFilter} around a create request, with the in-memory key store so the
+ * numbers show the filter itself rather than the database round trips of the JPA store.
+ * <p>
+ * {@code firstRequest} takes the lock, runs the stubbed controller and caches its response; the key
+ * is deleted afterwards so the store does not grow. {@code retry} repeats a completed request and
+ * gets the cached response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdempotencyFilterBenchmark {
+
+    private static final int KEYS = 1024;
+
+    private IdempotencyFilter filter;
+    private InMemoryIdempotencyKeyStore store;
+    private ServletStubs.Request request;
+    private ServletStubs.Response response;
+    private FilterChain controller;
+    private UUID[] keys;
+    private String[] keyHeaders;
+    private String completedKey;
+    private int next;
+
+    @Setup
+    public void setUp() throws ServletException, IOException {
+        store = new InMemoryIdempotencyKeyStore(new InMemoryStoreProperties());
+        filter = new IdempotencyFilter(store, new IdempotencyFilterProperties(), new SimpleMeterRegistry());
+
+        request = new ServletStubs.Request("POST", Fixtures.TRANSACTIONS_PATH);
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(Fixtures.CREATE_REQUEST_BODY);
+        response = new ServletStubs.Response();
+
+        controller = (req, res) -> {
+            HttpServletResponse httpResponse = (HttpServletResponse) res;
+            httpResponse.setStatus(201);
+            httpResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            httpResponse.getOutputStream().write(Fixtures.CREATED_RESPONSE_BODY);
+        };
+
+        keys = new UUID[KEYS];
+        keyHeaders = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = UUID.randomUUID();
+            keyHeaders[i] = keys[i].toString();
+        }
+
+        completedKey = UUID.randomUUID().toString();
+        send(completedKey);
+    }
+
+    @Benchmark
+    public int firstRequest() throws ServletException, IOException {
+        int index = next++ & (KEYS - 1);
+        int status = send(keyHeaders[index]);
+        store.delete(keys[index]);
+        return status;
+    }
+
+    @Benchmark
+    public int retry() throws ServletException, IOException {
+        return send(completedKey);
+    }
+
+    private int send(String idempotencyKey) throws ServletException, IOException {
+        request.removeHeader("Idempotency-Key");
+        request.addHeader("Idempotency-Key", idempotencyKey);
+        response.recycle();
+        filter.doFilter(request, response, controller);
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,77 @@
+package com.auzienko.javamocks.transaction.benchmarks;
+
+import com.auzienko.javamocks.transaction.app.config.props.RequestLoggingFilterProperties;
+import com.auzienko.javamocks.transaction.app.filter.RequestLoggingFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link RequestLoggingFilter} around a create request: caching both bodies, building the
+ * log line and copying the response through. With logging disabled the filter is skipped, which
+ * gives the cost of the stubbed controller and the servlet stubs alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestLoggingFilterBenchmark {
+
+    @Param({"true", "false"})
+    public boolean logging;
+
+    private RequestLoggingFilter filter;
+    private ServletStubs.Request request;
+    private ServletStubs.Response response;
+    private FilterChain controller;
+
+    @Setup
+    public void setUp() {
+        RequestLoggingFilterProperties properties = new RequestLoggingFilterProperties();
+        properties.setEnabled(logging);
+        filter = new RequestLoggingFilter(properties);
+
+        request = new ServletStubs.Request("POST", Fixtures.TRANSACTIONS_PATH);
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response = new ServletStubs.Response();
+
+        // Reads the body in small chunks, as the message converter does.
+        byte[] readBuffer = new byte[256];
+        controller = (req, res) -> {
+            ServletInputStream body = req.getInputStream();
+            while (body.read(readBuffer) != -1) {
+                // discard
+            }
+            HttpServletResponse httpResponse = (HttpServletResponse) res;
+            httpResponse.setStatus(201);
+            httpResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            httpResponse.getOutputStream().write(Fixtures.CREATED_RESPONSE_BODY);
+        };
+    }
+
+    @Benchmark
+    public long createRequest() throws ServletException, IOException {
+        request.setContent(Fixtures.CREATE_REQUEST_BODY);
+        response.recycle();
+        filter.doFilter(request, response, controller);
+        return response.written();
+    }
+}
@@ -0,0 +1,107 @@
+package com.auzienko.javamocks.transaction.benchmarks;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+
+/**
+ * Spring's servlet mocks with bulk body streams. The mocks read and write bodies a byte at a time,
+ * which would cost more than the filters being measured; a container copies whole buffers.
+ */
+final class ServletStubs {
+
+    private ServletStubs() {
+    }
+
+    static final class Request extends MockHttpServletRequest {
+
+        Request(String method, String requestUri) {
+            super(method, requestUri);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            byte[] content = getContentAsByteArray();
+            ByteArrayInputStream body = new ByteArrayInputStream(content != null ? content : new byte[0]);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return body.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return body.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return body.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+    }
+
+    /**
+     * Counts the bytes written to the output stream instead of keeping them.
+     */
+    static final class Response extends MockHttpServletResponse {
+
+        private long written;
+
+        private final ServletOutputStream outputStream = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                written++;
+            }
+
+            @Override
+            public void write(byte[] buffer, int offset, int length) {
+                written += length;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener listener) {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return outputStream;
+        }
+
+        long written() {
+            return written;
+        }
+
+        /**
+         * Makes the response reusable for the next invocation.
+         */
+        void recycle() {
+            setCommitted(false);
+            reset();
+            written = 0;
+        }
+    }
+}
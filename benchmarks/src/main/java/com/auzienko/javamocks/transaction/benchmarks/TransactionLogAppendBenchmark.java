@@ -0,0 +1,84 @@
+package com.auzienko.javamocks.transaction.benchmarks;
+
+import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.persistence.memory.TransactionLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of writing a transaction version to the {@link TransactionLog} of the in-process store.
+ * <p>
+ * {@code append} only copies the record into the mapped segment. {@code appendDurable} also waits
+ * for the force, as every save does; with {@code appendDurableConcurrent} eight writers share the
+ * forces (group commit), so its time per operation against {@code appendDurable} shows how much
+ * of the force each writer still pays. {@code groupCommitWindowMicros} is the log's wait for more
+ * records before forcing. Each iteration starts with an empty log in a temporary directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionLogAppendBenchmark {
+
+    private static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    @Param({"0", "200"})
+    public long groupCommitWindowMicros;
+
+    private final Transaction transaction = Fixtures.completedTransaction();
+    private Path directory;
+    private TransactionLog transactionLog;
+
+    @Setup(Level.Iteration)
+    public void openLog() throws IOException {
+        directory = Files.createTempDirectory("transaction-log-benchmark");
+        transactionLog = new TransactionLog(directory, SEGMENT_SIZE, Duration.ofNanos(groupCommitWindowMicros * 1000), 0.5);
+        transactionLog.open(replayed -> {});
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteLog() throws IOException {
+        transactionLog.close();
+        Fixtures.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public long append() {
+        return transactionLog.append(transaction);
+    }
+
+    @Benchmark
+    public long appendDurable() {
+        long position = transactionLog.append(transaction);
+        transactionLog.awaitDurable(position);
+        return position;
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long appendDurableConcurrent() {
+        long position = transactionLog.append(transaction);
+        transactionLog.awaitDurable(position);
+        return position;
+    }
+}
@@ -0,0 +1,84 @@
+package com.auzienko.javamocks.transaction.benchmarks;
+
+import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.persistence.memory.TransactionLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recovery time of the in-process store: opening a {@link TransactionLog} and replaying it into a
+ * map that keeps the highest version of each transaction, as the store does on startup.
+ * <p>
+ * The log is written once per trial with {@code transactions} transactions of four versions each
+ * (created, then three status changes), so a quarter of the records survive the replay.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionLogReplayBenchmark {
+
+    private static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+    private static final int VERSIONS = 4;
+
+    @Param({"10000", "100000"})
+    public int transactions;
+
+    private Path directory;
+
+    @Setup
+    public void writeLog() throws IOException {
+        directory = Files.createTempDirectory("transaction-log-benchmark");
+        TransactionLog transactionLog = newLog();
+        transactionLog.open(replayed -> {});
+        for (int i = 0; i < transactions; i++) {
+            Transaction transaction = Fixtures.completedTransaction();
+            transaction.setId(UUID.randomUUID());
+            for (long version = 0; version < VERSIONS; version++) {
+                transaction.setVersion(version);
+                transactionLog.append(transaction);
+            }
+        }
+        transactionLog.close();
+    }
+
+    @TearDown
+    public void deleteLog() throws IOException {
+        Fixtures.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public int replay() throws IOException {
+        Map<UUID, Transaction> recovered = new HashMap<>();
+        TransactionLog transactionLog = newLog();
+        transactionLog.open(transaction -> recovered.merge(transaction.getId(), transaction,
+                (stored, replayed) -> replayed.getVersion() > stored.getVersion() ? replayed : stored));
+        transactionLog.close();
+        return recovered.size();
+    }
+
+    private TransactionLog newLog() {
+        return new TransactionLog(directory, SEGMENT_SIZE, Duration.ZERO, 0.5);
+    }
+}
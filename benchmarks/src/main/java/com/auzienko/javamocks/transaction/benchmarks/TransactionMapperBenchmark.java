@@ -0,0 +1,113 @@
+package com.auzienko.javamocks.transaction.benchmarks;
+
+import com.auzienko.javamocks.transaction.api.mapper.TransactionApiMapper;
+import com.auzienko.javamocks.transaction.api.mapper.TransactionApiMapperImpl;
+import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.persistence.entity.StatusReasonEntity;
+import com.auzienko.javamocks.transaction.persistence.entity.TransactionEntity;
+import com.auzienko.javamocks.transaction.persistence.mapper.TransactionPersistenceMapper;
+import com.auzienko.javamocks.transaction.persistence.mapper.TransactionPersistenceMapperImpl;
+import com.auzienko.javamocks.transaction.persistence.repository.StatusReasonInterner;
+import com.auzienko.javamocks.transaction.persistence.repository.StatusReasonJpaRepository;
+import com.auzienko.javamocks.transaction.publicapi.dto.TransactionResponse;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the MapStruct mappers on the request path: {@link TransactionApiMapper#toResponse} for
+ * every response, and the {@link TransactionPersistenceMapper} round trip for every write.
+ * <p>
+ * Status reasons are resolved against a stub repository; after the first call they come from the
+ * interner's cache, as they do for the handful of reasons the service uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionMapperBenchmark {
+
+    private TransactionApiMapper apiMapper;
+    private TransactionPersistenceMapper persistenceMapper;
+    private Transaction transaction;
+    private TransactionEntity entity;
+
+    @Setup
+    public void setUp() {
+        apiMapper = new TransactionApiMapperImpl();
+        persistenceMapper = new TransactionPersistenceMapperImpl();
+        ReflectionTestUtils.setField(persistenceMapper, "statusReasonInterner", statusReasonInterner());
+        transaction = Fixtures.completedTransaction();
+        entity = persistenceMapper.toEntity(transaction);
+    }
+
+    @Benchmark
+    public TransactionResponse toResponse() {
+        return apiMapper.toResponse(transaction);
+    }
+
+    @Benchmark
+    public TransactionEntity toEntity() {
+        return persistenceMapper.toEntity(transaction);
+    }
+
+    @Benchmark
+    public Transaction toDomain() {
+        return persistenceMapper.toDomain(entity);
+    }
+
+    @Benchmark
+    public Transaction roundTrip() {
+        return persistenceMapper.toDomain(persistenceMapper.toEntity(transaction));
+    }
+
+    private static StatusReasonInterner statusReasonInterner() {
+        Map<String, StatusReasonEntity> byText = new ConcurrentHashMap<>();
+        Map<Integer, StatusReasonEntity> byId = new ConcurrentHashMap<>();
+        StatusReasonJpaRepository repository = stub(StatusReasonJpaRepository.class, (method, args) -> switch (method) {
+            case "findByText" -> Optional.ofNullable(byText.get((String) args[0]));
+            case "insertIfAbsent" -> {
+                byText.computeIfAbsent((String) args[0], text -> {
+                    StatusReasonEntity reason = new StatusReasonEntity();
+                    reason.setId(byText.size() + 1);
+                    reason.setText(text);
+                    byId.put(reason.getId(), reason);
+                    return reason;
+                });
+                yield null;
+            }
+            default -> throw new UnsupportedOperationException(method);
+        });
+        EntityManager entityManager = stub(EntityManager.class, (method, args) -> switch (method) {
+            case "getReference" -> byId.get((Integer) args[1]);
+            default -> throw new UnsupportedOperationException(method);
+        });
+        return new StatusReasonInterner(repository, entityManager);
+    }
+
+    private interface StubMethod {
+        Object invoke(String method, Object[] args);
+    }
+
+    private static <T> T stub(Class<T> type, StubMethod handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> handler.invoke(method.getName(), args)));
+    }
+}
@@ -0,0 +1,57 @@
+package com.auzienko.javamocks.transaction.benchmarks;
+
+import com.auzienko.javamocks.transaction.api.mapper.TransactionApiMapperImpl;
+import com.auzienko.javamocks.transaction.publicapi.dto.TransactionResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of writing a {@link TransactionResponse} as the response body, with an object mapper
+ * configured the way Spring Boot configures the one the message converters use.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionResponseJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter writer;
+    private TransactionResponse response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(TransactionResponse.class);
+        response = new TransactionApiMapperImpl().toResponse(Fixtures.completedTransaction());
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    /**
+     * With the writer resolved once, as the message converter's cache does after the first response.
+     */
+    @Benchmark
+    public byte[] typedWriter() throws JsonProcessingException {
+        return writer.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,78 @@
+package com.auzienko.javamocks.transaction.benchmarks;
+
+import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.domain.model.TransactionStatusHistory;
+import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
+import com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of reading the current status of a loaded transaction, against scanning its history for the
+ * latest entry as {@link Transaction#getCurrentStatus()} used to.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionStatusBenchmark {
+
+    private static final Comparator<TransactionStatusHistory> BY_TIMESTAMP = Comparator.comparing(
+            TransactionStatusHistory::getTimestamp, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private Transaction transaction;
+    private List<TransactionStatusHistory> history;
+
+    @Setup
+    public void setUp() {
+        Instant created = Instant.parse("2025-03-01T10:15:30Z");
+        history = List.of(
+                new TransactionStatusHistory(TransactionStatus.PENDING, "Transaction initiated.", created),
+                new TransactionStatusHistory(TransactionStatus.COMPLETED, "Transaction processed successfully.",
+                        created.plusMillis(250)));
+        transaction = new Transaction();
+        transaction.setId(UUID.randomUUID());
+        transaction.setAmount(new BigDecimal("100.00"));
+        transaction.setCurrency(Currency.EUR);
+        transaction.setStatusHistory(history);
+    }
+
+    @Benchmark
+    public TransactionStatus currentStatus() {
+        return transaction.getCurrentStatus();
+    }
+
+    @Benchmark
+    public TransactionStatus latestByTimestamp() {
+        return transaction.getStatusHistory().stream()
+                .max(BY_TIMESTAMP)
+                .map(TransactionStatusHistory::getStatus)
+                .orElseThrow();
+    }
+
+    /**
+     * The one-off cost paid when a transaction is loaded.
+     */
+    @Benchmark
+    public TransactionStatus loadStatusHistory() {
+        transaction.setStatusHistory(history);
+        return transaction.getCurrentStatus();
+    }
+}
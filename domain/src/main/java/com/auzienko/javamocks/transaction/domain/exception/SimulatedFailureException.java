@@ -0,0 +1,11 @@
+package com.auzienko.javamocks.transaction.domain.exception;
+
+/**
+ * Thrown instead of carrying out a call that the configured failure simulation rejects. Nothing
+ * has been changed when it is thrown, so the call can be retried.
+ */
+public class SimulatedFailureException extends RuntimeException {
+    public SimulatedFailureException(String message) {
+        super(message);
+    }
+}
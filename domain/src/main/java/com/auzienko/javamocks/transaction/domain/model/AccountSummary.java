@@ -0,0 +1,49 @@
+package com.auzienko.javamocks.transaction.domain.model;
+
+import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
+import com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Running totals of one account in one currency: how many transactions it is the source or
+ * destination of, and their summed amount, by current status. Also used for the not yet stored
+ * changes to those totals, where counts and amounts can be negative.
+ */
+@Getter
+public class AccountSummary {
+
+    private final UUID accountId;
+    private final Currency currency;
+    private final Map<TransactionStatus, Totals> outgoing = new EnumMap<>(TransactionStatus.class);
+    private final Map<TransactionStatus, Totals> incoming = new EnumMap<>(TransactionStatus.class);
+
+    public AccountSummary(UUID accountId, Currency currency) {
+        this.accountId = accountId;
+        this.currency = currency;
+    }
+
+    public void add(TransferDirection direction, TransactionStatus status, long count, BigDecimal amount) {
+        totals(direction).merge(status, new Totals(count, amount), Totals::plus);
+    }
+
+    public void addAll(AccountSummary other) {
+        other.outgoing.forEach((status, totals) -> add(TransferDirection.OUTGOING, status, totals.count(), totals.amount()));
+        other.incoming.forEach((status, totals) -> add(TransferDirection.INCOMING, status, totals.count(), totals.amount()));
+    }
+
+    public Map<TransactionStatus, Totals> totals(TransferDirection direction) {
+        return direction == TransferDirection.OUTGOING ? outgoing : incoming;
+    }
+
+    public record Totals(long count, BigDecimal amount) {
+
+        public Totals plus(Totals other) {
+            return new Totals(count + other.count, amount.add(other.amount));
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.auzienko.javamocks.transaction.domain.model;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Width of the time buckets transaction rollups are kept for.
+ */
+public enum RollupGranularity {
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS);
+
+    private final ChronoUnit unit;
+
+    RollupGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * @return The start of the bucket containing {@code instant} (buckets are aligned to UTC).
+     */
+    public Instant bucketStart(Instant instant) {
+        return instant.truncatedTo(unit);
+    }
+
+    public Duration bucketWidth() {
+        return unit.getDuration();
+    }
+}
@@ -5,13 +5,15 @@ import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
 import com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -40,8 +42,24 @@ public class Transaction {
 
     private Instant createdAt;
 
+    /**
+     * Status changes in the order they happened. Only the transition methods and {@link #setStatusHistory}
+     * keep {@link #getCurrentStatus()} in step, so entries must not be added to this list directly.
+     */
     private List<TransactionStatusHistory> statusHistory = new ArrayList<>();
 
+    /**
+     * Status of the last history entry, tracked so that reading it does not have to scan the history.
+     */
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private TransactionStatus currentStatus;
+
+    /**
+     * Optimistic locking version as loaded from storage; null for a transaction that has not been saved yet.
+     */
+    private Long version;
+
     public Transaction(String ownerId, UUID sourceAccountId, UUID destinationAccountId, BigDecimal amount, Currency currency) {
         this.ownerId = ownerId;
         this.sourceAccountId = sourceAccountId;
@@ -50,21 +68,23 @@ public class Transaction {
         this.currency = currency;
         // The initial status is added to the history. 'createdAt' will be set upon persistence.
         this.statusHistory.add(new TransactionStatusHistory(TransactionStatus.PENDING, "Transaction initiated."));
+        this.currentStatus = TransactionStatus.PENDING;
         validate();
     }
 
     // --- Business Logic Methods ---
 
     /**
-     * Gets the current status of the transaction by finding the latest entry in its history.
+     * Gets the current status of the transaction, which is the status of the latest entry in its history.
      *
      * @return The current TransactionStatus.
      * @throws IllegalStateException if the transaction has no status history, which represents an invalid state.
      */
     public TransactionStatus getCurrentStatus() {
-        return findLatestStatusHistory()
-                .map(TransactionStatusHistory::getStatus)
-                .orElseThrow(() -> new IllegalStateException("Transaction " + id + " has no status history, which is an invalid state."));
+        if (currentStatus == null) {
+            throw new IllegalStateException("Transaction " + id + " has no status history, which is an invalid state.");
+        }
+        return currentStatus;
     }
 
     /**
@@ -73,36 +93,58 @@ public class Transaction {
      * @return an Optional containing the latest TransactionStatusHistory entry, or empty if none exist.
      */
     public Optional<TransactionStatusHistory> findLatestStatusHistory() {
-        return statusHistory.stream()
-                .max(Comparator.comparing(TransactionStatusHistory::getTimestamp,
-                        Comparator.nullsFirst(Comparator.naturalOrder())));
+        return statusHistory.isEmpty() ? Optional.empty() : Optional.of(statusHistory.getLast());
+    }
+
+    /**
+     * Replaces the status history, as loaded from storage, and takes the current status from its last entry.
+     *
+     * @param statusHistory The status changes in the order they happened.
+     * @throws IllegalStateException if the timestamps of the entries go back in time, or a saved entry
+     *                               follows one that has not been saved yet.
+     */
+    public void setStatusHistory(List<TransactionStatusHistory> statusHistory) {
+        this.statusHistory = statusHistory;
+        this.currentStatus = statusHistory == null ? null : validateStatusHistory(statusHistory);
+    }
+
+    /**
+     * Moves the transaction to the target status of {@code transition}, recording it in the history.
+     * This is the single state-mutating business method; it enforces the transition table.
+     *
+     * @param transition The transition to take.
+     * @param reason     Why, or null for the transition's default reason.
+     * @throws InvalidTransactionStateException if the transition is not allowed from the current status.
+     */
+    public void apply(TransactionTransition transition, String reason) {
+        TransactionStatus status = getCurrentStatus();
+        if (!transition.isAllowedFrom(status)) {
+            throw new InvalidTransactionStateException("A transaction in status " + status + " cannot become "
+                    + transition.getTarget() + ", only one in " + transition.getSources() + " can.");
+        }
+        this.statusHistory.add(new TransactionStatusHistory(transition.getTarget(),
+                reason != null ? reason : transition.getDefaultReason()));
+        this.currentStatus = transition.getTarget();
     }
 
     /**
      * Transitions the transaction to the COMPLETED state.
-     * This is a state-mutating business method that enforces transition rules.
      *
-     * @throws InvalidTransactionStateException if the transaction is not in a PENDING state.
+     * @throws InvalidTransactionStateException if the transaction is not PENDING or AUTHORIZED.
      */
     public void complete() {
-        if (getCurrentStatus() != TransactionStatus.PENDING) {
-            throw new InvalidTransactionStateException("Only a PENDING transaction can be completed. Current status: " + getCurrentStatus());
-        }
-        this.statusHistory.add(new TransactionStatusHistory(TransactionStatus.COMPLETED, "Transaction processed successfully."));
+        apply(TransactionTransition.COMPLETE, null);
     }
 
     /**
      * Transitions the transaction to the FAILED state.
-     * This is a state-mutating business method that enforces transition rules.
      *
-     * @param reason A description of why the transaction failed.
-     * @throws InvalidTransactionStateException if the transaction is not in a PENDING state.
+     * @param reason A description of why the transaction failed, or null to record the default
+     *               "Transaction failed." (a null reason used to be stored as null).
+     * @throws InvalidTransactionStateException if the transaction is not PENDING or AUTHORIZED.
      */
     public void fail(String reason) {
-        if (getCurrentStatus() != TransactionStatus.PENDING) {
-            throw new InvalidTransactionStateException("Only a PENDING transaction can be failed. Current status: " + getCurrentStatus());
-        }
-        this.statusHistory.add(new TransactionStatusHistory(TransactionStatus.FAILED, reason));
+        apply(TransactionTransition.FAIL, reason);
     }
 
 
@@ -119,4 +161,28 @@ public class Transaction {
             throw new IllegalArgumentException("Source and destination accounts cannot be the same.");
         }
     }
+
+    /**
+     * Checks that the entries are in chronological order, with entries not saved yet (no timestamp) last.
+     *
+     * @return The status of the last entry, or null if there are none.
+     * @throws IllegalStateException if the order is violated.
+     */
+    private TransactionStatus validateStatusHistory(List<TransactionStatusHistory> history) {
+        TransactionStatus latest = null;
+        Instant previous = null;
+        boolean unsaved = false;
+        for (TransactionStatusHistory entry : history) {
+            Instant timestamp = entry.getTimestamp();
+            if (timestamp == null) {
+                unsaved = true;
+            } else if (unsaved || (previous != null && timestamp.isBefore(previous))) {
+                throw new IllegalStateException("Status history of transaction " + id + " is not in chronological order.");
+            } else {
+                previous = timestamp;
+            }
+            latest = entry.getStatus();
+        }
+        return latest;
+    }
 }
\ No newline at end of file
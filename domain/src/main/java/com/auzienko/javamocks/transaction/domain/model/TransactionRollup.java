@@ -0,0 +1,32 @@
+package com.auzienko.javamocks.transaction.domain.model;
+
+import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
+import com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * How many transactions entered {@code status} during one time bucket, and their summed amount.
+ * A transaction is counted once per status it passes through: under PENDING in the bucket it was
+ * created in, and under its final status in the bucket it got there.
+ */
+public record TransactionRollup(RollupGranularity granularity,
+                                Instant bucketStart,
+                                Currency currency,
+                                TransactionStatus status,
+                                long count,
+                                BigDecimal amount) {
+
+    public Key key() {
+        return new Key(granularity, bucketStart, currency, status);
+    }
+
+    public TransactionRollup plus(TransactionRollup other) {
+        return new TransactionRollup(granularity, bucketStart, currency, status,
+                count + other.count, amount.add(other.amount));
+    }
+
+    public record Key(RollupGranularity granularity, Instant bucketStart, Currency currency, TransactionStatus status) {
+    }
+}
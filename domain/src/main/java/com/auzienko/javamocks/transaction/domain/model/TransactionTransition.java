@@ -0,0 +1,48 @@
+package com.auzienko.javamocks.transaction.domain.model;
+
+import com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus.AUTHORIZED;
+import static com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus.CANCELLED;
+import static com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus.COMPLETED;
+import static com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus.EXPIRED;
+import static com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus.FAILED;
+import static com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus.PENDING;
+import static com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus.REVERSED;
+
+/**
+ * The status transitions of a transaction, as a table: each names the status it leads to and the
+ * statuses it may start from.
+ */
+@Getter
+public enum TransactionTransition {
+
+    AUTHORIZE(AUTHORIZED, "Transaction authorized.", PENDING),
+    COMPLETE(COMPLETED, "Transaction processed successfully.", PENDING, AUTHORIZED),
+    FAIL(FAILED, "Transaction failed.", PENDING, AUTHORIZED),
+    CANCEL(CANCELLED, "Transaction cancelled.", PENDING, AUTHORIZED),
+    REVERSE(REVERSED, "Transaction reversed.", COMPLETED),
+    EXPIRE(EXPIRED, "Transaction expired.", PENDING, AUTHORIZED);
+
+    private final TransactionStatus target;
+    private final String defaultReason;
+    private final Set<TransactionStatus> sources;
+
+    TransactionTransition(TransactionStatus target, String defaultReason, TransactionStatus first, TransactionStatus... rest) {
+        this.target = target;
+        this.defaultReason = defaultReason;
+        this.sources = Collections.unmodifiableSet(EnumSet.of(first, rest));
+    }
+
+    /**
+     * @return true if a transaction in {@code status} may take this transition.
+     */
+    public boolean isAllowedFrom(TransactionStatus status) {
+        return sources.contains(status);
+    }
+}
@@ -0,0 +1,17 @@
+package com.auzienko.javamocks.transaction.domain.model;
+
+/**
+ * Which side of a transaction an account is on.
+ */
+public enum TransferDirection {
+
+    /**
+     * The account is the transaction's source.
+     */
+    OUTGOING,
+
+    /**
+     * The account is the transaction's destination.
+     */
+    INCOMING
+}
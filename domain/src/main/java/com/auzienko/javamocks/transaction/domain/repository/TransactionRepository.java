@@ -4,9 +4,19 @@ import com.auzienko.javamocks.transaction.domain.model.Transaction;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface TransactionRepository {
     Transaction save(Transaction transaction);
     Optional<Transaction> findById(UUID id);
     Optional<Transaction> findByIdAndOwnerId(UUID id, String ownerId);
+
+    /**
+     * Passes every transaction of an owner to {@code action}, oldest first, reading them
+     * incrementally so the whole result is never held in memory.
+     *
+     * @param ownerId The owner whose transactions to read.
+     * @param action  Called once per transaction, on the calling thread.
+     */
+    void forEachByOwnerId(String ownerId, Consumer<Transaction> action);
 }
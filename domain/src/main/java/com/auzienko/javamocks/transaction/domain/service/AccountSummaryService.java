@@ -0,0 +1,17 @@
+package com.auzienko.javamocks.transaction.domain.service;
+
+import com.auzienko.javamocks.transaction.domain.model.AccountSummary;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface AccountSummaryService {
+    /**
+     * Returns the running totals of an account, one summary per currency it has transactions in.
+     * Served from the maintained totals; raw transactions are never scanned.
+     *
+     * @param accountId The account, as source or destination of transactions.
+     * @return The account's summaries, empty if it has no transactions.
+     */
+    List<AccountSummary> getAccountSummaries(UUID accountId);
+}
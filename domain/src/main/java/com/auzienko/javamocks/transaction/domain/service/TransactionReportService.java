@@ -0,0 +1,21 @@
+package com.auzienko.javamocks.transaction.domain.service;
+
+import com.auzienko.javamocks.transaction.domain.model.RollupGranularity;
+import com.auzienko.javamocks.transaction.domain.model.TransactionRollup;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface TransactionReportService {
+
+    /**
+     * Returns the rollups of all buckets starting in {@code [from, to)}, ordered by bucket,
+     * currency and status. Buckets without transactions are omitted.
+     *
+     * @param granularity The bucket width.
+     * @param from        Inclusive start of the range.
+     * @param to          Exclusive end of the range.
+     * @return The rollups of the range.
+     */
+    List<TransactionRollup> getRollups(RollupGranularity granularity, Instant from, Instant to);
+}
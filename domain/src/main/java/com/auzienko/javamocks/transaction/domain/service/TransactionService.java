@@ -1,9 +1,11 @@
 package com.auzienko.javamocks.transaction.domain.service;
 
 import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.domain.model.TransactionTransition;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface TransactionService {
     /**
@@ -32,13 +34,21 @@ public interface TransactionService {
      */
     Optional<Transaction> findTransactionById(UUID id, String ownerId);
 
+    /**
+     * Streams all transactions of an owner, oldest first, without loading them all at once.
+     *
+     * @param ownerId The user id
+     * @param action  Called once per transaction, on the calling thread.
+     */
+    void exportTransactions(String ownerId, Consumer<Transaction> action);
+
     /**
      * Marks a transaction as COMPLETED.
      *
      * @param id The UUID of the transaction to complete.
      * @return The updated transaction.
      * @throws com.auzienko.javamocks.transaction.domain.exception.TransactionNotFoundException if transaction not found.
-     * @throws IllegalStateException                                                            if the transaction is not in a PENDING state.
+     * @throws IllegalStateException                                                            if the transaction is not PENDING or AUTHORIZED.
      */
     Transaction completeTransaction(UUID id);
 
@@ -49,7 +59,19 @@ public interface TransactionService {
      * @param reason The reason for the failure.
      * @return The updated transaction.
      * @throws com.auzienko.javamocks.transaction.domain.exception.TransactionNotFoundException if transaction not found.
-     * @throws IllegalStateException                                                            if the transaction is not in a PENDING state.
+     * @throws IllegalStateException                                                            if the transaction is not PENDING or AUTHORIZED.
      */
     Transaction failTransaction(UUID id, String reason);
+
+    /**
+     * Moves a transaction along one of the transitions of {@link TransactionTransition}.
+     *
+     * @param id         The UUID of the transaction.
+     * @param transition The transition to take.
+     * @param reason     Why, or null for the transition's default reason.
+     * @return The updated transaction.
+     * @throws com.auzienko.javamocks.transaction.domain.exception.TransactionNotFoundException if transaction not found.
+     * @throws IllegalStateException                                                            if the transition is not allowed from the current status.
+     */
+    Transaction transitionTransaction(UUID id, TransactionTransition transition, String reason);
 }
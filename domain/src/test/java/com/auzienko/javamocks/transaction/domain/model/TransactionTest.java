@@ -0,0 +1,193 @@
+package com.auzienko.javamocks.transaction.domain.model;
+
+import com.auzienko.javamocks.transaction.domain.exception.InvalidTransactionStateException;
+import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
+import com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus.AUTHORIZED;
+import static com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus.COMPLETED;
+import static com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus.FAILED;
+import static com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus.PENDING;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionTest {
+
+    private static final Instant T0 = Instant.parse("2025-01-01T00:00:00Z");
+
+    /**
+     * The statuses each transition may start from, written out independently of the enum.
+     */
+    private static final Map<TransactionTransition, Set<TransactionStatus>> ALLOWED = Map.of(
+            TransactionTransition.AUTHORIZE, EnumSet.of(PENDING),
+            TransactionTransition.COMPLETE, EnumSet.of(PENDING, AUTHORIZED),
+            TransactionTransition.FAIL, EnumSet.of(PENDING, AUTHORIZED),
+            TransactionTransition.CANCEL, EnumSet.of(PENDING, AUTHORIZED),
+            TransactionTransition.REVERSE, EnumSet.of(COMPLETED),
+            TransactionTransition.EXPIRE, EnumSet.of(PENDING, AUTHORIZED));
+
+    static Stream<Arguments> allowedTransitions() {
+        return pairs(true);
+    }
+
+    static Stream<Arguments> disallowedTransitions() {
+        return pairs(false);
+    }
+
+    private static Stream<Arguments> pairs(boolean allowed) {
+        return Arrays.stream(TransactionTransition.values())
+                .flatMap(transition -> Arrays.stream(TransactionStatus.values())
+                        .filter(status -> ALLOWED.get(transition).contains(status) == allowed)
+                        .map(status -> Arguments.of(transition, status)));
+    }
+
+    @Nested
+    @DisplayName("When applying a transition")
+    class ApplyTests {
+
+        @ParameterizedTest(name = "{0} from {1}")
+        @MethodSource("com.auzienko.javamocks.transaction.domain.model.TransactionTest#allowedTransitions")
+        @DisplayName("it should move an allowed source status to the target and record the default reason")
+        void shouldApplyAllowedTransition(TransactionTransition transition, TransactionStatus from) {
+            Transaction transaction = inStatus(from);
+
+            transaction.apply(transition, null);
+
+            assertThat(transition.isAllowedFrom(from)).isTrue();
+            assertThat(transaction.getCurrentStatus()).isEqualTo(transition.getTarget());
+            assertThat(transaction.getStatusHistory()).hasSize(3);
+            assertThat(transaction.getStatusHistory().getLast().getStatus()).isEqualTo(transition.getTarget());
+            assertThat(transaction.getStatusHistory().getLast().getReason()).isEqualTo(transition.getDefaultReason());
+        }
+
+        @ParameterizedTest(name = "{0} from {1}")
+        @MethodSource("com.auzienko.javamocks.transaction.domain.model.TransactionTest#disallowedTransitions")
+        @DisplayName("it should reject a disallowed source status and leave the transaction unchanged")
+        void shouldRejectDisallowedTransition(TransactionTransition transition, TransactionStatus from) {
+            Transaction transaction = inStatus(from);
+
+            assertThat(transition.isAllowedFrom(from)).isFalse();
+            assertThatThrownBy(() -> transaction.apply(transition, "Because."))
+                    .isInstanceOf(InvalidTransactionStateException.class);
+            assertThat(transaction.getCurrentStatus()).isEqualTo(from);
+            assertThat(transaction.getStatusHistory()).hasSize(2);
+        }
+
+        @Test
+        @DisplayName("it should record the given reason instead of the default")
+        void shouldRecordGivenReason() {
+            Transaction transaction = newTransaction();
+
+            transaction.fail("Card declined.");
+
+            assertThat(transaction.getCurrentStatus()).isEqualTo(FAILED);
+            assertThat(transaction.getStatusHistory().getLast().getReason()).isEqualTo("Card declined.");
+        }
+
+        @Test
+        @DisplayName("it should record the default reason when failed without one")
+        void shouldRecordDefaultReasonOnFailWithoutReason() {
+            Transaction transaction = newTransaction();
+
+            transaction.fail(null);
+
+            assertThat(transaction.getStatusHistory().getLast().getReason()).isEqualTo("Transaction failed.");
+        }
+    }
+
+    @Nested
+    @DisplayName("When setting the status history")
+    class SetStatusHistoryTests {
+
+        @Test
+        @DisplayName("it should take the current status from the last entry")
+        void shouldTakeCurrentStatusFromLastEntry() {
+            Transaction transaction = newTransaction();
+
+            transaction.setStatusHistory(history(
+                    entry(PENDING, T0), entry(AUTHORIZED, T0.plusSeconds(1)), entry(COMPLETED, null)));
+
+            assertThat(transaction.getCurrentStatus()).isEqualTo(COMPLETED);
+        }
+
+        @Test
+        @DisplayName("it should accept entries with equal timestamps")
+        void shouldAcceptEqualTimestamps() {
+            Transaction transaction = newTransaction();
+
+            transaction.setStatusHistory(history(entry(PENDING, T0), entry(FAILED, T0)));
+
+            assertThat(transaction.getCurrentStatus()).isEqualTo(FAILED);
+        }
+
+        @Test
+        @DisplayName("it should reject entries going back in time")
+        void shouldRejectEntriesOutOfOrder() {
+            Transaction transaction = newTransaction();
+
+            assertThatThrownBy(() -> transaction.setStatusHistory(history(
+                    entry(PENDING, T0.plusSeconds(1)), entry(COMPLETED, T0))))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+
+        @Test
+        @DisplayName("it should reject a saved entry after an unsaved one")
+        void shouldRejectSavedEntryAfterUnsaved() {
+            Transaction transaction = newTransaction();
+
+            assertThatThrownBy(() -> transaction.setStatusHistory(history(
+                    entry(PENDING, T0), entry(AUTHORIZED, null), entry(COMPLETED, T0.plusSeconds(1)))))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+
+        @Test
+        @DisplayName("it should leave no current status for an empty or missing history")
+        void shouldHaveNoStatusWithoutHistory() {
+            Transaction transaction = newTransaction();
+
+            transaction.setStatusHistory(history());
+            assertThatThrownBy(transaction::getCurrentStatus).isInstanceOf(IllegalStateException.class);
+
+            transaction.setStatusHistory(null);
+            assertThatThrownBy(transaction::getCurrentStatus).isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    private static Transaction newTransaction() {
+        return new Transaction("owner", UUID.randomUUID(), UUID.randomUUID(), new BigDecimal("12.50"), Currency.EUR);
+    }
+
+    /**
+     * A saved transaction whose history ends in {@code status}.
+     */
+    private static Transaction inStatus(TransactionStatus status) {
+        Transaction transaction = newTransaction();
+        transaction.setStatusHistory(history(entry(PENDING, T0), entry(status, T0.plusSeconds(1))));
+        return transaction;
+    }
+
+    private static TransactionStatusHistory entry(TransactionStatus status, Instant timestamp) {
+        return new TransactionStatusHistory(status, null, timestamp);
+    }
+
+    private static List<TransactionStatusHistory> history(TransactionStatusHistory... entries) {
+        return new ArrayList<>(List.of(entries));
+    }
+}
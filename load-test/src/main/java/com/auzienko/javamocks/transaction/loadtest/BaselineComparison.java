@@ -0,0 +1,43 @@
+package com.auzienko.javamocks.transaction.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the operations whose p99 or throughput regressed against the baseline beyond the allowed
+ * margins. Operations missing from either report are not compared.
+ */
+public final class BaselineComparison {
+
+    private BaselineComparison() {
+    }
+
+    /**
+     * @return One message per regression; empty if the run is within the margins.
+     */
+    public static List<String> regressions(LoadReport baseline, LoadReport current,
+                                           double maxP99Increase, double p99SlackMillis, double maxThroughputDrop) {
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<Operation, LoadReport.OperationStats> entry : baseline.operations().entrySet()) {
+            LoadReport.OperationStats expected = entry.getValue();
+            LoadReport.OperationStats actual = current.operations().get(entry.getKey());
+            if (actual == null) {
+                continue;
+            }
+
+            double p99Limit = Math.max(expected.p99Millis() * (1 + maxP99Increase), expected.p99Millis() + p99SlackMillis);
+            if (actual.p99Millis() > p99Limit) {
+                regressions.add(String.format("%s p99 %.2f ms exceeds %.2f ms (baseline %.2f ms)",
+                        entry.getKey(), actual.p99Millis(), p99Limit, expected.p99Millis()));
+            }
+
+            double throughputLimit = expected.throughput() * (1 - maxThroughputDrop);
+            if (actual.throughput() < throughputLimit) {
+                regressions.add(String.format("%s throughput %.1f req/s is below %.1f req/s (baseline %.1f req/s)",
+                        entry.getKey(), actual.throughput(), throughputLimit, expected.throughput()));
+            }
+        }
+        return regressions;
+    }
+}
@@ -0,0 +1,321 @@
+package com.auzienko.javamocks.transaction.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Runs the workload with a fixed number of virtual users, each sending its next request as soon as
+ * the previous one returned. Every user draws its operations from the configured mix.
+ * <p>
+ * Transactions created during the run feed the other operations: the most recent creates are kept
+ * for retries and reads, and pending ones are handed out once each to be completed or failed. An
+ * operation that has nothing to work on yet creates a transaction instead.
+ */
+public final class LoadGenerator {
+
+    private static final String PUBLIC_PATH = "/api/v1/transactions";
+    private static final String INTERNAL_PATH = "/internal/api/v1/transactions/";
+    private static final String OWNER_ID = "load-test-user";
+    private static final int ACCOUNTS = 100;
+    private static final int RECENT_CREATES = 1024;
+
+    private final URI target;
+    private final String apiKey;
+    private final LoadTestOptions options;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final UUID[] accounts = new UUID[ACCOUNTS];
+
+    private final ConcurrentLinkedQueue<String> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicReferenceArray<Created> recentCreates = new AtomicReferenceArray<>(RECENT_CREATES);
+    private final AtomicLong createCount = new AtomicLong();
+
+    public LoadGenerator(URI target, String apiKey, LoadTestOptions options, HttpClient client) {
+        this.target = target;
+        this.apiKey = apiKey;
+        this.options = options;
+        this.client = client;
+
+        List<Operation> weighted = new ArrayList<>();
+        List<Integer> cumulative = new ArrayList<>();
+        int total = 0;
+        for (Map.Entry<Operation, Integer> entry : options.mix().entrySet()) {
+            if (entry.getValue() > 0) {
+                total += entry.getValue();
+                weighted.add(entry.getKey());
+                cumulative.add(total);
+            }
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("The operation mix has no positive weights");
+        }
+        this.operations = weighted.toArray(Operation[]::new);
+        this.cumulativeWeights = cumulative.stream().mapToInt(Integer::intValue).toArray();
+
+        SplittableRandom random = new SplittableRandom(options.seed());
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts[i] = new UUID(random.nextLong(), random.nextLong());
+        }
+    }
+
+    /**
+     * Runs the warmup, then the recorded part of the workload.
+     *
+     * @return The recorder of the recorded part.
+     */
+    public LoadRecorder run() throws InterruptedException {
+        runFor(options.warmup(), new LoadRecorder(), options.seed());
+        LoadRecorder recorder = new LoadRecorder();
+        recorder.finish(runFor(options.duration(), recorder, options.seed() + 1));
+        return recorder;
+    }
+
+    private long runFor(Duration length, LoadRecorder recorder, long seed) throws InterruptedException {
+        SplittableRandom seeds = new SplittableRandom(seed);
+        CountDownLatch finished = new CountDownLatch(options.users());
+        long startNanos = System.nanoTime();
+        long deadline = startNanos + length.toNanos();
+        for (int i = 0; i < options.users(); i++) {
+            SplittableRandom random = seeds.split();
+            Thread.ofVirtual().name("load-user-" + i).start(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        step(next(random), random, recorder);
+                    }
+                } finally {
+                    finished.countDown();
+                }
+            });
+        }
+        finished.await();
+        return System.nanoTime() - startNanos;
+    }
+
+    private Operation next(SplittableRandom random) {
+        int draw = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (draw < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    private void step(Operation operation, SplittableRandom random, LoadRecorder recorder) {
+        switch (operation) {
+            case CREATE -> create(random, recorder);
+            case CREATE_RETRY -> {
+                Created earlier = recentCreate(random);
+                if (earlier == null) {
+                    create(random, recorder);
+                } else {
+                    retry(earlier, recorder);
+                }
+            }
+            case CREATE_CONCURRENT -> createConcurrently(random, recorder);
+            case GET -> {
+                Created earlier = recentCreate(random);
+                if (earlier == null) {
+                    create(random, recorder);
+                } else {
+                    get(earlier.id(), recorder);
+                }
+            }
+            case COMPLETE, FAIL -> {
+                String id = pending.poll();
+                if (id == null) {
+                    create(random, recorder);
+                } else {
+                    transition(operation, id, recorder);
+                }
+            }
+        }
+    }
+
+    private void create(SplittableRandom random, LoadRecorder recorder) {
+        String key = UUID.randomUUID().toString();
+        String body = createBody(random);
+        Result result = send(Operation.CREATE, createRequest(key, body), recorder);
+        if (result == null) {
+            return;
+        }
+        String id = id(result.body());
+        if (result.status() != 201 || id == null) {
+            recorder.error(Operation.CREATE, "status " + result.status());
+            return;
+        }
+        remember(new Created(key, body, id));
+    }
+
+    private void retry(Created earlier, LoadRecorder recorder) {
+        Result result = send(Operation.CREATE_RETRY, createRequest(earlier.key(), earlier.body()), recorder);
+        if (result == null) {
+            return;
+        }
+        String id = id(result.body());
+        if (result.status() != 201 || !earlier.id().equals(id)) {
+            recorder.error(Operation.CREATE_RETRY,
+                    "status " + result.status() + ", transaction " + id + " instead of " + earlier.id());
+        }
+    }
+
+    private void createConcurrently(SplittableRandom random, LoadRecorder recorder) {
+        String key = UUID.randomUUID().toString();
+        String body = createBody(random);
+        int requests = options.sameKeyRequests();
+        Result[] results = new Result[requests];
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] senders = new Thread[requests];
+        for (int i = 0; i < requests; i++) {
+            int index = i;
+            senders[i] = Thread.ofVirtual().start(() -> {
+                try {
+                    start.await();
+                    results[index] = send(Operation.CREATE_CONCURRENT, createRequest(key, body), recorder);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        try {
+            for (Thread sender : senders) {
+                sender.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        String first = null;
+        for (Result result : results) {
+            if (result == null) {
+                continue;
+            }
+            String id = id(result.body());
+            if (result.status() != 201 || id == null) {
+                recorder.error(Operation.CREATE_CONCURRENT, "status " + result.status());
+            } else if (first == null) {
+                first = id;
+            } else if (!first.equals(id)) {
+                recorder.error(Operation.CREATE_CONCURRENT, "transaction " + id + " instead of " + first);
+            }
+        }
+        if (first != null) {
+            remember(new Created(key, body, first));
+        }
+    }
+
+    private void get(String id, LoadRecorder recorder) {
+        HttpRequest request = request(PUBLIC_PATH + "/" + id, "ROLE_USER").GET().build();
+        Result result = send(Operation.GET, request, recorder);
+        if (result != null && result.status() != 200) {
+            recorder.error(Operation.GET, "status " + result.status());
+        }
+    }
+
+    private void transition(Operation operation, String id, LoadRecorder recorder) {
+        boolean complete = operation == Operation.COMPLETE;
+        String body = complete ? "" : "{\"reason\":\"Declined by the load test\"}";
+        HttpRequest request = request(INTERNAL_PATH + id + (complete ? "/complete" : "/fail"), "ROLE_INTERNAL_SERVICE")
+                .header("Idempotency-Key", UUID.randomUUID().toString())
+                .header("Content-Type", "application/json")
+                .POST(complete ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        Result result = send(operation, request, recorder);
+        if (result != null && result.status() != 200) {
+            recorder.error(operation, "status " + result.status());
+        }
+    }
+
+    /**
+     * Sends a request and records its latency, or an error if it got no response.
+     */
+    private Result send(Operation operation, HttpRequest request, LoadRecorder recorder) {
+        long startNanos = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            recorder.record(operation, System.nanoTime() - startNanos);
+            return new Result(response.statusCode(), response.body());
+        } catch (IOException e) {
+            recorder.record(operation, System.nanoTime() - startNanos);
+            recorder.error(operation, e.toString());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private HttpRequest createRequest(String key, String body) {
+        return request(PUBLIC_PATH, "ROLE_USER")
+                .header("Idempotency-Key", key)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path, String roles) {
+        return HttpRequest.newBuilder(target.resolve(path))
+                .header("X-API-KEY", apiKey)
+                .header("X-User-ID", OWNER_ID)
+                .header("X-User-Roles", roles);
+    }
+
+    private String createBody(SplittableRandom random) {
+        int source = random.nextInt(ACCOUNTS);
+        int destination = (source + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+        BigDecimal amount = BigDecimal.valueOf(random.nextLong(100, 1_000_000), 2);
+        return "{\"sourceAccountId\":\"" + accounts[source]
+                + "\",\"destinationAccountId\":\"" + accounts[destination]
+                + "\",\"amount\":" + amount.toPlainString()
+                + ",\"currency\":\"EUR\"}";
+    }
+
+    private void remember(Created created) {
+        recentCreates.set((int) (createCount.getAndIncrement() % RECENT_CREATES), created);
+        pending.add(created.id());
+    }
+
+    private Created recentCreate(SplittableRandom random) {
+        long count = createCount.get();
+        if (count == 0) {
+            return null;
+        }
+        return recentCreates.get(random.nextInt((int) Math.min(count, RECENT_CREATES)));
+    }
+
+    private String id(String body) {
+        try {
+            JsonNode id = objectMapper.readTree(body).get("id");
+            return id != null && id.isTextual() ? id.asText() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private record Created(String key, String body, String id) {
+    }
+
+    private record Result(int status, String body) {
+    }
+}
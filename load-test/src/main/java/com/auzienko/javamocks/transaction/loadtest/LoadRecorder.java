@@ -0,0 +1,83 @@
+package com.auzienko.javamocks.transaction.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latencies and errors per operation, recorded from all virtual users without locking.
+ * Latencies are kept in microseconds with three significant digits.
+ */
+public final class LoadRecorder {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final double MICROS_PER_MILLI = 1000.0;
+    private static final int MAX_ERROR_SAMPLES = 20;
+
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong> errors = new EnumMap<>(Operation.class);
+    private final ConcurrentLinkedQueue<String> errorSamples = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger sampledErrors = new AtomicInteger();
+    private long elapsedNanos;
+
+    LoadRecorder() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(HIGHEST_MICROS, 3));
+            errors.put(operation, new AtomicLong());
+        }
+    }
+
+    void record(Operation operation, long nanos) {
+        latencies.get(operation).recordValue(Math.min(HIGHEST_MICROS, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+    void error(Operation operation, String description) {
+        errors.get(operation).incrementAndGet();
+        if (sampledErrors.getAndIncrement() < MAX_ERROR_SAMPLES) {
+            errorSamples.add(operation + ": " + description);
+        }
+    }
+
+    /**
+     * The first errors of the run, for the failure message.
+     */
+    public List<String> errorSamples() {
+        return new ArrayList<>(errorSamples);
+    }
+
+    void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public LoadReport report() {
+        double seconds = elapsedNanos / 1e9;
+        Map<Operation, LoadReport.OperationStats> operations = new EnumMap<>(Operation.class);
+        latencies.forEach((operation, histogram) -> {
+            long count = histogram.getTotalCount();
+            if (count == 0) {
+                return;
+            }
+            operations.put(operation, new LoadReport.OperationStats(
+                    count,
+                    errors.get(operation).get(),
+                    count / seconds,
+                    millis(histogram, 50),
+                    millis(histogram, 99),
+                    millis(histogram, 99.9),
+                    histogram.getMaxValue() / MICROS_PER_MILLI));
+        });
+        return new LoadReport(seconds, operations);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+}
@@ -0,0 +1,55 @@
+package com.auzienko.javamocks.transaction.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Outcome of a load test run per operation, as stored in the baseline file.
+ *
+ * @param seconds    Length of the recorded part of the run.
+ * @param operations Operations that ran at least once.
+ */
+public record LoadReport(double seconds, Map<Operation, OperationStats> operations) {
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    /**
+     * @param count      Requests that completed, successfully or not.
+     * @param errors     Requests with an unexpected status or result, or no response at all.
+     * @param throughput Completed requests per second.
+     */
+    public record OperationStats(long count,
+                                 long errors,
+                                 double throughput,
+                                 double p50Millis,
+                                 double p99Millis,
+                                 double p999Millis,
+                                 double maxMillis) {
+    }
+
+    public static LoadReport read(Path file) throws IOException {
+        return JSON.readValue(file.toFile(), LoadReport.class);
+    }
+
+    public void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        JSON.writeValue(file.toFile(), this);
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%nLoad test: %.1f s recorded%n", seconds);
+        out.printf("%-18s %8s %7s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        operations.forEach((operation, stats) -> out.printf("%-18s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                operation, stats.count(), stats.errors(), stats.throughput(),
+                stats.p50Millis(), stats.p99Millis(), stats.p999Millis(), stats.maxMillis()));
+    }
+}
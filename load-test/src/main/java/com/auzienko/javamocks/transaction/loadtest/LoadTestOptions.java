@@ -0,0 +1,73 @@
+package com.auzienko.javamocks.transaction.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Settings of a load test run, read from {@code loadtest.*} system properties.
+ *
+ * @param warmup             Run the workload this long before recording, so the JIT and connection pools settle.
+ * @param duration           Recorded part of the run.
+ * @param users              Virtual users, each sending its next request as soon as the last one returned.
+ * @param sameKeyRequests    Requests sent at once by a {@link Operation#CREATE_CONCURRENT} step.
+ * @param mix                Relative weight of each operation.
+ * @param seed               Seed of the users' operation choices.
+ * @param baseline           Report of the reference run to compare against.
+ * @param report             Where to write the report of this run; {@code null} for nowhere.
+ * @param updateBaseline     Write this run's report to {@code baseline} instead of comparing against it.
+ * @param maxP99Increase     Fraction by which an operation's p99 may exceed the baseline, e.g. 0.5 for 50%.
+ * @param p99SlackMillis     Increases of the p99 below this are never a regression, so sub-millisecond
+ *                           operations do not fail the run on noise.
+ * @param maxThroughputDrop  Fraction by which an operation's throughput may fall below the baseline.
+ */
+public record LoadTestOptions(Duration warmup,
+                              Duration duration,
+                              int users,
+                              int sameKeyRequests,
+                              Map<Operation, Integer> mix,
+                              long seed,
+                              Path baseline,
+                              Path report,
+                              boolean updateBaseline,
+                              double maxP99Increase,
+                              double p99SlackMillis,
+                              double maxThroughputDrop) {
+
+    private static final String PREFIX = "loadtest.";
+
+    public static LoadTestOptions fromSystemProperties() {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        mix.put(Operation.CREATE, weight(Operation.CREATE, 30));
+        mix.put(Operation.CREATE_RETRY, weight(Operation.CREATE_RETRY, 10));
+        mix.put(Operation.CREATE_CONCURRENT, weight(Operation.CREATE_CONCURRENT, 2));
+        mix.put(Operation.GET, weight(Operation.GET, 38));
+        mix.put(Operation.COMPLETE, weight(Operation.COMPLETE, 12));
+        mix.put(Operation.FAIL, weight(Operation.FAIL, 8));
+
+        String report = System.getProperty(PREFIX + "report");
+        return new LoadTestOptions(
+                Duration.parse(property("warmup", "PT10S")),
+                Duration.parse(property("duration", "PT30S")),
+                Integer.parseInt(property("users", "16")),
+                Integer.parseInt(property("same-key-requests", "4")),
+                mix,
+                Long.parseLong(property("seed", "42")),
+                Path.of(property("baseline", "baseline.json")),
+                report != null ? Path.of(report) : null,
+                Boolean.parseBoolean(property("update-baseline", "false")),
+                Double.parseDouble(property("max-p99-increase", "0.5")),
+                Double.parseDouble(property("p99-slack-millis", "5")),
+                Double.parseDouble(property("max-throughput-drop", "0.3")));
+    }
+
+    private static int weight(Operation operation, int defaultWeight) {
+        String name = "mix." + operation.name().toLowerCase().replace('_', '-');
+        return Integer.parseInt(property(name, Integer.toString(defaultWeight)));
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty(PREFIX + name, defaultValue);
+    }
+}
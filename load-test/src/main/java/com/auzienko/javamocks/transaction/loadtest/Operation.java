@@ -0,0 +1,38 @@
+package com.auzienko.javamocks.transaction.loadtest;
+
+/**
+ * What a virtual user does in one step of the workload. Latencies are recorded per operation.
+ */
+public enum Operation {
+
+    /**
+     * {@code POST /api/v1/transactions} with a new idempotency key.
+     */
+    CREATE,
+
+    /**
+     * A create sent again with the key and body of an earlier one; must return the same transaction.
+     */
+    CREATE_RETRY,
+
+    /**
+     * The same create sent several times at once under one new key; every response must name the
+     * same transaction.
+     */
+    CREATE_CONCURRENT,
+
+    /**
+     * {@code GET /api/v1/transactions/{id}} of a transaction the user created.
+     */
+    GET,
+
+    /**
+     * {@code POST /internal/api/v1/transactions/{id}/complete} of a pending transaction.
+     */
+    COMPLETE,
+
+    /**
+     * {@code POST /internal/api/v1/transactions/{id}/fail} of a pending transaction.
+     */
+    FAIL
+}
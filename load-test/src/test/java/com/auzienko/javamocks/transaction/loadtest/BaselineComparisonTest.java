@@ -0,0 +1,53 @@
+package com.auzienko.javamocks.transaction.loadtest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BaselineComparisonTest {
+
+    private static final LoadReport BASELINE = new LoadReport(30, Map.of(
+            Operation.CREATE, stats(1000, 20),
+            Operation.GET, stats(2000, 1)));
+
+    @Test
+    @DisplayName("should accept a run within the margins")
+    void shouldAcceptRunWithinMargins() {
+        LoadReport current = new LoadReport(30, Map.of(
+                Operation.CREATE, stats(800, 29),
+                Operation.GET, stats(1500, 1.4)));
+
+        assertThat(BaselineComparison.regressions(BASELINE, current, 0.5, 5, 0.3)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should report a p99 above the margin and a throughput below it")
+    void shouldReportRegressions() {
+        LoadReport current = new LoadReport(30, Map.of(
+                Operation.CREATE, stats(1000, 31),
+                Operation.GET, stats(1300, 1)));
+
+        List<String> regressions = BaselineComparison.regressions(BASELINE, current, 0.5, 5, 0.3);
+
+        assertThat(regressions).satisfiesExactlyInAnyOrder(
+                regression -> assertThat(regression).startsWith("CREATE p99 31.00 ms exceeds 30.00 ms"),
+                regression -> assertThat(regression).startsWith("GET throughput 1300.0 req/s is below 1400.0 req/s"));
+    }
+
+    @Test
+    @DisplayName("should not report a p99 increase smaller than the slack")
+    void shouldIgnoreIncreasesWithinSlack() {
+        LoadReport current = new LoadReport(30, Map.of(Operation.GET, stats(2000, 5.9)));
+
+        assertThat(BaselineComparison.regressions(BASELINE, current, 0.5, 5, 0.3)).isEmpty();
+    }
+
+    private static LoadReport.OperationStats stats(double throughput, double p99Millis) {
+        return new LoadReport.OperationStats((long) throughput * 30, 0, throughput, p99Millis / 2, p99Millis,
+                p99Millis * 2, p99Millis * 3);
+    }
+}
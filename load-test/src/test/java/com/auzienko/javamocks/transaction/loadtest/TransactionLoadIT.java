@@ -0,0 +1,107 @@
+package com.auzienko.javamocks.transaction.loadtest;
+
+import com.auzienko.javamocks.transaction.app.TransactionServiceApplication;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the mixed workload against the service on a Postgres container and fails when any request
+ * went wrong or an operation's p99 or throughput regressed against {@code baseline.json}.
+ * <p>
+ * The service runs as deployed for load, under the 'performance' profile with SQL and request body
+ * logging off, and without the concurrency limiter, whose 503s would count as errors and whose
+ * shedding would hide the latencies the baseline is meant to track.
+ * <p>
+ * {@code -Dloadtest.jdbc-url=...} runs against an existing database instead of a container, and
+ * {@code -Dloadtest.update-baseline=true} records the run as the new baseline. See
+ * {@link LoadTestOptions} for the other settings.
+ */
+@SpringBootTest(
+        classes = TransactionServiceApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "management.tracing.enabled=false",
+                "service.filter.request-logging-filter.enabled=false",
+                "service.concurrency-limit.enabled=false",
+                // Lets duplicates of a create in flight see its response within milliseconds of it being stored.
+                "service.filter.idempotency-filter.race-condition-retry-delay-ms=20",
+                "service.filter.idempotency-filter.concurrency-max-retries=250"
+        })
+@ActiveProfiles("performance")
+class TransactionLoadIT {
+
+    private static PostgreSQLContainer<?> postgresContainer;
+
+    @DynamicPropertySource
+    static void setDatasourceProperties(DynamicPropertyRegistry registry) {
+        String jdbcUrl = System.getProperty("loadtest.jdbc-url");
+        if (jdbcUrl != null) {
+            registry.add("spring.datasource.url", () -> jdbcUrl);
+            registry.add("spring.datasource.username", () -> System.getProperty("loadtest.jdbc-username", "postgres"));
+            registry.add("spring.datasource.password", () -> System.getProperty("loadtest.jdbc-password", ""));
+            return;
+        }
+        postgresContainer = new PostgreSQLContainer<>("postgres:15-alpine");
+        postgresContainer.start();
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+    }
+
+    @AfterAll
+    static void stopContainer() {
+        if (postgresContainer != null) {
+            postgresContainer.stop();
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${service.api.key}")
+    private String apiKey;
+
+    @Test
+    @DisplayName("mixed workload should run without errors and within the baseline's p99 and throughput")
+    void mixedWorkload_shouldStayWithinBaseline() throws Exception {
+        LoadTestOptions options = LoadTestOptions.fromSystemProperties();
+
+        LoadRecorder recorder;
+        try (HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+            recorder = new LoadGenerator(URI.create("http://localhost:" + port), apiKey, options, client).run();
+        }
+
+        LoadReport report = recorder.report();
+        report.print(System.out);
+        if (options.report() != null) {
+            report.write(options.report());
+        }
+
+        assertThat(recorder.errorSamples()).as("errors during the run").isEmpty();
+
+        if (options.updateBaseline()) {
+            report.write(options.baseline());
+            return;
+        }
+        assertThat(options.baseline())
+                .as("baseline; record one with -Dloadtest.update-baseline=true")
+                .exists();
+        assertThat(BaselineComparison.regressions(LoadReport.read(options.baseline()), report,
+                options.maxP99Increase(), options.p99SlackMillis(), options.maxThroughputDrop()))
+                .as("regressions against %s", options.baseline())
+                .isEmpty();
+    }
+}
@@ -0,0 +1,257 @@
+package com.auzienko.javamocks.transaction.persistence.coalescing;
+
+import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.domain.repository.TransactionRepository;
+import com.auzienko.javamocks.transaction.persistence.config.ConditionalOnDatabase;
+import com.auzienko.javamocks.transaction.persistence.config.props.WriteCoalescingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Commits concurrently created transactions together: inserts arriving within
+ * {@code max-latency} of each other, up to {@code max-batch-size}, are saved in a single database
+ * transaction, so they share one commit (and one WAL flush) instead of paying for one each.
+ * <p>
+ * Each caller still gets its own result. If a batch fails, its inserts are retried one by one
+ * in separate transactions, so only the insert that caused the failure sees an error. An insert
+ * that no committer has taken within {@code max-queue-wait} is saved by its caller instead.
+ * <p>
+ * Exports {@code transaction.coalescing.batch.size}, {@code transaction.coalescing.wait} (time a
+ * caller waits for its batch), {@code transaction.coalescing.commit}, {@code .fallbacks},
+ * {@code .bypassed}, {@code .timeouts} and the {@code .queue} depth.
+ */
+@Slf4j
+@Component
+@ConditionalOnDatabase
+@ConditionalOnProperty(prefix = "service.persistence.coalescing", name = "enabled", havingValue = "true")
+public class TransactionInsertCoalescer {
+
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final WriteCoalescingProperties properties;
+    private final BlockingQueue<PendingInsert> queue;
+    private final List<Thread> committers = new ArrayList<>();
+    private volatile boolean running;
+
+    private final DistributionSummary batchSize;
+    private final Timer waitTimer;
+    private final Timer commitTimer;
+    private final Counter fallbacks;
+    private final Counter bypassed;
+    private final Counter timeouts;
+
+    public TransactionInsertCoalescer(TransactionRepository transactionRepository,
+                                      PlatformTransactionManager transactionManager,
+                                      WriteCoalescingProperties properties,
+                                      MeterRegistry meterRegistry) {
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+
+        this.batchSize = DistributionSummary.builder("transaction.coalescing.batch.size")
+                .description("Number of inserts committed together")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("transaction.coalescing.wait")
+                .description("Time from handing an insert to the coalescer until its batch committed")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.commitTimer = Timer.builder("transaction.coalescing.commit")
+                .description("Time to save and commit one batch")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("transaction.coalescing.fallbacks")
+                .description("Batches that failed and were retried insert by insert")
+                .register(meterRegistry);
+        this.bypassed = Counter.builder("transaction.coalescing.bypassed")
+                .description("Inserts saved on the caller's thread because the queue was full")
+                .register(meterRegistry);
+        this.timeouts = Counter.builder("transaction.coalescing.timeouts")
+                .description("Inserts saved on the caller's thread because no committer took them in time")
+                .register(meterRegistry);
+        Gauge.builder("transaction.coalescing.queue", queue, BlockingQueue::size)
+                .description("Inserts waiting for a committer")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        for (int i = 0; i < Math.max(1, properties.getCommitterThreads()); i++) {
+            committers.add(Thread.ofPlatform()
+                    .name("insert-coalescer-" + i)
+                    .daemon()
+                    .start(this::commitBatches));
+        }
+        log.info("Coalescing inserts: up to {} per batch, max latency {}, {} committer threads",
+                properties.getMaxBatchSize(), properties.getMaxLatency(), committers.size());
+    }
+
+    /**
+     * Saves a new transaction as part of the next batch and waits until that batch is committed.
+     * Inside an active transaction the insert must be part of it, so it is saved directly.
+     *
+     * @param transaction The transaction to insert.
+     * @return The saved transaction.
+     */
+    public Transaction insert(Transaction transaction) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return transactionRepository.save(transaction);
+        }
+
+        PendingInsert pending = new PendingInsert(transaction, System.nanoTime());
+        if (!running || !queue.offer(pending)) {
+            bypassed.increment();
+            return transactionRepository.save(transaction);
+        }
+        try {
+            return await(pending);
+        } finally {
+            waitTimer.record(System.nanoTime() - pending.enqueuedNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Transaction await(PendingInsert pending) {
+        try {
+            return pending.result.get(properties.getMaxQueueWait().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            if (queue.remove(pending)) {
+                // No committer took it, so it was never saved.
+                timeouts.increment();
+                log.warn("No committer took an insert within {}, saving it directly", properties.getMaxQueueWait());
+                return transactionRepository.save(pending.transaction);
+            }
+            // It is part of a batch being committed, which always completes it.
+            return join(pending);
+        } catch (ExecutionException e) {
+            throw failure(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return join(pending);
+        }
+    }
+
+    private static Transaction join(PendingInsert pending) {
+        try {
+            return pending.result.join();
+        } catch (CompletionException e) {
+            throw failure(e.getCause());
+        }
+    }
+
+    private static RuntimeException failure(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new CompletionException(cause);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        for (Thread committer : committers) {
+            committer.join();
+        }
+    }
+
+    private void commitBatches() {
+        int maxBatchSize = Math.max(1, properties.getMaxBatchSize());
+        long maxLatencyNanos = properties.getMaxLatency().toNanos();
+        List<PendingInsert> batch = new ArrayList<>(maxBatchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingInsert first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = first.enqueuedNanos + maxLatencyNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingInsert next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Only stop() ends the loop, so queued inserts are never abandoned.
+                Thread.interrupted();
+            }
+            if (!batch.isEmpty()) {
+                commit(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingInsert> batch) {
+        long started = System.nanoTime();
+        Throwable failure = null;
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    batch.forEach(pending -> transactionRepository.save(pending.transaction)));
+        } catch (Throwable e) {
+            failure = e;
+        } finally {
+            // Recorded before any caller is released, so a returned insert is already in the metrics.
+            commitTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            batchSize.record(batch.size());
+        }
+        if (failure == null) {
+            batch.forEach(pending -> pending.result.complete(pending.transaction));
+        } else if (!(failure instanceof RuntimeException)) {
+            // Not rethrown: a dead committer would leave every later insert waiting in the queue.
+            log.error("Coalesced insert of {} transactions failed", batch.size(), failure);
+            Throwable cause = failure;
+            batch.forEach(pending -> pending.result.completeExceptionally(cause));
+        } else if (batch.size() == 1) {
+            batch.getFirst().result.completeExceptionally(failure);
+        } else {
+            fallbacks.increment();
+            log.warn("Coalesced insert of {} transactions failed, saving them one by one", batch.size(), failure);
+            batch.forEach(this::saveAlone);
+        }
+    }
+
+    private void saveAlone(PendingInsert pending) {
+        // The rolled back batch may have set the version; the row was never committed.
+        pending.transaction.setVersion(null);
+        try {
+            pending.result.complete(transactionRepository.save(pending.transaction));
+        } catch (Throwable e) {
+            pending.result.completeExceptionally(e);
+        }
+    }
+
+    private record PendingInsert(Transaction transaction, long enqueuedNanos, CompletableFuture<Transaction> result) {
+
+        PendingInsert(Transaction transaction, long enqueuedNanos) {
+            this(transaction, enqueuedNanos, new CompletableFuture<>());
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.auzienko.javamocks.transaction.persistence.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Matches when transactions are stored in PostgreSQL, i.e. {@code service.persistence.repository}
+ * is {@code jpa} (the default) or {@code jdbc}. Beans that need the DataSource or JPA are
+ * annotated with this so the in-memory mode starts without them.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ConditionalOnExpression("'${service.persistence.repository:jpa}' matches 'jpa|jdbc'")
+public @interface ConditionalOnDatabase {
+}
@@ -0,0 +1,21 @@
+package com.auzienko.javamocks.transaction.persistence.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Matches when transactions are kept in the service's own memory, i.e.
+ * {@code service.persistence.repository} is {@code memory} or {@code wal} (memory backed by a
+ * write-ahead log). The counterpart of {@link ConditionalOnDatabase}.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ConditionalOnExpression("'${service.persistence.repository:jpa}' matches 'memory|wal'")
+public @interface ConditionalOnInProcessStore {
+}
@@ -0,0 +1,32 @@
+package com.auzienko.javamocks.transaction.persistence.config;
+
+import com.auzienko.javamocks.transaction.persistence.config.props.TransactionLogProperties;
+import com.auzienko.javamocks.transaction.persistence.memory.InMemoryTransactionManager;
+import com.auzienko.javamocks.transaction.persistence.memory.TransactionLog;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Storage without a database ({@code service.persistence.repository=memory} or {@code wal},
+ * see the 'memory' and 'wal' profiles).
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnInProcessStore
+public class InMemoryPersistenceConfiguration {
+
+    @Bean
+    public PlatformTransactionManager transactionManager() {
+        return new InMemoryTransactionManager();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "service.persistence", name = "repository", havingValue = "wal")
+    public TransactionLog transactionLog(TransactionLogProperties properties) {
+        return new TransactionLog(properties.getDirectory(), (int) properties.getSegmentSize().toBytes(),
+                properties.getGroupCommitWindow(), properties.getCompactionLiveRatio());
+    }
+}
@@ -0,0 +1,12 @@
+package com.auzienko.javamocks.transaction.persistence.config;
+
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+@Configuration
+@ConditionalOnDatabase
+@EnableJpaRepositories(basePackages = "com.auzienko.javamocks.transaction.persistence.repository")
+@EntityScan(basePackages = "com.auzienko.javamocks.transaction.persistence.entity")
+public class JpaPersistenceConfiguration {
+}
@@ -0,0 +1,25 @@
+package com.auzienko.javamocks.transaction.persistence.config;
+
+import com.auzienko.javamocks.transaction.persistence.config.props.AccountSummaryProperties;
+import com.auzienko.javamocks.transaction.persistence.config.props.AsyncCommitProperties;
+import com.auzienko.javamocks.transaction.persistence.config.props.InMemoryStoreProperties;
+import com.auzienko.javamocks.transaction.persistence.config.props.ReplicaDataSourceProperties;
+import com.auzienko.javamocks.transaction.persistence.config.props.SimulationProperties;
+import com.auzienko.javamocks.transaction.persistence.config.props.TransactionExpiryProperties;
+import com.auzienko.javamocks.transaction.persistence.config.props.TransactionExportProperties;
+import com.auzienko.javamocks.transaction.persistence.config.props.TransactionLogProperties;
+import com.auzienko.javamocks.transaction.persistence.config.props.TransactionRollupProperties;
+import com.auzienko.javamocks.transaction.persistence.config.props.WriteCoalescingProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties({ReplicaDataSourceProperties.class, InMemoryStoreProperties.class,
+        TransactionLogProperties.class, WriteCoalescingProperties.class, AsyncCommitProperties.class,
+        AccountSummaryProperties.class, TransactionExportProperties.class,
+        TransactionRollupProperties.class, TransactionExpiryProperties.class,
+        SimulationProperties.class})
+public class PersistenceConfiguration {
+}
@@ -0,0 +1,23 @@
+package com.auzienko.javamocks.transaction.persistence.config.props;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "service.persistence.account-summary")
+@Getter
+@Setter
+public class AccountSummaryProperties {
+
+    /**
+     * How often accumulated changes to the account totals are written to the store.
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * Number of locks the accumulated changes are striped over, by account.
+     */
+    private int lockStripes = 64;
+}
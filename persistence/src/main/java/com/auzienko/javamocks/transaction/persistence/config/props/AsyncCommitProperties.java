@@ -0,0 +1,20 @@
+package com.auzienko.javamocks.transaction.persistence.config.props;
+
+import com.auzienko.javamocks.transaction.persistence.datasource.WritePath;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+@ConfigurationProperties(prefix = "service.persistence.async-commit")
+@Getter
+@Setter
+public class AsyncCommitProperties {
+
+    /**
+     * Write paths whose transactions commit with synchronous_commit off; none by default.
+     */
+    private Set<WritePath> paths = EnumSet.noneOf(WritePath.class);
+}
@@ -0,0 +1,34 @@
+package com.auzienko.javamocks.transaction.persistence.config.props;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "service.persistence.memory")
+@Getter
+@Setter
+public class InMemoryStoreProperties {
+
+    /**
+     * Number of locks that updates to individual transactions are striped over.
+     */
+    private int lockStripes = 256;
+
+    /**
+     * File the store is restored from on startup and snapshotted to; no snapshots when unset.
+     */
+    private Path snapshotFile;
+
+    /**
+     * How often the snapshot file is rewritten (it is also written on shutdown).
+     */
+    private Duration snapshotInterval = Duration.ofSeconds(30);
+
+    /**
+     * How long idempotency keys and their cached responses are kept.
+     */
+    private Duration idempotencyKeyTtl = Duration.ofHours(24);
+}
@@ -0,0 +1,39 @@
+package com.auzienko.javamocks.transaction.persistence.config.props;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "service.persistence.replica")
+@Getter
+@Setter
+public class ReplicaDataSourceProperties {
+
+    /**
+     * Route read-only transactions to the replica configured below.
+     */
+    private boolean enabled = false;
+
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    /**
+     * Reads of an id written by this instance within this window always go to the primary.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    /**
+     * How often the replica is asked for its replay lag.
+     */
+    private Duration lagProbeInterval = Duration.ofSeconds(5);
+
+    /**
+     * Above this lag (or when the replica cannot be reached) all reads go to the primary.
+     */
+    private Duration maxLag = Duration.ofSeconds(10);
+}
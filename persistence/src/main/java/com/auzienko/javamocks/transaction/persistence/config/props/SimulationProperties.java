@@ -0,0 +1,135 @@
+package com.auzienko.javamocks.transaction.persistence.config.props;
+
+import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+@ConfigurationProperties(prefix = "service.simulation")
+@Getter
+@Setter
+public class SimulationProperties {
+
+    /**
+     * Apply the rules below to create and transition calls.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Seeds every random decision; the same seed and the same calls give the same latencies and outcomes.
+     */
+    private long seed = 42;
+
+    /**
+     * Resolution of the timer wheel behind automatic settlement.
+     */
+    private Duration tick = Duration.ofMillis(10);
+
+    /**
+     * Number of slots of the timer wheel; delays longer than {@code tick * wheel-size} take extra rounds.
+     */
+    private int wheelSize = 512;
+
+    /**
+     * Threads applying due automatic settlements. Waiting settlements hold no thread.
+     */
+    private int settlementThreads = 2;
+
+    /**
+     * Checked in order; the first rule matching a transaction applies, none if no rule matches.
+     */
+    private List<Rule> rules = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Rule {
+
+        /**
+         * Shown in logs and metrics.
+         */
+        private String name;
+
+        /**
+         * Matches a transaction from or to any of these accounts; any account if empty.
+         */
+        private Set<UUID> accounts = new HashSet<>();
+
+        /**
+         * Matches a transaction in any of these currencies; any currency if empty.
+         */
+        private Set<Currency> currencies = new HashSet<>();
+
+        /**
+         * Matches an amount of at least this much; no lower bound if not set.
+         */
+        private BigDecimal minAmount;
+
+        /**
+         * Matches an amount below this; no upper bound if not set.
+         */
+        private BigDecimal maxAmount;
+
+        /**
+         * Added to each create call.
+         */
+        private Latency createLatency = new Latency();
+
+        /**
+         * Added to each complete, fail or other transition call.
+         */
+        private Latency transitionLatency = new Latency();
+
+        /**
+         * Share of calls, from 0 to 1, rejected with 503 after their latency, without any change.
+         */
+        private double errorRate = 0;
+
+        /**
+         * Delay after which a created transaction is settled on its own; never if not set.
+         */
+        private Latency settleAfter;
+
+        /**
+         * Share of automatic settlements, from 0 to 1, that fail the transaction instead of completing it.
+         */
+        private double settleFailureRate = 0;
+    }
+
+    @Getter
+    @Setter
+    public static class Latency {
+
+        /**
+         * FIXED (value), UNIFORM (min to max), LOG_NORMAL (median and p99) or PERCENTILES.
+         */
+        private LatencyType type = LatencyType.FIXED;
+
+        private Duration value = Duration.ZERO;
+
+        private Duration min = Duration.ZERO;
+
+        private Duration max = Duration.ZERO;
+
+        private Duration median = Duration.ZERO;
+
+        private Duration p99 = Duration.ZERO;
+
+        /**
+         * Latency by percentile (0 to 100), e.g. {50: 20ms, 99: 200ms, 100: 1s}; interpolated in between.
+         */
+        private TreeMap<Double, Duration> percentiles = new TreeMap<>();
+    }
+
+    public enum LatencyType {
+        FIXED, UNIFORM, LOG_NORMAL, PERCENTILES
+    }
+}
@@ -0,0 +1,50 @@
+package com.auzienko.javamocks.transaction.persistence.config.props;
+
+import com.auzienko.javamocks.transaction.domain.model.TransactionTransition;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "service.persistence.expiry")
+@Getter
+@Setter
+public class TransactionExpiryProperties {
+
+    /**
+     * End transactions that stay PENDING longer than {@code pending-timeout} (database modes only).
+     */
+    private boolean enabled = false;
+
+    /**
+     * How long a transaction may stay PENDING before the sweeper ends it.
+     */
+    private Duration pendingTimeout = Duration.ofHours(24);
+
+    /**
+     * How an overdue transaction is ended: EXPIRE or FAIL.
+     */
+    private TransactionTransition transition = TransactionTransition.EXPIRE;
+
+    /**
+     * Reason recorded in the status history; the transition's default reason if not set.
+     */
+    private String reason;
+
+    /**
+     * Overdue transactions ended per batch; each batch is one statement in its own database transaction.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Batches per sweep; overdue transactions beyond them are left to the next sweep, so a backlog
+     * does not keep a scheduler thread busy for long.
+     */
+    private int maxBatchesPerSweep = 20;
+
+    /**
+     * Pause between the end of one sweep and the start of the next.
+     */
+    private Duration sweepInterval = Duration.ofMinutes(1);
+}
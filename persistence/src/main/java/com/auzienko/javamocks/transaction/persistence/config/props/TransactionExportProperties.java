@@ -0,0 +1,29 @@
+package com.auzienko.javamocks.transaction.persistence.config.props;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "service.persistence.export")
+@Getter
+@Setter
+public class TransactionExportProperties {
+
+    /**
+     * Rows fetched from the database cursor at a time when exporting transactions.
+     */
+    private int fetchSize = 500;
+
+    /**
+     * Exports running at once per instance; each holds a database connection and transaction while
+     * it streams. Further exports are rejected until one finishes.
+     */
+    private int maxConcurrent = 4;
+
+    /**
+     * Longest time an export may keep its transaction open; it is aborted when a row is read after it.
+     */
+    private Duration maxDuration = Duration.ofMinutes(10);
+}
@@ -0,0 +1,41 @@
+package com.auzienko.javamocks.transaction.persistence.config.props;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "service.persistence.wal")
+@Getter
+@Setter
+public class TransactionLogProperties {
+
+    /**
+     * Directory holding the log segment files.
+     */
+    private Path directory = Path.of("data", "transaction-log");
+
+    /**
+     * Size of each memory-mapped segment file.
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * How long the thread forcing the log waits for more writers to join the same force;
+     * zero forces immediately and batches only the writers that arrived during the previous force.
+     */
+    private Duration groupCommitWindow = Duration.ZERO;
+
+    /**
+     * How often sealed segments are checked for compaction.
+     */
+    private Duration compactionInterval = Duration.ofMinutes(1);
+
+    /**
+     * Sealed segments in which fewer than this share of records are still current are rewritten.
+     */
+    private double compactionLiveRatio = 0.5;
+}
@@ -0,0 +1,33 @@
+package com.auzienko.javamocks.transaction.persistence.config.props;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "service.persistence.rollups")
+@Getter
+@Setter
+public class TransactionRollupProperties {
+
+    /**
+     * How often accumulated rollup changes are written to the store.
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * Build the rollups of transitions recorded before the rollups existed (database modes only).
+     */
+    private boolean backfillEnabled = true;
+
+    /**
+     * Status log rows aggregated per backfill step; each step is one short database transaction.
+     */
+    private int backfillChunkSize = 10_000;
+
+    /**
+     * Pause between backfill steps, leaving the database to regular traffic in between.
+     */
+    private Duration backfillInterval = Duration.ofMillis(200);
+}
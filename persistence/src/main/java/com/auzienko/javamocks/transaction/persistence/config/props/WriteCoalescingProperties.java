@@ -0,0 +1,44 @@
+package com.auzienko.javamocks.transaction.persistence.config.props;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "service.persistence.coalescing")
+@Getter
+@Setter
+public class WriteCoalescingProperties {
+
+    /**
+     * Commit concurrently created transactions together in one database transaction.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Longest time the first insert of a batch waits for more inserts to join it.
+     */
+    private Duration maxLatency = Duration.ofMillis(2);
+
+    /**
+     * Largest number of inserts committed together.
+     */
+    private int maxBatchSize = 64;
+
+    /**
+     * Number of threads committing batches; while one commits, the next batch fills.
+     */
+    private int committerThreads = 2;
+
+    /**
+     * Inserts waiting for a committer; when full, callers save on their own thread instead.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * Longest time an insert waits for a committer to take it; after that the caller saves it on
+     * its own thread instead.
+     */
+    private Duration maxQueueWait = Duration.ofSeconds(1);
+}
@@ -0,0 +1,54 @@
+package com.auzienko.javamocks.transaction.persistence.converter;
+
+import com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link TransactionStatus} as a SMALLINT code instead of its name.
+ * Codes are assigned explicitly (not by ordinal), so reordering the enum never rewrites history.
+ */
+@Converter
+public class TransactionStatusCodeConverter implements AttributeConverter<TransactionStatus, Short> {
+
+    private static final short PENDING = 0;
+    private static final short COMPLETED = 1;
+    private static final short FAILED = 2;
+    private static final short AUTHORIZED = 3;
+    private static final short CANCELLED = 4;
+    private static final short REVERSED = 5;
+    private static final short EXPIRED = 6;
+
+    @Override
+    public Short convertToDatabaseColumn(TransactionStatus status) {
+        if (status == null) {
+            return null;
+        }
+        return switch (status) {
+            case PENDING -> PENDING;
+            case COMPLETED -> COMPLETED;
+            case FAILED -> FAILED;
+            case AUTHORIZED -> AUTHORIZED;
+            case CANCELLED -> CANCELLED;
+            case REVERSED -> REVERSED;
+            case EXPIRED -> EXPIRED;
+        };
+    }
+
+    @Override
+    public TransactionStatus convertToEntityAttribute(Short code) {
+        if (code == null) {
+            return null;
+        }
+        return switch (code) {
+            case PENDING -> TransactionStatus.PENDING;
+            case COMPLETED -> TransactionStatus.COMPLETED;
+            case FAILED -> TransactionStatus.FAILED;
+            case AUTHORIZED -> TransactionStatus.AUTHORIZED;
+            case CANCELLED -> TransactionStatus.CANCELLED;
+            case REVERSED -> TransactionStatus.REVERSED;
+            case EXPIRED -> TransactionStatus.EXPIRED;
+            default -> throw new IllegalArgumentException("Unknown transaction status code: " + code);
+        };
+    }
+}
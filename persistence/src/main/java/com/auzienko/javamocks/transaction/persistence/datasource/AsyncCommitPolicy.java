@@ -0,0 +1,113 @@
+package com.auzienko.javamocks.transaction.persistence.datasource;
+
+import com.auzienko.javamocks.transaction.persistence.config.ConditionalOnDatabase;
+import com.auzienko.javamocks.transaction.persistence.config.props.AsyncCommitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lets the write paths listed in {@code service.persistence.async-commit.paths} commit with
+ * {@code synchronous_commit = off}: the commit returns without waiting for its WAL record to reach
+ * the disk, so a database crash can lose the last few hundred milliseconds of such writes (the
+ * database itself stays consistent). Meant for mock and staging deployments.
+ * <p>
+ * The setting is made with {@code SET LOCAL}, so it ends with the current transaction and never
+ * affects other work on the pooled connection. Asynchronous commits are counted per path in
+ * {@code db.commits.async}; {@code db.commits.async.enabled} shows which paths are configured.
+ */
+@Slf4j
+@Component
+@ConditionalOnDatabase
+public class AsyncCommitPolicy {
+
+    private static final String SYNCHRONOUS_COMMIT_OFF = "SET LOCAL synchronous_commit TO OFF";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Set<WritePath> asyncPaths;
+    private final Map<WritePath, Counter> asyncCommits = new EnumMap<>(WritePath.class);
+
+    public AsyncCommitPolicy(JdbcTemplate jdbcTemplate, AsyncCommitProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.asyncPaths = properties.getPaths().isEmpty()
+                ? EnumSet.noneOf(WritePath.class)
+                : EnumSet.copyOf(properties.getPaths());
+        for (WritePath path : WritePath.values()) {
+            asyncCommits.put(path, Counter.builder("db.commits.async")
+                    .description("Transactions committed with synchronous_commit off")
+                    .tag("path", path.tagValue())
+                    .register(meterRegistry));
+            Gauge.builder("db.commits.async.enabled", () -> asyncPaths.contains(path) ? 1 : 0)
+                    .description("1 if the write path commits asynchronously")
+                    .tag("path", path.tagValue())
+                    .register(meterRegistry);
+        }
+        if (!asyncPaths.isEmpty()) {
+            log.warn("Committing asynchronously (synchronous_commit off) for {}; recent writes on these paths may be lost if the database crashes",
+                    asyncPaths);
+        }
+    }
+
+    /**
+     * Makes the current transaction commit asynchronously if {@code path} is configured to.
+     * Must be called inside the transaction that performs the write. Only the first call in a
+     * transaction has an effect, so a transaction saving many rows is switched and counted once,
+     * under the path it was first switched for.
+     *
+     * @param path The write path the current transaction belongs to.
+     */
+    public void apply(WritePath path) {
+        if (!asyncPaths.contains(path)
+                || !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        jdbcTemplate.execute(SYNCHRONOUS_COMMIT_OFF);
+        TransactionSynchronizationManager.bindResource(this, path);
+        TransactionSynchronizationManager.registerSynchronization(new AsyncCommitSynchronization(asyncCommits.get(path)));
+    }
+
+    /**
+     * Counts the commit and keeps the transaction's mark bound only while the transaction is,
+     * unbinding it when a nested transaction suspends this one and once it completes.
+     */
+    private class AsyncCommitSynchronization implements TransactionSynchronization {
+
+        private final Counter counter;
+        private WritePath suspended;
+
+        AsyncCommitSynchronization(Counter counter) {
+            this.counter = counter;
+        }
+
+        @Override
+        public void suspend() {
+            suspended = (WritePath) TransactionSynchronizationManager.unbindResource(AsyncCommitPolicy.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(AsyncCommitPolicy.this, suspended);
+        }
+
+        @Override
+        public void afterCommit() {
+            counter.increment();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(AsyncCommitPolicy.this);
+        }
+    }
+}
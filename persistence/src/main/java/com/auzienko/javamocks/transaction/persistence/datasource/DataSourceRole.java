@@ -0,0 +1,6 @@
+package com.auzienko.javamocks.transaction.persistence.datasource;
+
+public enum DataSourceRole {
+    PRIMARY,
+    REPLICA
+}
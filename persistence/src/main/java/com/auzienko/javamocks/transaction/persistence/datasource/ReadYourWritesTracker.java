@@ -0,0 +1,91 @@
+package com.auzienko.javamocks.transaction.persistence.datasource;
+
+import com.auzienko.javamocks.transaction.persistence.config.props.ReplicaDataSourceProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which transaction ids this instance wrote recently, so that a read of such an id
+ * is served by the primary instead of a replica that may not have replayed the write yet.
+ * <p>
+ * Does nothing unless replica routing is enabled.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReadYourWritesTracker {
+
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private final ReplicaDataSourceProperties properties;
+
+    private final Map<UUID, Long> writeTimesNanos = new ConcurrentHashMap<>();
+
+    /**
+     * Records that the given transaction has just been written.
+     *
+     * @param id The id of the written transaction.
+     */
+    public void recordWrite(UUID id) {
+        if (!properties.isEnabled() || id == null) {
+            return;
+        }
+        if (writeTimesNanos.size() >= PURGE_THRESHOLD) {
+            purgeExpired();
+        }
+        writeTimesNanos.put(id, System.nanoTime());
+    }
+
+    /**
+     * Pins the current transaction to the primary if the given id was written within the
+     * read-your-writes window. Must be called before the transaction's first statement.
+     *
+     * @param id The id about to be read.
+     */
+    public void beforeRead(UUID id) {
+        // Outside a transaction the connection is never routed to the replica anyway.
+        if (!properties.isEnabled()
+                || !TransactionSynchronizationManager.isSynchronizationActive()
+                || !wasRecentlyWritten(id)) {
+            return;
+        }
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                PRIMARY_REQUIRED.remove();
+            }
+        });
+    }
+
+    /**
+     * @return true if the current transaction has been pinned to the primary by {@link #beforeRead(UUID)}.
+     */
+    public boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+
+    boolean wasRecentlyWritten(UUID id) {
+        Long writtenAt = writeTimesNanos.get(id);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (System.nanoTime() - writtenAt > properties.getReadYourWritesWindow().toNanos()) {
+            writeTimesNanos.remove(id, writtenAt);
+            return false;
+        }
+        return true;
+    }
+
+    private void purgeExpired() {
+        long cutoff = System.nanoTime() - properties.getReadYourWritesWindow().toNanos();
+        writeTimesNanos.values().removeIf(writtenAt -> writtenAt - cutoff < 0);
+    }
+}
@@ -0,0 +1,70 @@
+package com.auzienko.javamocks.transaction.persistence.datasource;
+
+import com.auzienko.javamocks.transaction.persistence.config.props.ReplicaDataSourceProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Periodically asks the replica how far behind the primary it is and exports the result
+ * as the {@code db.replica.lag} gauge (seconds, NaN while the replica is unreachable).
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    // A replica that has replayed everything it received is not lagging, however old its last replayed transaction is.
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                       END""";
+
+    private final DataSource replica;
+    private final ReplicaDataSourceProperties properties;
+
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaLagMonitor(DataSource replica, ReplicaDataSourceProperties properties, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.properties = properties;
+        Gauge.builder("db.replica.lag", this, ReplicaLagMonitor::getLagSeconds)
+                .description("Replication replay lag of the read replica")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Measures the current replay lag.
+     */
+    @Scheduled(fixedDelayString = "${service.persistence.replica.lag-probe-interval:5s}")
+    public void probe() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+            resultSet.next();
+            lagSeconds = resultSet.getDouble(1);
+        } catch (SQLException e) {
+            log.warn("Failed to probe replica lag, reads will be served by the primary", e);
+            lagSeconds = Double.NaN;
+        }
+    }
+
+    public double getLagSeconds() {
+        return lagSeconds;
+    }
+
+    /**
+     * @return true if the replica is unreachable or lags more than the configured maximum.
+     */
+    public boolean isLagging() {
+        double lag = lagSeconds;
+        return Double.isNaN(lag) || lag * 1000 > properties.getMaxLag().toMillis();
+    }
+}
@@ -0,0 +1,28 @@
+package com.auzienko.javamocks.transaction.persistence.datasource;
+
+import java.util.Locale;
+
+/**
+ * Write paths that can be configured to commit asynchronously, see {@link AsyncCommitPolicy}.
+ */
+public enum WritePath {
+
+    /**
+     * Inserting a new transaction with its initial status.
+     */
+    TRANSACTION_INSERTS,
+
+    /**
+     * Appending status history to an existing transaction (complete, fail).
+     */
+    STATUS_CHANGES,
+
+    /**
+     * Claiming, completing and releasing idempotency keys.
+     */
+    IDEMPOTENCY_KEYS;
+
+    public String tagValue() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
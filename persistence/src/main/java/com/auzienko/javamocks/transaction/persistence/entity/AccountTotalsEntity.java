@@ -0,0 +1,64 @@
+package com.auzienko.javamocks.transaction.persistence.entity;
+
+import com.auzienko.javamocks.transaction.persistence.converter.TransactionStatusCodeConverter;
+import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
+import com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * One running total of {@code account_totals}. Rows are only written by
+ * {@code JdbcAccountTotalsStore}'s additive upsert; the mapping keeps the table under schema validation.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "account_totals")
+public class AccountTotalsEntity {
+
+    @EmbeddedId
+    private Key key;
+
+    @Column(name = "tx_count", nullable = false)
+    private Long count;
+
+    @Column(name = "amount", nullable = false, precision = 38, scale = 4)
+    private BigDecimal amount;
+
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    @Embeddable
+    public static class Key implements Serializable {
+
+        @Column(name = "account_id", nullable = false)
+        private UUID accountId;
+
+        @Enumerated(EnumType.STRING)
+        @Column(name = "currency", nullable = false, length = 3)
+        private Currency currency;
+
+        /**
+         * 0 = outgoing, 1 = incoming.
+         */
+        @Column(name = "direction", nullable = false)
+        private Short direction;
+
+        @Convert(converter = TransactionStatusCodeConverter.class)
+        @Column(name = "status", nullable = false)
+        private TransactionStatus status;
+    }
+}
@@ -0,0 +1,29 @@
+package com.auzienko.javamocks.transaction.persistence.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * A deduplicated status reason text. Status log entries reference reasons by id,
+ * so a text repeated across many transitions is stored only once.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "status_reasons")
+public class StatusReasonEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", updatable = false, nullable = false)
+    private Integer id;
+
+    @Column(name = "reason", nullable = false, updatable = false, unique = true)
+    private String text;
+}
@@ -1,21 +1,26 @@
 package com.auzienko.javamocks.transaction.persistence.entity;
 
+import com.auzienko.javamocks.transaction.persistence.converter.TransactionStatusCodeConverter;
 import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
-import jakarta.persistence.CascadeType;
+import com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus;
+import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.OneToMany;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OrderColumn;
 import jakarta.persistence.Table;
 import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
-import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.ListIndexJdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -26,11 +31,13 @@ import java.util.UUID;
 @Getter
 @Setter
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = @Index(name = "idx_transactions_owner_created", columnList = "owner_id, created_at, id"))
 public class TransactionEntity {
 
+    /**
+     * Assigned by {@code TransactionRepositoryImpl} (UUIDv7) before the entity is persisted.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
@@ -50,12 +57,22 @@ public class TransactionEntity {
     @Column(name = "currency", nullable = false, length = 3)
     private Currency currency;
 
-    @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
 
-    @OneToMany(mappedBy = "transaction", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
-    private List<TransactionStatusHistoryEntity> statusHistory = new ArrayList<>();
+    /**
+     * Status of the last entry of {@link #statusHistory}, written with the version bump of every change.
+     * The partial index on PENDING rows behind the expiry sweeper is created by the Flyway migration.
+     */
+    @Convert(converter = TransactionStatusCodeConverter.class)
+    @Column(name = "status", nullable = false)
+    private TransactionStatus status;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "transaction_status_log", joinColumns = @JoinColumn(name = "transaction_id"))
+    @OrderColumn(name = "seq")
+    @ListIndexJdbcTypeCode(SqlTypes.SMALLINT)
+    private List<TransactionStatusLogEntry> statusHistory = new ArrayList<>();
 
     @Version
     private Long version;
@@ -0,0 +1,64 @@
+package com.auzienko.javamocks.transaction.persistence.entity;
+
+import com.auzienko.javamocks.transaction.persistence.converter.TransactionStatusCodeConverter;
+import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
+import com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One bucket of {@code transaction_rollups}. Rows are only written by
+ * {@code JdbcTransactionRollupStore}'s additive upsert; the mapping keeps the table under schema validation.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "transaction_rollups")
+public class TransactionRollupEntity {
+
+    @EmbeddedId
+    private Key key;
+
+    @Column(name = "tx_count", nullable = false)
+    private Long count;
+
+    @Column(name = "amount", nullable = false, precision = 38, scale = 4)
+    private BigDecimal amount;
+
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    @Embeddable
+    public static class Key implements Serializable {
+
+        /**
+         * 0 = minute, 1 = hour.
+         */
+        @Column(name = "granularity", nullable = false)
+        private Short granularity;
+
+        @Column(name = "bucket_start", nullable = false)
+        private Instant bucketStart;
+
+        @Enumerated(EnumType.STRING)
+        @Column(name = "currency", nullable = false, length = 3)
+        private Currency currency;
+
+        @Convert(converter = TransactionStatusCodeConverter.class)
+        @Column(name = "status", nullable = false)
+        private TransactionStatus status;
+    }
+}
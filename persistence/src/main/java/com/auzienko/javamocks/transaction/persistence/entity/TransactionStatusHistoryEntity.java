@@ -1,45 +0,0 @@
-package com.auzienko.javamocks.transaction.persistence.entity;
-
-import com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus;
-import jakarta.persistence.Column;
-import jakarta.persistence.Entity;
-import jakarta.persistence.EnumType;
-import jakarta.persistence.Enumerated;
-import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
-import jakarta.persistence.Id;
-import jakarta.persistence.JoinColumn;
-import jakarta.persistence.ManyToOne;
-import jakarta.persistence.Table;
-import lombok.Getter;
-import lombok.Setter;
-import org.hibernate.annotations.CreationTimestamp;
-
-import java.time.Instant;
-import java.util.UUID;
-
-@Getter
-@Setter
-@Entity
-@Table(name = "transaction_status_history")
-public class TransactionStatusHistoryEntity {
-    @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
-    private UUID id;
-
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "transaction_id", nullable = false)
-    private TransactionEntity transaction;
-
-    @Enumerated(EnumType.STRING)
-    @Column(name = "status", nullable = false, length = 20)
-    private TransactionStatus status;
-
-    @Column(name = "reason")
-    private String reason;
-
-    @CreationTimestamp
-    @Column(name = "timestamp", nullable = false, updatable = false)
-    private Instant timestamp;
-}
@@ -0,0 +1,36 @@
+package com.auzienko.javamocks.transaction.persistence.entity;
+
+import com.auzienko.javamocks.transaction.persistence.converter.TransactionStatusCodeConverter;
+import com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * A single entry of the append-only transaction status log.
+ * Entries have no identity of their own: they are keyed by (transaction_id, seq),
+ * where seq is the position of the entry in {@link TransactionEntity#getStatusHistory()}.
+ */
+@Getter
+@Setter
+@Embeddable
+public class TransactionStatusLogEntry {
+
+    @Convert(converter = TransactionStatusCodeConverter.class)
+    @Column(name = "status", nullable = false)
+    private TransactionStatus status;
+
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "reason_id")
+    private StatusReasonEntity reason;
+
+    @Column(name = "recorded_at", nullable = false)
+    private Instant recordedAt;
+}
@@ -0,0 +1,228 @@
+package com.auzienko.javamocks.transaction.persistence.expiry;
+
+import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.domain.model.TransactionStatusHistory;
+import com.auzienko.javamocks.transaction.domain.model.TransactionTransition;
+import com.auzienko.javamocks.transaction.persistence.config.ConditionalOnDatabase;
+import com.auzienko.javamocks.transaction.persistence.config.props.TransactionExpiryProperties;
+import com.auzienko.javamocks.transaction.persistence.converter.TransactionStatusCodeConverter;
+import com.auzienko.javamocks.transaction.persistence.repository.StatusReasonInterner;
+import com.auzienko.javamocks.transaction.persistence.service.TransactionChangeListener;
+import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
+import com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.UUID;
+
+/**
+ * Ends transactions that have been PENDING for longer than {@code pending-timeout}, typically
+ * because their settlement callback never arrived, by expiring or failing them.
+ * <p>
+ * A sweep walks the overdue transactions in {@code (created_at, id)} order through the partial
+ * index on PENDING rows, {@code batch-size} at a time and at most {@code max-batches-per-sweep}
+ * batches, leaving any further ones to the next sweep. Each batch is a single statement in its own
+ * database transaction: it locks the next overdue rows with {@code SKIP LOCKED}, sets their status,
+ * bumps their version and appends the status log entry. Rows locked by another instance's batch,
+ * or by a request changing them right now, are skipped, so instances never sweep the same rows,
+ * and a request that loaded a transaction before it was swept fails its version check and retries.
+ * Listeners are notified once a batch has committed.
+ * <p>
+ * Exports {@code transaction.expiry.swept}, {@code transaction.expiry.batch} and
+ * {@code transaction.expiry.failures}.
+ */
+@Slf4j
+@Component
+@ConditionalOnDatabase
+@ConditionalOnProperty(prefix = "service.persistence.expiry", name = "enabled", havingValue = "true")
+public class PendingTransactionSweeper {
+
+    private static final Set<TransactionTransition> ENDINGS = EnumSet.of(TransactionTransition.EXPIRE, TransactionTransition.FAIL);
+
+    private static final UUID NO_TRANSACTION = new UUID(0, 0);
+
+    /**
+     * Ends the next batch of overdue transactions after the given position and returns them. A
+     * PENDING transaction has exactly one log entry, so the new entry is always seq 1; one that
+     * already has more (changed by an instance that does not maintain the status column yet) is left alone.
+     */
+    private static final String SWEEP_BATCH = """
+            WITH due AS (SELECT t.id
+                         FROM transactions t
+                         WHERE t.status = 0
+                           AND t.created_at < ?
+                           AND (t.created_at, t.id) > (?, ?)
+                           AND NOT EXISTS (SELECT 1 FROM transaction_status_log l WHERE l.transaction_id = t.id AND l.seq > 0)
+                         ORDER BY t.created_at, t.id
+                         LIMIT ?
+                         FOR UPDATE SKIP LOCKED),
+                 swept AS (
+                     UPDATE transactions t
+                     SET status = ?, version = t.version + 1
+                     FROM due
+                     WHERE t.id = due.id
+                     RETURNING t.id, t.owner_id, t.source_account_id, t.destination_account_id, t.amount, t.currency,
+                               t.created_at, t.version),
+                 logged AS (
+                     INSERT INTO transaction_status_log (transaction_id, seq, status, reason_id, recorded_at)
+                     SELECT id, 1, ?, ?, ?
+                     FROM swept)
+            SELECT *
+            FROM swept
+            ORDER BY created_at, id
+            """;
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private static final TransactionStatusCodeConverter STATUS_CODES = new TransactionStatusCodeConverter();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StatusReasonInterner reasonInterner;
+    private final List<TransactionChangeListener> changeListeners;
+    private final TransactionExpiryProperties properties;
+    private final TransactionTransition transition;
+    private final String reason;
+
+    private final Counter swept;
+    private final Timer batchTimer;
+    private final Counter failures;
+
+    public PendingTransactionSweeper(JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     StatusReasonInterner reasonInterner,
+                                     List<TransactionChangeListener> changeListeners,
+                                     TransactionExpiryProperties properties,
+                                     MeterRegistry meterRegistry) {
+        if (!ENDINGS.contains(properties.getTransition())) {
+            throw new IllegalStateException("service.persistence.expiry.transition must be one of " + ENDINGS
+                    + ", not " + properties.getTransition());
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reasonInterner = reasonInterner;
+        this.changeListeners = List.copyOf(changeListeners);
+        this.properties = properties;
+        this.transition = properties.getTransition();
+        this.reason = properties.getReason() != null ? properties.getReason() : transition.getDefaultReason();
+
+        this.swept = Counter.builder("transaction.expiry.swept")
+                .description("Overdue PENDING transactions ended by the sweeper")
+                .tag("status", transition.getTarget().name())
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("transaction.expiry.batch")
+                .description("Time to end and commit one batch of overdue transactions")
+                .register(meterRegistry);
+        this.failures = Counter.builder("transaction.expiry.failures")
+                .description("Sweeps aborted by an error; they resume with the next sweep")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${service.persistence.expiry.sweep-interval:1m}")
+    public void sweep() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        Instant cutoff = now.minus(properties.getPendingTimeout());
+        int batchSize = Math.max(1, properties.getBatchSize());
+        int maxBatches = Math.max(1, properties.getMaxBatchesPerSweep());
+        int batches = 0;
+        int total = 0;
+        try {
+            Instant afterCreatedAt = Instant.EPOCH;
+            UUID afterId = NO_TRANSACTION;
+            List<Transaction> batch;
+            do {
+                Instant createdAt = afterCreatedAt;
+                UUID id = afterId;
+                batch = batchTimer.record(() -> transactionTemplate.execute(status ->
+                        sweepBatch(cutoff, createdAt, id, batchSize, now)));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                notifyListeners(batch);
+                batches++;
+                total += batch.size();
+                Transaction last = batch.getLast();
+                afterCreatedAt = last.getCreatedAt();
+                afterId = last.getId();
+            } while (batch.size() == batchSize && batches < maxBatches);
+            if (batch.size() == batchSize) {
+                log.info("Stopped after {} batches, leaving further overdue transactions to the next sweep", batches);
+            }
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Sweeping overdue PENDING transactions failed after {}, resuming with the next sweep", total, e);
+        }
+        if (total > 0) {
+            log.info("Marked {} transactions PENDING since before {} as {}", total, cutoff, transition.getTarget());
+        }
+    }
+
+    private List<Transaction> sweepBatch(Instant cutoff, Instant afterCreatedAt, UUID afterId,
+                                         int batchSize, Instant now) {
+        short target = STATUS_CODES.convertToDatabaseColumn(transition.getTarget());
+        Integer reasonId = reasonInterner.internId(reason);
+        return jdbcTemplate.query(SWEEP_BATCH, ps -> {
+            setInstant(ps, 1, cutoff);
+            setInstant(ps, 2, afterCreatedAt);
+            ps.setObject(3, afterId);
+            ps.setInt(4, batchSize);
+            ps.setShort(5, target);
+            ps.setShort(6, target);
+            ps.setObject(7, reasonId);
+            setInstant(ps, 8, now);
+        }, (rs, rowNum) -> mapSwept(rs, now));
+    }
+
+    private Transaction mapSwept(ResultSet rs, Instant now) throws SQLException {
+        Instant createdAt = rs.getTimestamp("created_at", Calendar.getInstance(UTC)).toInstant();
+        Transaction transaction = new Transaction();
+        transaction.setId(rs.getObject("id", UUID.class));
+        transaction.setOwnerId(rs.getString("owner_id"));
+        transaction.setSourceAccountId(rs.getObject("source_account_id", UUID.class));
+        transaction.setDestinationAccountId(rs.getObject("destination_account_id", UUID.class));
+        transaction.setAmount(rs.getBigDecimal("amount"));
+        transaction.setCurrency(Currency.valueOf(rs.getString("currency")));
+        transaction.setCreatedAt(createdAt);
+        transaction.setVersion(rs.getLong("version"));
+        // The initial entry's reason is not needed by the listeners, so it is not read back.
+        List<TransactionStatusHistory> history = new ArrayList<>(2);
+        history.add(new TransactionStatusHistory(TransactionStatus.PENDING, null, createdAt));
+        history.add(new TransactionStatusHistory(transition.getTarget(), reason, now));
+        transaction.setStatusHistory(history);
+        return transaction;
+    }
+
+    private void notifyListeners(List<Transaction> batch) {
+        swept.increment(batch.size());
+        for (Transaction transaction : batch) {
+            changeListeners.forEach(listener ->
+                    listener.statusChanged(transaction, TransactionStatus.PENDING, transition.getTarget()));
+        }
+    }
+
+    // Timestamps are written and read as UTC, like the repositories do.
+
+    private static void setInstant(PreparedStatement ps, int index, Instant instant) throws SQLException {
+        ps.setTimestamp(index, Timestamp.from(instant), Calendar.getInstance(UTC));
+    }
+}
@@ -0,0 +1,31 @@
+package com.auzienko.javamocks.transaction.persistence.idempotency;
+
+import com.auzienko.javamocks.transaction.persistence.entity.IdempotencyKeyEntity;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Storage for idempotency keys and the responses cached under them.
+ * <p>
+ * Every call is its own unit of work, independent of any surrounding transaction.
+ */
+public interface IdempotencyKeyStore {
+
+    Optional<IdempotencyKeyEntity> find(UUID key);
+
+    /**
+     * Stores the record unless one with the same key already exists.
+     *
+     * @param record The record to store.
+     * @return true if the record was stored, false if the key was already taken.
+     */
+    boolean insertIfAbsent(IdempotencyKeyEntity record);
+
+    /**
+     * Stores the final response for a key, replacing its processing marker.
+     */
+    void complete(UUID key, int responseStatus, String responseBody);
+
+    void delete(UUID key);
+}
@@ -0,0 +1,80 @@
+package com.auzienko.javamocks.transaction.persistence.idempotency;
+
+import com.auzienko.javamocks.transaction.persistence.config.ConditionalOnInProcessStore;
+import com.auzienko.javamocks.transaction.persistence.config.props.InMemoryStoreProperties;
+import com.auzienko.javamocks.transaction.persistence.entity.IdempotencyKeyEntity;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link IdempotencyKeyStore} for the in-memory mode. Keys are dropped once they are older than
+ * {@code service.persistence.memory.idempotency-key-ttl}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnInProcessStore
+public class InMemoryIdempotencyKeyStore implements IdempotencyKeyStore {
+
+    private final InMemoryStoreProperties properties;
+
+    private final Map<UUID, IdempotencyKeyEntity> records = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<IdempotencyKeyEntity> find(UUID key) {
+        return Optional.ofNullable(records.get(key)).map(InMemoryIdempotencyKeyStore::copyOf);
+    }
+
+    @Override
+    public boolean insertIfAbsent(IdempotencyKeyEntity record) {
+        IdempotencyKeyEntity copy = copyOf(record);
+        if (copy.getCreatedAt() == null) {
+            copy.setCreatedAt(Instant.now());
+        }
+        return records.putIfAbsent(copy.getKey(), copy) == null;
+    }
+
+    @Override
+    public void complete(UUID key, int responseStatus, String responseBody) {
+        records.compute(key, (k, existing) -> {
+            IdempotencyKeyEntity completed = new IdempotencyKeyEntity();
+            completed.setKey(k);
+            completed.setResponseStatus(responseStatus);
+            completed.setResponseBody(responseBody);
+            completed.setCreatedAt(existing != null ? existing.getCreatedAt() : Instant.now());
+            completed.setCompletedAt(Instant.now());
+            return completed;
+        });
+    }
+
+    @Override
+    public void delete(UUID key) {
+        records.remove(key);
+    }
+
+    @Scheduled(fixedDelayString = "PT1M")
+    public void purgeExpired() {
+        Instant cutoff = Instant.now().minus(properties.getIdempotencyKeyTtl());
+        int before = records.size();
+        records.values().removeIf(record -> record.getCreatedAt().isBefore(cutoff));
+        log.debug("Purged {} expired idempotency keys", before - records.size());
+    }
+
+    private static IdempotencyKeyEntity copyOf(IdempotencyKeyEntity source) {
+        IdempotencyKeyEntity copy = new IdempotencyKeyEntity();
+        copy.setKey(source.getKey());
+        copy.setResponseStatus(source.getResponseStatus());
+        copy.setResponseBody(source.getResponseBody());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setCompletedAt(source.getCompletedAt());
+        return copy;
+    }
+}
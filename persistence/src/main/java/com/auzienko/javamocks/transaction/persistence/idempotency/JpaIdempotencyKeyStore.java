@@ -0,0 +1,75 @@
+package com.auzienko.javamocks.transaction.persistence.idempotency;
+
+import com.auzienko.javamocks.transaction.persistence.config.ConditionalOnDatabase;
+import com.auzienko.javamocks.transaction.persistence.datasource.AsyncCommitPolicy;
+import com.auzienko.javamocks.transaction.persistence.datasource.WritePath;
+import com.auzienko.javamocks.transaction.persistence.entity.IdempotencyKeyEntity;
+import com.auzienko.javamocks.transaction.persistence.repository.IdempotencyKeyJpaRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * {@link IdempotencyKeyStore} backed by the {@code idempotency_keys} table.
+ */
+@Component
+@ConditionalOnDatabase
+public class JpaIdempotencyKeyStore implements IdempotencyKeyStore {
+
+    private final IdempotencyKeyJpaRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final AsyncCommitPolicy asyncCommit;
+
+    public JpaIdempotencyKeyStore(IdempotencyKeyJpaRepository repository, PlatformTransactionManager transactionManager,
+                                  AsyncCommitPolicy asyncCommit) {
+        this.repository = repository;
+        this.asyncCommit = asyncCommit;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public Optional<IdempotencyKeyEntity> find(UUID key) {
+        return transactionTemplate.execute(status -> repository.findById(key));
+    }
+
+    @Override
+    public boolean insertIfAbsent(IdempotencyKeyEntity record) {
+        Instant createdAt = record.getCreatedAt() != null ? record.getCreatedAt() : Instant.now();
+        Integer inserted = transactionTemplate.execute(status -> {
+            asyncCommit.apply(WritePath.IDEMPOTENCY_KEYS);
+            return repository.insertIfAbsent(
+                    record.getKey(), record.getResponseStatus(), record.getResponseBody(), createdAt);
+        });
+        return inserted != null && inserted > 0;
+    }
+
+    @Override
+    public void complete(UUID key, int responseStatus, String responseBody) {
+        transactionTemplate.executeWithoutResult(status -> {
+            asyncCommit.apply(WritePath.IDEMPOTENCY_KEYS);
+            IdempotencyKeyEntity entity = repository.findById(key)
+                    .orElseGet(IdempotencyKeyEntity::new);
+
+            entity.setKey(key);
+            entity.setResponseStatus(responseStatus);
+            entity.setResponseBody(responseBody);
+            entity.setCompletedAt(Instant.now());
+
+            repository.save(entity);
+        });
+    }
+
+    @Override
+    public void delete(UUID key) {
+        transactionTemplate.executeWithoutResult(status -> {
+            asyncCommit.apply(WritePath.IDEMPOTENCY_KEYS);
+            repository.deleteById(key);
+        });
+    }
+}
@@ -0,0 +1,75 @@
+package com.auzienko.javamocks.transaction.persistence.jfr;
+
+import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.persistence.entity.IdempotencyKeyEntity;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.support.RetrySynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * One call into a repository adapter, including the commit of a transaction it opened itself.
+ */
+@Name("com.auzienko.transaction.RepositoryCall")
+@Label("Repository Call")
+@Description("A call into the transaction repository or the idempotency key store")
+@Category({"Transaction Service", "Persistence"})
+@StackTrace(false)
+public class RepositoryCallEvent extends Event {
+
+    @Label("Repository")
+    String repository;
+
+    @Label("Method")
+    String method;
+
+    @Label("Key")
+    @Description("The transaction id or idempotency key the call is about, if any")
+    String key;
+
+    @Label("Retry Count")
+    @Description("Failed attempts of the enclosing retried transition, 0 outside of one")
+    int retryCount;
+
+    @Label("Exception")
+    @Description("The simple name of the exception, or none")
+    String exception;
+
+    /**
+     * Ends the event and, if it is recorded, commits it with the key found among the call's
+     * arguments; the key is only formatted then.
+     */
+    public void finish(String repository, String method, Object[] args, String exception) {
+        end();
+        if (shouldCommit()) {
+            this.repository = repository;
+            this.method = method;
+            this.key = key(args);
+            RetryContext retryContext = RetrySynchronizationManager.getContext();
+            this.retryCount = retryContext == null ? 0 : retryContext.getRetryCount();
+            this.exception = exception;
+            commit();
+        }
+    }
+
+    /**
+     * The transaction id or idempotency key among the arguments, if any.
+     */
+    private static String key(Object[] args) {
+        if (args.length == 0) {
+            return null;
+        }
+        return switch (args[0]) {
+            case UUID id -> id.toString();
+            case Transaction transaction -> String.valueOf(transaction.getId());
+            case IdempotencyKeyEntity entity -> String.valueOf(entity.getKey());
+            case null, default -> null;
+        };
+    }
+}
@@ -0,0 +1,74 @@
+package com.auzienko.javamocks.transaction.persistence.jfr;
+
+import com.auzienko.javamocks.transaction.domain.model.TransactionTransition;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.support.RetrySynchronizationManager;
+
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * One attempt at a status transition, from loading the transaction to the commit of the attempt's
+ * transaction, so that a conflict only found by the flush at commit is recorded as the attempt's
+ * outcome. Retried attempts are separate events with a growing {@code retryCount}.
+ */
+@Name("com.auzienko.transaction.Transition")
+@Label("Transaction Transition")
+@Description("An attempt to apply a status transition to a transaction")
+@Category({"Transaction Service", "Persistence"})
+@StackTrace(false)
+public class TransitionEvent extends Event {
+
+    /**
+     * Attribute of the {@link RetryContext} holding the attempt that is still to be finished.
+     */
+    public static final String RETRY_CONTEXT_ATTRIBUTE = TransitionEvent.class.getName();
+
+    @Label("Transaction Id")
+    String transactionId;
+
+    @Label("Transition")
+    String transition;
+
+    @Label("Retry Count")
+    @Description("Failed attempts of the same call before this one")
+    int retryCount;
+
+    @Label("Outcome")
+    @Description("The simple name of the exception, or none")
+    String outcome;
+
+    private transient UUID id;
+    private transient TransactionTransition appliedTransition;
+
+    /**
+     * Begins the event for an attempt at {@code transition}.
+     */
+    public static TransitionEvent start(UUID id, TransactionTransition transition) {
+        TransitionEvent event = new TransitionEvent();
+        event.id = id;
+        event.appliedTransition = transition;
+        if (event.isEnabled()) {
+            RetryContext retryContext = RetrySynchronizationManager.getContext();
+            event.retryCount = retryContext == null ? 0 : retryContext.getRetryCount();
+        }
+        event.begin();
+        return event;
+    }
+
+    public void finish(String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.transactionId = String.valueOf(id);
+            this.transition = appliedTransition.name().toLowerCase(Locale.ROOT);
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
@@ -2,31 +2,28 @@ package com.auzienko.javamocks.transaction.persistence.mapper;
 
 import com.auzienko.javamocks.transaction.domain.model.Transaction;
 import com.auzienko.javamocks.transaction.domain.model.TransactionStatusHistory;
+import com.auzienko.javamocks.transaction.persistence.config.ConditionalOnDatabase;
 import com.auzienko.javamocks.transaction.persistence.entity.TransactionEntity;
-import com.auzienko.javamocks.transaction.persistence.entity.TransactionStatusHistoryEntity;
-import org.mapstruct.AfterMapping;
+import com.auzienko.javamocks.transaction.persistence.entity.TransactionStatusLogEntry;
+import com.auzienko.javamocks.transaction.persistence.repository.StatusReasonInterner;
+import org.mapstruct.AnnotateWith;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
-import org.mapstruct.MappingTarget;
 
-@Mapper(componentModel = "spring")
+@AnnotateWith(ConditionalOnDatabase.class)
+@Mapper(componentModel = "spring", uses = StatusReasonInterner.class)
 public interface TransactionPersistenceMapper {
 
     @Mapping(target = "statusHistory", source = "statusHistory")
+    @Mapping(target = "status", source = "currentStatus")
     TransactionEntity toEntity(Transaction transaction);
 
     Transaction toDomain(TransactionEntity transactionEntity);
 
-    TransactionStatusHistory toStatusHistoryDomain(TransactionStatusHistoryEntity entity);
+    @Mapping(target = "reason", source = "reason.text")
+    @Mapping(target = "timestamp", source = "recordedAt")
+    TransactionStatusHistory toStatusHistoryDomain(TransactionStatusLogEntry entry);
 
-    @Mapping(target = "id", ignore = true)
-    @Mapping(target = "transaction", ignore = true)
-    TransactionStatusHistoryEntity toStatusHistoryEntity(TransactionStatusHistory history);
-
-    @AfterMapping
-    default void linkStatusHistory(@MappingTarget TransactionEntity transactionEntity) {
-        if (transactionEntity.getStatusHistory() != null) {
-            transactionEntity.getStatusHistory().forEach(history -> history.setTransaction(transactionEntity));
-        }
-    }
+    @Mapping(target = "recordedAt", source = "timestamp")
+    TransactionStatusLogEntry toStatusLogEntry(TransactionStatusHistory history);
 }
@@ -0,0 +1,47 @@
+package com.auzienko.javamocks.transaction.persistence.memory;
+
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Transaction manager for the in-memory store, which has no resource to begin or commit.
+ * <p>
+ * It only demarcates transactions so that {@code @Transactional} code and transaction
+ * synchronizations keep working. Writes to the in-memory store take effect immediately and are
+ * not undone on rollback.
+ */
+public class InMemoryTransactionManager extends AbstractPlatformTransactionManager {
+
+    @Override
+    protected Object doGetTransaction() {
+        return new Object();
+    }
+
+    @Override
+    protected boolean isExistingTransaction(Object transaction) {
+        return TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+    }
+
+    @Override
+    protected Object doSuspend(Object transaction) {
+        return null;
+    }
+
+    @Override
+    protected void doResume(Object transaction, Object suspendedResources) {
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+    }
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+    }
+}
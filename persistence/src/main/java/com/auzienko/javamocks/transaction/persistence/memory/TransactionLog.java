@@ -0,0 +1,387 @@
+package com.auzienko.javamocks.transaction.persistence.memory;
+
+import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Write-ahead log for the in-process store: an append-only sequence of memory-mapped segment files.
+ * <p>
+ * Each record holds the full state of one transaction version, framed as
+ * {@code [int length][int crc32c][payload]}; a zero length marks the end of a segment's data.
+ * Because every record is a complete version, replay simply keeps the highest version of each
+ * transaction, regardless of the order in which the records are read.
+ * <p>
+ * {@link #append} only copies the record into the mapped segment. {@link #awaitDurable} blocks
+ * until it has been forced to disk: the first waiter forces everything appended so far on behalf
+ * of all waiters (group commit), so concurrent writers share a single force.
+ * <p>
+ * {@link #compact} rewrites sealed segments that are mostly superseded: their live records are
+ * appended again and the segment file is deleted once those copies are durable.
+ */
+@Slf4j
+public class TransactionLog implements Closeable {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d{10})\\.log");
+    private static final int HEADER_BYTES = 8;
+    private static final byte UPSERT = 1;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long groupCommitWindowNanos;
+    private final double compactionLiveRatio;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private Segment active;
+    private long appendedPosition;
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Condition flushed = flushLock.newCondition();
+    private long durablePosition;
+    private boolean flushing;
+
+    /**
+     * @param directory           Directory holding the segment files; created if missing.
+     * @param segmentSize         Size of each mapped segment file in bytes.
+     * @param groupCommitWindow   How long the flushing thread waits for more records before forcing.
+     * @param compactionLiveRatio Sealed segments whose share of live records is below this are compacted.
+     */
+    public TransactionLog(Path directory, int segmentSize, Duration groupCommitWindow, double compactionLiveRatio) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.groupCommitWindowNanos = groupCommitWindow.toNanos();
+        this.compactionLiveRatio = compactionLiveRatio;
+    }
+
+    /**
+     * Maps the existing segments, passes every intact record to {@code replay} and positions the
+     * log after the last intact record. A torn record at the tail (a write that was never
+     * acknowledged) and anything after it is discarded.
+     *
+     * @param replay Receives the recovered transaction versions, oldest segment first.
+     * @return The number of records replayed.
+     */
+    public long open(Consumer<Transaction> replay) throws IOException {
+        Files.createDirectories(directory);
+        appendLock.lock();
+        try {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                    if (matcher.matches()) {
+                        long number = Long.parseLong(matcher.group(1));
+                        segments.put(number, Segment.map(number, file, Math.max(segmentSize, (int) Files.size(file))));
+                    }
+                }
+            }
+
+            long[] records = new long[1];
+            for (Segment segment : segments.values()) {
+                segment.truncate(segment.read(replay.andThen(transaction -> records[0]++)));
+            }
+
+            active = segments.isEmpty() ? createSegment(1) : segments.lastEntry().getValue();
+            appendedPosition = active.position();
+            durablePosition = appendedPosition;
+            return records[0];
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Appends a transaction version to the log without waiting for it to reach the disk.
+     *
+     * @return The log position after the record, to be passed to {@link #awaitDurable}.
+     */
+    public long append(Transaction transaction) {
+        byte[] payload = encode(transaction);
+        if (HEADER_BYTES + payload.length >= segmentSize) {
+            throw new IllegalArgumentException("Record of " + payload.length + " bytes does not fit in a log segment");
+        }
+
+        appendLock.lock();
+        try {
+            if (active == null) {
+                throw new IllegalStateException("Transaction log is not open");
+            }
+            if (!active.fits(payload.length)) {
+                active = createSegment(active.number + 1);
+            }
+            active.write(payload);
+            appendedPosition = active.position();
+            return appendedPosition;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until everything up to {@code position} has been forced to disk.
+     */
+    public void awaitDurable(long position) {
+        flushLock.lock();
+        try {
+            while (durablePosition < position) {
+                if (flushing) {
+                    flushed.awaitUninterruptibly();
+                    continue;
+                }
+                flushing = true;
+                long forced = durablePosition;
+                flushLock.unlock();
+                try {
+                    if (groupCommitWindowNanos > 0) {
+                        LockSupport.parkNanos(groupCommitWindowNanos);
+                    }
+                    forced = forceAppended();
+                } finally {
+                    flushLock.lock();
+                    flushing = false;
+                    durablePosition = Math.max(durablePosition, forced);
+                    flushed.signalAll();
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Rewrites sealed segments in which fewer than the configured share of records are still live.
+     *
+     * @param isLive Tells whether a record may still be needed; only records superseded by a durable
+     *               newer version may be dropped. Records appended after this method started are
+     *               passed to it too.
+     * @return The number of segments deleted.
+     */
+    public int compact(Predicate<Transaction> isLive) throws IOException {
+        List<Segment> sealed;
+        appendLock.lock();
+        try {
+            sealed = new ArrayList<>(segments.headMap(active.number).values());
+        } finally {
+            appendLock.unlock();
+        }
+
+        int deleted = 0;
+        for (Segment segment : sealed) {
+            List<Transaction> records = new ArrayList<>();
+            segment.read(records::add);
+            List<Transaction> live = records.stream().filter(isLive).toList();
+            if (!records.isEmpty() && live.size() >= compactionLiveRatio * records.size()) {
+                continue;
+            }
+
+            long position = 0;
+            for (Transaction transaction : live) {
+                position = append(transaction);
+            }
+            awaitDurable(position);
+
+            appendLock.lock();
+            try {
+                segments.remove(segment.number);
+            } finally {
+                appendLock.unlock();
+            }
+            Files.deleteIfExists(segment.file);
+            deleted++;
+            log.debug("Compacted log segment {}: {} of {} records were live", segment.file, live.size(), records.size());
+        }
+        return deleted;
+    }
+
+    public int segmentCount() {
+        appendLock.lock();
+        try {
+            return segments.size();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        long position;
+        appendLock.lock();
+        try {
+            position = appendedPosition;
+        } finally {
+            appendLock.unlock();
+        }
+        awaitDurable(position);
+    }
+
+    private long forceAppended() {
+        long target;
+        List<Segment> dirty = new ArrayList<>();
+        List<Integer> limits = new ArrayList<>();
+        appendLock.lock();
+        try {
+            target = appendedPosition;
+            for (Map.Entry<Long, Segment> entry : segments.tailMap(segmentOf(durablePosition), true).entrySet()) {
+                dirty.add(entry.getValue());
+                limits.add(entry.getValue().writeOffset);
+            }
+        } finally {
+            appendLock.unlock();
+        }
+        for (int i = 0; i < dirty.size(); i++) {
+            dirty.get(i).force(limits.get(i));
+        }
+        return target;
+    }
+
+    private Segment createSegment(long number) throws IOException {
+        Path file = directory.resolve(String.format("segment-%010d.log", number));
+        Segment segment = Segment.map(number, file, segmentSize);
+        segments.put(number, segment);
+        return segment;
+    }
+
+    private static long segmentOf(long position) {
+        return position >>> 32;
+    }
+
+    private static byte[] encode(Transaction transaction) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(160);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(UPSERT);
+            TransactionRecordCodec.write(out, transaction);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Transaction decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte type = in.readByte();
+        if (type != UPSERT) {
+            throw new IOException("Unknown log record type " + type);
+        }
+        return TransactionRecordCodec.read(in);
+    }
+
+    /**
+     * One mapped segment file. Positions handed out by the log combine the segment number (high
+     * 32 bits) with the offset inside the segment (low 32 bits), so they grow monotonically.
+     */
+    private static final class Segment {
+
+        private final long number;
+        private final Path file;
+        private final MappedByteBuffer buffer;
+        private int writeOffset;
+        private int forcedOffset;
+
+        private Segment(long number, Path file, MappedByteBuffer buffer) {
+            this.number = number;
+            this.file = file;
+            this.buffer = buffer;
+        }
+
+        static Segment map(long number, Path file, int size) throws IOException {
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                return new Segment(number, file, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            }
+        }
+
+        long position() {
+            return (number << 32) | writeOffset;
+        }
+
+        boolean fits(int payloadLength) {
+            // Leave room for the zero length that terminates the segment.
+            return writeOffset + HEADER_BYTES + payloadLength + Integer.BYTES <= buffer.capacity();
+        }
+
+        void write(byte[] payload) {
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            buffer.putInt(writeOffset + Integer.BYTES, (int) crc.getValue());
+            buffer.put(writeOffset + HEADER_BYTES, payload);
+            buffer.putInt(writeOffset, payload.length);
+            writeOffset += HEADER_BYTES + payload.length;
+        }
+
+        void force(int upTo) {
+            if (upTo > forcedOffset) {
+                buffer.force(forcedOffset, upTo - forcedOffset);
+                forcedOffset = upTo;
+            }
+        }
+
+        /**
+         * Passes the intact records, from the start of the segment, to {@code consumer}.
+         *
+         * @return The offset just past the last intact record.
+         */
+        int read(Consumer<Transaction> consumer) throws IOException {
+            int offset = 0;
+            while (offset + HEADER_BYTES <= buffer.capacity()) {
+                int length = buffer.getInt(offset);
+                if (length <= 0 || offset + HEADER_BYTES + length > buffer.capacity()) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                buffer.get(offset + HEADER_BYTES, payload);
+                CRC32C crc = new CRC32C();
+                crc.update(payload);
+                if ((int) crc.getValue() != buffer.getInt(offset + Integer.BYTES)) {
+                    break;
+                }
+                consumer.accept(decode(payload));
+                offset += HEADER_BYTES + length;
+            }
+            return offset;
+        }
+
+        /**
+         * Continues writing at {@code offset}, zeroing a torn record left there so that it can
+         * never be read back once newer records are written over part of it.
+         */
+        void truncate(int offset) {
+            writeOffset = offset;
+            forcedOffset = offset;
+            if (offset + Integer.BYTES <= buffer.capacity() && buffer.getInt(offset) != 0) {
+                log.warn("Discarding torn record at offset {} of {}", offset, file);
+                byte[] zeros = new byte[buffer.capacity() - offset];
+                buffer.put(offset, zeros);
+                buffer.force(offset, zeros.length);
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.auzienko.javamocks.transaction.persistence.memory;
+
+import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.domain.model.TransactionStatusHistory;
+import com.auzienko.javamocks.transaction.persistence.converter.TransactionStatusCodeConverter;
+import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compact binary form of a {@link Transaction}, used by the in-memory store's snapshot file.
+ * <p>
+ * Statuses use the same codes as the database column (see {@link TransactionStatusCodeConverter}).
+ */
+public final class TransactionRecordCodec {
+
+    private static final TransactionStatusCodeConverter STATUS_CODES = new TransactionStatusCodeConverter();
+
+    private TransactionRecordCodec() {
+    }
+
+    public static void write(DataOutput out, Transaction transaction) throws IOException {
+        writeUuid(out, transaction.getId());
+        out.writeUTF(transaction.getOwnerId());
+        writeUuid(out, transaction.getSourceAccountId());
+        writeUuid(out, transaction.getDestinationAccountId());
+        writeDecimal(out, transaction.getAmount());
+        out.writeUTF(transaction.getCurrency().name());
+        writeInstant(out, transaction.getCreatedAt());
+        out.writeLong(transaction.getVersion());
+
+        out.writeShort(transaction.getStatusHistory().size());
+        for (TransactionStatusHistory entry : transaction.getStatusHistory()) {
+            out.writeShort(STATUS_CODES.convertToDatabaseColumn(entry.getStatus()));
+            out.writeBoolean(entry.getReason() != null);
+            if (entry.getReason() != null) {
+                out.writeUTF(entry.getReason());
+            }
+            writeInstant(out, entry.getTimestamp());
+        }
+    }
+
+    public static Transaction read(DataInput in) throws IOException {
+        Transaction transaction = new Transaction();
+        transaction.setId(readUuid(in));
+        transaction.setOwnerId(in.readUTF());
+        transaction.setSourceAccountId(readUuid(in));
+        transaction.setDestinationAccountId(readUuid(in));
+        transaction.setAmount(readDecimal(in));
+        transaction.setCurrency(Currency.valueOf(in.readUTF()));
+        transaction.setCreatedAt(readInstant(in));
+        transaction.setVersion(in.readLong());
+
+        int entries = in.readUnsignedShort();
+        List<TransactionStatusHistory> history = new ArrayList<>(entries);
+        for (int i = 0; i < entries; i++) {
+            TransactionStatusHistory entry = new TransactionStatusHistory();
+            entry.setStatus(STATUS_CODES.convertToEntityAttribute(in.readShort()));
+            entry.setReason(in.readBoolean() ? in.readUTF() : null);
+            entry.setTimestamp(readInstant(in));
+            history.add(entry);
+        }
+        transaction.setStatusHistory(history);
+        return transaction;
+    }
+
+    private static void writeUuid(DataOutput out, UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(DataInput in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    private static void writeDecimal(DataOutput out, BigDecimal value) throws IOException {
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.writeShort(value.scale());
+        out.writeByte(unscaled.length);
+        out.write(unscaled);
+    }
+
+    private static BigDecimal readDecimal(DataInput in) throws IOException {
+        int scale = in.readShort();
+        byte[] unscaled = new byte[in.readUnsignedByte()];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private static void writeInstant(DataOutput out, Instant instant) throws IOException {
+        out.writeLong(instant.getEpochSecond());
+        out.writeInt(instant.getNano());
+    }
+
+    private static Instant readInstant(DataInput in) throws IOException {
+        return Instant.ofEpochSecond(in.readLong(), in.readInt());
+    }
+}
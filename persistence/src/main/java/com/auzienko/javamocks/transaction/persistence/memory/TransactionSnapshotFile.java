@@ -0,0 +1,68 @@
+package com.auzienko.javamocks.transaction.persistence.memory;
+
+import com.auzienko.javamocks.transaction.domain.model.Transaction;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reads and writes the in-memory store's snapshot: a header followed by one
+ * {@link TransactionRecordCodec} record per transaction.
+ * <p>
+ * A snapshot is written to a temporary file next to the target and moved into place, so a crash
+ * while writing leaves the previous snapshot intact.
+ */
+public final class TransactionSnapshotFile {
+
+    private static final int MAGIC = 0x54584E53; // "TXNS"
+    private static final int FORMAT_VERSION = 1;
+
+    private TransactionSnapshotFile() {
+    }
+
+    public static void write(Path file, Collection<Transaction> transactions) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(transactions.size());
+                for (Transaction transaction : transactions) {
+                    TransactionRecordCodec.write(out, transaction);
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    public static List<Transaction> read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a transaction snapshot: " + file);
+            }
+            int formatVersion = in.readInt();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException("Unsupported snapshot format version " + formatVersion + ": " + file);
+            }
+            int count = in.readInt();
+            List<Transaction> transactions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                transactions.add(TransactionRecordCodec.read(in));
+            }
+            return transactions;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.auzienko.javamocks.transaction.persistence.repository;
+
+import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.domain.model.TransactionStatusHistory;
+import com.auzienko.javamocks.transaction.persistence.id.UuidV7Generator;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Values the repositories assign themselves instead of reading them back from the database.
+ */
+final class ClientSideValues {
+
+    private ClientSideValues() {
+    }
+
+    /**
+     * Assigns the id, creation time and status timestamps a transaction needs before its first insert.
+     */
+    static void assignForInsert(Transaction transaction) {
+        Instant now = now();
+        if (transaction.getId() == null) {
+            transaction.setId(UuidV7Generator.INSTANCE.generate());
+        }
+        if (transaction.getCreatedAt() == null) {
+            transaction.setCreatedAt(now);
+        }
+        stampStatusHistory(transaction.getStatusHistory(), now);
+    }
+
+    /**
+     * Stamps the entries that have no timestamp yet. An entry is never stamped earlier than the one
+     * before it, so the history stays in chronological order even if the wall clock steps back.
+     */
+    static void stampStatusHistory(List<TransactionStatusHistory> history, Instant now) {
+        Instant previous = null;
+        for (TransactionStatusHistory entry : history) {
+            if (entry.getTimestamp() == null) {
+                entry.setTimestamp(previous != null && previous.isAfter(now) ? previous : now);
+            }
+            previous = entry.getTimestamp();
+        }
+    }
+
+    /**
+     * Current time at the precision PostgreSQL stores, so the values returned from a save
+     * match what a later read returns.
+     */
+    static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
@@ -2,8 +2,23 @@ package com.auzienko.javamocks.transaction.persistence.repository;
 
 import com.auzienko.javamocks.transaction.persistence.entity.IdempotencyKeyEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.UUID;
 
 public interface IdempotencyKeyJpaRepository extends JpaRepository<IdempotencyKeyEntity, UUID> {
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO idempotency_keys (key, response_status, response_body, created_at)
+            VALUES (:key, :responseStatus, :responseBody, :createdAt)
+            ON CONFLICT (key) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("key") UUID key,
+                       @Param("responseStatus") int responseStatus,
+                       @Param("responseBody") String responseBody,
+                       @Param("createdAt") Instant createdAt);
 }
@@ -0,0 +1,259 @@
+package com.auzienko.javamocks.transaction.persistence.repository;
+
+import com.auzienko.javamocks.transaction.domain.exception.TransactionNotFoundException;
+import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.domain.model.TransactionStatusHistory;
+import com.auzienko.javamocks.transaction.domain.repository.TransactionRepository;
+import com.auzienko.javamocks.transaction.persistence.config.ConditionalOnInProcessStore;
+import com.auzienko.javamocks.transaction.persistence.config.props.InMemoryStoreProperties;
+import com.auzienko.javamocks.transaction.persistence.memory.TransactionLog;
+import com.auzienko.javamocks.transaction.persistence.memory.TransactionSnapshotFile;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * {@link TransactionRepository} kept entirely in memory, selected with
+ * {@code service.persistence.repository=memory} (the 'memory' profile) or {@code wal} (the 'wal' profile).
+ * <p>
+ * Meant for load tests and demo deployments that need no durability: it starts instantly and
+ * needs no database. The store holds private copies of each transaction, so callers can never
+ * change stored state except through {@link #save}. Writes to the same transaction are
+ * serialized by a striped lock and checked against the stored version, the same way the database
+ * adapters use optimistic locking. Writes take effect immediately; a rollback does not undo them.
+ * <p>
+ * If {@code service.persistence.memory.snapshot-file} is set, the store is restored from that
+ * file on startup and rewritten periodically and on shutdown.
+ * <p>
+ * In the 'wal' mode every save is appended to a {@link TransactionLog} and only becomes visible,
+ * and returns, once the log has been forced to disk. The store is rebuilt from the log on startup
+ * and snapshots are not used.
+ */
+@Slf4j
+@Repository
+@ConditionalOnInProcessStore
+public class InMemoryTransactionRepository implements TransactionRepository {
+
+    private static final Comparator<Transaction> OLDEST_FIRST =
+            Comparator.comparing(Transaction::getCreatedAt).thenComparing(Transaction::getId);
+
+    private final InMemoryStoreProperties properties;
+    private final TransactionLog transactionLog;
+
+    private final Map<UUID, Transaction> transactions = new ConcurrentHashMap<>();
+    private final Map<String, Set<UUID>> idsByOwner = new ConcurrentHashMap<>();
+    private final ReentrantLock[] locks;
+
+    public InMemoryTransactionRepository(InMemoryStoreProperties properties) {
+        this(properties, null);
+    }
+
+    @Autowired
+    public InMemoryTransactionRepository(InMemoryStoreProperties properties, @Nullable TransactionLog transactionLog) {
+        this.properties = properties;
+        this.transactionLog = transactionLog;
+        this.locks = new ReentrantLock[Math.max(1, properties.getLockStripes())];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public Transaction save(Transaction transaction) {
+        if (transaction.getVersion() == null) {
+            ClientSideValues.assignForInsert(transaction);
+        }
+
+        ReentrantLock lock = lockFor(transaction.getId());
+        lock.lock();
+        try {
+            Transaction stored = transactions.get(transaction.getId());
+            long version;
+            if (transaction.getVersion() == null) {
+                if (stored != null) {
+                    throw new OptimisticLockingFailureException("Transaction " + transaction.getId() + " already exists.");
+                }
+                version = 0L;
+            } else {
+                if (stored == null) {
+                    throw new TransactionNotFoundException(transaction.getId());
+                }
+                if (!Objects.equals(stored.getVersion(), transaction.getVersion())) {
+                    throw new OptimisticLockingFailureException("Transaction " + transaction.getId() + " was updated by another process.");
+                }
+                ClientSideValues.stampStatusHistory(transaction.getStatusHistory(), ClientSideValues.now());
+                version = transaction.getVersion() + 1;
+            }
+            Transaction copy = copyOf(transaction);
+            copy.setVersion(version);
+            if (transactionLog != null) {
+                transactionLog.awaitDurable(transactionLog.append(copy));
+            }
+            store(copy);
+            transaction.setVersion(version);
+        } finally {
+            lock.unlock();
+        }
+        return transaction;
+    }
+
+    @Override
+    public Optional<Transaction> findById(UUID id) {
+        return Optional.ofNullable(transactions.get(id))
+                .map(InMemoryTransactionRepository::copyOf);
+    }
+
+    @Override
+    public Optional<Transaction> findByIdAndOwnerId(UUID id, String ownerId) {
+        return Optional.ofNullable(transactions.get(id))
+                .filter(transaction -> transaction.getOwnerId().equals(ownerId))
+                .map(InMemoryTransactionRepository::copyOf);
+    }
+
+    @Override
+    public void forEachByOwnerId(String ownerId, Consumer<Transaction> action) {
+        idsByOwner.getOrDefault(ownerId, Set.of()).stream()
+                .map(transactions::get)
+                .filter(Objects::nonNull)
+                .sorted(OLDEST_FIRST)
+                .map(InMemoryTransactionRepository::copyOf)
+                .forEach(action);
+    }
+
+    public int size() {
+        return transactions.size();
+    }
+
+    @PostConstruct
+    void restore() throws IOException {
+        if (transactionLog != null) {
+            replayLog();
+        } else {
+            restoreSnapshot();
+        }
+    }
+
+    void replayLog() throws IOException {
+        long started = System.nanoTime();
+        long records = transactionLog.open(this::storeIfNewer);
+        log.info("Replayed {} log records into {} transactions in {} ms",
+                records, transactions.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    void restoreSnapshot() throws IOException {
+        Path file = properties.getSnapshotFile();
+        if (file == null || !Files.exists(file)) {
+            return;
+        }
+        long started = System.nanoTime();
+        TransactionSnapshotFile.read(file).forEach(this::store);
+        log.info("Restored {} transactions from snapshot {} in {} ms",
+                transactions.size(), file, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Scheduled(fixedDelayString = "${service.persistence.memory.snapshot-interval:30s}",
+            initialDelayString = "${service.persistence.memory.snapshot-interval:30s}")
+    public void writeSnapshot() {
+        Path file = properties.getSnapshotFile();
+        if (file == null || transactionLog != null) {
+            return;
+        }
+        try {
+            long started = System.nanoTime();
+            List<Transaction> snapshot = List.copyOf(transactions.values());
+            TransactionSnapshotFile.write(file, snapshot);
+            log.debug("Wrote {} transactions to snapshot {} in {} ms",
+                    snapshot.size(), file, (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException e) {
+            log.error("Failed to write snapshot {}", file, e);
+        }
+    }
+
+    @PreDestroy
+    void writeFinalSnapshot() {
+        writeSnapshot();
+    }
+
+    /**
+     * Drops log segments whose records have mostly been superseded by newer versions.
+     */
+    @Scheduled(fixedDelayString = "${service.persistence.wal.compaction-interval:1m}",
+            initialDelayString = "${service.persistence.wal.compaction-interval:1m}")
+    public void compactLog() {
+        if (transactionLog == null) {
+            return;
+        }
+        try {
+            int deleted = transactionLog.compact(this::isLive);
+            if (deleted > 0) {
+                log.info("Compacted {} transaction log segments", deleted);
+            }
+        } catch (IOException e) {
+            log.error("Failed to compact the transaction log", e);
+        }
+    }
+
+    /**
+     * A save appends its record before it stores the version, outside of anything compaction
+     * waits for, so a record newer than the stored version, or of a transaction not stored yet,
+     * may belong to a save about to return and has to be kept.
+     */
+    private boolean isLive(Transaction version) {
+        Transaction stored = transactions.get(version.getId());
+        return stored == null || stored.getVersion() <= version.getVersion();
+    }
+
+    private void storeIfNewer(Transaction transaction) {
+        Transaction stored = transactions.get(transaction.getId());
+        if (stored == null || stored.getVersion() < transaction.getVersion()) {
+            store(transaction);
+        }
+    }
+
+    private void store(Transaction transaction) {
+        transactions.put(transaction.getId(), transaction);
+        idsByOwner.computeIfAbsent(transaction.getOwnerId(), owner -> ConcurrentHashMap.newKeySet())
+                .add(transaction.getId());
+    }
+
+    private ReentrantLock lockFor(UUID id) {
+        return locks[Math.floorMod(id.hashCode(), locks.length)];
+    }
+
+    private static Transaction copyOf(Transaction source) {
+        Transaction copy = new Transaction();
+        copy.setId(source.getId());
+        copy.setOwnerId(source.getOwnerId());
+        copy.setSourceAccountId(source.getSourceAccountId());
+        copy.setDestinationAccountId(source.getDestinationAccountId());
+        copy.setAmount(source.getAmount());
+        copy.setCurrency(source.getCurrency());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setVersion(source.getVersion());
+        List<TransactionStatusHistory> history = new ArrayList<>(source.getStatusHistory().size());
+        source.getStatusHistory().forEach(entry -> history.add(
+                new TransactionStatusHistory(entry.getStatus(), entry.getReason(), entry.getTimestamp())));
+        copy.setStatusHistory(history);
+        return copy;
+    }
+}
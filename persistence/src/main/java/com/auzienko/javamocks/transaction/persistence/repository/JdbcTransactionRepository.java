@@ -0,0 +1,250 @@
+package com.auzienko.javamocks.transaction.persistence.repository;
+
+import com.auzienko.javamocks.transaction.domain.exception.TransactionNotFoundException;
+import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.domain.model.TransactionStatusHistory;
+import com.auzienko.javamocks.transaction.domain.repository.TransactionRepository;
+import com.auzienko.javamocks.transaction.persistence.converter.TransactionStatusCodeConverter;
+import com.auzienko.javamocks.transaction.persistence.datasource.AsyncCommitPolicy;
+import com.auzienko.javamocks.transaction.persistence.datasource.ReadYourWritesTracker;
+import com.auzienko.javamocks.transaction.persistence.datasource.WritePath;
+import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Optional;
+import java.util.TimeZone;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * {@link TransactionRepository} written directly against JDBC, selected with
+ * {@code service.persistence.repository=jdbc}.
+ * <p>
+ * Rows are mapped straight to {@link Transaction}, with no entity, persistence context or dirty
+ * checking in between. Every statement is a constant SQL string, so the PostgreSQL driver keeps
+ * reusing its server-side prepared statement for each one. A transaction and its status log are
+ * read with a single join. Updates check the version in the UPDATE itself and only insert the new
+ * status log rows.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "service.persistence", name = "repository", havingValue = "jdbc")
+@RequiredArgsConstructor
+public class JdbcTransactionRepository implements TransactionRepository {
+
+    static final String SELECT_TRANSACTION = """
+            SELECT t.id, t.owner_id, t.source_account_id, t.destination_account_id, t.amount, t.currency,
+                   t.created_at, t.version, l.status, r.reason, l.recorded_at
+            FROM transactions t
+            LEFT JOIN transaction_status_log l ON l.transaction_id = t.id
+            LEFT JOIN status_reasons r ON r.id = l.reason_id
+            """;
+
+    private static final String FIND_BY_ID = SELECT_TRANSACTION + "WHERE t.id = ? ORDER BY l.seq";
+
+    private static final String FIND_BY_ID_AND_OWNER = SELECT_TRANSACTION + "WHERE t.id = ? AND t.owner_id = ? ORDER BY l.seq";
+
+    private static final String INSERT_TRANSACTION = """
+            INSERT INTO transactions (id, owner_id, source_account_id, destination_account_id, amount, currency, created_at, status, version)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)
+            """;
+
+    /**
+     * Bumps the version and sets the current status only if the caller's copy is current, and returns
+     * how many status entries are stored.
+     */
+    private static final String BUMP_VERSION = """
+            UPDATE transactions SET version = version + 1, status = ?
+            WHERE id = ? AND version = ?
+            RETURNING (SELECT count(*) FROM transaction_status_log WHERE transaction_id = transactions.id)
+            """;
+
+    private static final String EXISTS = "SELECT EXISTS (SELECT 1 FROM transactions WHERE id = ?)";
+
+    private static final String INSERT_STATUS = """
+            INSERT INTO transaction_status_log (transaction_id, seq, status, reason_id, recorded_at)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private static final TransactionStatusCodeConverter STATUS_CODES = new TransactionStatusCodeConverter();
+
+    private static final ResultSetExtractor<Transaction> TRANSACTION = JdbcTransactionRepository::extractTransaction;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StatusReasonInterner reasonInterner;
+    private final ReadYourWritesTracker readYourWrites;
+    private final AsyncCommitPolicy asyncCommit;
+    private final OwnerTransactionCursor ownerCursor;
+
+    @Override
+    @Transactional
+    public Transaction save(Transaction transaction) {
+        asyncCommit.apply(transaction.getVersion() == null ? WritePath.TRANSACTION_INSERTS : WritePath.STATUS_CHANGES);
+        if (transaction.getVersion() == null) {
+            insert(transaction);
+        } else {
+            appendStatusChanges(transaction);
+        }
+        readYourWrites.recordWrite(transaction.getId());
+        return transaction;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Transaction> findById(UUID id) {
+        readYourWrites.beforeRead(id);
+        return Optional.ofNullable(jdbcTemplate.query(FIND_BY_ID, TRANSACTION, id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Transaction> findByIdAndOwnerId(UUID id, String ownerId) {
+        readYourWrites.beforeRead(id);
+        return Optional.ofNullable(jdbcTemplate.query(FIND_BY_ID_AND_OWNER, TRANSACTION, id, ownerId));
+    }
+
+    @Override
+    public void forEachByOwnerId(String ownerId, Consumer<Transaction> action) {
+        ownerCursor.forEach(ownerId, action);
+    }
+
+    private void insert(Transaction transaction) {
+        ClientSideValues.assignForInsert(transaction);
+        jdbcTemplate.update(INSERT_TRANSACTION, ps -> {
+            ps.setObject(1, transaction.getId());
+            ps.setString(2, transaction.getOwnerId());
+            ps.setObject(3, transaction.getSourceAccountId());
+            ps.setObject(4, transaction.getDestinationAccountId());
+            ps.setBigDecimal(5, transaction.getAmount());
+            ps.setString(6, transaction.getCurrency().name());
+            setInstant(ps, 7, transaction.getCreatedAt());
+            ps.setShort(8, STATUS_CODES.convertToDatabaseColumn(transaction.getCurrentStatus()));
+        });
+        insertStatusEntries(transaction.getId(), transaction.getStatusHistory(), 0);
+        transaction.setVersion(0L);
+    }
+
+    private void appendStatusChanges(Transaction transaction) {
+        UUID id = transaction.getId();
+        List<Long> stored = jdbcTemplate.queryForList(BUMP_VERSION, Long.class,
+                STATUS_CODES.convertToDatabaseColumn(transaction.getCurrentStatus()), id, transaction.getVersion());
+        if (stored.isEmpty()) {
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(EXISTS, Boolean.class, id))) {
+                throw new OptimisticLockingFailureException("Transaction " + id + " was updated by another process.");
+            }
+            throw new TransactionNotFoundException(id);
+        }
+
+        List<TransactionStatusHistory> history = transaction.getStatusHistory();
+        int storedCount = stored.get(0).intValue();
+        ClientSideValues.stampStatusHistory(history, ClientSideValues.now());
+        List<TransactionStatusHistory> added = history.subList(storedCount, history.size());
+        insertStatusEntries(id, added, storedCount);
+        transaction.setVersion(transaction.getVersion() + 1);
+    }
+
+    private void insertStatusEntries(UUID transactionId, List<TransactionStatusHistory> entries, int firstSeq) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        // Resolve reasons first: interning may run its own statements.
+        List<Integer> reasonIds = entries.stream()
+                .map(entry -> reasonInterner.internId(entry.getReason()))
+                .toList();
+        jdbcTemplate.batchUpdate(INSERT_STATUS, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                TransactionStatusHistory entry = entries.get(i);
+                ps.setObject(1, transactionId);
+                ps.setShort(2, (short) (firstSeq + i));
+                ps.setShort(3, STATUS_CODES.convertToDatabaseColumn(entry.getStatus()));
+                ps.setObject(4, reasonIds.get(i), Types.INTEGER);
+                setInstant(ps, 5, entry.getTimestamp());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return entries.size();
+            }
+        });
+    }
+
+    /**
+     * Maps the joined rows of one transaction (one row per status entry, ordered by seq).
+     */
+    private static Transaction extractTransaction(ResultSet rs) throws SQLException {
+        if (!rs.next()) {
+            return null;
+        }
+        Transaction transaction = mapTransaction(rs);
+        List<TransactionStatusHistory> history = new ArrayList<>();
+        do {
+            addStatusEntry(history, rs);
+        } while (rs.next());
+        transaction.setStatusHistory(history);
+        return transaction;
+    }
+
+    /**
+     * Maps the transaction columns of a {@link #SELECT_TRANSACTION} row, without its status entry.
+     */
+    static Transaction mapTransaction(ResultSet rs) throws SQLException {
+        Transaction transaction = new Transaction();
+        transaction.setId(rs.getObject("id", UUID.class));
+        transaction.setOwnerId(rs.getString("owner_id"));
+        transaction.setSourceAccountId(rs.getObject("source_account_id", UUID.class));
+        transaction.setDestinationAccountId(rs.getObject("destination_account_id", UUID.class));
+        transaction.setAmount(rs.getBigDecimal("amount"));
+        transaction.setCurrency(Currency.valueOf(rs.getString("currency")));
+        transaction.setCreatedAt(getInstant(rs, "created_at"));
+        transaction.setVersion(rs.getLong("version"));
+        return transaction;
+    }
+
+    /**
+     * Adds the status entry of a {@link #SELECT_TRANSACTION} row, if it has one.
+     */
+    static void addStatusEntry(List<TransactionStatusHistory> history, ResultSet rs) throws SQLException {
+        short status = rs.getShort("status");
+        if (!rs.wasNull()) {
+            history.add(new TransactionStatusHistory(
+                    STATUS_CODES.convertToEntityAttribute(status),
+                    rs.getString("reason"),
+                    getInstant(rs, "recorded_at")));
+        }
+    }
+
+    // The timestamp columns are written and read as UTC, which is how Hibernate is configured to bind
+    // Instant (a plain TIMESTAMP in hibernate.jdbc.time_zone UTC), so the stored values are identical
+    // whichever adapter wrote them, whatever the JVM time zone.
+
+    private static void setInstant(PreparedStatement ps, int index, Instant instant) throws SQLException {
+        ps.setTimestamp(index, Timestamp.from(instant), utcCalendar());
+    }
+
+    private static Instant getInstant(ResultSet rs, String column) throws SQLException {
+        Timestamp value = rs.getTimestamp(column, utcCalendar());
+        return value == null ? null : value.toInstant();
+    }
+
+    private static Calendar utcCalendar() {
+        return Calendar.getInstance(UTC);
+    }
+}
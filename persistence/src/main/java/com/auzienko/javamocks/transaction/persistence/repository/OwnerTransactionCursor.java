@@ -0,0 +1,126 @@
+package com.auzienko.javamocks.transaction.persistence.repository;
+
+import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.domain.model.TransactionStatusHistory;
+import com.auzienko.javamocks.transaction.persistence.config.ConditionalOnDatabase;
+import com.auzienko.javamocks.transaction.persistence.config.props.TransactionExportProperties;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Reads all transactions of an owner through a server-side cursor, for both database adapters.
+ * <p>
+ * The PostgreSQL driver only opens a cursor for a statement that has a fetch size and runs
+ * inside a transaction; rows are then fetched {@code service.persistence.export.fetch-size} at a
+ * time. Each transaction is handed on as soon as its last status row has been read, so memory
+ * use does not depend on how many transactions the owner has.
+ * <p>
+ * The connection and transaction are held until the last row has been handed on, which is as
+ * slow as the consumer. So at most {@code max-concurrent} exports run at once, and one still
+ * reading rows after {@code max-duration} is aborted; the transaction times out then as well, so
+ * no statement of it runs longer either.
+ */
+@Component
+@ConditionalOnDatabase
+public class OwnerTransactionCursor {
+
+    private static final String FIND_BY_OWNER = JdbcTransactionRepository.SELECT_TRANSACTION
+            + "WHERE t.owner_id = ? ORDER BY t.created_at, t.id, l.seq";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionExportProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Semaphore running;
+
+    public OwnerTransactionCursor(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  TransactionExportProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.setTimeout((int) Math.max(1, properties.getMaxDuration().toSeconds()));
+        this.running = new Semaphore(Math.max(1, properties.getMaxConcurrent()));
+    }
+
+    /**
+     * Passes each transaction of the owner to {@code action}, oldest first.
+     *
+     * @throws TransientDataAccessResourceException if {@code max-concurrent} exports are running already.
+     * @throws TransactionTimedOutException         if the export took longer than {@code max-duration}.
+     */
+    public void forEach(String ownerId, Consumer<Transaction> action) {
+        // Taken before the transaction, so a rejected export never holds a connection.
+        if (!running.tryAcquire()) {
+            throw new TransientDataAccessResourceException(
+                    "Too many transaction exports running, at most " + properties.getMaxConcurrent());
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                TransactionGrouper grouper = new TransactionGrouper(action,
+                        System.nanoTime() + properties.getMaxDuration().toNanos());
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(FIND_BY_OWNER);
+                    statement.setFetchSize(properties.getFetchSize());
+                    statement.setString(1, ownerId);
+                    return statement;
+                }, grouper);
+                grouper.finish();
+            });
+        } finally {
+            running.release();
+        }
+    }
+
+    /**
+     * Collects the consecutive rows of one transaction and passes it on when the next one starts.
+     */
+    private static final class TransactionGrouper implements RowCallbackHandler {
+
+        private final Consumer<Transaction> action;
+        private final long deadlineNanos;
+        private Transaction current;
+        private List<TransactionStatusHistory> history;
+
+        private TransactionGrouper(Consumer<Transaction> action, long deadlineNanos) {
+            this.action = action;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            if (System.nanoTime() - deadlineNanos > 0) {
+                throw new TransactionTimedOutException("Transaction export ran longer than its max-duration");
+            }
+            UUID id = rs.getObject("id", UUID.class);
+            if (current == null || !current.getId().equals(id)) {
+                finish();
+                current = JdbcTransactionRepository.mapTransaction(rs);
+                history = new ArrayList<>();
+            }
+            JdbcTransactionRepository.addStatusEntry(history, rs);
+        }
+
+        void finish() {
+            if (current != null) {
+                current.setStatusHistory(history);
+                action.accept(current);
+                current = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.auzienko.javamocks.transaction.persistence.repository;
+
+import com.auzienko.javamocks.transaction.persistence.jfr.RepositoryCallEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Times every call into the {@link com.auzienko.javamocks.transaction.domain.repository.TransactionRepository}
+ * and {@link com.auzienko.javamocks.transaction.persistence.idempotency.IdempotencyKeyStore} adapters
+ * as {@code db.repository}, tagged by {@code repository} (the adapter class), {@code method} and
+ * {@code exception}, and records each call as a {@link RepositoryCallEvent} for Flight Recorder.
+ * <p>
+ * Ordered ahead of the transaction advice, so a call that opens its own transaction is timed with
+ * its commit. Most calls join the transaction of a service method instead, which commits after
+ * they returned; for the JPA adapter that commit is also where the SQL is written, when the
+ * session is flushed. So the flush and commit of every read-write transaction a call joined are
+ * timed separately as {@code db.commit}, tagged by {@code outcome} (committed, rolled-back or unknown).
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RepositoryTimingAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    public RepositoryTimingAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(* com.auzienko.javamocks.transaction.domain.repository.TransactionRepository.*(..))"
+            + " || execution(* com.auzienko.javamocks.transaction.persistence.idempotency.IdempotencyKeyStore.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        timeCommit();
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        event.begin();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            String repository = joinPoint.getTarget().getClass().getSimpleName();
+            String method = joinPoint.getSignature().getName();
+            sample.stop(Timer.builder("db.repository")
+                    .description("Time spent in a repository call, including the commit of a transaction it opened itself")
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+            event.finish(repository, method, joinPoint.getArgs(), exception);
+        }
+    }
+
+    private void timeCommit() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && TransactionSynchronizationManager.getSynchronizations().stream().noneMatch(CommitTiming.class::isInstance)) {
+            TransactionSynchronizationManager.registerSynchronization(new CommitTiming());
+        }
+    }
+
+    /**
+     * Times a transaction from the start of its commit, which flushes a JPA session first, until
+     * it completed.
+     */
+    private final class CommitTiming implements TransactionSynchronization {
+
+        private Timer.Sample sample;
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            sample = Timer.start(meterRegistry);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (sample == null) {
+                // Rolled back without trying to commit.
+                return;
+            }
+            String outcome = switch (status) {
+                case STATUS_COMMITTED -> "committed";
+                case STATUS_ROLLED_BACK -> "rolled-back";
+                default -> "unknown";
+            };
+            sample.stop(Timer.builder("db.commit")
+                    .description("Time to flush and commit a read-write transaction that called a repository")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.auzienko.javamocks.transaction.persistence.repository;
+
+import com.auzienko.javamocks.transaction.persistence.config.ConditionalOnDatabase;
+import com.auzienko.javamocks.transaction.persistence.entity.StatusReasonEntity;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves status reason texts to rows of {@code status_reasons}, creating them on first use.
+ * <p>
+ * Resolved ids are cached in memory so the common reasons ("Transaction initiated.", etc.) cost no
+ * extra query. An id is only cached after the transaction that created it commits; otherwise a
+ * rollback would leave the cache pointing at a row that does not exist.
+ */
+@Component
+@ConditionalOnDatabase
+@RequiredArgsConstructor
+public class StatusReasonInterner {
+
+    private static final int MAX_CACHED_REASONS = 10_000;
+
+    private final StatusReasonJpaRepository repository;
+    private final EntityManager entityManager;
+
+    private final Map<String, Integer> idsByText = new ConcurrentHashMap<>();
+
+    /**
+     * Returns a reference to the stored reason with the given text, inserting it if necessary.
+     *
+     * @param text The reason text, may be null.
+     * @return A reference to the reason row, or null if {@code text} is null.
+     */
+    public StatusReasonEntity intern(String text) {
+        Integer id = internId(text);
+        return id == null ? null : entityManager.getReference(StatusReasonEntity.class, id);
+    }
+
+    /**
+     * Returns the id of the stored reason with the given text, inserting it if necessary.
+     *
+     * @param text The reason text, may be null.
+     * @return The id of the reason row, or null if {@code text} is null.
+     */
+    public Integer internId(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        Integer id = idsByText.get(text);
+        return id != null ? id : resolve(text);
+    }
+
+    private Integer resolve(String text) {
+        Integer id = repository.findByText(text)
+                .map(StatusReasonEntity::getId)
+                .orElseGet(() -> {
+                    repository.insertIfAbsent(text);
+                    return repository.findByText(text)
+                            .map(StatusReasonEntity::getId)
+                            .orElseThrow(() -> new IllegalStateException("Status reason was not stored: " + text));
+                });
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache(text, id);
+                }
+            });
+        } else {
+            cache(text, id);
+        }
+        return id;
+    }
+
+    private void cache(String text, Integer id) {
+        if (idsByText.size() < MAX_CACHED_REASONS) {
+            idsByText.putIfAbsent(text, id);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.auzienko.javamocks.transaction.persistence.repository;
+
+import com.auzienko.javamocks.transaction.persistence.entity.StatusReasonEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface StatusReasonJpaRepository extends JpaRepository<StatusReasonEntity, Integer> {
+
+    Optional<StatusReasonEntity> findByText(String text);
+
+    @Modifying
+    @Query(value = "INSERT INTO status_reasons (reason) VALUES (:text) ON CONFLICT (reason) DO NOTHING", nativeQuery = true)
+    void insertIfAbsent(@Param("text") String text);
+}
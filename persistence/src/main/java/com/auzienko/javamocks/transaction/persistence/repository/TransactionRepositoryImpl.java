@@ -1,35 +1,71 @@
 package com.auzienko.javamocks.transaction.persistence.repository;
 
+import com.auzienko.javamocks.transaction.domain.exception.TransactionNotFoundException;
 import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.domain.model.TransactionStatusHistory;
 import com.auzienko.javamocks.transaction.domain.repository.TransactionRepository;
+import com.auzienko.javamocks.transaction.persistence.datasource.AsyncCommitPolicy;
+import com.auzienko.javamocks.transaction.persistence.datasource.ReadYourWritesTracker;
+import com.auzienko.javamocks.transaction.persistence.datasource.WritePath;
 import com.auzienko.javamocks.transaction.persistence.entity.TransactionEntity;
+import com.auzienko.javamocks.transaction.persistence.entity.TransactionStatusLogEntry;
 import com.auzienko.javamocks.transaction.persistence.mapper.TransactionPersistenceMapper;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+/**
+ * JPA-backed {@link TransactionRepository}.
+ * <p>
+ * {@link #save} never flushes: ids and timestamps are assigned here rather than by the database,
+ * and updates are applied to the entity already managed by the current persistence context, so
+ * the SQL is written once at commit. A concurrent update is therefore detected either up front,
+ * when the caller's version is already stale, or at commit as an
+ * {@link org.springframework.dao.OptimisticLockingFailureException}.
+ * <p>
+ * This is the default adapter; see {@link JdbcTransactionRepository} for the alternative selected
+ * with {@code service.persistence.repository=jdbc}.
+ */
 @Repository
+@ConditionalOnProperty(prefix = "service.persistence", name = "repository", havingValue = "jpa", matchIfMissing = true)
 @RequiredArgsConstructor
 public class TransactionRepositoryImpl implements TransactionRepository {
 
     private final TransactionJpaRepository jpaRepository;
     private final TransactionPersistenceMapper mapper;
+    private final ReadYourWritesTracker readYourWrites;
+    private final AsyncCommitPolicy asyncCommit;
+    private final EntityManager entityManager;
+    private final OwnerTransactionCursor ownerCursor;
 
     @Override
     @Transactional
     public Transaction save(Transaction transaction) {
-        TransactionEntity entityToSave = mapper.toEntity(transaction);
-        TransactionEntity savedEntity = jpaRepository.save(entityToSave);
-        jpaRepository.flush();
-        return mapper.toDomain(savedEntity);
+        boolean insert = transaction.getVersion() == null;
+        asyncCommit.apply(insert ? WritePath.TRANSACTION_INSERTS : WritePath.STATUS_CHANGES);
+        TransactionEntity entity = insert
+                ? persistNew(transaction)
+                : appendStatusChanges(transaction);
+        // The version of a changed entity is only incremented when it is flushed at commit; return
+        // the version it will then have, as the JDBC adapter does.
+        transaction.setVersion(insert ? entity.getVersion() : entity.getVersion() + 1);
+        readYourWrites.recordWrite(entity.getId());
+        return transaction;
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<Transaction> findById(UUID id) {
+        readYourWrites.beforeRead(id);
         return jpaRepository.findById(id)
                 .map(mapper::toDomain);
     }
@@ -37,7 +73,47 @@ public class TransactionRepositoryImpl implements TransactionRepository {
     @Override
     @Transactional(readOnly = true)
     public Optional<Transaction> findByIdAndOwnerId(UUID id, String ownerId) {
+        readYourWrites.beforeRead(id);
         return jpaRepository.findByIdAndOwnerId(id, ownerId)
                 .map(mapper::toDomain);
     }
+
+    /**
+     * Reads through plain JDBC rather than a JPA query: entities would pile up in the persistence
+     * context for the length of the export.
+     */
+    @Override
+    public void forEachByOwnerId(String ownerId, Consumer<Transaction> action) {
+        ownerCursor.forEach(ownerId, action);
+    }
+
+    private TransactionEntity persistNew(Transaction transaction) {
+        ClientSideValues.assignForInsert(transaction);
+        TransactionEntity entity = mapper.toEntity(transaction);
+        entityManager.persist(entity);
+        return entity;
+    }
+
+    private TransactionEntity appendStatusChanges(Transaction transaction) {
+        TransactionEntity entity = entityManager.find(TransactionEntity.class, transaction.getId());
+        if (entity == null) {
+            throw new TransactionNotFoundException(transaction.getId());
+        }
+        if (!Objects.equals(entity.getVersion(), transaction.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(TransactionEntity.class, transaction.getId());
+        }
+
+        List<TransactionStatusHistory> history = transaction.getStatusHistory();
+        ClientSideValues.stampStatusHistory(history, ClientSideValues.now());
+        List<TransactionStatusHistory> added = history.subList(entity.getStatusHistory().size(), history.size());
+
+        // Map before touching the entity: interning a new reason may run a query, and the
+        // entity must not be dirty yet or that query would flush it early.
+        List<TransactionStatusLogEntry> entries = added.stream()
+                .map(mapper::toStatusLogEntry)
+                .toList();
+        entity.getStatusHistory().addAll(entries);
+        entity.setStatus(transaction.getCurrentStatus());
+        return entity;
+    }
 }
@@ -0,0 +1,36 @@
+package com.auzienko.javamocks.transaction.persistence.rollup;
+
+import com.auzienko.javamocks.transaction.domain.model.RollupGranularity;
+import com.auzienko.javamocks.transaction.domain.model.TransactionRollup;
+import com.auzienko.javamocks.transaction.persistence.config.ConditionalOnInProcessStore;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link TransactionRollupStore} for the in-memory modes; rollups are not persisted.
+ */
+@Component
+@ConditionalOnInProcessStore
+public class InMemoryTransactionRollupStore implements TransactionRollupStore {
+
+    private final Map<TransactionRollup.Key, TransactionRollup> rollups = new ConcurrentHashMap<>();
+
+    @Override
+    public void addAll(Collection<TransactionRollup> deltas) {
+        deltas.forEach(delta -> rollups.merge(delta.key(), delta, TransactionRollup::plus));
+    }
+
+    @Override
+    public List<TransactionRollup> find(RollupGranularity granularity, Instant from, Instant to) {
+        return rollups.values().stream()
+                .filter(rollup -> rollup.granularity() == granularity
+                        && !rollup.bucketStart().isBefore(from)
+                        && rollup.bucketStart().isBefore(to))
+                .toList();
+    }
+}
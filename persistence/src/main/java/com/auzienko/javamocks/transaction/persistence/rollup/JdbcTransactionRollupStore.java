@@ -0,0 +1,95 @@
+package com.auzienko.javamocks.transaction.persistence.rollup;
+
+import com.auzienko.javamocks.transaction.domain.model.RollupGranularity;
+import com.auzienko.javamocks.transaction.domain.model.TransactionRollup;
+import com.auzienko.javamocks.transaction.persistence.config.ConditionalOnDatabase;
+import com.auzienko.javamocks.transaction.persistence.converter.TransactionStatusCodeConverter;
+import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * {@link TransactionRollupStore} backed by the {@code transaction_rollups} table. Changes are
+ * applied with an additive upsert, so several instances can flush into the same buckets.
+ */
+@Component
+@ConditionalOnDatabase
+@RequiredArgsConstructor
+public class JdbcTransactionRollupStore implements TransactionRollupStore {
+
+    private static final String ADD_ROLLUPS = """
+            INSERT INTO transaction_rollups (granularity, bucket_start, currency, status, tx_count, amount)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (granularity, bucket_start, currency, status)
+            DO UPDATE SET tx_count = transaction_rollups.tx_count + EXCLUDED.tx_count,
+                          amount = transaction_rollups.amount + EXCLUDED.amount
+            """;
+
+    private static final String FIND_RANGE = """
+            SELECT bucket_start, currency, status, tx_count, amount
+            FROM transaction_rollups
+            WHERE granularity = ? AND bucket_start >= ? AND bucket_start < ?
+            """;
+
+    // Rows are upserted in key order, so concurrent flushes lock them in the same order.
+    private static final Comparator<TransactionRollup> KEY_ORDER = Comparator
+            .comparing(TransactionRollup::granularity)
+            .thenComparing(TransactionRollup::bucketStart)
+            .thenComparing(TransactionRollup::currency)
+            .thenComparing(TransactionRollup::status);
+
+    private static final TransactionStatusCodeConverter STATUS_CODES = new TransactionStatusCodeConverter();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void addAll(Collection<TransactionRollup> deltas) {
+        List<TransactionRollup> rows = deltas.stream()
+                .filter(delta -> delta.count() != 0 || delta.amount().signum() != 0)
+                .sorted(KEY_ORDER)
+                .toList();
+        jdbcTemplate.batchUpdate(ADD_ROLLUPS, rows, rows.size(), (statement, rollup) -> {
+            statement.setShort(1, granularityCode(rollup.granularity()));
+            statement.setObject(2, toUtc(rollup.bucketStart()));
+            statement.setString(3, rollup.currency().name());
+            statement.setShort(4, STATUS_CODES.convertToDatabaseColumn(rollup.status()));
+            statement.setLong(5, rollup.count());
+            statement.setBigDecimal(6, rollup.amount());
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TransactionRollup> find(RollupGranularity granularity, Instant from, Instant to) {
+        return jdbcTemplate.query(FIND_RANGE, (resultSet, rowNum) -> new TransactionRollup(
+                        granularity,
+                        resultSet.getObject("bucket_start", LocalDateTime.class).toInstant(ZoneOffset.UTC),
+                        Currency.valueOf(resultSet.getString("currency")),
+                        STATUS_CODES.convertToEntityAttribute(resultSet.getShort("status")),
+                        resultSet.getLong("tx_count"),
+                        resultSet.getBigDecimal("amount")),
+                granularityCode(granularity), toUtc(from), toUtc(to));
+    }
+
+    static short granularityCode(RollupGranularity granularity) {
+        return switch (granularity) {
+            case MINUTE -> 0;
+            case HOUR -> 1;
+        };
+    }
+
+    // bucket_start holds UTC wall-clock time, like the other timestamp columns.
+    private static LocalDateTime toUtc(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,144 @@
+package com.auzienko.javamocks.transaction.persistence.rollup;
+
+import com.auzienko.javamocks.transaction.domain.model.RollupGranularity;
+import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.domain.model.TransactionRollup;
+import com.auzienko.javamocks.transaction.domain.service.TransactionReportService;
+import com.auzienko.javamocks.transaction.persistence.service.StagedFlush;
+import com.auzienko.javamocks.transaction.persistence.service.TransactionChangeListener;
+import com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Maintains the per-minute and per-hour rollups behind {@link TransactionReportService}.
+ * <p>
+ * Every committed status transition (creation counts as entering PENDING) adds one transaction
+ * and its amount to the bucket of the transition's timestamp, at both granularities. Changes are
+ * summed in memory and written to the {@link TransactionRollupStore} every {@code flush-interval};
+ * since only the current buckets change, a flush writes a handful of rows however busy the
+ * service is. Reads include the changes not flushed yet, and neither recording nor reading waits
+ * for the write (see {@link StagedFlush}). Changes accumulated since the last flush are lost if the
+ * process dies.
+ */
+@Slf4j
+@Service
+public class TransactionRollupAccumulator implements TransactionReportService, TransactionChangeListener {
+
+    private static final Comparator<TransactionRollup> REPORT_ORDER = Comparator
+            .comparing(TransactionRollup::bucketStart)
+            .thenComparing(TransactionRollup::currency)
+            .thenComparing(TransactionRollup::status);
+
+    private final TransactionRollupStore store;
+    private final StagedFlush stagedFlush;
+
+    private volatile Map<TransactionRollup.Key, TransactionRollup> pending = new ConcurrentHashMap<>();
+    // The changes being written by the current flush, merged by readers until the write commits.
+    private volatile Map<TransactionRollup.Key, TransactionRollup> flushing = Map.of();
+    // Recorders and readers share the lock; a flush takes it exclusively only to move changes
+    // between pending and flushing, never while writing them.
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    public TransactionRollupAccumulator(TransactionRollupStore store, PlatformTransactionManager transactionManager) {
+        this.store = store;
+        this.stagedFlush = new StagedFlush(transactionManager);
+    }
+
+    @Override
+    public void transactionCreated(Transaction transaction) {
+        record(transaction, transaction.getCurrentStatus());
+    }
+
+    @Override
+    public void statusChanged(Transaction transaction, TransactionStatus from, TransactionStatus to) {
+        record(transaction, to);
+    }
+
+    @Override
+    public List<TransactionRollup> getRollups(RollupGranularity granularity, Instant from, Instant to) {
+        return stagedFlush.read(() -> {
+            Map<TransactionRollup.Key, TransactionRollup> merged = new ConcurrentHashMap<>();
+            store.find(granularity, from, to).forEach(rollup -> merged.merge(rollup.key(), rollup, TransactionRollup::plus));
+            swapLock.readLock().lock();
+            try {
+                Stream.concat(flushing.values().stream(), pending.values().stream())
+                        .filter(rollup -> rollup.granularity() == granularity
+                                && !rollup.bucketStart().isBefore(from)
+                                && rollup.bucketStart().isBefore(to))
+                        .forEach(rollup -> merged.merge(rollup.key(), rollup, TransactionRollup::plus));
+            } finally {
+                swapLock.readLock().unlock();
+            }
+            return merged.values().stream()
+                    .sorted(REPORT_ORDER)
+                    .toList();
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${service.persistence.rollups.flush-interval:1s}")
+    public synchronized void flush() {
+        swapLock.writeLock().lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            flushing = pending;
+            pending = new ConcurrentHashMap<>();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        List<TransactionRollup> deltas = new ArrayList<>(flushing.values());
+        try {
+            stagedFlush.write(() -> store.addAll(deltas), () -> flushing = Map.of());
+            log.debug("Flushed {} rollup changes", deltas.size());
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush rollups, keeping {} changes for the next attempt", deltas.size(), e);
+            swapLock.writeLock().lock();
+            try {
+                deltas.forEach(this::add);
+                flushing = Map.of();
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private void record(Transaction transaction, TransactionStatus status) {
+        Instant entered = transaction.getStatusHistory().getLast().getTimestamp();
+        if (entered == null) {
+            entered = Instant.now();
+        }
+        swapLock.readLock().lock();
+        try {
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                add(new TransactionRollup(granularity, granularity.bucketStart(entered),
+                        transaction.getCurrency(), status, 1, transaction.getAmount()));
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private void add(TransactionRollup delta) {
+        pending.merge(delta.key(), delta, TransactionRollup::plus);
+    }
+}
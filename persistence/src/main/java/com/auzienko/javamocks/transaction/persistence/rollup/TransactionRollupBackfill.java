@@ -0,0 +1,149 @@
+package com.auzienko.javamocks.transaction.persistence.rollup;
+
+import com.auzienko.javamocks.transaction.persistence.config.ConditionalOnDatabase;
+import com.auzienko.javamocks.transaction.persistence.config.props.TransactionRollupProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Builds the rollups of status transitions recorded before the rollups existed, one bounded
+ * chunk of {@code transaction_status_log} at a time.
+ * <p>
+ * The V5 migration records its own time as the cutoff: transitions before it are counted here,
+ * later ones by {@link TransactionRollupAccumulator}. Each step walks the next
+ * {@code backfill-chunk-size} log rows in primary key order, adds them to the rollups with one
+ * aggregating upsert, and saves its position, all in one database transaction; so the job can
+ * be stopped at any point and resumes where it left off. The position row is locked with
+ * {@code SKIP LOCKED}, so with several instances running only one works on a step at a time.
+ */
+@Slf4j
+@Component
+@ConditionalOnDatabase
+@ConditionalOnProperty(prefix = "service.persistence.rollups", name = "backfill-enabled", havingValue = "true", matchIfMissing = true)
+public class TransactionRollupBackfill {
+
+    private static final UUID NO_TRANSACTION = new UUID(0, 0);
+
+    private static final String LOCK_PROGRESS = """
+            SELECT cutoff, last_transaction_id, last_seq, completed_at
+            FROM transaction_rollup_backfill
+            WHERE id = 1
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    /**
+     * Aggregates the next chunk of the status log into both granularities and returns the key of
+     * the chunk's last row, or nothing once the log is exhausted.
+     */
+    private static final String ADD_CHUNK = """
+            WITH chunk AS (SELECT transaction_id, seq, status, recorded_at
+                           FROM transaction_status_log
+                           WHERE (transaction_id, seq) > (?, ?)
+                           ORDER BY transaction_id, seq
+                           LIMIT ?),
+                 added AS (
+                     INSERT INTO transaction_rollups (granularity, bucket_start, currency, status, tx_count, amount)
+                     SELECT g.granularity, date_trunc(g.unit, c.recorded_at), t.currency, c.status, count(*), sum(t.amount)
+                     FROM chunk c
+                              JOIN transactions t ON t.id = c.transaction_id
+                              CROSS JOIN (VALUES (0, 'minute'), (1, 'hour')) AS g (granularity, unit)
+                     WHERE c.recorded_at < ?
+                     GROUP BY 1, 2, 3, 4
+                     ORDER BY 1, 2, 3, 4
+                     ON CONFLICT (granularity, bucket_start, currency, status)
+                         DO UPDATE SET tx_count = transaction_rollups.tx_count + EXCLUDED.tx_count,
+                                       amount   = transaction_rollups.amount + EXCLUDED.amount)
+            SELECT transaction_id, seq
+            FROM chunk
+            ORDER BY transaction_id DESC, seq DESC
+            LIMIT 1
+            """;
+
+    private static final String SAVE_POSITION = """
+            UPDATE transaction_rollup_backfill SET last_transaction_id = ?, last_seq = ? WHERE id = 1
+            """;
+
+    private static final String COMPLETE = """
+            UPDATE transaction_rollup_backfill SET completed_at = now() AT TIME ZONE 'UTC' WHERE id = 1
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionRollupProperties properties;
+    private volatile boolean completed;
+    private long steps;
+
+    public TransactionRollupBackfill(JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     TransactionRollupProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${service.persistence.rollups.backfill-interval:200ms}")
+    public void run() {
+        if (completed) {
+            return;
+        }
+        try {
+            completed = Boolean.FALSE.equals(transactionTemplate.execute(status -> step()));
+        } catch (RuntimeException e) {
+            log.warn("Rollup backfill step failed, retrying on the next run", e);
+        }
+    }
+
+    boolean isCompleted() {
+        return completed;
+    }
+
+    /**
+     * @return Whether there may be more to do.
+     */
+    private boolean step() {
+        List<Progress> progress = jdbcTemplate.query(LOCK_PROGRESS, (rs, rowNum) -> new Progress(
+                rs.getObject("cutoff", LocalDateTime.class),
+                rs.getObject("last_transaction_id", UUID.class),
+                rs.getObject("last_seq", Integer.class),
+                rs.getObject("completed_at", LocalDateTime.class)));
+        if (progress.isEmpty()) {
+            // Another instance holds the row for its own step.
+            return true;
+        }
+        Progress current = progress.getFirst();
+        if (current.completedAt() != null) {
+            return false;
+        }
+
+        List<Position> last = jdbcTemplate.query(ADD_CHUNK,
+                (rs, rowNum) -> new Position(rs.getObject("transaction_id", UUID.class), rs.getShort("seq")),
+                current.lastTransactionId() == null ? NO_TRANSACTION : current.lastTransactionId(),
+                current.lastSeq() == null ? -1 : current.lastSeq(),
+                properties.getBackfillChunkSize(),
+                current.cutoff());
+        if (last.isEmpty()) {
+            jdbcTemplate.update(COMPLETE);
+            log.info("Rollup backfill completed after {} steps on this instance, cutoff {}", steps, current.cutoff());
+            return false;
+        }
+        jdbcTemplate.update(SAVE_POSITION, last.getFirst().transactionId(), last.getFirst().seq());
+        steps++;
+        log.debug("Rollup backfill advanced to transaction {}", last.getFirst().transactionId());
+        return true;
+    }
+
+    private record Progress(LocalDateTime cutoff, UUID lastTransactionId, Integer lastSeq, LocalDateTime completedAt) {
+    }
+
+    private record Position(UUID transactionId, short seq) {
+    }
+}
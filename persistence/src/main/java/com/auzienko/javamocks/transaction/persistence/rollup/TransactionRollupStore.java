@@ -0,0 +1,24 @@
+package com.auzienko.javamocks.transaction.persistence.rollup;
+
+import com.auzienko.javamocks.transaction.domain.model.RollupGranularity;
+import com.auzienko.javamocks.transaction.domain.model.TransactionRollup;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Where the transaction rollups are kept.
+ */
+public interface TransactionRollupStore {
+
+    /**
+     * Adds the given changes to the stored rollups.
+     */
+    void addAll(Collection<TransactionRollup> deltas);
+
+    /**
+     * @return The stored rollups of the buckets starting in {@code [from, to)}, in no particular order.
+     */
+    List<TransactionRollup> find(RollupGranularity granularity, Instant from, Instant to);
+}
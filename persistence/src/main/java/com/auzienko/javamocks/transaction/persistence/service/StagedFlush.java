@@ -0,0 +1,74 @@
+package com.auzienko.javamocks.transaction.persistence.service;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Lets an accumulator write a snapshot of its changes without holding up the threads that record
+ * new ones or read the totals.
+ * <p>
+ * The accumulator swaps its pending changes into a "flushing" snapshot, which readers keep merging,
+ * and writes the snapshot through {@link #write}. Only the commit of that write excludes readers:
+ * a read either sees the stored totals without the snapshot and merges it, or sees them with it
+ * after the snapshot was dropped, never both. Recording never waits on the database.
+ */
+public class StagedFlush {
+
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantReadWriteLock commitLock = new ReentrantReadWriteLock();
+
+    public StagedFlush(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Runs a read of the stored totals and the accumulator's snapshot and pending changes, so that
+     * no commit of a snapshot falls in between.
+     */
+    public <T> T read(Supplier<T> reader) {
+        commitLock.readLock().lock();
+        try {
+            return reader.get();
+        } finally {
+            commitLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs {@code write} in its own transaction and {@code committed}, which drops the snapshot,
+     * as part of its commit.
+     *
+     * @throws RuntimeException if the write or its commit failed; the snapshot is then still
+     *                          held and must be returned to the pending changes.
+     */
+    public void write(Runnable write, Runnable committed) {
+        transactionTemplate.executeWithoutResult(status -> {
+            write.run();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    commitLock.writeLock().lock();
+                }
+
+                @Override
+                public void afterCompletion(int completionStatus) {
+                    if (!commitLock.isWriteLockedByCurrentThread()) {
+                        return;
+                    }
+                    try {
+                        if (completionStatus == STATUS_COMMITTED) {
+                            committed.run();
+                        }
+                    } finally {
+                        commitLock.writeLock().unlock();
+                    }
+                }
+            });
+        });
+    }
+}
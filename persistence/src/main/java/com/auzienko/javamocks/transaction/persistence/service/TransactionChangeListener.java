@@ -0,0 +1,18 @@
+package com.auzienko.javamocks.transaction.persistence.service;
+
+import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus;
+
+/**
+ * Notified by {@link TransactionServiceImpl} of every change it makes, once the change is
+ * committed. Used to keep derived data such as totals and rollups up to date without reading
+ * the transactions back.
+ * <p>
+ * Calls happen on the committing thread, so implementations must be quick and must not throw.
+ */
+public interface TransactionChangeListener {
+
+    void transactionCreated(Transaction transaction);
+
+    void statusChanged(Transaction transaction, TransactionStatus from, TransactionStatus to);
+}
@@ -3,28 +3,61 @@ package com.auzienko.javamocks.transaction.persistence.service;
 import com.auzienko.javamocks.transaction.domain.exception.ConcurrencyException;
 import com.auzienko.javamocks.transaction.domain.exception.TransactionNotFoundException;
 import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.domain.model.TransactionTransition;
 import com.auzienko.javamocks.transaction.domain.repository.TransactionRepository;
 import com.auzienko.javamocks.transaction.domain.service.TransactionService;
-import lombok.RequiredArgsConstructor;
+import com.auzienko.javamocks.transaction.persistence.coalescing.TransactionInsertCoalescer;
+import com.auzienko.javamocks.transaction.persistence.jfr.TransitionEvent;
+import com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.lang.Nullable;
+import org.springframework.retry.RetryContext;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
+import org.springframework.retry.support.RetrySynchronizationManager;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Service
-@RequiredArgsConstructor
 @Transactional
 @Slf4j
 public class TransactionServiceImpl implements TransactionService {
 
     private final TransactionRepository transactionRepository;
+    private final List<TransactionChangeListener> changeListeners;
+    private final TransactionInsertCoalescer insertCoalescer;
 
+    public TransactionServiceImpl(TransactionRepository transactionRepository,
+                                  List<TransactionChangeListener> changeListeners) {
+        this(transactionRepository, changeListeners, null);
+    }
+
+    @Autowired
+    public TransactionServiceImpl(TransactionRepository transactionRepository,
+                                  List<TransactionChangeListener> changeListeners,
+                                  @Nullable TransactionInsertCoalescer insertCoalescer) {
+        this.transactionRepository = transactionRepository;
+        this.changeListeners = List.copyOf(changeListeners);
+        this.insertCoalescer = insertCoalescer;
+    }
+
+    /**
+     * Runs without a transaction of its own: the repository's save opens one, or the insert
+     * coalescer commits it with others. Holding a connection while waiting for a batch would
+     * starve the committers of connections.
+     */
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Transaction createTransaction(Transaction transaction) {
         log.info("Creating new transaction from account {} to {} for amount {} {}, ownerId {}",
                 transaction.getSourceAccountId(),
@@ -33,7 +66,10 @@ public class TransactionServiceImpl implements TransactionService {
                 transaction.getCurrency(),
                 transaction.getOwnerId());
 
-        Transaction savedTransaction = transactionRepository.save(transaction);
+        Transaction savedTransaction = insertCoalescer != null
+                ? insertCoalescer.insert(transaction)
+                : transactionRepository.save(transaction);
+        afterCommit(() -> changeListeners.forEach(listener -> listener.transactionCreated(savedTransaction)));
 
         log.debug("Successfully persisted transaction with new ID: {}", savedTransaction.getId());
 
@@ -54,9 +90,20 @@ public class TransactionServiceImpl implements TransactionService {
         return transactionRepository.findByIdAndOwnerId(id, ownerId);
     }
 
+    /**
+     * Runs outside of any transaction: the repository opens its own, with the export's timeout,
+     * and only once it has been let through the limit on concurrent exports.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void exportTransactions(String ownerId, Consumer<Transaction> action) {
+        log.info("Exporting transactions of ownerId {}", ownerId);
+        transactionRepository.forEachByOwnerId(ownerId, action);
+    }
+
     @Override
     @Retryable(
-            retryFor = {ConcurrencyException.class},
+            retryFor = {ConcurrencyException.class, OptimisticLockingFailureException.class},
             maxAttemptsExpression = "${service.retry.concurrency-exception.max-attempts}",
             backoff = @Backoff(
                     delayExpression = "${service.retry.concurrency-exception.initial-delay-ms}",
@@ -65,30 +112,12 @@ public class TransactionServiceImpl implements TransactionService {
             )
     )
     public Transaction completeTransaction(UUID id) {
-        log.info("Attempting to mark transaction {} as COMPLETED", id);
-
-        Transaction transaction = transactionRepository.findById(id)
-                .orElseThrow(() -> {
-                    log.warn("Failed to find transaction with ID {} to complete.", id);
-                    return new TransactionNotFoundException(id);
-                });
-
-        transaction.complete();
-
-        try {
-            log.info("Attempting to mark transaction {} as COMPLETED", id);
-            Transaction updatedTransaction = transactionRepository.save(transaction);
-            log.info("Transaction {} successfully marked as COMPLETED", id);
-            return updatedTransaction;
-        } catch (OptimisticLockingFailureException e) {
-            log.warn("Optimistic lock failed for transaction {}. Attempting retry.", id, e);
-            throw new ConcurrencyException("Failed to complete transaction due to concurrent update.", e);
-        }
+        return applyTransition(id, TransactionTransition.COMPLETE, null);
     }
 
     @Override
     @Retryable(
-            retryFor = {ConcurrencyException.class},
+            retryFor = {ConcurrencyException.class, OptimisticLockingFailureException.class},
             maxAttemptsExpression = "${service.retry.concurrency-exception.max-attempts}",
             backoff = @Backoff(
                     delayExpression = "${service.retry.concurrency-exception.initial-delay-ms}",
@@ -97,24 +126,93 @@ public class TransactionServiceImpl implements TransactionService {
             )
     )
     public Transaction failTransaction(UUID id, String reason) {
-        log.info("Attempting to mark transaction {} as FAILED. Reason: {}", id, reason);
+        return applyTransition(id, TransactionTransition.FAIL, reason);
+    }
+
+    @Override
+    @Retryable(
+            retryFor = {ConcurrencyException.class, OptimisticLockingFailureException.class},
+            maxAttemptsExpression = "${service.retry.concurrency-exception.max-attempts}",
+            backoff = @Backoff(
+                    delayExpression = "${service.retry.concurrency-exception.initial-delay-ms}",
+                    multiplierExpression = "${service.retry.concurrency-exception.delay-multiplier}",
+                    random = true
+            )
+    )
+    public Transaction transitionTransaction(UUID id, TransactionTransition transition, String reason) {
+        return applyTransition(id, transition, reason);
+    }
+
+    /**
+     * Loads the transaction, applies the transition and saves it, which appends the new history entry
+     * with the same version-checked update for every transition. Each attempt is recorded as a
+     * {@link TransitionEvent}.
+     * <p>
+     * An attempt of a retried call runs in its own transaction, whose commit may still fail: its
+     * event is left in the retry context for {@link TransitionRetryMetrics} to finish once the
+     * transaction has completed.
+     */
+    private Transaction applyTransition(UUID id, TransactionTransition transition, String reason) {
+        TransitionEvent event = TransitionEvent.start(id, transition);
+        RetryContext retryContext = RetrySynchronizationManager.getContext();
+        if (retryContext != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+            retryContext.setAttribute(TransitionEvent.RETRY_CONTEXT_ATTRIBUTE, event);
+            return doApplyTransition(id, transition, reason);
+        }
+        String outcome = "none";
+        try {
+            return doApplyTransition(id, transition, reason);
+        } catch (RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.finish(outcome);
+        }
+    }
+
+    private Transaction doApplyTransition(UUID id, TransactionTransition transition, String reason) {
+        log.info("Attempting to mark transaction {} as {}", id, transition.getTarget());
 
         Transaction transaction = transactionRepository.findById(id)
                 .orElseThrow(() -> {
-                    log.warn("Failed to find transaction with ID {} to fail.", id);
+                    log.warn("Failed to find transaction with ID {} to mark as {}.", id, transition.getTarget());
                     return new TransactionNotFoundException(id);
                 });
 
-        transaction.fail(reason);
+        TransactionStatus previousStatus = transaction.getCurrentStatus();
+        transaction.apply(transition, reason);
 
         try {
-            log.info("Attempting to mark transaction {} as FAILED. Reason: {}", id, reason);
             Transaction updatedTransaction = transactionRepository.save(transaction);
-            log.info("Transaction {} successfully marked as FAILED", id);
+            notifyStatusChanged(updatedTransaction, previousStatus);
+            log.info("Transaction {} successfully marked as {}", id, transition.getTarget());
             return updatedTransaction;
         } catch (OptimisticLockingFailureException e) {
             log.warn("Optimistic lock failed for transaction {}. Attempting retry.", id, e);
-            throw new ConcurrencyException("Failed to fail transaction due to concurrent update.", e);
+            throw new ConcurrencyException("Failed to mark transaction as " + transition.getTarget() + " due to concurrent update.", e);
+        }
+    }
+
+    private void notifyStatusChanged(Transaction transaction, TransactionStatus from) {
+        TransactionStatus to = transaction.getCurrentStatus();
+        afterCommit(() -> changeListeners.forEach(listener -> listener.statusChanged(transaction, from, to)));
+    }
+
+    /**
+     * Runs {@code action} once the current transaction commits, or right away without one (a
+     * coalesced insert is already committed when it returns). A rolled back or retried attempt
+     * therefore never reaches the listeners.
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
         }
     }
 }
@@ -0,0 +1,127 @@
+package com.auzienko.javamocks.transaction.persistence.service;
+
+import com.auzienko.javamocks.transaction.domain.model.TransactionTransition;
+import com.auzienko.javamocks.transaction.domain.service.TransactionService;
+import com.auzienko.javamocks.transaction.persistence.jfr.TransitionEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.interceptor.MethodInvocationRetryCallback;
+import org.springframework.retry.listener.MethodInvocationRetryListenerSupport;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how the retried transitions of {@link TransactionService} went. Spring Retry applies
+ * every {@link org.springframework.retry.RetryListener} bean to {@code @Retryable} methods that
+ * name no listeners of their own.
+ * <p>
+ * Exports, tagged by {@code transition}:
+ * <ul>
+ *     <li>{@code transaction.transition}: time of the whole call, retries and back-off included,
+ *     and {@code transaction.transition.attempts}: attempts it took, both also tagged by
+ *     {@code exception}, {@code none} for a call that succeeded;</li>
+ *     <li>{@code transaction.transition.attempt.failures}: attempts that failed, by {@code exception},
+ *     which for an optimistic lock conflict is what triggers the retry.</li>
+ * </ul>
+ * Also finishes the {@link TransitionEvent} of each attempt, which is only known to have
+ * succeeded or failed once the attempt's transaction has committed or rolled back.
+ */
+@Component
+public class TransitionRetryMetrics extends MethodInvocationRetryListenerSupport {
+
+    private static final String START_NANOS = TransitionRetryMetrics.class.getName() + ".START_NANOS";
+
+    private final MeterRegistry meterRegistry;
+
+    public TransitionRetryMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected <T, E extends Throwable> boolean doOpen(RetryContext context, MethodInvocationRetryCallback<T, E> callback) {
+        context.setAttribute(START_NANOS, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    protected <T, E extends Throwable> void doOnSuccess(RetryContext context, MethodInvocationRetryCallback<T, E> callback,
+                                                       T result) {
+        finishAttempt(context, "none");
+    }
+
+    @Override
+    protected <T, E extends Throwable> void doOnError(RetryContext context, MethodInvocationRetryCallback<T, E> callback,
+                                                     Throwable throwable) {
+        finishAttempt(context, throwable.getClass().getSimpleName());
+        String transition = transition(callback.getInvocation());
+        if (transition == null) {
+            return;
+        }
+        Counter.builder("transaction.transition.attempt.failures")
+                .description("Failed attempts of a transition, retried or not")
+                .tag("transition", transition)
+                .tag("exception", throwable.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @Override
+    protected <T, E extends Throwable> void doClose(RetryContext context, MethodInvocationRetryCallback<T, E> callback,
+                                                   Throwable throwable) {
+        String transition = transition(callback.getInvocation());
+        if (transition == null || !(context.getAttribute(START_NANOS) instanceof Long startNanos)) {
+            return;
+        }
+        String exception = throwable == null ? "none" : throwable.getClass().getSimpleName();
+        // The retry count is the number of failed attempts.
+        int attempts = throwable == null ? context.getRetryCount() + 1 : context.getRetryCount();
+
+        Timer.builder("transaction.transition")
+                .description("Time to apply a transition, retries and back-off included")
+                .tag("transition", transition)
+                .tag("exception", exception)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("transaction.transition.attempts")
+                .description("Attempts a transition took")
+                .tag("transition", transition)
+                .tag("exception", exception)
+                .register(meterRegistry)
+                .record(attempts);
+    }
+
+    private static void finishAttempt(RetryContext context, String outcome) {
+        if (context.removeAttribute(TransitionEvent.RETRY_CONTEXT_ATTRIBUTE) instanceof TransitionEvent event) {
+            event.finish(outcome);
+        }
+    }
+
+    /**
+     * The tag value of the transition a retried call applies, or null for a call that is not a transition.
+     */
+    private static String transition(MethodInvocation invocation) {
+        if (!(invocation.getThis() instanceof TransactionService)) {
+            return null;
+        }
+        for (Object argument : invocation.getArguments()) {
+            if (argument instanceof TransactionTransition transition) {
+                return tagValue(transition);
+            }
+        }
+        return switch (invocation.getMethod().getName()) {
+            case "completeTransaction" -> tagValue(TransactionTransition.COMPLETE);
+            case "failTransaction" -> tagValue(TransactionTransition.FAIL);
+            default -> null;
+        };
+    }
+
+    private static String tagValue(TransactionTransition transition) {
+        return transition.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,116 @@
+package com.auzienko.javamocks.transaction.persistence.simulation;
+
+import com.auzienko.javamocks.transaction.persistence.config.props.SimulationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * A latency to sample per call. Sampling only draws from the given generator, so the same
+ * generator state always gives the same latency.
+ */
+sealed interface LatencyDistribution {
+
+    /**
+     * z-score of the 99th percentile of the standard normal distribution.
+     */
+    double Z_99 = 2.3263478740408408;
+
+    LatencyDistribution NONE = new Fixed(0);
+
+    long sampleNanos(RandomGenerator random);
+
+    static LatencyDistribution of(SimulationProperties.Latency latency) {
+        if (latency == null) {
+            return NONE;
+        }
+        return switch (latency.getType()) {
+            case FIXED -> new Fixed(latency.getValue().toNanos());
+            case UNIFORM -> {
+                if (latency.getMax().compareTo(latency.getMin()) < 0) {
+                    throw new IllegalStateException("Uniform latency max " + latency.getMax()
+                            + " is below min " + latency.getMin());
+                }
+                yield new Uniform(latency.getMin().toNanos(), latency.getMax().toNanos());
+            }
+            case LOG_NORMAL -> {
+                if (latency.getMedian().isZero() || latency.getP99().compareTo(latency.getMedian()) < 0) {
+                    throw new IllegalStateException("Log-normal latency needs a median above zero and a p99 of at least the median");
+                }
+                double mu = Math.log(latency.getMedian().toNanos());
+                double sigma = (Math.log(latency.getP99().toNanos()) - mu) / Z_99;
+                yield new LogNormal(mu, sigma);
+            }
+            case PERCENTILES -> PercentileTable.of(latency.getPercentiles());
+        };
+    }
+
+    record Fixed(long nanos) implements LatencyDistribution {
+
+        @Override
+        public long sampleNanos(RandomGenerator random) {
+            return nanos;
+        }
+    }
+
+    record Uniform(long minNanos, long maxNanos) implements LatencyDistribution {
+
+        @Override
+        public long sampleNanos(RandomGenerator random) {
+            return minNanos == maxNanos ? minNanos : random.nextLong(minNanos, maxNanos + 1);
+        }
+    }
+
+    record LogNormal(double mu, double sigma) implements LatencyDistribution {
+
+        @Override
+        public long sampleNanos(RandomGenerator random) {
+            return (long) Math.exp(mu + sigma * random.nextGaussian());
+        }
+    }
+
+    /**
+     * Piecewise linear between the configured percentiles. Below the lowest one the latency rises
+     * from zero, above the highest one it stays at the highest latency.
+     */
+    record PercentileTable(double[] quantiles, long[] nanos) implements LatencyDistribution {
+
+        static PercentileTable of(Map<Double, Duration> percentiles) {
+            if (percentiles.isEmpty()) {
+                throw new IllegalStateException("Percentile latency needs at least one percentile");
+            }
+            double[] quantiles = new double[percentiles.size()];
+            long[] nanos = new long[percentiles.size()];
+            int i = 0;
+            for (Map.Entry<Double, Duration> entry : percentiles.entrySet()) {
+                if (entry.getKey() <= 0 || entry.getKey() > 100) {
+                    throw new IllegalStateException("Percentile " + entry.getKey() + " is not within (0, 100]");
+                }
+                if (i > 0 && entry.getValue().toNanos() < nanos[i - 1]) {
+                    throw new IllegalStateException("Latency of percentile " + entry.getKey() + " is below that of a lower one");
+                }
+                quantiles[i] = entry.getKey() / 100;
+                nanos[i] = entry.getValue().toNanos();
+                i++;
+            }
+            return new PercentileTable(quantiles, nanos);
+        }
+
+        @Override
+        public long sampleNanos(RandomGenerator random) {
+            double q = random.nextDouble();
+            double lowerQuantile = 0;
+            long lowerNanos = 0;
+            for (int i = 0; i < quantiles.length; i++) {
+                if (q <= quantiles[i]) {
+                    double fraction = (q - lowerQuantile) / (quantiles[i] - lowerQuantile);
+                    return lowerNanos + (long) (fraction * (nanos[i] - lowerNanos));
+                }
+                lowerQuantile = quantiles[i];
+                lowerNanos = nanos[i];
+            }
+            return lowerNanos;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.auzienko.javamocks.transaction.persistence.simulation;
+
+import com.auzienko.javamocks.transaction.domain.exception.InvalidTransactionStateException;
+import com.auzienko.javamocks.transaction.domain.exception.SimulatedFailureException;
+import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.domain.model.TransactionTransition;
+import com.auzienko.javamocks.transaction.domain.service.TransactionService;
+import com.auzienko.javamocks.transaction.persistence.config.props.SimulationProperties;
+import com.auzienko.javamocks.transaction.persistence.service.TransactionServiceImpl;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Makes the service behave like a real payment backend: create and transition calls get the
+ * latency and error rate of the first {@code service.simulation.rules} entry matching the
+ * transaction, and created transactions can settle on their own after a delay.
+ * <p>
+ * Wraps {@link TransactionServiceImpl} rather than being called by it, so injected latency is
+ * spent before a database transaction starts and a simulated error never changes anything. Every
+ * decision is drawn from a generator seeded with the configured seed, the operation and the
+ * transaction's owner, accounts, amount and currency, so the same calls get the same latencies
+ * and outcomes on every run, whatever the interleaving. A call repeated after a simulated error
+ * draws again, so retries can succeed.
+ * <p>
+ * Automatic settlements wait on a {@link TimerWheel}, not on threads. One the client has settled
+ * in the meantime is skipped. Exports {@code transaction.simulation.errors},
+ * {@code transaction.simulation.settlements} and the {@code .settlements.pending} count.
+ */
+@Slf4j
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "service.simulation", name = "enabled", havingValue = "true")
+public class SimulatedTransactionService implements TransactionService {
+
+    private static final String CREATE = "CREATE";
+
+    /**
+     * Bounds the retry counts kept for calls that got a simulated error and were never retried.
+     */
+    private static final int MAX_TRACKED_FAILURES = 100_000;
+
+    private final TransactionServiceImpl delegate;
+    private final List<SimulationRule> rules;
+    private final long seed;
+    private final Map<Long, Integer> failedAttempts = new ConcurrentHashMap<>();
+    private final ExecutorService settlers;
+    private final TimerWheel settlementTimer;
+    private final MeterRegistry meterRegistry;
+
+    public SimulatedTransactionService(TransactionServiceImpl delegate,
+                                       SimulationProperties properties,
+                                       MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.rules = new ArrayList<>();
+        for (int i = 0; i < properties.getRules().size(); i++) {
+            rules.add(SimulationRule.of(properties.getRules().get(i), i));
+        }
+        this.seed = properties.getSeed();
+        this.meterRegistry = meterRegistry;
+        this.settlers = Executors.newFixedThreadPool(Math.max(1, properties.getSettlementThreads()),
+                Thread.ofPlatform().name("simulation-settler-", 0).daemon().factory());
+        this.settlementTimer = new TimerWheel("simulation-timer", properties.getTick(), properties.getWheelSize(), settlers);
+
+        Gauge.builder("transaction.simulation.settlements.pending", settlementTimer, TimerWheel::pending)
+                .description("Automatic settlements waiting for their delay")
+                .register(meterRegistry);
+        log.info("Simulating latency and failures with seed {} and rules {}", seed,
+                rules.stream().map(SimulationRule::name).toList());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        settlementTimer.close();
+        settlers.shutdown();
+        settlers.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public Transaction createTransaction(Transaction transaction) {
+        SimulationRule rule = findRule(transaction);
+        if (rule == null) {
+            return delegate.createTransaction(transaction);
+        }
+        Outcome outcome = simulate(rule, CREATE, transaction, () -> delegate.createTransaction(transaction));
+        Transaction created = outcome.result();
+        if (outcome.settleAfterNanos() >= 0) {
+            UUID id = created.getId();
+            TransactionTransition settlement = outcome.settleFails() ? TransactionTransition.FAIL : TransactionTransition.COMPLETE;
+            settlementTimer.schedule(outcome.settleAfterNanos(), () -> settle(rule, id, settlement));
+        }
+        return created;
+    }
+
+    @Override
+    public Optional<Transaction> findTransactionById(UUID id) {
+        return delegate.findTransactionById(id);
+    }
+
+    @Override
+    public Optional<Transaction> findTransactionById(UUID id, String ownerId) {
+        return delegate.findTransactionById(id, ownerId);
+    }
+
+    @Override
+    public void exportTransactions(String ownerId, Consumer<Transaction> action) {
+        delegate.exportTransactions(ownerId, action);
+    }
+
+    @Override
+    public Transaction completeTransaction(UUID id) {
+        return transition(id, TransactionTransition.COMPLETE, () -> delegate.completeTransaction(id));
+    }
+
+    @Override
+    public Transaction failTransaction(UUID id, String reason) {
+        return transition(id, TransactionTransition.FAIL, () -> delegate.failTransaction(id, reason));
+    }
+
+    @Override
+    public Transaction transitionTransaction(UUID id, TransactionTransition transition, String reason) {
+        return transition(id, transition, () -> delegate.transitionTransaction(id, transition, reason));
+    }
+
+    /**
+     * Loads the transaction first to find its rule; an unknown id goes straight to the delegate,
+     * which reports it.
+     */
+    private Transaction transition(UUID id, TransactionTransition transition, Supplier<Transaction> call) {
+        Transaction transaction = delegate.findTransactionById(id).orElse(null);
+        SimulationRule rule = transaction != null ? findRule(transaction) : null;
+        if (rule == null) {
+            return call.get();
+        }
+        return simulate(rule, transition.name(), transaction, call).result();
+    }
+
+    private Outcome simulate(SimulationRule rule, String operation, Transaction transaction, Supplier<Transaction> call) {
+        long key = callKey(operation, transaction);
+        int attempt = failedAttempts.getOrDefault(key, 0);
+        SplittableRandom random = new SplittableRandom(mix(key + attempt));
+
+        boolean isCreate = CREATE.equals(operation);
+        long latencyNanos = (isCreate ? rule.createLatency() : rule.transitionLatency()).sampleNanos(random);
+        boolean fails = random.nextDouble() < rule.errorRate();
+        long settleAfterNanos = isCreate && rule.settleAfter() != null ? rule.settleAfter().sampleNanos(random) : -1;
+        boolean settleFails = random.nextDouble() < rule.settleFailureRate();
+
+        pause(latencyNanos);
+        if (fails) {
+            if (failedAttempts.size() >= MAX_TRACKED_FAILURES) {
+                failedAttempts.clear();
+            }
+            failedAttempts.merge(key, 1, Integer::sum);
+            Counter.builder("transaction.simulation.errors")
+                    .description("Calls rejected by the failure simulation")
+                    .tag("rule", rule.name())
+                    .tag("operation", operation)
+                    .register(meterRegistry)
+                    .increment();
+            throw new SimulatedFailureException("Simulated failure of " + operation + " (rule " + rule.name() + ")");
+        }
+        failedAttempts.remove(key);
+        return new Outcome(call.get(), settleAfterNanos, settleFails);
+    }
+
+    private void settle(SimulationRule rule, UUID id, TransactionTransition settlement) {
+        String result;
+        try {
+            delegate.transitionTransaction(id, settlement, null);
+            result = settlement.getTarget().name();
+        } catch (InvalidTransactionStateException e) {
+            log.debug("Transaction {} was settled before its simulated settlement", id);
+            result = "SKIPPED";
+        } catch (RuntimeException e) {
+            log.warn("Simulated settlement of transaction {} as {} failed", id, settlement.getTarget(), e);
+            result = "ERROR";
+        }
+        Counter.builder("transaction.simulation.settlements")
+                .description("Automatic settlements by result")
+                .tag("rule", rule.name())
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private SimulationRule findRule(Transaction transaction) {
+        for (SimulationRule rule : rules) {
+            if (rule.matches(transaction)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Identifies a call by what it does rather than by ids or timestamps, which differ from run to run.
+     */
+    private long callKey(String operation, Transaction transaction) {
+        long key = mix(seed ^ operation.hashCode());
+        key = mix(key ^ String.valueOf(transaction.getOwnerId()).hashCode());
+        key = mix(key ^ uuidBits(transaction.getSourceAccountId()));
+        key = mix(key ^ uuidBits(transaction.getDestinationAccountId()));
+        key = mix(key ^ transaction.getAmount().stripTrailingZeros().toPlainString().hashCode());
+        return mix(key ^ transaction.getCurrency().name().hashCode());
+    }
+
+    private static long uuidBits(UUID uuid) {
+        return uuid == null ? 0 : uuid.getMostSignificantBits() * 31 + uuid.getLeastSignificantBits();
+    }
+
+    /**
+     * The SplitMix64 finalizer: spreads every input bit over the whole result.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static void pause(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Outcome(Transaction result, long settleAfterNanos, boolean settleFails) {
+    }
+}
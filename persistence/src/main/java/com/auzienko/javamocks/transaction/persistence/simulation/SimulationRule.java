@@ -0,0 +1,57 @@
+package com.auzienko.javamocks.transaction.persistence.simulation;
+
+import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.persistence.config.props.SimulationProperties;
+import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A configured rule, resolved once at startup.
+ *
+ * @param settleAfter {@code null} if matching transactions are not settled automatically.
+ */
+record SimulationRule(String name,
+                      Set<UUID> accounts,
+                      Set<Currency> currencies,
+                      BigDecimal minAmount,
+                      BigDecimal maxAmount,
+                      LatencyDistribution createLatency,
+                      LatencyDistribution transitionLatency,
+                      double errorRate,
+                      LatencyDistribution settleAfter,
+                      double settleFailureRate) {
+
+    static SimulationRule of(SimulationProperties.Rule rule, int index) {
+        requireRate("error-rate", rule.getErrorRate());
+        requireRate("settle-failure-rate", rule.getSettleFailureRate());
+        return new SimulationRule(
+                rule.getName() != null ? rule.getName() : "rule-" + index,
+                Set.copyOf(rule.getAccounts()),
+                Set.copyOf(rule.getCurrencies()),
+                rule.getMinAmount(),
+                rule.getMaxAmount(),
+                LatencyDistribution.of(rule.getCreateLatency()),
+                LatencyDistribution.of(rule.getTransitionLatency()),
+                rule.getErrorRate(),
+                rule.getSettleAfter() != null ? LatencyDistribution.of(rule.getSettleAfter()) : null,
+                rule.getSettleFailureRate());
+    }
+
+    boolean matches(Transaction transaction) {
+        return (accounts.isEmpty()
+                || accounts.contains(transaction.getSourceAccountId())
+                || accounts.contains(transaction.getDestinationAccountId()))
+                && (currencies.isEmpty() || currencies.contains(transaction.getCurrency()))
+                && (minAmount == null || transaction.getAmount().compareTo(minAmount) >= 0)
+                && (maxAmount == null || transaction.getAmount().compareTo(maxAmount) < 0);
+    }
+
+    private static void requireRate(String property, double rate) {
+        if (rate < 0 || rate > 1) {
+            throw new IllegalStateException("service.simulation.rules[]." + property + " must be within [0, 1], not " + rate);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.auzienko.javamocks.transaction.persistence.simulation;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A hashed timer wheel: tasks are dropped into one of {@code wheelSize} slots by their deadline,
+ * and a single thread advances one slot per tick and hands the due tasks of that slot to the
+ * executor. Scheduling is a queue insert, and a waiting task costs one small object, however many
+ * there are. Tasks run no earlier than their delay and up to one tick later.
+ */
+@Slf4j
+final class TimerWheel implements AutoCloseable {
+
+    private final String name;
+    private final long tickNanos;
+    private final List<Timeout>[] slots;
+    private final int mask;
+    private final Executor executor;
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final long startNanos;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    /**
+     * Only touched by the worker.
+     */
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    TimerWheel(String name, Duration tick, int wheelSize, Executor executor) {
+        if (tick.toNanos() <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Timer wheel needs a positive tick and size, not " + tick + " and " + wheelSize);
+        }
+        this.name = name;
+        this.tickNanos = tick.toNanos();
+        int size = Integer.highestOneBit(wheelSize - 1) << 1;
+        this.slots = new List[Math.max(1, size)];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new ArrayList<>();
+        }
+        this.mask = slots.length - 1;
+        this.executor = executor;
+        this.startNanos = System.nanoTime();
+        this.worker = Thread.ofPlatform().name(name).daemon().start(this::run);
+    }
+
+    /**
+     * Runs {@code task} on the executor once {@code delayNanos} have passed.
+     */
+    void schedule(long delayNanos, Runnable task) {
+        if (!running) {
+            throw new IllegalStateException("Timer wheel is stopped");
+        }
+        pending.incrementAndGet();
+        scheduled.add(new Timeout(System.nanoTime() + Math.max(0, delayNanos), task));
+    }
+
+    /**
+     * Tasks scheduled but not yet handed to the executor.
+     */
+    int pending() {
+        return pending.get();
+    }
+
+    /**
+     * Stops the wheel. Tasks not yet due are dropped.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(worker);
+        worker.join();
+        int dropped = pending.getAndSet(0);
+        if (dropped > 0) {
+            log.info("Timer wheel {} stopped with {} tasks not yet due", name, dropped);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            long tickEnd = startNanos + (currentTick + 1) * tickNanos;
+            long wait;
+            while (running && (wait = tickEnd - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, wait);
+            }
+            if (!running) {
+                return;
+            }
+            addScheduled();
+            expire(slots[(int) (currentTick & mask)]);
+            currentTick++;
+        }
+    }
+
+    private void addScheduled() {
+        Timeout timeout;
+        while ((timeout = scheduled.poll()) != null) {
+            // The tick a deadline falls into ends after the deadline, so no task runs early.
+            long tick = Math.max(currentTick, (timeout.deadlineNanos - startNanos) / tickNanos);
+            timeout.remainingRounds = (tick - currentTick) / slots.length;
+            slots[(int) (tick & mask)].add(timeout);
+        }
+    }
+
+    private void expire(List<Timeout> slot) {
+        Iterator<Timeout> iterator = slot.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+                continue;
+            }
+            iterator.remove();
+            pending.decrementAndGet();
+            try {
+                executor.execute(timeout.task);
+            } catch (RuntimeException e) {
+                log.warn("Timer wheel {} could not run a due task", name, e);
+            }
+        }
+    }
+
+    private static final class Timeout {
+
+        private final long deadlineNanos;
+        private final Runnable task;
+        private long remainingRounds;
+
+        private Timeout(long deadlineNanos, Runnable task) {
+            this.deadlineNanos = deadlineNanos;
+            this.task = task;
+        }
+    }
+}
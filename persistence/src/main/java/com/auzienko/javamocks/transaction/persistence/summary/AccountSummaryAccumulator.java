@@ -0,0 +1,176 @@
+package com.auzienko.javamocks.transaction.persistence.summary;
+
+import com.auzienko.javamocks.transaction.domain.model.AccountSummary;
+import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.domain.model.TransferDirection;
+import com.auzienko.javamocks.transaction.domain.service.AccountSummaryService;
+import com.auzienko.javamocks.transaction.persistence.config.props.AccountSummaryProperties;
+import com.auzienko.javamocks.transaction.persistence.service.StagedFlush;
+import com.auzienko.javamocks.transaction.persistence.service.TransactionChangeListener;
+import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
+import com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Maintains the per-account totals behind {@link AccountSummaryService}.
+ * <p>
+ * Every committed creation and status transition is reported as a
+ * {@link TransactionChangeListener}. The changes are summed in memory, in maps striped by account, and
+ * written to the {@link AccountTotalsStore} in one batch every {@code flush-interval}. Reads
+ * combine the stored totals with the changes not flushed yet, so they are always current, and
+ * neither recording nor reading waits for the write (see {@link StagedFlush}). Changes accumulated
+ * since the last flush are lost if the process dies.
+ */
+@Slf4j
+@Service
+public class AccountSummaryAccumulator implements AccountSummaryService, TransactionChangeListener {
+
+    private final AccountTotalsStore store;
+    private final Stripe[] stripes;
+    private final StagedFlush stagedFlush;
+
+    public AccountSummaryAccumulator(AccountTotalsStore store, AccountSummaryProperties properties,
+                                     PlatformTransactionManager transactionManager) {
+        this.store = store;
+        this.stagedFlush = new StagedFlush(transactionManager);
+        this.stripes = new Stripe[Math.max(1, properties.getLockStripes())];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Counts a newly created transaction under its initial status.
+     */
+    @Override
+    public void transactionCreated(Transaction transaction) {
+        add(transaction, transaction.getCurrentStatus(), 1, transaction.getAmount());
+    }
+
+    /**
+     * Moves a transaction from the totals of its previous status to those of its new one.
+     */
+    @Override
+    public void statusChanged(Transaction transaction, TransactionStatus from, TransactionStatus to) {
+        add(transaction, from, -1, transaction.getAmount().negate());
+        add(transaction, to, 1, transaction.getAmount());
+    }
+
+    @Override
+    public List<AccountSummary> getAccountSummaries(UUID accountId) {
+        return stagedFlush.read(() -> {
+            Map<Currency, AccountSummary> byCurrency = new EnumMap<>(Currency.class);
+            store.findByAccountId(accountId).forEach(summary -> byCurrency.put(summary.getCurrency(), summary));
+
+            Stripe stripe = stripeFor(accountId);
+            stripe.lock.lock();
+            try {
+                for (Currency currency : Currency.values()) {
+                    AccountCurrency key = new AccountCurrency(accountId, currency);
+                    for (AccountSummary unstored : new AccountSummary[]{stripe.flushing.get(key), stripe.pending.get(key)}) {
+                        if (unstored != null) {
+                            byCurrency.computeIfAbsent(currency, c -> new AccountSummary(accountId, c)).addAll(unstored);
+                        }
+                    }
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+            return List.copyOf(byCurrency.values());
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${service.persistence.account-summary.flush-interval:1s}")
+    public synchronized void flush() {
+        List<AccountSummary> deltas = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                if (!stripe.pending.isEmpty()) {
+                    deltas.addAll(stripe.pending.values());
+                    stripe.flushing = stripe.pending;
+                    stripe.pending = new HashMap<>();
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            stagedFlush.write(() -> store.addAll(deltas), () -> forEachStripe(stripe -> stripe.flushing = Map.of()));
+            log.debug("Flushed account total changes for {} account/currency pairs", deltas.size());
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush account totals, keeping {} changes for the next attempt", deltas.size(), e);
+            forEachStripe(stripe -> {
+                stripe.flushing.values().forEach(delta -> stripe.pending.computeIfAbsent(
+                        new AccountCurrency(delta.getAccountId(), delta.getCurrency()),
+                        key -> new AccountSummary(key.accountId(), key.currency())).addAll(delta));
+                stripe.flushing = Map.of();
+            });
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private void add(Transaction transaction, TransactionStatus status, long count, BigDecimal amount) {
+        accumulate(transaction.getSourceAccountId(), transaction.getCurrency(), delta ->
+                delta.add(TransferDirection.OUTGOING, status, count, amount));
+        accumulate(transaction.getDestinationAccountId(), transaction.getCurrency(), delta ->
+                delta.add(TransferDirection.INCOMING, status, count, amount));
+    }
+
+    private void forEachStripe(Consumer<Stripe> action) {
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                action.accept(stripe);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    private void accumulate(UUID accountId, Currency currency, Consumer<AccountSummary> change) {
+        Stripe stripe = stripeFor(accountId);
+        stripe.lock.lock();
+        try {
+            change.accept(stripe.pending.computeIfAbsent(new AccountCurrency(accountId, currency),
+                    key -> new AccountSummary(accountId, currency)));
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private Stripe stripeFor(UUID accountId) {
+        return stripes[Math.floorMod(accountId.hashCode(), stripes.length)];
+    }
+
+    private record AccountCurrency(UUID accountId, Currency currency) {
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private Map<AccountCurrency, AccountSummary> pending = new HashMap<>();
+        // The changes being written by the current flush, merged by readers until the write commits.
+        private Map<AccountCurrency, AccountSummary> flushing = Map.of();
+    }
+}
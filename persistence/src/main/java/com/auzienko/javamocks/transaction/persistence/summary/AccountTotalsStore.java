@@ -0,0 +1,23 @@
+package com.auzienko.javamocks.transaction.persistence.summary;
+
+import com.auzienko.javamocks.transaction.domain.model.AccountSummary;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Where the running account totals are kept.
+ */
+public interface AccountTotalsStore {
+
+    /**
+     * Adds the given changes to the stored totals.
+     */
+    void addAll(Collection<AccountSummary> deltas);
+
+    /**
+     * @return The stored totals of an account, one summary per currency.
+     */
+    List<AccountSummary> findByAccountId(UUID accountId);
+}
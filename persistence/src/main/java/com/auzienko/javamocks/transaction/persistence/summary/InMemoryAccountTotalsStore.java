@@ -0,0 +1,53 @@
+package com.auzienko.javamocks.transaction.persistence.summary;
+
+import com.auzienko.javamocks.transaction.domain.model.AccountSummary;
+import com.auzienko.javamocks.transaction.persistence.config.ConditionalOnInProcessStore;
+import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link AccountTotalsStore} for the in-memory modes; totals are not persisted.
+ */
+@Component
+@ConditionalOnInProcessStore
+public class InMemoryAccountTotalsStore implements AccountTotalsStore {
+
+    private final Map<UUID, Map<Currency, AccountSummary>> totals = new ConcurrentHashMap<>();
+
+    @Override
+    public void addAll(Collection<AccountSummary> deltas) {
+        for (AccountSummary delta : deltas) {
+            Map<Currency, AccountSummary> byCurrency = totals.computeIfAbsent(delta.getAccountId(), id -> new ConcurrentHashMap<>());
+            byCurrency.compute(delta.getCurrency(), (currency, stored) -> {
+                AccountSummary updated = new AccountSummary(delta.getAccountId(), currency);
+                if (stored != null) {
+                    updated.addAll(stored);
+                }
+                updated.addAll(delta);
+                return updated;
+            });
+        }
+    }
+
+    @Override
+    public List<AccountSummary> findByAccountId(UUID accountId) {
+        Map<Currency, AccountSummary> byCurrency = totals.getOrDefault(accountId, Map.of());
+        return Arrays.stream(Currency.values())
+                .map(byCurrency::get)
+                .filter(Objects::nonNull)
+                .map(stored -> {
+                    AccountSummary copy = new AccountSummary(accountId, stored.getCurrency());
+                    copy.addAll(stored);
+                    return copy;
+                })
+                .toList();
+    }
+}
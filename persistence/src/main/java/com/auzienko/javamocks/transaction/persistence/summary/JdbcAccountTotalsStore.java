@@ -0,0 +1,113 @@
+package com.auzienko.javamocks.transaction.persistence.summary;
+
+import com.auzienko.javamocks.transaction.domain.model.AccountSummary;
+import com.auzienko.javamocks.transaction.domain.model.TransferDirection;
+import com.auzienko.javamocks.transaction.persistence.config.ConditionalOnDatabase;
+import com.auzienko.javamocks.transaction.persistence.converter.TransactionStatusCodeConverter;
+import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
+import com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * {@link AccountTotalsStore} backed by the {@code account_totals} table. Changes are applied with
+ * an additive upsert, so several instances can flush into the same rows.
+ */
+@Component
+@ConditionalOnDatabase
+@RequiredArgsConstructor
+public class JdbcAccountTotalsStore implements AccountTotalsStore {
+
+    private static final String ADD_TOTALS = """
+            INSERT INTO account_totals (account_id, currency, direction, status, tx_count, amount)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (account_id, currency, direction, status)
+            DO UPDATE SET tx_count = account_totals.tx_count + EXCLUDED.tx_count,
+                          amount = account_totals.amount + EXCLUDED.amount
+            """;
+
+    private static final String FIND_BY_ACCOUNT = """
+            SELECT currency, direction, status, tx_count, amount
+            FROM account_totals
+            WHERE account_id = ?
+            """;
+
+    // Rows are upserted in key order, so concurrent flushes lock them in the same order.
+    private static final Comparator<Row> KEY_ORDER = Comparator.comparing(Row::accountId)
+            .thenComparing(Row::currency)
+            .thenComparing(Row::direction)
+            .thenComparing(Row::status);
+
+    private static final TransactionStatusCodeConverter STATUS_CODES = new TransactionStatusCodeConverter();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void addAll(Collection<AccountSummary> deltas) {
+        List<Row> rows = new ArrayList<>();
+        for (AccountSummary delta : deltas) {
+            for (TransferDirection direction : TransferDirection.values()) {
+                delta.totals(direction).forEach((status, totals) -> {
+                    if (totals.count() != 0 || totals.amount().signum() != 0) {
+                        rows.add(new Row(delta.getAccountId(), delta.getCurrency(), directionCode(direction),
+                                STATUS_CODES.convertToDatabaseColumn(status), totals.count(), totals.amount()));
+                    }
+                });
+            }
+        }
+        rows.sort(KEY_ORDER);
+        jdbcTemplate.batchUpdate(ADD_TOTALS, rows, rows.size(), (statement, row) -> {
+            statement.setObject(1, row.accountId());
+            statement.setString(2, row.currency().name());
+            statement.setShort(3, row.direction());
+            statement.setShort(4, row.status());
+            statement.setLong(5, row.count());
+            statement.setBigDecimal(6, row.amount());
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AccountSummary> findByAccountId(UUID accountId) {
+        Map<Currency, AccountSummary> byCurrency = new EnumMap<>(Currency.class);
+        jdbcTemplate.query(FIND_BY_ACCOUNT, resultSet -> {
+            Currency currency = Currency.valueOf(resultSet.getString("currency"));
+            byCurrency.computeIfAbsent(currency, c -> new AccountSummary(accountId, c)).add(
+                    direction(resultSet.getShort("direction")),
+                    STATUS_CODES.convertToEntityAttribute(resultSet.getShort("status")),
+                    resultSet.getLong("tx_count"),
+                    resultSet.getBigDecimal("amount"));
+        }, accountId);
+        return List.copyOf(byCurrency.values());
+    }
+
+    private static short directionCode(TransferDirection direction) {
+        return switch (direction) {
+            case OUTGOING -> 0;
+            case INCOMING -> 1;
+        };
+    }
+
+    private static TransferDirection direction(short code) {
+        return switch (code) {
+            case 0 -> TransferDirection.OUTGOING;
+            case 1 -> TransferDirection.INCOMING;
+            default -> throw new IllegalArgumentException("Unknown transfer direction code: " + code);
+        };
+    }
+
+    private record Row(UUID accountId, Currency currency, short direction, short status, long count, BigDecimal amount) {
+    }
+}
@@ -1,15 +1,24 @@
 package com.auzienko.javamocks.transaction.persistence;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
-import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.context.annotation.FilterType;
 
 @Configuration
 @EnableAutoConfiguration
-@ComponentScan(basePackages = "com.auzienko.javamocks.transaction.persistence")
-@EnableJpaRepositories(basePackages = "com.auzienko.javamocks.transaction.persistence.repository")
-@EntityScan(basePackages = "com.auzienko.javamocks.transaction.persistence.entity")
+// The exclude filter keeps out the configurations nested in test classes, as @SpringBootApplication does.
+@ComponentScan(basePackages = "com.auzienko.javamocks.transaction.persistence",
+        excludeFilters = @ComponentScan.Filter(type = FilterType.CUSTOM, classes = TypeExcludeFilter.class))
 public class PersistenceTestConfiguration {
+
+    // The application gets its registry from the actuator, which this module does not depend on.
+    @Bean
+    MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
 }
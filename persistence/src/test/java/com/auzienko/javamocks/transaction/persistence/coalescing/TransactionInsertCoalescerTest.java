@@ -0,0 +1,151 @@
+package com.auzienko.javamocks.transaction.persistence.coalescing;
+
+import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.domain.repository.TransactionRepository;
+import com.auzienko.javamocks.transaction.persistence.config.props.WriteCoalescingProperties;
+import com.auzienko.javamocks.transaction.persistence.memory.InMemoryTransactionManager;
+import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TransactionInsertCoalescerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newFixedThreadPool(16);
+    private final CountDownLatch slowSaveReleased = new CountDownLatch(1);
+    private TransactionRepository transactionRepository;
+    private TransactionInsertCoalescer underTest;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository = mock(TransactionRepository.class);
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> {
+            Transaction transaction = invocation.getArgument(0);
+            switch (transaction.getOwnerId()) {
+                case "rejected" -> throw new IllegalArgumentException("Rejected");
+                case "fatal" -> throw new AssertionError("Fatal");
+                case "slow" -> slowSaveReleased.await();
+                default -> {
+                }
+            }
+            transaction.setId(UUID.randomUUID());
+            transaction.setVersion(0L);
+            return transaction;
+        });
+
+        WriteCoalescingProperties properties = new WriteCoalescingProperties();
+        properties.setMaxLatency(Duration.ofMillis(200));
+        properties.setCommitterThreads(1);
+        properties.setMaxQueueWait(Duration.ofSeconds(30));
+        start(properties);
+    }
+
+    private void start(WriteCoalescingProperties properties) {
+        underTest = new TransactionInsertCoalescer(
+                transactionRepository, new InMemoryTransactionManager(), properties, meterRegistry);
+        underTest.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        slowSaveReleased.countDown();
+        callers.shutdownNow();
+        underTest.stop();
+    }
+
+    @Test
+    @DisplayName("should commit concurrent inserts together and return each caller its own transaction")
+    void shouldCoalesceConcurrentInserts() {
+        List<CompletableFuture<Transaction>> results = IntStream.range(0, 16)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> underTest.insert(newTransaction("owner-" + i)), callers))
+                .toList();
+
+        List<Transaction> saved = results.stream().map(CompletableFuture::join).toList();
+
+        assertThat(saved).extracting(Transaction::getOwnerId)
+                .containsExactlyElementsOf(IntStream.range(0, 16).mapToObj(i -> "owner-" + i).toList());
+        assertThat(saved).extracting(Transaction::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(meterRegistry.get("transaction.coalescing.batch.size").summary().count()).isLessThan(16);
+        assertThat(meterRegistry.get("transaction.coalescing.batch.size").summary().totalAmount()).isEqualTo(16);
+    }
+
+    @Test
+    @DisplayName("should fail only the insert that broke its batch")
+    void shouldIsolateFailedInsert() {
+        List<CompletableFuture<Transaction>> results = IntStream.range(0, 8)
+                .mapToObj(i -> CompletableFuture.supplyAsync(
+                        () -> underTest.insert(newTransaction(i == 3 ? "rejected" : "owner")), callers))
+                .toList();
+
+        assertThatThrownBy(() -> results.get(3).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThat(IntStream.range(0, 8).filter(i -> i != 3).mapToObj(i -> results.get(i).join()))
+                .allSatisfy(transaction -> assertThat(transaction.getId()).isNotNull());
+    }
+
+    @Test
+    @DisplayName("should keep committing after a batch failed with an error")
+    void shouldSurviveErrorInCommit() {
+        assertThatThrownBy(() -> underTest.insert(newTransaction("fatal")))
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(AssertionError.class);
+
+        Transaction saved = CompletableFuture.supplyAsync(() -> underTest.insert(newTransaction("owner")), callers)
+                .orTimeout(10, TimeUnit.SECONDS)
+                .join();
+
+        assertThat(saved.getId()).isNotNull();
+        assertThat(meterRegistry.get("transaction.coalescing.timeouts").counter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("should save an insert on the caller's thread when no committer takes it in time")
+    void shouldSaveDirectlyWhenNotTakenInTime() throws Exception {
+        underTest.stop();
+        WriteCoalescingProperties properties = new WriteCoalescingProperties();
+        properties.setMaxLatency(Duration.ZERO);
+        properties.setCommitterThreads(1);
+        properties.setMaxQueueWait(Duration.ofMillis(100));
+        start(properties);
+
+        CompletableFuture<Transaction> slow = CompletableFuture.supplyAsync(() -> underTest.insert(newTransaction("slow")), callers);
+        verify(transactionRepository, timeout(5_000)).save(argThat(transaction -> transaction.getOwnerId().equals("slow")));
+
+        Transaction saved = underTest.insert(newTransaction("owner"));
+
+        assertThat(saved.getId()).isNotNull();
+        assertThat(meterRegistry.get("transaction.coalescing.timeouts").counter().count()).isEqualTo(1);
+        assertThat(slow).isNotDone();
+        slowSaveReleased.countDown();
+        assertThat(slow.get(10, TimeUnit.SECONDS).getId()).isNotNull();
+    }
+
+    private static Transaction newTransaction(String ownerId) {
+        return new Transaction(ownerId, UUID.randomUUID(), UUID.randomUUID(), new BigDecimal("12.50"), Currency.USD);
+    }
+}
@@ -0,0 +1,50 @@
+package com.auzienko.javamocks.transaction.persistence.converter;
+
+import com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionStatusCodeConverterTest {
+
+    private final TransactionStatusCodeConverter underTest = new TransactionStatusCodeConverter();
+
+    @ParameterizedTest
+    @EnumSource(TransactionStatus.class)
+    @DisplayName("should read back every status from its code")
+    void shouldRoundTripEveryStatus(TransactionStatus status) {
+        assertThat(underTest.convertToEntityAttribute(underTest.convertToDatabaseColumn(status))).isEqualTo(status);
+    }
+
+    @Test
+    @DisplayName("should give every status its own code")
+    void shouldAssignUniqueCodes() {
+        assertThat(Arrays.stream(TransactionStatus.values()).map(underTest::convertToDatabaseColumn))
+                .doesNotContainNull()
+                .doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("should keep the codes already stored")
+    void shouldKeepStoredCodes() {
+        // Rows written so far use these codes; changing one would misread them.
+        assertThat(underTest.convertToDatabaseColumn(TransactionStatus.PENDING)).isEqualTo((short) 0);
+        assertThat(underTest.convertToDatabaseColumn(TransactionStatus.COMPLETED)).isEqualTo((short) 1);
+        assertThat(underTest.convertToDatabaseColumn(TransactionStatus.FAILED)).isEqualTo((short) 2);
+    }
+
+    @Test
+    @DisplayName("should map null to null and reject unknown codes")
+    void shouldHandleNullAndUnknownCodes() {
+        assertThat(underTest.convertToDatabaseColumn(null)).isNull();
+        assertThat(underTest.convertToEntityAttribute(null)).isNull();
+        assertThatThrownBy(() -> underTest.convertToEntityAttribute((short) 99))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
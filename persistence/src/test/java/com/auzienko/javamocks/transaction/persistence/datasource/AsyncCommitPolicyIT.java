@@ -0,0 +1,99 @@
+package com.auzienko.javamocks.transaction.persistence.datasource;
+
+import com.auzienko.javamocks.transaction.persistence.BaseIntegrationTest;
+import com.auzienko.javamocks.transaction.persistence.PersistenceTestConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = PersistenceTestConfiguration.class)
+@TestPropertySource(properties = "service.persistence.async-commit.paths=status-changes")
+class AsyncCommitPolicyIT extends BaseIntegrationTest {
+
+    private static final String SHOW_SYNCHRONOUS_COMMIT = "SHOW synchronous_commit";
+
+    @Autowired
+    private AsyncCommitPolicy asyncCommit;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("should turn synchronous_commit off for a configured path, only until the transaction ends")
+    void shouldScopeSettingToTransaction() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        double before = asyncCommits("status-changes");
+
+        String inside = transactionTemplate.execute(status -> {
+            asyncCommit.apply(WritePath.STATUS_CHANGES);
+            return jdbcTemplate.queryForObject(SHOW_SYNCHRONOUS_COMMIT, String.class);
+        });
+        String afterwards = transactionTemplate.execute(status ->
+                jdbcTemplate.queryForObject(SHOW_SYNCHRONOUS_COMMIT, String.class));
+
+        assertThat(inside).isEqualTo("off");
+        assertThat(afterwards).isEqualTo("on");
+        assertThat(asyncCommits("status-changes")).isEqualTo(before + 1);
+    }
+
+    @Test
+    @DisplayName("should switch and count a transaction once however many of its writes apply the policy")
+    void shouldApplyOncePerTransaction() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        double before = asyncCommits("status-changes");
+
+        String nested = transactionTemplate.execute(status -> {
+            asyncCommit.apply(WritePath.STATUS_CHANGES);
+            asyncCommit.apply(WritePath.STATUS_CHANGES);
+            String inner = requiresNew.execute(innerStatus -> {
+                asyncCommit.apply(WritePath.STATUS_CHANGES);
+                return jdbcTemplate.queryForObject(SHOW_SYNCHRONOUS_COMMIT, String.class);
+            });
+            asyncCommit.apply(WritePath.STATUS_CHANGES);
+            return inner;
+        });
+        String next = transactionTemplate.execute(status -> {
+            asyncCommit.apply(WritePath.STATUS_CHANGES);
+            return jdbcTemplate.queryForObject(SHOW_SYNCHRONOUS_COMMIT, String.class);
+        });
+
+        assertThat(nested).isEqualTo("off");
+        assertThat(next).isEqualTo("off");
+        assertThat(asyncCommits("status-changes")).isEqualTo(before + 3);
+    }
+
+    @Test
+    @DisplayName("should leave paths that are not configured synchronous")
+    void shouldIgnoreOtherPaths() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        String inside = transactionTemplate.execute(status -> {
+            asyncCommit.apply(WritePath.TRANSACTION_INSERTS);
+            return jdbcTemplate.queryForObject(SHOW_SYNCHRONOUS_COMMIT, String.class);
+        });
+
+        assertThat(inside).isEqualTo("on");
+        assertThat(asyncCommits("transaction-inserts")).isZero();
+    }
+
+    private double asyncCommits(String path) {
+        return meterRegistry.get("db.commits.async").tag("path", path).counter().count();
+    }
+}
@@ -0,0 +1,114 @@
+package com.auzienko.javamocks.transaction.persistence.datasource;
+
+import com.auzienko.javamocks.transaction.persistence.config.props.ReplicaDataSourceProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Uses two independent Postgres containers as primary and replica. They are not replicating,
+ * so the database name tells which one served a query.
+ */
+@Testcontainers
+class ReplicaRoutingDataSourceIT {
+
+    @Container
+    private static final PostgreSQLContainer<?> primaryContainer =
+            new PostgreSQLContainer<>("postgres:15-alpine").withDatabaseName("primarydb");
+
+    @Container
+    private static final PostgreSQLContainer<?> replicaContainer =
+            new PostgreSQLContainer<>("postgres:15-alpine").withDatabaseName("replicadb");
+
+    private ReadYourWritesTracker readYourWrites;
+    private ReplicaLagMonitor lagMonitor;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWriteTx;
+    private TransactionTemplate readOnlyTx;
+
+    @BeforeEach
+    void setUp() {
+        ReplicaDataSourceProperties properties = new ReplicaDataSourceProperties();
+        properties.setEnabled(true);
+        properties.setReadYourWritesWindow(Duration.ofMinutes(1));
+
+        DataSource primary = dataSourceFor(primaryContainer);
+        DataSource replica = dataSourceFor(replicaContainer);
+
+        readYourWrites = new ReadYourWritesTracker(properties);
+        lagMonitor = new ReplicaLagMonitor(replica, properties, new SimpleMeterRegistry());
+        lagMonitor.probe();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, replica, readYourWrites, lagMonitor));
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWriteTx = new TransactionTemplate(transactionManager);
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+    }
+
+    @Test
+    @DisplayName("read-only transactions should be served by the replica")
+    void readOnlyTransactionsGoToReplica() {
+        String database = readOnlyTx.execute(status -> currentDatabase());
+
+        assertThat(database).isEqualTo("replicadb");
+    }
+
+    @Test
+    @DisplayName("read-write transactions should be served by the primary")
+    void readWriteTransactionsGoToPrimary() {
+        String database = readWriteTx.execute(status -> currentDatabase());
+
+        assertThat(database).isEqualTo("primarydb");
+    }
+
+    @Test
+    @DisplayName("reads of a recently written id should be served by the primary")
+    void recentlyWrittenIdsAreReadFromPrimary() {
+        UUID writtenId = UUID.randomUUID();
+        readYourWrites.recordWrite(writtenId);
+
+        String database = readOnlyTx.execute(status -> {
+            readYourWrites.beforeRead(writtenId);
+            return currentDatabase();
+        });
+
+        String laterDatabase = readOnlyTx.execute(status -> currentDatabase());
+
+        assertThat(database).isEqualTo("primarydb");
+        assertThat(laterDatabase).isEqualTo("replicadb");
+    }
+
+    @Test
+    @DisplayName("the lag monitor should report a standalone replica as caught up")
+    void lagMonitorReportsLag() {
+        assertThat(lagMonitor.getLagSeconds()).isZero();
+        assertThat(lagMonitor.isLagging()).isFalse();
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("SELECT current_database()", String.class);
+    }
+
+    private static DataSource dataSourceFor(PostgreSQLContainer<?> container) {
+        return new DriverManagerDataSource(container.getJdbcUrl(), container.getUsername(), container.getPassword());
+    }
+}
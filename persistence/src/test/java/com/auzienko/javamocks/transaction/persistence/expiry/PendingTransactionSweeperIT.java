@@ -0,0 +1,100 @@
+package com.auzienko.javamocks.transaction.persistence.expiry;
+
+import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.domain.repository.TransactionRepository;
+import com.auzienko.javamocks.transaction.persistence.BaseIntegrationTest;
+import com.auzienko.javamocks.transaction.persistence.PersistenceTestConfiguration;
+import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
+import com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = PersistenceTestConfiguration.class)
+@TestPropertySource(properties = {
+        "service.persistence.expiry.enabled=true",
+        "service.persistence.expiry.pending-timeout=1h",
+        "service.persistence.expiry.batch-size=2",
+        "service.persistence.expiry.max-batches-per-sweep=2",
+        "service.persistence.expiry.sweep-interval=1h"
+})
+class PendingTransactionSweeperIT extends BaseIntegrationTest {
+
+    @Autowired
+    private PendingTransactionSweeper sweeper;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("it should expire only transactions that stayed PENDING past the timeout, across batches")
+    void shouldExpireOverduePendingTransactions() {
+        // ARRANGE
+        Instant twoHoursAgo = Instant.now().minus(Duration.ofHours(2));
+        UUID overdue1 = save(twoHoursAgo).getId();
+        UUID overdue2 = save(twoHoursAgo.plusSeconds(1)).getId();
+        UUID overdue3 = save(twoHoursAgo.plusSeconds(2)).getId();
+        UUID recent = save(Instant.now()).getId();
+        Transaction settled = save(twoHoursAgo);
+        settled.complete();
+        transactionRepository.save(settled);
+        double sweptBefore = meterRegistry.get("transaction.expiry.swept").counter().count();
+
+        // ACT
+        sweeper.sweep();
+
+        // ASSERT
+        for (UUID id : new UUID[]{overdue1, overdue2, overdue3}) {
+            Transaction expired = transactionRepository.findById(id).get();
+            assertThat(expired.getCurrentStatus()).isEqualTo(TransactionStatus.EXPIRED);
+            assertThat(expired.getStatusHistory()).hasSize(2);
+            assertThat(expired.getVersion()).isEqualTo(1L);
+        }
+        assertThat(transactionRepository.findById(recent).get().getCurrentStatus()).isEqualTo(TransactionStatus.PENDING);
+        assertThat(transactionRepository.findById(settled.getId()).get().getCurrentStatus()).isEqualTo(TransactionStatus.COMPLETED);
+        assertThat(meterRegistry.get("transaction.expiry.swept").counter().count()).isEqualTo(sweptBefore + 3);
+    }
+
+    @Test
+    @DisplayName("it should leave overdue transactions beyond max-batches-per-sweep to the next sweep")
+    void shouldLimitBatchesPerSweep() {
+        // ARRANGE
+        Instant twoHoursAgo = Instant.now().minus(Duration.ofHours(2));
+        List<UUID> overdue = IntStream.range(0, 5).mapToObj(i -> save(twoHoursAgo.plusSeconds(i)).getId()).toList();
+        double sweptBefore = meterRegistry.get("transaction.expiry.swept").counter().count();
+
+        // ACT
+        sweeper.sweep();
+
+        // ASSERT
+        assertThat(meterRegistry.get("transaction.expiry.swept").counter().count()).isEqualTo(sweptBefore + 4);
+        assertThat(transactionRepository.findById(overdue.getLast()).get().getCurrentStatus()).isEqualTo(TransactionStatus.PENDING);
+
+        sweeper.sweep();
+
+        assertThat(meterRegistry.get("transaction.expiry.swept").counter().count()).isEqualTo(sweptBefore + 5);
+        assertThat(overdue).allSatisfy(id ->
+                assertThat(transactionRepository.findById(id).get().getCurrentStatus()).isEqualTo(TransactionStatus.EXPIRED));
+    }
+
+    private Transaction save(Instant createdAt) {
+        Transaction transaction = new Transaction("test_user", UUID.randomUUID(), UUID.randomUUID(), new BigDecimal("12.50"), Currency.EUR);
+        transaction.setCreatedAt(createdAt);
+        return transactionRepository.save(transaction);
+    }
+}
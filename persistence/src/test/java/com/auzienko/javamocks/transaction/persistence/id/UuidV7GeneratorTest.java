@@ -0,0 +1,56 @@
+package com.auzienko.javamocks.transaction.persistence.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7GeneratorTest {
+
+    private final UuidV7Generator underTest = UuidV7Generator.INSTANCE;
+
+    @Test
+    @DisplayName("should produce RFC 9562 version 7 UUIDs")
+    void shouldProduceVersion7Uuids() {
+        UUID id = underTest.generate();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should embed the millisecond timestamp in the high-order bits")
+    void shouldEmbedTimestamp() {
+        long epochMillis = 1_760_000_000_000L;
+
+        UUID id = underTest.generate(epochMillis);
+
+        assertThat(id.getMostSignificantBits() >>> 16).isEqualTo(epochMillis);
+    }
+
+    @Test
+    @DisplayName("should order ids created in later milliseconds after earlier ones")
+    void shouldBeTimeOrdered() {
+        UUID earlier = underTest.generate(1_760_000_000_000L);
+        UUID later = underTest.generate(1_760_000_000_001L);
+
+        // UUID.compareTo uses signed comparison, so compare the unsigned high bits instead.
+        assertThat(Long.compareUnsigned(earlier.getMostSignificantBits(), later.getMostSignificantBits()))
+                .isNegative();
+    }
+
+    @Test
+    @DisplayName("should not produce duplicates when called from many threads")
+    void shouldBeUniqueAcrossThreads() {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+
+        IntStream.range(0, 100_000).parallel().forEach(i -> ids.add(underTest.generate()));
+
+        assertThat(ids).hasSize(100_000);
+    }
+}
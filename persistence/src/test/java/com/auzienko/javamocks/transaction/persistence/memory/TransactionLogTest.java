@@ -0,0 +1,130 @@
+package com.auzienko.javamocks.transaction.persistence.memory;
+
+import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.domain.model.TransactionStatusHistory;
+import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
+import com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class TransactionLogTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("should replay durable records across segments after reopening")
+    void shouldReplayAcrossSegments() throws Exception {
+        TransactionLog log = open(new ArrayList<>());
+        List<Transaction> written = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Transaction transaction = newTransaction(0);
+            written.add(transaction);
+            log.awaitDurable(log.append(transaction));
+        }
+        log.close();
+
+        List<Transaction> replayed = new ArrayList<>();
+        open(replayed);
+
+        assertThat(log.segmentCount()).isGreaterThan(1);
+        assertThat(replayed).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(written);
+    }
+
+    @Test
+    @DisplayName("should discard a torn record at the tail and keep appending after the last intact one")
+    void shouldDiscardTornTail() throws Exception {
+        TransactionLog log = open(new ArrayList<>());
+        Transaction intact = newTransaction(0);
+        long position = log.append(intact);
+        log.awaitDurable(log.append(newTransaction(0)));
+        log.close();
+        try (RandomAccessFile file = new RandomAccessFile(onlySegment().toFile(), "rw")) {
+            // Corrupt the payload of the second record; its CRC no longer matches.
+            int offset = (int) position + 8 + 20;
+            file.seek(offset);
+            file.writeByte(file.readByte() ^ 0xFF);
+        }
+
+        List<Transaction> replayed = new ArrayList<>();
+        TransactionLog reopened = open(replayed);
+        Transaction appended = newTransaction(0);
+        reopened.awaitDurable(reopened.append(appended));
+        reopened.close();
+        List<Transaction> afterAppend = new ArrayList<>();
+        open(afterAppend);
+
+        assertThat(replayed).extracting(Transaction::getId).containsExactly(intact.getId());
+        assertThat(afterAppend).extracting(Transaction::getId).containsExactly(intact.getId(), appended.getId());
+    }
+
+    @Test
+    @DisplayName("should delete superseded segments and keep the live versions")
+    void shouldCompactSupersededSegments() throws Exception {
+        TransactionLog log = open(new ArrayList<>());
+        Transaction kept = newTransaction(0);
+        log.append(kept);
+        Transaction updated = newTransaction(0);
+        long position = 0;
+        for (long version = 0; version < 40; version++) {
+            updated.setVersion(version);
+            position = log.append(updated);
+        }
+        log.awaitDurable(position);
+        int segmentsBefore = log.segmentCount();
+
+        int deleted = log.compact(record -> record.getVersion() == 0 && record.getId().equals(kept.getId())
+                || record.getVersion() == 39);
+        log.close();
+        List<Transaction> replayed = new ArrayList<>();
+        open(replayed);
+
+        assertThat(segmentsBefore).isGreaterThan(1);
+        assertThat(deleted).isEqualTo(segmentsBefore - 1);
+        assertThat(replayed).extracting(Transaction::getId, Transaction::getVersion)
+                .contains(tuple(kept.getId(), 0L),
+                        tuple(updated.getId(), 39L))
+                .doesNotContain(tuple(updated.getId(), 0L));
+    }
+
+    private TransactionLog open(List<Transaction> replayed) throws Exception {
+        TransactionLog log = new TransactionLog(directory, SEGMENT_SIZE, Duration.ZERO, 0.5);
+        log.open(replayed::add);
+        return log;
+    }
+
+    private Path onlySegment() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.findFirst().orElseThrow();
+        }
+    }
+
+    private static Transaction newTransaction(long version) {
+        Transaction transaction = new Transaction("owner", UUID.randomUUID(), UUID.randomUUID(),
+                new BigDecimal("12.50"), Currency.USD);
+        transaction.setId(UUID.randomUUID());
+        transaction.setCreatedAt(Instant.now().truncatedTo(ChronoUnit.MICROS));
+        transaction.setVersion(version);
+        transaction.getStatusHistory().replaceAll(entry ->
+                new TransactionStatusHistory(TransactionStatus.PENDING, entry.getReason(), transaction.getCreatedAt()));
+        return transaction;
+    }
+}
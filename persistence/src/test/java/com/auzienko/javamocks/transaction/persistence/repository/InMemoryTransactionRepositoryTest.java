@@ -0,0 +1,244 @@
+package com.auzienko.javamocks.transaction.persistence.repository;
+
+import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.persistence.config.props.InMemoryStoreProperties;
+import com.auzienko.javamocks.transaction.persistence.memory.TransactionLog;
+import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
+import com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InMemoryTransactionRepositoryTest {
+
+    private InMemoryStoreProperties properties;
+    private InMemoryTransactionRepository underTest;
+
+    @BeforeEach
+    void setUp() {
+        properties = new InMemoryStoreProperties();
+        underTest = new InMemoryTransactionRepository(properties);
+    }
+
+    @Test
+    @DisplayName("should assign id, createdAt and version on first save")
+    void shouldAssignGeneratedValues() {
+        Transaction saved = underTest.save(newTransaction("owner"));
+
+        assertThat(saved.getId()).isNotNull();
+        assertThat(saved.getCreatedAt()).isNotNull();
+        assertThat(saved.getVersion()).isZero();
+        assertThat(saved.getStatusHistory()).allSatisfy(entry -> assertThat(entry.getTimestamp()).isNotNull());
+    }
+
+    @Test
+    @DisplayName("should not let callers change stored state without saving")
+    void shouldIsolateStoredCopies() {
+        UUID id = underTest.save(newTransaction("owner")).getId();
+
+        underTest.findById(id).get().complete();
+
+        assertThat(underTest.findById(id).get().getCurrentStatus()).isEqualTo(TransactionStatus.PENDING);
+    }
+
+    @Test
+    @DisplayName("should append a status change and bump the version")
+    void shouldSaveStatusChange() {
+        UUID id = underTest.save(newTransaction("owner")).getId();
+        Transaction loaded = underTest.findById(id).get();
+        loaded.fail("Insufficient funds");
+
+        underTest.save(loaded);
+
+        Transaction fetched = underTest.findById(id).get();
+        assertThat(fetched.getCurrentStatus()).isEqualTo(TransactionStatus.FAILED);
+        assertThat(fetched.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("should reject a change made to a stale copy")
+    void shouldRejectStaleVersion() {
+        UUID id = underTest.save(newTransaction("owner")).getId();
+        Transaction first = underTest.findById(id).get();
+        Transaction stale = underTest.findById(id).get();
+        first.complete();
+        underTest.save(first);
+        stale.fail("Too late");
+
+        assertThatThrownBy(() -> underTest.save(stale))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+    }
+
+    @Test
+    @DisplayName("should find transactions by id and owner and through the owner index")
+    void shouldFindByOwner() {
+        UUID first = underTest.save(newTransaction("alice")).getId();
+        UUID second = underTest.save(newTransaction("alice")).getId();
+        underTest.save(newTransaction("bob"));
+
+        assertThat(underTest.findByIdAndOwnerId(first, "alice")).isPresent();
+        assertThat(underTest.findByIdAndOwnerId(first, "bob")).isEmpty();
+        assertThat(ownedBy(underTest, "alice"))
+                .extracting(Transaction::getId)
+                .containsExactlyInAnyOrder(first, second);
+    }
+
+    @Test
+    @DisplayName("should restore the store from its snapshot file")
+    void shouldRestoreFromSnapshot(@TempDir Path directory) throws Exception {
+        properties.setSnapshotFile(directory.resolve("transactions.snapshot"));
+        Transaction saved = underTest.save(newTransaction("owner"));
+        Transaction loaded = underTest.findById(saved.getId()).get();
+        loaded.fail("Insufficient funds");
+        underTest.save(loaded);
+        underTest.writeSnapshot();
+
+        InMemoryTransactionRepository restored = new InMemoryTransactionRepository(properties);
+        restored.restoreSnapshot();
+
+        assertThat(restored.size()).isEqualTo(1);
+        assertThat(restored.findById(saved.getId())).get()
+                .usingRecursiveComparison()
+                .isEqualTo(underTest.findById(saved.getId()).get());
+        assertThat(ownedBy(restored, "owner")).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("should rebuild the store from its write-ahead log")
+    void shouldReplayWriteAheadLog(@TempDir Path directory) throws Exception {
+        TransactionLog log = new TransactionLog(directory, 1 << 20, Duration.ZERO, 0.5);
+        underTest = new InMemoryTransactionRepository(properties, log);
+        underTest.restore();
+        Transaction saved = underTest.save(newTransaction("owner"));
+        Transaction loaded = underTest.findById(saved.getId()).get();
+        loaded.complete();
+        underTest.save(loaded);
+        log.close();
+
+        InMemoryTransactionRepository restored = new InMemoryTransactionRepository(properties,
+                new TransactionLog(directory, 1 << 20, Duration.ZERO, 0.5));
+        restored.restore();
+
+        assertThat(restored.findById(saved.getId())).get()
+                .usingRecursiveComparison()
+                .isEqualTo(underTest.findById(saved.getId()).get());
+        assertThat(restored.findById(saved.getId()).get().getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("should keep a record that was appended but not stored yet when its segment is compacted")
+    void shouldKeepRecordNotStoredYetWhenCompacting(@TempDir Path directory) throws Exception {
+        AtomicReference<Transaction> superseded = new AtomicReference<>();
+        AtomicLong savedPosition = new AtomicLong(-1);
+        TransactionLog log = new TransactionLog(directory, 4096, Duration.ZERO, 0.5) {
+            @Override
+            public void awaitDurable(long position) {
+                super.awaitDurable(position);
+                if (superseded.get() != null && savedPosition.compareAndSet(-1, position)) {
+                    // The save has appended its record and not stored it yet: fill its segment with
+                    // superseded records, so that it is sealed and compacted.
+                    int segments = segmentCount();
+                    while (segmentCount() == segments) {
+                        append(superseded.get());
+                    }
+                    underTest.compactLog();
+                }
+            }
+        };
+        underTest = new InMemoryTransactionRepository(properties, log);
+        underTest.restore();
+        UUID updatedId = underTest.save(newTransaction("owner")).getId();
+        Transaction first = underTest.findById(updatedId).get();
+        underTest.save(underTest.findById(updatedId).get());
+        superseded.set(first);
+        Transaction saved = underTest.save(newTransaction("owner"));
+        log.close();
+
+        InMemoryTransactionRepository restored = new InMemoryTransactionRepository(properties,
+                new TransactionLog(directory, 4096, Duration.ZERO, 0.5));
+        restored.restore();
+
+        // Positions carry the segment number in their high 32 bits.
+        assertThat(directory.resolve(String.format("segment-%010d.log", savedPosition.get() >>> 32))).doesNotExist();
+        assertThat(restored.findById(saved.getId())).isPresent();
+        assertThat(restored.findById(updatedId).get().getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("should keep every acknowledged write when the log is compacted while saving")
+    void shouldKeepWritesAcknowledgedDuringCompaction(@TempDir Path directory) throws Exception {
+        TransactionLog log = new TransactionLog(directory, 4096, Duration.ZERO, 0.5);
+        underTest = new InMemoryTransactionRepository(properties, log);
+        underTest.restore();
+        AtomicBoolean saving = new AtomicBoolean(true);
+        Thread compactor = Thread.ofPlatform().start(() -> {
+            while (saving.get()) {
+                underTest.compactLog();
+            }
+        });
+        List<UUID> ids = Collections.synchronizedList(new ArrayList<>());
+        try (ExecutorService writers = Executors.newFixedThreadPool(4)) {
+            for (int writer = 0; writer < 4; writer++) {
+                writers.submit(() -> {
+                    for (int i = 0; i < 250; i++) {
+                        UUID id = underTest.save(newTransaction("owner")).getId();
+                        Transaction loaded = underTest.findById(id).get();
+                        loaded.complete();
+                        underTest.save(loaded);
+                        ids.add(id);
+                    }
+                });
+            }
+        }
+        saving.set(false);
+        compactor.join();
+        log.close();
+
+        InMemoryTransactionRepository restored = new InMemoryTransactionRepository(properties,
+                new TransactionLog(directory, 4096, Duration.ZERO, 0.5));
+        restored.restore();
+
+        assertThat(ids).hasSize(1000);
+        assertThat(ids).allSatisfy(id -> assertThat(restored.findById(id)).get()
+                .extracting(Transaction::getVersion, Transaction::getCurrentStatus)
+                .containsExactly(1L, TransactionStatus.COMPLETED));
+    }
+
+    private static List<Transaction> ownedBy(InMemoryTransactionRepository repository, String ownerId) {
+        List<Transaction> owned = new ArrayList<>();
+        repository.forEachByOwnerId(ownerId, owned::add);
+        return owned;
+    }
+
+    private static Transaction storedTransaction(String ownerId) {
+        Transaction transaction = newTransaction(ownerId);
+        transaction.setId(UUID.randomUUID());
+        transaction.setCreatedAt(Instant.now());
+        transaction.setVersion(0L);
+        transaction.getStatusHistory().forEach(entry -> entry.setTimestamp(Instant.now()));
+        return transaction;
+    }
+
+    private static Transaction newTransaction(String ownerId) {
+        return new Transaction(ownerId, UUID.randomUUID(), UUID.randomUUID(), new BigDecimal("12.50"), Currency.USD);
+    }
+}
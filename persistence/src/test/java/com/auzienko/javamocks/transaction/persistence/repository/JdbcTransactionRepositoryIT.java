@@ -0,0 +1,25 @@
+package com.auzienko.javamocks.transaction.persistence.repository;
+
+import com.auzienko.javamocks.transaction.domain.repository.TransactionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the {@link TransactionRepositoryImplIT} suite against the JDBC adapter.
+ */
+@TestPropertySource(properties = "service.persistence.repository=jdbc")
+class JdbcTransactionRepositoryIT extends TransactionRepositoryImplIT {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    @DisplayName("it should use the JDBC adapter")
+    void shouldUseJdbcAdapter() {
+        assertThat(transactionRepository).isInstanceOf(JdbcTransactionRepository.class);
+    }
+}
@@ -0,0 +1,79 @@
+package com.auzienko.javamocks.transaction.persistence.repository;
+
+import com.auzienko.javamocks.transaction.persistence.config.props.TransactionExportProperties;
+import com.auzienko.javamocks.transaction.persistence.memory.InMemoryTransactionManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.TransactionTimedOutException;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
+
+class OwnerTransactionCursorTest {
+
+    private static final String OWNER_ID = "owner-1";
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TransactionExportProperties properties = new TransactionExportProperties();
+
+    @Test
+    @DisplayName("should reject an export while max-concurrent exports are running")
+    void shouldRejectExportOverLimit() throws Exception {
+        properties.setMaxConcurrent(1);
+        OwnerTransactionCursor underTest = cursor();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> underTest.forEach(OWNER_ID, tx -> {}));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> underTest.forEach(OWNER_ID, tx -> {}))
+                .isInstanceOf(TransientDataAccessResourceException.class);
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        // The slot is free again.
+        doNothing().when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        underTest.forEach(OWNER_ID, tx -> {});
+    }
+
+    @Test
+    @DisplayName("should abort an export that reads rows after its max-duration and free its slot")
+    void shouldAbortExportAfterMaxDuration() {
+        properties.setMaxConcurrent(1);
+        properties.setMaxDuration(Duration.ofNanos(1));
+        OwnerTransactionCursor underTest = cursor();
+        doAnswer(invocation -> {
+            invocation.getArgument(1, RowCallbackHandler.class).processRow(mock(ResultSet.class));
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        assertThatThrownBy(() -> underTest.forEach(OWNER_ID, tx -> {}))
+                .isInstanceOf(TransactionTimedOutException.class);
+        assertThatThrownBy(() -> underTest.forEach(OWNER_ID, tx -> {}))
+                .isInstanceOf(TransactionTimedOutException.class);
+    }
+
+    private OwnerTransactionCursor cursor() {
+        return new OwnerTransactionCursor(jdbcTemplate, new InMemoryTransactionManager(), properties);
+    }
+}
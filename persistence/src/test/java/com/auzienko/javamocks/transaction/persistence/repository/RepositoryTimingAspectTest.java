@@ -0,0 +1,64 @@
+package com.auzienko.javamocks.transaction.persistence.repository;
+
+import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.domain.repository.TransactionRepository;
+import com.auzienko.javamocks.transaction.persistence.memory.InMemoryTransactionManager;
+import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class RepositoryTimingAspectTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate(new InMemoryTransactionManager());
+    private TransactionRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(mock(TransactionRepository.class));
+        proxyFactory.addAspect(new RepositoryTimingAspect(meterRegistry));
+        repository = proxyFactory.getProxy();
+    }
+
+    @Test
+    @DisplayName("should time the commit of a transaction the calls joined once")
+    void shouldTimeCommitOfJoinedTransaction() {
+        transactionTemplate.executeWithoutResult(status -> {
+            repository.save(newTransaction());
+            repository.save(newTransaction());
+        });
+
+        assertThat(meterRegistry.get("db.repository").tag("method", "save").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("db.commit").tag("outcome", "committed").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should not time rolled back, read-only or missing transactions")
+    void shouldNotTimeOtherTransactions() {
+        transactionTemplate.executeWithoutResult(status -> {
+            repository.save(newTransaction());
+            status.setRollbackOnly();
+        });
+        TransactionTemplate readOnly = new TransactionTemplate(new InMemoryTransactionManager());
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> repository.findById(UUID.randomUUID()));
+        repository.findById(UUID.randomUUID());
+
+        assertThat(meterRegistry.get("db.repository").timers()).hasSize(2);
+        assertThat(meterRegistry.find("db.commit").timers()).isEmpty();
+    }
+
+    private static Transaction newTransaction() {
+        return new Transaction("owner", UUID.randomUUID(), UUID.randomUUID(), new BigDecimal("12.50"), Currency.USD);
+    }
+}
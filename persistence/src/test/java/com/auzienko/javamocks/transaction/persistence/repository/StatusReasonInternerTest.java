@@ -0,0 +1,69 @@
+package com.auzienko.javamocks.transaction.persistence.repository;
+
+import com.auzienko.javamocks.transaction.persistence.entity.StatusReasonEntity;
+import com.auzienko.javamocks.transaction.persistence.memory.InMemoryTransactionManager;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StatusReasonInternerTest {
+
+    private static final String REASON = "Card declined.";
+
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate(new InMemoryTransactionManager());
+    private StatusReasonJpaRepository repository;
+    private StatusReasonInterner underTest;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(StatusReasonJpaRepository.class);
+        // Not there until inserted.
+        when(repository.findByText(REASON)).thenReturn(Optional.empty(), Optional.of(reason(7)));
+        underTest = new StatusReasonInterner(repository, mock(EntityManager.class));
+    }
+
+    @Test
+    @DisplayName("should cache an id once the transaction that inserted it committed")
+    void shouldCacheCommittedId() {
+        Integer inserted = transactionTemplate.execute(status -> underTest.internId(REASON));
+        Integer cached = transactionTemplate.execute(status -> underTest.internId(REASON));
+
+        assertThat(inserted).isEqualTo(7);
+        assertThat(cached).isEqualTo(7);
+        verify(repository).insertIfAbsent(REASON);
+        verify(repository, times(2)).findByText(REASON);
+    }
+
+    @Test
+    @DisplayName("should not cache an id whose insert was rolled back")
+    void shouldNotCacheRolledBackId() {
+        transactionTemplate.executeWithoutResult(status -> {
+            assertThat(underTest.internId(REASON)).isEqualTo(7);
+            status.setRollbackOnly();
+        });
+        // The row is gone again.
+        when(repository.findByText(REASON)).thenReturn(Optional.empty(), Optional.of(reason(8)));
+
+        Integer id = transactionTemplate.execute(status -> underTest.internId(REASON));
+
+        assertThat(id).isEqualTo(8);
+        verify(repository, times(2)).insertIfAbsent(REASON);
+    }
+
+    private static StatusReasonEntity reason(int id) {
+        StatusReasonEntity entity = new StatusReasonEntity();
+        entity.setId(id);
+        entity.setText(REASON);
+        return entity;
+    }
+}
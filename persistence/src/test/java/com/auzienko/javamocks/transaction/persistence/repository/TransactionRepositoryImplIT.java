@@ -1,6 +1,8 @@
 package com.auzienko.javamocks.transaction.persistence.repository;
 
 import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.domain.model.TransactionTransition;
+import com.auzienko.javamocks.transaction.domain.repository.TransactionRepository;
 import com.auzienko.javamocks.transaction.persistence.BaseIntegrationTest;
 import com.auzienko.javamocks.transaction.persistence.PersistenceTestConfiguration;
 import com.auzienko.javamocks.transaction.persistence.entity.TransactionEntity;
@@ -13,21 +15,29 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.annotation.Transactional;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @SpringBootTest(classes = PersistenceTestConfiguration.class)
 @Testcontainers
 class TransactionRepositoryImplIT extends BaseIntegrationTest {
 
     @Autowired
-    private TransactionRepositoryImpl underTest;
+    private TransactionRepository underTest;
 
     @Autowired
     private TransactionJpaRepository transactionJpaRepository;
@@ -35,6 +45,9 @@ class TransactionRepositoryImplIT extends BaseIntegrationTest {
     @Autowired
     private TransactionPersistenceMapper mapper;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private Transaction newTransaction;
 
     @BeforeEach
@@ -93,6 +106,82 @@ class TransactionRepositoryImplIT extends BaseIntegrationTest {
             assertThat(savedTransaction.getId()).isNotNull();
             assertThat(savedTransaction.getCreatedAt()).isNotNull();
             assertThat(savedTransaction.getCurrentStatus()).isEqualTo(TransactionStatus.PENDING);
+            assertThat(savedTransaction.getVersion()).isZero();
+        }
+
+        @Test
+        @DisplayName("it should store timestamps as UTC time, whatever the JVM time zone")
+        void shouldStoreTimestampsInUtc() {
+            // ACT
+            Transaction savedTransaction = underTest.save(newTransaction);
+
+            // ASSERT - The ITs run in a time zone other than UTC
+            LocalDateTime expected = LocalDateTime.ofInstant(savedTransaction.getCreatedAt(), ZoneOffset.UTC)
+                    .truncatedTo(ChronoUnit.MICROS);
+            assertThat(jdbcTemplate.queryForObject("SELECT created_at FROM transactions WHERE id = ?",
+                    LocalDateTime.class, savedTransaction.getId())).isEqualTo(expected);
+            assertThat(jdbcTemplate.queryForObject("SELECT recorded_at FROM transaction_status_log WHERE transaction_id = ?",
+                    LocalDateTime.class, savedTransaction.getId())).isEqualTo(expected);
+        }
+    }
+
+    @Nested
+    @DisplayName("When saving a status change")
+    class StatusChangeTests {
+
+        @Test
+        @DisplayName("it should append the new status to the stored history")
+        void shouldAppendStatusToHistory() {
+            // ARRANGE
+            UUID id = underTest.save(newTransaction).getId();
+            Transaction loaded = underTest.findById(id).get();
+            long loadedVersion = loaded.getVersion();
+            loaded.fail("Insufficient funds");
+
+            // ACT
+            Transaction saved = underTest.save(loaded);
+
+            // ASSERT
+            Transaction fetched = underTest.findById(id).get();
+            assertThat(saved.getVersion()).isEqualTo(loadedVersion + 1);
+            assertThat(fetched.getStatusHistory()).hasSize(2);
+            assertThat(fetched.getCurrentStatus()).isEqualTo(TransactionStatus.FAILED);
+            assertThat(fetched.getStatusHistory().get(1).getReason()).isEqualTo("Insufficient funds");
+            assertThat(fetched.getVersion()).isEqualTo(loadedVersion + 1);
+            assertThat(transactionJpaRepository.findById(id).get().getStatus()).isEqualTo(TransactionStatus.FAILED);
+        }
+
+        @Test
+        @DisplayName("it should accept a further change to the transaction it returned")
+        void shouldAcceptChangeToReturnedTransaction() {
+            // ARRANGE
+            Transaction saved = underTest.save(newTransaction);
+            saved.apply(TransactionTransition.AUTHORIZE, null);
+            Transaction authorized = underTest.save(saved);
+            authorized.complete();
+
+            // ACT
+            Transaction completed = underTest.save(authorized);
+
+            // ASSERT
+            assertThat(completed.getVersion()).isEqualTo(2);
+            assertThat(underTest.findById(saved.getId()).get().getVersion()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("it should reject a change made to a stale copy")
+        void shouldRejectStaleVersion() {
+            // ARRANGE
+            UUID id = underTest.save(newTransaction).getId();
+            Transaction first = underTest.findById(id).get();
+            Transaction stale = underTest.findById(id).get();
+            first.complete();
+            underTest.save(first);
+            stale.fail("Too late");
+
+            // ACT & ASSERT
+            assertThatThrownBy(() -> underTest.save(stale))
+                    .isInstanceOf(OptimisticLockingFailureException.class);
         }
     }
 
@@ -132,4 +221,35 @@ class TransactionRepositoryImplIT extends BaseIntegrationTest {
             assertThat(foundOptional).isEmpty();
         }
     }
+
+    @Nested
+    @DisplayName("When reading all transactions of an owner")
+    class ForEachByOwnerIdTests {
+
+        @Test
+        @DisplayName("it should return only the owner's transactions, oldest first, with their status history")
+        void shouldStreamOwnerTransactionsInOrder() {
+            // ARRANGE
+            String owner = "export_user_" + UUID.randomUUID();
+            List<UUID> expectedIds = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                Transaction transaction = new Transaction(owner, UUID.randomUUID(), UUID.randomUUID(), new BigDecimal(i + 1), Currency.USD);
+                expectedIds.add(underTest.save(transaction).getId());
+            }
+            underTest.save(new Transaction("someone_else", UUID.randomUUID(), UUID.randomUUID(), BigDecimal.TEN, Currency.USD));
+            Transaction completed = underTest.findById(expectedIds.get(1)).orElseThrow();
+            completed.complete();
+            underTest.save(completed);
+
+            // ACT
+            List<Transaction> exported = new ArrayList<>();
+            underTest.forEachByOwnerId(owner, exported::add);
+
+            // ASSERT
+            assertThat(exported).extracting(Transaction::getId).containsExactlyElementsOf(expectedIds);
+            assertThat(exported.get(1).getStatusHistory()).hasSize(2);
+            assertThat(exported.get(1).getCurrentStatus()).isEqualTo(TransactionStatus.COMPLETED);
+            assertThat(exported.get(2).getCurrentStatus()).isEqualTo(TransactionStatus.PENDING);
+        }
+    }
 }
@@ -0,0 +1,109 @@
+package com.auzienko.javamocks.transaction.persistence.rollup;
+
+import com.auzienko.javamocks.transaction.domain.model.RollupGranularity;
+import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.domain.model.TransactionRollup;
+import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
+import com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus;
+import com.auzienko.javamocks.transaction.persistence.memory.InMemoryTransactionManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class TransactionRollupAccumulatorTest {
+
+    private static final Instant CREATED = Instant.parse("2025-03-01T10:15:30Z");
+    private static final Instant COMPLETED = Instant.parse("2025-03-01T11:02:00Z");
+
+    private InMemoryTransactionRollupStore store;
+    private TransactionRollupAccumulator accumulator;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryTransactionRollupStore();
+        accumulator = new TransactionRollupAccumulator(store, new InMemoryTransactionManager());
+    }
+
+    @Test
+    @DisplayName("it should count each transition in the bucket of its timestamp, before and after a flush")
+    void shouldCountTransitionsPerBucket() {
+        Transaction first = newTransaction("100.00");
+        Transaction second = newTransaction("40.00");
+        accumulator.transactionCreated(first);
+        accumulator.transactionCreated(second);
+        accumulator.flush();
+        first.complete();
+        first.getStatusHistory().getLast().setTimestamp(COMPLETED);
+        accumulator.statusChanged(first, TransactionStatus.PENDING, TransactionStatus.COMPLETED);
+
+        Instant from = Instant.parse("2025-03-01T00:00:00Z");
+        Instant to = Instant.parse("2025-03-02T00:00:00Z");
+        assertThat(accumulator.getRollups(RollupGranularity.HOUR, from, to)).containsExactly(
+                new TransactionRollup(RollupGranularity.HOUR, Instant.parse("2025-03-01T10:00:00Z"),
+                        Currency.EUR, TransactionStatus.PENDING, 2, new BigDecimal("140.00")),
+                new TransactionRollup(RollupGranularity.HOUR, Instant.parse("2025-03-01T11:00:00Z"),
+                        Currency.EUR, TransactionStatus.COMPLETED, 1, new BigDecimal("100.00")));
+
+        accumulator.flush();
+
+        assertThat(store.find(RollupGranularity.MINUTE, from, to))
+                .extracting(TransactionRollup::bucketStart)
+                .containsExactlyInAnyOrder(Instant.parse("2025-03-01T10:15:00Z"), Instant.parse("2025-03-01T11:02:00Z"));
+        assertThat(accumulator.getRollups(RollupGranularity.MINUTE, COMPLETED, to))
+                .extracting(TransactionRollup::status)
+                .containsExactly(TransactionStatus.COMPLETED);
+    }
+
+    @Test
+    @DisplayName("it should keep recording and reading while a flush writes, and keep the changes if the write fails")
+    void shouldNotBlockOnWrite() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        InMemoryTransactionRollupStore blockingStore = new InMemoryTransactionRollupStore() {
+            @Override
+            public void addAll(Collection<TransactionRollup> deltas) {
+                writing.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IllegalStateException("database unavailable");
+            }
+        };
+        accumulator = new TransactionRollupAccumulator(blockingStore, new InMemoryTransactionManager());
+        accumulator.transactionCreated(newTransaction("100.00"));
+
+        Thread flush = Thread.ofVirtual().start(accumulator::flush);
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        accumulator.transactionCreated(newTransaction("40.00"));
+        Instant from = Instant.parse("2025-03-01T00:00:00Z");
+        Instant to = Instant.parse("2025-03-02T00:00:00Z");
+        List<TransactionRollup> duringWrite = accumulator.getRollups(RollupGranularity.HOUR, from, to);
+        release.countDown();
+        flush.join();
+
+        assertThat(duringWrite).extracting(TransactionRollup::count).containsExactly(2L);
+        assertThat(accumulator.getRollups(RollupGranularity.HOUR, from, to))
+                .extracting(TransactionRollup::count, TransactionRollup::amount)
+                .containsExactly(tuple(2L, new BigDecimal("140.00")));
+    }
+
+    private static Transaction newTransaction(String amount) {
+        Transaction transaction = new Transaction("test_user", UUID.randomUUID(), UUID.randomUUID(), new BigDecimal(amount), Currency.EUR);
+        transaction.setId(UUID.randomUUID());
+        transaction.getStatusHistory().getLast().setTimestamp(CREATED);
+        return transaction;
+    }
+}
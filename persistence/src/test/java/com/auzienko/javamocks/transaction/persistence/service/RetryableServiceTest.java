@@ -5,6 +5,9 @@ import com.auzienko.javamocks.transaction.domain.model.Transaction;
 import com.auzienko.javamocks.transaction.domain.repository.TransactionRepository;
 import com.auzienko.javamocks.transaction.domain.service.TransactionService;
 import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,16 +16,18 @@ import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
@@ -41,46 +46,71 @@ class RetryableServiceTest {
     @Configuration
     static class TestConfig {
         @Bean
-        TransactionService transactionService(TransactionRepository transactionRepository) {
-            return new TransactionServiceImpl(transactionRepository);
+        TransactionService transactionService(TransactionRepository transactionRepository,
+                                              List<TransactionChangeListener> changeListeners) {
+            return new TransactionServiceImpl(transactionRepository, changeListeners);
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        TransitionRetryMetrics transitionRetryMetrics(MeterRegistry meterRegistry) {
+            return new TransitionRetryMetrics(meterRegistry);
         }
     }
 
     @Autowired
     private TransactionService transactionService;
 
-    @MockBean
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoBean
     private TransactionRepository transactionRepository;
 
+    @MockitoBean
+    private TransactionChangeListener changeListener;
+
+    @BeforeEach
+    void clearMeters() {
+        meterRegistry.clear();
+    }
+
     @Test
     @DisplayName("should succeed on the second attempt after one optimistic lock failure")
     void shouldSucceedOnSecondAttempt() {
         UUID transactionId = UUID.randomUUID();
-        Transaction transaction = new Transaction("test_user", UUID.randomUUID(), UUID.randomUUID(), new BigDecimal("100"), Currency.USD);
-        transaction.setId(transactionId);
 
         // ARRANGE
-        given(transactionRepository.findById(transactionId)).willReturn(Optional.of(transaction));
+        // Like the real repositories, every attempt loads its own copy.
+        given(transactionRepository.findById(transactionId)).willAnswer(invocation -> Optional.of(pendingTransaction(transactionId)));
         given(transactionRepository.save(any(Transaction.class)))
                 .willThrow(new OptimisticLockingFailureException("Fail 1"))
-                .willReturn(transaction); // Succeeds on 2nd call
+                .willAnswer(invocation -> invocation.getArgument(0)); // Succeeds on 2nd call
 
         // ACT
         transactionService.completeTransaction(transactionId);
 
         // ASSERT
         verify(transactionRepository, times(2)).save(any(Transaction.class));
+        assertThat(meterRegistry.get("transaction.transition.attempts")
+                .tags("transition", "complete", "exception", "none").summary().totalAmount())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("transaction.transition.attempt.failures")
+                .tags("transition", "complete", "exception", "ConcurrencyException").counter().count())
+                .isEqualTo(1);
     }
 
     @Test
     @DisplayName("should fail after all retry attempts (3 from properties) are exhausted")
     void shouldFailAfterAllAttempts() {
         UUID transactionId = UUID.randomUUID();
-        Transaction transaction = new Transaction("test_user", UUID.randomUUID(), UUID.randomUUID(), new BigDecimal("100"), Currency.USD);
-        transaction.setId(transactionId);
 
         // ARRANGE
-        given(transactionRepository.findById(transactionId)).willReturn(Optional.of(transaction));
+        given(transactionRepository.findById(transactionId)).willAnswer(invocation -> Optional.of(pendingTransaction(transactionId)));
         given(transactionRepository.save(any(Transaction.class)))
                 .willThrow(new OptimisticLockingFailureException("Always fail"));
 
@@ -89,6 +119,14 @@ class RetryableServiceTest {
                 .isInstanceOf(ConcurrencyException.class);
 
         verify(transactionRepository, times(3)).save(any(Transaction.class));
+        assertThat(meterRegistry.get("transaction.transition")
+                .tags("transition", "complete", "exception", "ConcurrencyException").timer().count())
+                .isEqualTo(1);
     }
-}
 
+    private static Transaction pendingTransaction(UUID id) {
+        Transaction transaction = new Transaction("test_user", UUID.randomUUID(), UUID.randomUUID(), new BigDecimal("100"), Currency.USD);
+        transaction.setId(id);
+        return transaction;
+    }
+}
@@ -0,0 +1,158 @@
+package com.auzienko.javamocks.transaction.persistence.service;
+
+import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.domain.repository.TransactionRepository;
+import com.auzienko.javamocks.transaction.domain.service.TransactionService;
+import com.auzienko.javamocks.transaction.persistence.config.props.TransactionExportProperties;
+import com.auzienko.javamocks.transaction.persistence.repository.OwnerTransactionCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.ConnectionHolder;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Exports through the transactional proxy of {@link TransactionService}, so that a transaction
+ * opened around the cursor's own would show up as a connection taken too early.
+ */
+@SpringJUnitConfig
+class TransactionServiceExportTest {
+
+    private static final String OWNER_ID = "owner-1";
+
+    @Configuration
+    @EnableTransactionManagement
+    static class TestConfig {
+
+        @Bean
+        DataSource dataSource() {
+            return mock(DataSource.class);
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager(DataSource dataSource) {
+            return new DataSourceTransactionManager(dataSource);
+        }
+
+        @Bean
+        JdbcTemplate jdbcTemplate() {
+            return mock(JdbcTemplate.class);
+        }
+
+        @Bean
+        TransactionExportProperties transactionExportProperties() {
+            TransactionExportProperties properties = new TransactionExportProperties();
+            properties.setMaxConcurrent(1);
+            properties.setMaxDuration(Duration.ofSeconds(30));
+            return properties;
+        }
+
+        @Bean
+        OwnerTransactionCursor ownerTransactionCursor(JdbcTemplate jdbcTemplate,
+                                                      PlatformTransactionManager transactionManager,
+                                                      TransactionExportProperties properties) {
+            return new OwnerTransactionCursor(jdbcTemplate, transactionManager, properties);
+        }
+
+        @Bean
+        TransactionRepository transactionRepository(OwnerTransactionCursor ownerCursor) {
+            TransactionRepository repository = mock(TransactionRepository.class);
+            doAnswer(invocation -> {
+                ownerCursor.forEach(invocation.getArgument(0), invocation.getArgument(1));
+                return null;
+            }).when(repository).forEachByOwnerId(any(), any());
+            return repository;
+        }
+
+        @Bean
+        TransactionService transactionService(TransactionRepository transactionRepository) {
+            return new TransactionServiceImpl(transactionRepository, List.of());
+        }
+    }
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        reset(jdbcTemplate);
+        clearInvocations(dataSource);
+        when(dataSource.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+    }
+
+    @Test
+    @DisplayName("should read the export in a transaction that times out after max-duration")
+    void shouldApplyExportTimeout() {
+        // Read while the query runs: the holder's timeout is cleared when the transaction ends.
+        Integer[] secondsLeft = new Integer[1];
+        doAnswer(invocation -> {
+            ConnectionHolder holder = (ConnectionHolder) TransactionSynchronizationManager.getResource(dataSource);
+            secondsLeft[0] = holder != null && holder.hasTimeout() ? holder.getTimeToLiveInSeconds() : null;
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        transactionService.exportTransactions(OWNER_ID, transaction -> {});
+
+        assertThat(secondsLeft[0]).isBetween(1, 30);
+    }
+
+    @Test
+    @DisplayName("should reject an export over the limit without taking a connection")
+    void shouldRejectExportWithoutConnection() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        Consumer<Transaction> ignore = transaction -> {};
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> transactionService.exportTransactions(OWNER_ID, ignore));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> transactionService.exportTransactions(OWNER_ID, ignore))
+                .isInstanceOf(TransientDataAccessResourceException.class);
+        verify(dataSource, times(1)).getConnection();
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+    }
+}
@@ -1,26 +1,31 @@
 package com.auzienko.javamocks.transaction.persistence.service;
 
+import com.auzienko.javamocks.transaction.domain.exception.InvalidTransactionStateException;
 import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.domain.model.TransactionTransition;
 import com.auzienko.javamocks.transaction.domain.repository.TransactionRepository;
 import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
 import com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -30,9 +35,16 @@ class TransactionServiceImplTest {
     @Mock
     private TransactionRepository transactionRepository;
 
-    @InjectMocks
+    @Mock
+    private TransactionChangeListener changeListener;
+
     private TransactionServiceImpl underTest;
 
+    @BeforeEach
+    void setUp() {
+        underTest = new TransactionServiceImpl(transactionRepository, List.of(changeListener));
+    }
+
     @Test
     @DisplayName("Should save and return transaction when creating a new valid transaction")
     void createTransaction_shouldSaveAndReturnTransaction() {
@@ -65,6 +77,7 @@ class TransactionServiceImplTest {
         assertEquals(1, result.getStatusHistory().size(), "Status history should contain one entry.");
 
         verify(transactionRepository).save(inputTransaction);
+        verify(changeListener).transactionCreated(result);
     }
 
     @Test
@@ -109,4 +122,45 @@ class TransactionServiceImplTest {
         // Verify the repository method was still called
         verify(transactionRepository).findByIdAndOwnerId(nonExistentId, user);
     }
+
+    @Test
+    @DisplayName("Should authorize, complete and then reverse a transaction, recording each status")
+    void transitionTransaction_shouldFollowTheTransitionTable() {
+        // --- ARRANGE ---
+        UUID id = UUID.randomUUID();
+        Transaction transaction = new Transaction("test_user", UUID.randomUUID(), UUID.randomUUID(), new BigDecimal("80.00"), Currency.EUR);
+        transaction.setId(id);
+
+        when(transactionRepository.findById(id)).thenReturn(Optional.of(transaction));
+        when(transactionRepository.save(transaction)).thenReturn(transaction);
+
+        // --- ACT ---
+        underTest.transitionTransaction(id, TransactionTransition.AUTHORIZE, null);
+        underTest.completeTransaction(id);
+        Transaction result = underTest.transitionTransaction(id, TransactionTransition.REVERSE, "Chargeback");
+
+        // --- ASSERT ---
+        assertEquals(TransactionStatus.REVERSED, result.getCurrentStatus());
+        assertEquals(List.of(TransactionStatus.PENDING, TransactionStatus.AUTHORIZED, TransactionStatus.COMPLETED, TransactionStatus.REVERSED),
+                result.getStatusHistory().stream().map(entry -> entry.getStatus()).toList());
+        assertEquals("Chargeback", result.getStatusHistory().getLast().getReason());
+        verify(changeListener).statusChanged(transaction, TransactionStatus.COMPLETED, TransactionStatus.REVERSED);
+    }
+
+    @Test
+    @DisplayName("Should reject a transition that is not allowed from the current status without saving")
+    void transitionTransaction_shouldRejectDisallowedTransition() {
+        // --- ARRANGE ---
+        UUID id = UUID.randomUUID();
+        Transaction transaction = new Transaction("test_user", UUID.randomUUID(), UUID.randomUUID(), new BigDecimal("80.00"), Currency.EUR);
+        transaction.setId(id);
+
+        when(transactionRepository.findById(id)).thenReturn(Optional.of(transaction));
+
+        // --- ACT & ASSERT ---
+        assertThrows(InvalidTransactionStateException.class,
+                () -> underTest.transitionTransaction(id, TransactionTransition.REVERSE, null));
+        assertEquals(TransactionStatus.PENDING, transaction.getCurrentStatus());
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
 }
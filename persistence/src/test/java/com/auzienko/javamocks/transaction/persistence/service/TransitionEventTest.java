@@ -0,0 +1,148 @@
+package com.auzienko.javamocks.transaction.persistence.service;
+
+import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.domain.repository.TransactionRepository;
+import com.auzienko.javamocks.transaction.domain.service.TransactionService;
+import com.auzienko.javamocks.transaction.persistence.jfr.TransitionEvent;
+import com.auzienko.javamocks.transaction.persistence.memory.InMemoryTransactionManager;
+import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+
+@SpringBootTest
+@EnableAutoConfiguration(exclude = {
+        DataSourceAutoConfiguration.class,
+        HibernateJpaAutoConfiguration.class,
+        FlywayAutoConfiguration.class
+})
+@EnableRetry
+class TransitionEventTest {
+
+    private static final Duration COMMIT_TIME = Duration.ofMillis(50);
+
+    /**
+     * Commits take {@link #COMMIT_TIME}; the first {@code conflicts} of them fail the way a flush
+     * finding a concurrent update does.
+     */
+    static class CommitTimeConflicts extends InMemoryTransactionManager {
+
+        final AtomicInteger conflicts = new AtomicInteger();
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            try {
+                Thread.sleep(COMMIT_TIME);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (conflicts.getAndDecrement() > 0) {
+                throw new ObjectOptimisticLockingFailureException(Transaction.class, "stale");
+            }
+        }
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class TestConfig {
+        @Bean
+        TransactionService transactionService(TransactionRepository transactionRepository,
+                                              List<TransactionChangeListener> changeListeners) {
+            return new TransactionServiceImpl(transactionRepository, changeListeners);
+        }
+
+        @Bean
+        CommitTimeConflicts transactionManager() {
+            return new CommitTimeConflicts();
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        TransitionRetryMetrics transitionRetryMetrics(MeterRegistry meterRegistry) {
+            return new TransitionRetryMetrics(meterRegistry);
+        }
+    }
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private TransactionRepository transactionRepository;
+
+    @MockitoBean
+    private TransactionChangeListener changeListener;
+
+    @Test
+    @DisplayName("should record an attempt up to its commit, with the conflict found there as its outcome")
+    void shouldRecordAttemptsIncludingCommit(@TempDir Path directory) throws Exception {
+        UUID transactionId = UUID.randomUUID();
+        given(transactionRepository.findById(transactionId)).willAnswer(invocation -> Optional.of(pendingTransaction(transactionId)));
+        given(transactionRepository.save(any(Transaction.class))).willAnswer(invocation -> invocation.getArgument(0));
+        ((CommitTimeConflicts) transactionManager).conflicts.set(1);
+
+        Path file = directory.resolve("transitions.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(TransitionEvent.class).withThreshold(Duration.ZERO);
+            recording.start();
+            transactionService.completeTransaction(transactionId);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> attempts = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("com.auzienko.transaction.Transition"))
+                .toList();
+        assertThat(attempts)
+                .extracting(event -> event.getString("transactionId"), event -> event.getString("transition"),
+                        event -> event.getInt("retryCount"), event -> event.getString("outcome"))
+                .containsExactly(
+                        tuple(transactionId.toString(), "complete", 0, "ObjectOptimisticLockingFailureException"),
+                        tuple(transactionId.toString(), "complete", 1, "none"));
+        assertThat(attempts).allSatisfy(event -> assertThat(event.getDuration()).isGreaterThanOrEqualTo(COMMIT_TIME));
+    }
+
+    private static Transaction pendingTransaction(UUID id) {
+        Transaction transaction = new Transaction("test_user", UUID.randomUUID(), UUID.randomUUID(), new BigDecimal("100"), Currency.USD);
+        transaction.setId(id);
+        return transaction;
+    }
+}
@@ -0,0 +1,77 @@
+package com.auzienko.javamocks.transaction.persistence.simulation;
+
+import com.auzienko.javamocks.transaction.persistence.config.props.SimulationProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyDistributionTest {
+
+    private static final int SAMPLES = 100_000;
+
+    @Test
+    @DisplayName("should sample a log-normal latency with the configured median and p99")
+    void shouldMatchLogNormalPercentiles() {
+        SimulationProperties.Latency latency = new SimulationProperties.Latency();
+        latency.setType(SimulationProperties.LatencyType.LOG_NORMAL);
+        latency.setMedian(Duration.ofMillis(20));
+        latency.setP99(Duration.ofMillis(200));
+
+        long[] samples = sample(LatencyDistribution.of(latency));
+
+        assertThat(percentileMillis(samples, 0.50)).isCloseTo(20, within(1.0));
+        assertThat(percentileMillis(samples, 0.99)).isCloseTo(200, within(15.0));
+    }
+
+    @Test
+    @DisplayName("should interpolate between the percentiles of a table")
+    void shouldFollowPercentileTable() {
+        SimulationProperties.Latency latency = new SimulationProperties.Latency();
+        latency.setType(SimulationProperties.LatencyType.PERCENTILES);
+        latency.setPercentiles(new TreeMap<>(Map.of(
+                50.0, Duration.ofMillis(10),
+                90.0, Duration.ofMillis(50),
+                100.0, Duration.ofMillis(100))));
+
+        long[] samples = sample(LatencyDistribution.of(latency));
+
+        assertThat(percentileMillis(samples, 0.25)).isCloseTo(5, within(0.5));
+        assertThat(percentileMillis(samples, 0.70)).isCloseTo(30, within(1.0));
+        assertThat(percentileMillis(samples, 0.95)).isCloseTo(75, within(1.5));
+        assertThat(samples[samples.length - 1]).isLessThanOrEqualTo(Duration.ofMillis(100).toNanos());
+    }
+
+    @Test
+    @DisplayName("should reject a uniform latency whose max is below its min")
+    void shouldRejectInvertedUniformRange() {
+        SimulationProperties.Latency latency = new SimulationProperties.Latency();
+        latency.setType(SimulationProperties.LatencyType.UNIFORM);
+        latency.setMin(Duration.ofMillis(50));
+        latency.setMax(Duration.ofMillis(10));
+
+        assertThatThrownBy(() -> LatencyDistribution.of(latency)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static long[] sample(LatencyDistribution distribution) {
+        SplittableRandom random = new SplittableRandom(1);
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            samples[i] = distribution.sampleNanos(random);
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    private static double percentileMillis(long[] sorted, double quantile) {
+        return sorted[(int) (quantile * (sorted.length - 1))] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,182 @@
+package com.auzienko.javamocks.transaction.persistence.simulation;
+
+import com.auzienko.javamocks.transaction.domain.exception.InvalidTransactionStateException;
+import com.auzienko.javamocks.transaction.domain.exception.SimulatedFailureException;
+import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.domain.model.TransactionTransition;
+import com.auzienko.javamocks.transaction.persistence.config.props.SimulationProperties;
+import com.auzienko.javamocks.transaction.persistence.service.TransactionServiceImpl;
+import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SimulatedTransactionServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<SimulatedTransactionService> services = new ArrayList<>();
+    private TransactionServiceImpl delegate;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(TransactionServiceImpl.class);
+        when(delegate.createTransaction(any(Transaction.class))).thenAnswer(invocation -> {
+            Transaction transaction = invocation.getArgument(0);
+            transaction.setId(UUID.randomUUID());
+            return transaction;
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (SimulatedTransactionService service : services) {
+            service.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("should reject the same calls under the same seed and different ones under another seed")
+    void shouldBeReproducibleFromSeed() {
+        List<Transaction> calls = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            calls.add(newTransaction(new BigDecimal(100 + i), Currency.EUR));
+        }
+
+        List<Boolean> first = outcomes(service(7, rule(0.5)), calls);
+        List<Boolean> second = outcomes(service(7, rule(0.5)), calls);
+        List<Boolean> otherSeed = outcomes(service(8, rule(0.5)), calls);
+
+        assertThat(first).containsExactlyElementsOf(second);
+        assertThat(first).isNotEqualTo(otherSeed);
+        assertThat(first).contains(true, false);
+    }
+
+    @Test
+    @DisplayName("should leave transactions matching no rule alone and not change anything on a simulated error")
+    void shouldApplyOnlyMatchingRules() {
+        SimulationProperties.Rule usdOnly = rule(1.0);
+        usdOnly.setCurrencies(Set.of(Currency.USD));
+        usdOnly.setMinAmount(new BigDecimal("1000"));
+        SimulatedTransactionService underTest = service(1, usdOnly);
+        Transaction small = newTransaction(new BigDecimal("999.99"), Currency.USD);
+        Transaction euros = newTransaction(new BigDecimal("5000"), Currency.EUR);
+        Transaction large = newTransaction(new BigDecimal("5000"), Currency.USD);
+
+        assertThat(underTest.createTransaction(small).getId()).isNotNull();
+        assertThat(underTest.createTransaction(euros).getId()).isNotNull();
+        assertThatThrownBy(() -> underTest.createTransaction(large)).isInstanceOf(SimulatedFailureException.class);
+
+        verify(delegate, never()).createTransaction(large);
+        assertThat(meterRegistry.get("transaction.simulation.errors").tag("operation", "CREATE").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should draw again when a rejected call is retried")
+    void shouldLetRetriesSucceed() {
+        SimulatedTransactionService underTest = service(3, rule(0.5));
+        Transaction transaction = newTransaction(new BigDecimal("42.00"), Currency.EUR);
+
+        int attempts = 0;
+        Transaction created = null;
+        while (created == null && attempts < 30) {
+            attempts++;
+            try {
+                created = underTest.createTransaction(transaction);
+            } catch (SimulatedFailureException e) {
+                // retried below
+            }
+        }
+
+        assertThat(created).isNotNull();
+    }
+
+    @Test
+    @DisplayName("should settle a created transaction after its delay and skip it if it was settled already")
+    void shouldSettleAutomatically() {
+        SimulationProperties.Rule settling = rule(0);
+        SimulationProperties.Latency after = new SimulationProperties.Latency();
+        after.setValue(Duration.ofMillis(30));
+        settling.setSettleAfter(after);
+        SimulatedTransactionService underTest = service(5, settling);
+        when(delegate.transitionTransaction(any(UUID.class), eq(TransactionTransition.COMPLETE), isNull()))
+                .thenReturn(null)
+                .thenThrow(new InvalidTransactionStateException("Already completed"));
+
+        UUID first = underTest.createTransaction(newTransaction(new BigDecimal("10.00"), Currency.EUR)).getId();
+        UUID second = underTest.createTransaction(newTransaction(new BigDecimal("20.00"), Currency.EUR)).getId();
+
+        verify(delegate, timeout(2_000)).transitionTransaction(first, TransactionTransition.COMPLETE, null);
+        verify(delegate, timeout(2_000)).transitionTransaction(second, TransactionTransition.COMPLETE, null);
+        assertThat(meterRegistry.get("transaction.simulation.settlements").tag("result", "COMPLETED").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("transaction.simulation.settlements").tag("result", "SKIPPED").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should apply the rule of the loaded transaction to transition calls")
+    void shouldSimulateTransitions() {
+        SimulatedTransactionService underTest = service(1, rule(1.0));
+        UUID id = UUID.randomUUID();
+        when(delegate.findTransactionById(id)).thenReturn(Optional.of(newTransaction(BigDecimal.TEN, Currency.EUR)));
+
+        assertThatThrownBy(() -> underTest.completeTransaction(id)).isInstanceOf(SimulatedFailureException.class);
+        verify(delegate, never()).completeTransaction(id);
+    }
+
+    private List<Boolean> outcomes(SimulatedTransactionService service, List<Transaction> calls) {
+        List<Boolean> outcomes = new ArrayList<>();
+        for (Transaction call : calls) {
+            try {
+                service.createTransaction(call);
+                outcomes.add(true);
+            } catch (SimulatedFailureException e) {
+                outcomes.add(false);
+            }
+        }
+        return outcomes;
+    }
+
+    private SimulatedTransactionService service(long seed, SimulationProperties.Rule rule) {
+        SimulationProperties properties = new SimulationProperties();
+        properties.setSeed(seed);
+        properties.setTick(Duration.ofMillis(1));
+        properties.setRules(List.of(rule));
+        SimulatedTransactionService service = new SimulatedTransactionService(delegate, properties, meterRegistry);
+        services.add(service);
+        return service;
+    }
+
+    private static SimulationProperties.Rule rule(double errorRate) {
+        SimulationProperties.Rule rule = new SimulationProperties.Rule();
+        rule.setName("test");
+        rule.setErrorRate(errorRate);
+        return rule;
+    }
+
+    private static Transaction newTransaction(BigDecimal amount, Currency currency) {
+        return new Transaction("test_user", new UUID(1, 2), new UUID(3, 4), amount, currency);
+    }
+}
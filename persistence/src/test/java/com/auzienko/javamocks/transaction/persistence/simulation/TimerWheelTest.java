@@ -0,0 +1,63 @@
+package com.auzienko.javamocks.transaction.persistence.simulation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimerWheelTest {
+
+    private TimerWheel underTest;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        underTest.close();
+    }
+
+    @Test
+    @DisplayName("should run every task once its delay has passed, including delays spanning several rounds")
+    void shouldRunTasksAfterTheirDelay() throws Exception {
+        underTest = new TimerWheel("test-timer", Duration.ofMillis(1), 16, Runnable::run);
+        int tasks = 5_000;
+        CountDownLatch done = new CountDownLatch(tasks);
+        AtomicInteger early = new AtomicInteger();
+        SplittableRandom random = new SplittableRandom(7);
+
+        for (int i = 0; i < tasks; i++) {
+            long delayNanos = TimeUnit.MILLISECONDS.toNanos(random.nextInt(0, 100));
+            long scheduledAt = System.nanoTime();
+            underTest.schedule(delayNanos, () -> {
+                if (System.nanoTime() - scheduledAt < delayNanos) {
+                    early.incrementAndGet();
+                }
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(early).hasValue(0);
+        assertThat(underTest.pending()).isZero();
+    }
+
+    @Test
+    @DisplayName("should hold waiting tasks without running them")
+    void shouldCountPendingTasks() {
+        underTest = new TimerWheel("test-timer", Duration.ofMillis(10), 8, Runnable::run);
+
+        underTest.schedule(TimeUnit.MINUTES.toNanos(1), () -> {
+            throw new AssertionError("Ran too early");
+        });
+        underTest.schedule(TimeUnit.MINUTES.toNanos(2), () -> {
+            throw new AssertionError("Ran too early");
+        });
+
+        assertThat(underTest.pending()).isEqualTo(2);
+    }
+}
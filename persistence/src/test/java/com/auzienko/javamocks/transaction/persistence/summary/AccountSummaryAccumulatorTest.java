@@ -0,0 +1,134 @@
+package com.auzienko.javamocks.transaction.persistence.summary;
+
+import com.auzienko.javamocks.transaction.domain.model.AccountSummary;
+import com.auzienko.javamocks.transaction.domain.model.Transaction;
+import com.auzienko.javamocks.transaction.domain.model.TransferDirection;
+import com.auzienko.javamocks.transaction.persistence.config.props.AccountSummaryProperties;
+import com.auzienko.javamocks.transaction.persistence.memory.InMemoryTransactionManager;
+import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
+import com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountSummaryAccumulatorTest {
+
+    private final UUID source = UUID.randomUUID();
+    private final UUID destination = UUID.randomUUID();
+
+    private InMemoryAccountTotalsStore store;
+    private AccountSummaryAccumulator accumulator;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryAccountTotalsStore();
+        accumulator = new AccountSummaryAccumulator(store, new AccountSummaryProperties(), new InMemoryTransactionManager());
+    }
+
+    @Test
+    @DisplayName("it should count transactions under their current status, before and after a flush")
+    void shouldMaintainTotals() {
+        Transaction first = newTransaction("100.00");
+        Transaction second = newTransaction("40.00");
+        accumulator.transactionCreated(first);
+        accumulator.transactionCreated(second);
+        accumulator.flush();
+        accumulator.statusChanged(first, TransactionStatus.PENDING, TransactionStatus.COMPLETED);
+
+        AccountSummary outgoing = single(accumulator.getAccountSummaries(source));
+        assertThat(outgoing.getCurrency()).isEqualTo(Currency.EUR);
+        assertThat(outgoing.totals(TransferDirection.OUTGOING))
+                .containsEntry(TransactionStatus.PENDING, new AccountSummary.Totals(1, new BigDecimal("40.00")))
+                .containsEntry(TransactionStatus.COMPLETED, new AccountSummary.Totals(1, new BigDecimal("100.00")));
+        assertThat(outgoing.totals(TransferDirection.INCOMING)).isEmpty();
+
+        accumulator.flush();
+
+        assertThat(single(store.findByAccountId(destination)).totals(TransferDirection.INCOMING))
+                .containsEntry(TransactionStatus.PENDING, new AccountSummary.Totals(1, new BigDecimal("40.00")))
+                .containsEntry(TransactionStatus.COMPLETED, new AccountSummary.Totals(1, new BigDecimal("100.00")));
+    }
+
+    @Test
+    @DisplayName("it should keep changes that failed to flush for the next attempt")
+    void shouldKeepChangesWhenFlushFails() {
+        FailingOnceStore failingStore = new FailingOnceStore();
+        accumulator = new AccountSummaryAccumulator(failingStore, new AccountSummaryProperties(), new InMemoryTransactionManager());
+        accumulator.transactionCreated(newTransaction("10.00"));
+
+        accumulator.flush();
+        assertThat(failingStore.findByAccountId(source)).isEmpty();
+        assertThat(single(accumulator.getAccountSummaries(source)).totals(TransferDirection.OUTGOING))
+                .containsEntry(TransactionStatus.PENDING, new AccountSummary.Totals(1, new BigDecimal("10.00")));
+
+        accumulator.flush();
+        assertThat(single(failingStore.findByAccountId(source)).totals(TransferDirection.OUTGOING))
+                .containsEntry(TransactionStatus.PENDING, new AccountSummary.Totals(1, new BigDecimal("10.00")));
+    }
+
+    @Test
+    @DisplayName("it should serve reads while a flush writes, counting the changes being written once")
+    void shouldReadDuringWrite() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        InMemoryAccountTotalsStore blockingStore = new InMemoryAccountTotalsStore() {
+            @Override
+            public void addAll(Collection<AccountSummary> deltas) {
+                writing.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.addAll(deltas);
+            }
+        };
+        accumulator = new AccountSummaryAccumulator(blockingStore, new AccountSummaryProperties(), new InMemoryTransactionManager());
+        accumulator.transactionCreated(newTransaction("10.00"));
+
+        Thread flush = Thread.ofVirtual().start(accumulator::flush);
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        accumulator.transactionCreated(newTransaction("5.00"));
+        AccountSummary duringWrite = single(accumulator.getAccountSummaries(source));
+        release.countDown();
+        flush.join();
+
+        AccountSummary.Totals expected = new AccountSummary.Totals(2, new BigDecimal("15.00"));
+        assertThat(duringWrite.totals(TransferDirection.OUTGOING)).containsEntry(TransactionStatus.PENDING, expected);
+        assertThat(single(accumulator.getAccountSummaries(source)).totals(TransferDirection.OUTGOING))
+                .containsEntry(TransactionStatus.PENDING, expected);
+    }
+
+    private Transaction newTransaction(String amount) {
+        Transaction transaction = new Transaction("test_user", source, destination, new BigDecimal(amount), Currency.EUR);
+        transaction.setId(UUID.randomUUID());
+        return transaction;
+    }
+
+    private static AccountSummary single(List<AccountSummary> summaries) {
+        assertThat(summaries).hasSize(1);
+        return summaries.getFirst();
+    }
+
+    private static class FailingOnceStore extends InMemoryAccountTotalsStore {
+        private boolean failed;
+
+        @Override
+        public void addAll(Collection<AccountSummary> deltas) {
+            if (!failed) {
+                failed = true;
+                throw new IllegalStateException("database unavailable");
+            }
+            super.addAll(deltas);
+        }
+    }
+}
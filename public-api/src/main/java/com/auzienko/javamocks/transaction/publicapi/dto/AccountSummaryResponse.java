@@ -0,0 +1,23 @@
+package com.auzienko.javamocks.transaction.publicapi.dto;
+
+import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
+import com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+public class AccountSummaryResponse {
+    private UUID accountId;
+    private Currency currency;
+    private Map<TransactionStatus, Totals> outgoing;
+    private Map<TransactionStatus, Totals> incoming;
+
+    @Data
+    public static class Totals {
+        private long count;
+        private BigDecimal amount;
+    }
+}
@@ -0,0 +1,10 @@
+package com.auzienko.javamocks.transaction.publicapi.dto;
+
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class ChangeTransactionStatusRequest {
+    @Size(max = 255, message = "Reason must be less than 255 characters")
+    private String reason;
+}
@@ -0,0 +1,24 @@
+package com.auzienko.javamocks.transaction.publicapi.dto;
+
+import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
+import com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One line of a transaction export.
+ */
+@Data
+public class TransactionExportRecord {
+    private UUID id;
+    private String ownerId;
+    private UUID sourceAccountId;
+    private UUID destinationAccountId;
+    private BigDecimal amount;
+    private Currency currency;
+    private TransactionStatus status;
+    private Instant createdAt;
+}
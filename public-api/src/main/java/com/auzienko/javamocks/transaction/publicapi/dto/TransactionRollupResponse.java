@@ -0,0 +1,20 @@
+package com.auzienko.javamocks.transaction.publicapi.dto;
+
+import com.auzienko.javamocks.transaction.publicapi.enums.Currency;
+import com.auzienko.javamocks.transaction.publicapi.enums.TransactionStatus;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Transactions that entered {@code status} in the bucket starting at {@code bucketStart}.
+ */
+@Data
+public class TransactionRollupResponse {
+    private Instant bucketStart;
+    private Currency currency;
+    private TransactionStatus status;
+    private long count;
+    private BigDecimal amount;
+}
@@ -2,6 +2,10 @@ package com.auzienko.javamocks.transaction.publicapi.enums;
 
 public enum TransactionStatus {
     PENDING,
+    AUTHORIZED,
     COMPLETED,
-    FAILED
+    FAILED,
+    CANCELLED,
+    REVERSED,
+    EXPIRED
 }
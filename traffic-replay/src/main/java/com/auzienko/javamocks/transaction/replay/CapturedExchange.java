@@ -0,0 +1,29 @@
+package com.auzienko.javamocks.transaction.replay;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.Map;
+
+/**
+ * One line of a capture file written by the service's {@code TrafficCaptureWriter}.
+ *
+ * @param offsetMicros  When the request arrived, relative to the start of the capture.
+ * @param uri           Path and query string.
+ * @param bodyTruncated The request body was too large to be captured; such exchanges are not replayed.
+ * @param status        Status the service answered with when the exchange was captured.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+record CapturedExchange(long offsetMicros,
+                        String method,
+                        String uri,
+                        Map<String, String> headers,
+                        String body,
+                        boolean bodyTruncated,
+                        int status,
+                        String responseBody,
+                        long durationMicros) {
+
+    CapturedExchange {
+        headers = headers != null ? headers : Map.of();
+    }
+}
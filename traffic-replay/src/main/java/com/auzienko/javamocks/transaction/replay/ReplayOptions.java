@@ -0,0 +1,69 @@
+package com.auzienko.javamocks.transaction.replay;
+
+import java.net.URI;
+import java.nio.file.Path;
+
+/**
+ * @param speedup              Replay this many times faster than captured; 0 sends as fast as the concurrency allows.
+ * @param concurrency          Most requests in flight at once.
+ * @param apiKey               Sent as {@code X-API-KEY}, which is never captured; {@code null} to send none.
+ * @param freshIdempotencyKeys Replace each captured idempotency key by a new one, the same for every
+ *                             exchange that shared it, so a replay against the same database is not
+ *                             answered from the idempotency cache.
+ * @param percentilesOut       Where to write the full response time distribution; {@code null} for none.
+ */
+record ReplayOptions(Path file,
+                     URI target,
+                     double speedup,
+                     int concurrency,
+                     String apiKey,
+                     boolean freshIdempotencyKeys,
+                     Path percentilesOut) {
+
+    static final String USAGE = """
+            Usage: java -jar traffic-replay.jar --file <capture.ndjson> [options]
+              --target <url>            Service to replay against (default http://localhost:8080)
+              --speedup <factor>        Replay this many times faster than captured; 0 = no pacing (default 1)
+              --concurrency <n>         Most requests in flight (default 32)
+              --api-key <key>           Sent as X-API-KEY
+              --keep-idempotency-keys   Send the captured idempotency keys unchanged
+              --percentiles-out <file>  Write the response time distribution (HdrHistogram format)
+            """;
+
+    static ReplayOptions parse(String[] args) {
+        Path file = null;
+        URI target = URI.create("http://localhost:8080");
+        double speedup = 1;
+        int concurrency = 32;
+        String apiKey = null;
+        boolean freshIdempotencyKeys = true;
+        Path percentilesOut = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--file" -> file = Path.of(value(args, ++i));
+                case "--target" -> target = URI.create(value(args, ++i));
+                case "--speedup" -> speedup = Double.parseDouble(value(args, ++i));
+                case "--concurrency" -> concurrency = Integer.parseInt(value(args, ++i));
+                case "--api-key" -> apiKey = value(args, ++i);
+                case "--keep-idempotency-keys" -> freshIdempotencyKeys = false;
+                case "--percentiles-out" -> percentilesOut = Path.of(value(args, ++i));
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        if (file == null) {
+            throw new IllegalArgumentException("--file is required");
+        }
+        if (speedup < 0 || concurrency < 1) {
+            throw new IllegalArgumentException("--speedup must not be negative and --concurrency must be at least 1");
+        }
+        return new ReplayOptions(file, target, speedup, concurrency, apiKey, freshIdempotencyKeys, percentilesOut);
+    }
+
+    private static String value(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException(args[index - 1] + " needs a value");
+        }
+        return args[index];
+    }
+}
@@ -0,0 +1,102 @@
+package com.auzienko.javamocks.transaction.replay;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latencies and outcomes of a replay per endpoint, recorded from many threads without locking.
+ * Latencies are kept in microseconds with three significant digits.
+ */
+final class ReplayReport {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private final Histogram responseTimes = histogram();
+    private long elapsedNanos;
+
+    void record(String endpoint, int capturedStatus, int status, long serviceNanos, long responseNanos) {
+        EndpointStats stats = stats(endpoint);
+        stats.serviceTimes.recordValue(micros(serviceNanos));
+        responseTimes.recordValue(micros(responseNanos));
+        if (status != capturedStatus) {
+            stats.statusMismatches.incrementAndGet();
+        }
+    }
+
+    void failed(String endpoint) {
+        stats(endpoint).failures.incrementAndGet();
+    }
+
+    void skipped(String endpoint) {
+        stats(endpoint).skipped.incrementAndGet();
+    }
+
+    void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    Map<String, EndpointStats> endpoints() {
+        return endpoints;
+    }
+
+    Histogram responseTimes() {
+        return responseTimes;
+    }
+
+    void print(PrintStream out) {
+        double seconds = elapsedNanos / 1e9;
+        out.printf("%nService time per endpoint (ms):%n");
+        out.printf("%-55s %8s %8s %8s %8s %8s %8s %9s %7s %7s%n",
+                "endpoint", "count", "p50", "p90", "p99", "p99.9", "max", "mismatch", "failed", "skipped");
+        new TreeMap<>(endpoints).forEach((endpoint, stats) -> {
+            Histogram times = stats.serviceTimes;
+            out.printf("%-55s %8d %8.2f %8.2f %8.2f %8.2f %8.2f %9d %7d %7d%n",
+                    endpoint, times.getTotalCount(),
+                    millis(times, 50), millis(times, 90), millis(times, 99), millis(times, 99.9),
+                    times.getMaxValue() / MICROS_PER_MILLI,
+                    stats.statusMismatches.get(), stats.failures.get(), stats.skipped.get());
+        });
+        out.printf("%nResponse time from when each request was due (ms): p50 %.2f, p90 %.2f, p99 %.2f, p99.9 %.2f, max %.2f%n",
+                millis(responseTimes, 50), millis(responseTimes, 90), millis(responseTimes, 99),
+                millis(responseTimes, 99.9), responseTimes.getMaxValue() / MICROS_PER_MILLI);
+        out.printf("%d responses in %.1f s (%.1f/s)%n", responseTimes.getTotalCount(), seconds,
+                seconds > 0 ? responseTimes.getTotalCount() / seconds : 0);
+    }
+
+    void printResponseTimeDistribution(PrintStream out) {
+        responseTimes.outputPercentileDistribution(out, MICROS_PER_MILLI);
+    }
+
+    private EndpointStats stats(String endpoint) {
+        return endpoints.computeIfAbsent(endpoint, e -> new EndpointStats());
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    private static long micros(long nanos) {
+        return Math.min(HIGHEST_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+    private static Histogram histogram() {
+        return new ConcurrentHistogram(HIGHEST_MICROS, 3);
+    }
+
+    static final class EndpointStats {
+
+        final Histogram serviceTimes = histogram();
+        final AtomicLong statusMismatches = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        final AtomicLong skipped = new AtomicLong();
+    }
+}
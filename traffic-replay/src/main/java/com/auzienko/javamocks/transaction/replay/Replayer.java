@@ -0,0 +1,225 @@
+package com.auzienko.javamocks.transaction.replay;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Sends captured exchanges at their captured offsets divided by the speedup, at most
+ * {@code concurrency} at a time, each on its own virtual thread.
+ * <p>
+ * The replayed service assigns new ids, so a transaction created during the capture has another
+ * id in the replay. Each captured create's id is mapped to the id the replayed create returned,
+ * and later requests naming it wait for that create and use the new id instead.
+ * <p>
+ * Response times are measured from when a request was due, not when it could be sent, so a
+ * service that falls behind shows up in the percentiles instead of slowing the replay down.
+ * <p>
+ * Exchanges whose request body was too large to be captured are counted as skipped instead of
+ * being sent without it, and so are the requests depending on them.
+ */
+final class Replayer {
+
+    private static final Pattern UUID_PATTERN =
+            Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    /**
+     * Set by {@link HttpClient} itself; sending them is rejected.
+     */
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+    private static final long DEPENDENCY_TIMEOUT_SECONDS = 30;
+
+    private final ReplayOptions options;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, CompletableFuture<String>> replayedIds = new HashMap<>();
+    private final Map<String, String> idempotencyKeys = new ConcurrentHashMap<>();
+
+    Replayer(ReplayOptions options, HttpClient client) {
+        this.options = options;
+        this.client = client;
+    }
+
+    ReplayReport replay(List<CapturedExchange> exchanges) throws InterruptedException {
+        // Registered up front, so a request never misses the create it depends on.
+        for (CapturedExchange exchange : exchanges) {
+            String capturedId = createdId(exchange);
+            if (capturedId != null) {
+                replayedIds.put(capturedId, new CompletableFuture<>());
+            }
+        }
+
+        ReplayReport report = new ReplayReport();
+        Semaphore permits = new Semaphore(options.concurrency());
+        CountDownLatch finished = new CountDownLatch(exchanges.size());
+        long startNanos = System.nanoTime();
+
+        for (CapturedExchange exchange : exchanges) {
+            long dueNanos = startNanos;
+            if (options.speedup() > 0) {
+                dueNanos += (long) (TimeUnit.MICROSECONDS.toNanos(exchange.offsetMicros()) / options.speedup());
+                long wait;
+                while ((wait = dueNanos - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            permits.acquire();
+            long due = options.speedup() > 0 ? dueNanos : System.nanoTime();
+            Thread.ofVirtual().start(() -> {
+                try {
+                    send(exchange, due, report);
+                } finally {
+                    permits.release();
+                    finished.countDown();
+                }
+            });
+        }
+        finished.await();
+        report.finish(System.nanoTime() - startNanos);
+        return report;
+    }
+
+    private void send(CapturedExchange exchange, long dueNanos, ReplayReport report) {
+        String endpoint = endpoint(exchange);
+        String capturedId = createdId(exchange);
+        String replayedId = null;
+        try {
+            if (exchange.bodyTruncated()) {
+                report.skipped(endpoint);
+                return;
+            }
+            URI uri = options.target().resolve(replaceIds(exchange.uri()));
+            HttpRequest request = request(exchange, uri);
+            long sentNanos = System.nanoTime();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            long doneNanos = System.nanoTime();
+            report.record(endpoint, exchange.status(), response.statusCode(), doneNanos - sentNanos, doneNanos - dueNanos);
+            if (capturedId != null) {
+                replayedId = id(response.body());
+            }
+        } catch (MissingDependencyException e) {
+            report.skipped(endpoint);
+        } catch (IOException e) {
+            report.failed(endpoint);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            report.failed(endpoint);
+        } finally {
+            if (capturedId != null) {
+                replayedIds.get(capturedId).complete(replayedId);
+            }
+        }
+    }
+
+    private HttpRequest request(CapturedExchange exchange, URI uri) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .method(exchange.method(), exchange.body() != null
+                        ? HttpRequest.BodyPublishers.ofString(exchange.body())
+                        : HttpRequest.BodyPublishers.noBody());
+        exchange.headers().forEach((name, value) -> {
+            if (RESTRICTED_HEADERS.contains(name.toLowerCase())) {
+                return;
+            }
+            if (options.freshIdempotencyKeys() && IDEMPOTENCY_KEY.equalsIgnoreCase(name)) {
+                value = idempotencyKeys.computeIfAbsent(value, key -> UUID.randomUUID().toString());
+            }
+            request.header(name, value);
+        });
+        if (options.apiKey() != null) {
+            request.header("X-API-KEY", options.apiKey());
+        }
+        return request.build();
+    }
+
+    /**
+     * Replaces the captured ids of transactions created during the capture by their replayed ids.
+     */
+    private String replaceIds(String uri) throws InterruptedException {
+        Matcher matcher = UUID_PATTERN.matcher(uri);
+        StringBuilder replaced = new StringBuilder();
+        while (matcher.find()) {
+            CompletableFuture<String> replayedId = replayedIds.get(matcher.group());
+            String id = matcher.group();
+            if (replayedId != null) {
+                try {
+                    id = replayedId.get(DEPENDENCY_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                } catch (ExecutionException | TimeoutException e) {
+                    id = null;
+                }
+                if (id == null) {
+                    throw new MissingDependencyException();
+                }
+            }
+            matcher.appendReplacement(replaced, id);
+        }
+        matcher.appendTail(replaced);
+        return replaced.toString();
+    }
+
+    /**
+     * The id of the transaction a captured exchange created, if it is a successful create.
+     */
+    private String createdId(CapturedExchange exchange) {
+        if (!"POST".equals(exchange.method()) || exchange.status() != 201) {
+            return null;
+        }
+        return id(exchange.responseBody());
+    }
+
+    private String id(String body) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            JsonNode id = objectMapper.readTree(body).get("id");
+            return id != null && id.isTextual() ? id.asText() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Method and path with ids and query left out, e.g. {@code POST /api/v1/internal/transactions/{id}/complete}.
+     */
+    static String endpoint(CapturedExchange exchange) {
+        String path = exchange.uri();
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        return exchange.method() + " " + UUID_PATTERN.matcher(path).replaceAll("{id}");
+    }
+
+    /**
+     * The create a request depends on failed or was not replayed in time.
+     */
+    private static final class MissingDependencyException extends RuntimeException {
+
+        private MissingDependencyException() {
+            super(null, null, false, false);
+        }
+    }
+}
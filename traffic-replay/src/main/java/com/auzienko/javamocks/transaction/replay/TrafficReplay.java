@@ -0,0 +1,75 @@
+package com.auzienko.javamocks.transaction.replay;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+/**
+ * Drives traffic captured by the service's request logging filter back against a running
+ * service, keeping the captured pacing (optionally sped up), and prints the latency
+ * distribution per endpoint.
+ */
+public final class TrafficReplay {
+
+    private TrafficReplay() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ReplayOptions options;
+        try {
+            options = ReplayOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(ReplayOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        List<CapturedExchange> exchanges = read(options.file());
+        System.out.printf("Replaying %d exchanges from %s against %s (speedup %s, concurrency %d)%n",
+                exchanges.size(), options.file(), options.target(),
+                options.speedup() == 0 ? "none" : options.speedup(), options.concurrency());
+
+        try (HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build()) {
+            ReplayReport report = new Replayer(options, client).replay(exchanges);
+            report.print(System.out);
+            if (options.percentilesOut() != null) {
+                try (PrintStream out = new PrintStream(Files.newOutputStream(options.percentilesOut()))) {
+                    report.printResponseTimeDistribution(out);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads a capture file. Lines are written as exchanges complete, so they are put back in arrival order.
+     */
+    static List<CapturedExchange> read(Path file) throws IOException {
+        ObjectReader reader = new ObjectMapper().readerFor(CapturedExchange.class);
+        List<CapturedExchange> exchanges = new ArrayList<>();
+        try (BufferedReader lines = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                if (!line.isBlank()) {
+                    exchanges.add(reader.readValue(line));
+                }
+            }
+        }
+        exchanges.sort(Comparator.comparingLong(CapturedExchange::offsetMicros));
+        return exchanges;
+    }
+}
@@ -0,0 +1,135 @@
+package com.auzienko.javamocks.transaction.replay;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplayerTest {
+
+    private static final String CAPTURED_ID = "0197a000-0000-7000-8000-000000000001";
+
+    private final Set<String> created = ConcurrentHashMap.newKeySet();
+    private final List<String> idempotencyKeys = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/v1/transactions", this::create);
+        server.createContext("/api/v1/internal/transactions/", this::complete);
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("should send later requests to the transaction the replayed create returned")
+    void shouldMapCreatedIds() throws Exception {
+        List<CapturedExchange> capture = List.of(
+                new CapturedExchange(0, "POST", "/api/v1/transactions",
+                        Map.of("Content-Type", "application/json", "Idempotency-Key", "key-1"),
+                        "{\"amount\":10}", false, 201, "{\"id\":\"" + CAPTURED_ID + "\"}", 1_000),
+                new CapturedExchange(2_000, "POST", "/api/v1/internal/transactions/" + CAPTURED_ID + "/complete",
+                        Map.of(), null, false, 200, null, 1_000),
+                new CapturedExchange(3_000, "POST", "/api/v1/transactions",
+                        Map.of("Content-Type", "application/json", "Idempotency-Key", "key-1"),
+                        "{\"amount\":10}", false, 201, "{\"id\":\"" + CAPTURED_ID + "\"}", 1_000));
+
+        ReplayReport report = new Replayer(options(10), client).replay(capture);
+
+        ReplayReport.EndpointStats completes = report.endpoints().get("POST /api/v1/internal/transactions/{id}/complete");
+        assertThat(completes.serviceTimes.getTotalCount()).isEqualTo(1);
+        assertThat(completes.statusMismatches).hasValue(0);
+        assertThat(completes.skipped).hasValue(0);
+        assertThat(report.responseTimes().getTotalCount()).isEqualTo(3);
+        assertThat(idempotencyKeys).hasSize(2).doesNotContain("key-1");
+        assertThat(idempotencyKeys.get(0)).isEqualTo(idempotencyKeys.get(1));
+    }
+
+    @Test
+    @DisplayName("should count status changes against the capture and skip requests whose create failed")
+    void shouldReportMismatchesAndSkips() throws Exception {
+        List<CapturedExchange> capture = List.of(
+                new CapturedExchange(0, "POST", "/api/v1/transactions", Map.of(),
+                        "{\"amount\":-1}", false, 201, "{\"id\":\"" + CAPTURED_ID + "\"}", 1_000),
+                new CapturedExchange(1_000, "POST", "/api/v1/internal/transactions/" + CAPTURED_ID + "/complete",
+                        Map.of(), null, false, 200, null, 1_000));
+
+        ReplayReport report = new Replayer(options(0), client).replay(capture);
+
+        assertThat(report.endpoints().get("POST /api/v1/transactions").statusMismatches).hasValue(1);
+        assertThat(report.endpoints().get("POST /api/v1/internal/transactions/{id}/complete").skipped).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("should skip exchanges whose request body was too large to capture, and the requests depending on them")
+    void shouldSkipTruncatedExchanges() throws Exception {
+        List<CapturedExchange> capture = List.of(
+                new CapturedExchange(0, "POST", "/api/v1/transactions", Map.of(),
+                        null, true, 201, "{\"id\":\"" + CAPTURED_ID + "\"}", 1_000),
+                new CapturedExchange(1_000, "POST", "/api/v1/internal/transactions/" + CAPTURED_ID + "/complete",
+                        Map.of(), null, false, 200, null, 1_000));
+
+        ReplayReport report = new Replayer(options(0), client).replay(capture);
+
+        assertThat(report.endpoints().get("POST /api/v1/transactions").skipped).hasValue(1);
+        assertThat(report.endpoints().get("POST /api/v1/internal/transactions/{id}/complete").skipped).hasValue(1);
+        assertThat(report.responseTimes().getTotalCount()).isZero();
+        assertThat(created).isEmpty();
+    }
+
+    private ReplayOptions options(double speedup) {
+        URI target = URI.create("http://localhost:" + server.getAddress().getPort());
+        return new ReplayOptions(null, target, speedup, 4, "secret", true, null);
+    }
+
+    private void create(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        String key = exchange.getRequestHeaders().getFirst("Idempotency-Key");
+        if (key != null) {
+            idempotencyKeys.add(key);
+        }
+        if (body.contains("-1") || !"secret".equals(exchange.getRequestHeaders().getFirst("X-API-KEY"))) {
+            respond(exchange, 400, "{}");
+            return;
+        }
+        String id = UUID.randomUUID().toString();
+        created.add(id);
+        respond(exchange, 201, "{\"id\":\"" + id + "\"}");
+    }
+
+    private void complete(HttpExchange exchange) throws IOException {
+        String id = exchange.getRequestURI().getPath().split("/")[5];
+        respond(exchange, created.contains(id) ? 200 : 404, "{}");
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}